@@ -15,6 +15,7 @@ public enum EventBusType {
     // ---------------- LOCAL Event Bus ----------------
     GUAVA("guava", true,true),
     SPRING("spring", true,true),
+    RING("ring", true,true),
     // ---------------- Remote Event Bus ----------------
     REDIS("redis", false,true),
     RABBITMQ("rabbitmq", false,true),
@@ -0,0 +1,58 @@
+package com.shinyi.eventbus;
+
+/**
+ * 事件总线写入消息头的元数据名称，支持消息头的驱动随消息传递，消费端无需反序列化消息体即可读取。
+ * 业务自定义消息头（如链路追踪 traceparent）通过 {@link EventModel#putHeader(String, String)} 原样传递。
+ *
+ * @author MSGA
+ */
+public final class EventHeaders {
+
+    private EventHeaders() {
+        throw new UnsupportedOperationException("Construct EventHeaders");
+    }
+
+    public static final String PREFIX = "eventbus-";
+
+    /**
+     * 事件编码
+     */
+    public static final String EVENT_ID = PREFIX + "event-id";
+
+    /**
+     * 事件分组
+     */
+    public static final String GROUP = PREFIX + "group";
+
+    /**
+     * 序列化类型
+     */
+    public static final String SERIALIZE_TYPE = PREFIX + "serialize-type";
+
+    /**
+     * 消息体内容类型，消费端据此选择编解码器
+     */
+    public static final String CONTENT_TYPE = PREFIX + "content-type";
+
+    /**
+     * 消息体压缩算法，未压缩时不写入
+     */
+    public static final String CONTENT_ENCODING = PREFIX + "content-encoding";
+
+    /**
+     * 分区 / 顺序键
+     */
+    public static final String PARTITION_KEY = PREFIX + "partition-key";
+
+    /**
+     * 发布线程 MDC 中的 traceId，消费端处理时恢复到 MDC
+     */
+    public static final String TRACE_ID = PREFIX + "trace-id";
+
+    /**
+     * 是否为事件总线内部元数据头
+     */
+    public static boolean isReserved(String name) {
+        return name != null && name.startsWith(PREFIX);
+    }
+}
@@ -1,6 +1,9 @@
 package com.shinyi.eventbus;
 
 
+import com.shinyi.eventbus.serialize.EntityTypeDescriptor;
+import com.shinyi.eventbus.support.HeaderFilter;
+
 import java.util.Collection;
 import java.util.List;
 
@@ -64,8 +67,27 @@ public interface EventListener<T> extends java.util.EventListener {
      */
     Class<?> entityType();
 
+    /**
+     * 已解析的实体类型描述，反序列化时使用，默认按 {@link #entityType()} 从缓存获取
+     */
+    default EntityTypeDescriptor entityTypeDescriptor() {
+        return EntityTypeDescriptor.of(entityType());
+    }
+
     default String offset() { return ""; }
 
+    /**
+     * 消息头过滤表达式，驱动在反序列化消息体之前按消息头丢弃不匹配的消息，为空不过滤
+     */
+    default String filter() { return ""; }
+
+    /**
+     * 已编译的消息头过滤器，默认按 {@link #filter()} 从缓存获取
+     */
+    default HeaderFilter headerFilter() {
+        return HeaderFilter.compile(filter());
+    }
+
     // -------------- RocketMQ
 
     /**
@@ -100,5 +122,24 @@ public interface EventListener<T> extends java.util.EventListener {
      */
     default boolean autoDelete() { return false; }
 
+    // -------------- 本地异步分发隔离
+
+    /**
+     * 最大并行度，大于 0 时使用独立的隔离队列分发，0 表示直接使用共享线程池
+     */
+    default int concurrency() { return 0; }
+    /**
+     * 隔离队列容量
+     */
+    default int queueSize() { return 1000; }
+    /**
+     * 指定执行器 Bean 名称，为空使用共享线程池
+     */
+    default String executor() { return ""; }
+    /**
+     * 隔离队列写满时的处理策略
+     */
+    default OverflowPolicy overflowPolicy() { return OverflowPolicy.BLOCK; }
+
 
 }
\ No newline at end of file
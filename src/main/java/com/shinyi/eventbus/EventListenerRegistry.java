@@ -1,5 +1,7 @@
 package com.shinyi.eventbus;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -25,4 +27,26 @@ public interface EventListenerRegistry <T> extends AutoCloseable {
      * @param t 消息模型
      */
     void publish(T t);
+
+    /**
+     * 批量发布消息，方法返回时每条消息都已有发布结果。
+     *   默认逐条调用 {@link #publish(Object)}，驱动可按各自协议覆盖为批量发送
+     *
+     * @param events 消息模型集合
+     * @return 每条消息的发布结果，顺序与入参一致
+     */
+    default List<EventResult> publishBatch(Collection<T> events) {
+        List<EventResult> results = new ArrayList<>(events.size());
+        for (T event : events) {
+            EventResult eventResult = new EventResult();
+            try {
+                publish(event);
+                eventResult.setSuccess(true);
+            } catch (Exception e) {
+                eventResult.setCause(e);
+            }
+            results.add(eventResult);
+        }
+        return results;
+    }
 }
@@ -4,6 +4,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * 事件模型, feature: 考虑支持异步响应对象
@@ -42,6 +44,18 @@ public class EventModel<T> implements Serializable {
     @JsonIgnore
     protected transient String tags;
 
+    /**
+     * 分区 / 顺序键：相同键的事件进入同一分区并保持顺序，为空时由驱动自行选择分区
+     */
+    @JsonIgnore
+    protected transient String partitionKey;
+
+    /**
+     * 消息头，支持消息头的驱动（如 Kafka）随消息传递，消费端可不反序列化消息体直接读取
+     */
+    @JsonIgnore
+    protected transient Map<String, String> headers;
+
     /**
      * 使用的消息驱动类型
      */
@@ -65,7 +79,7 @@ public class EventModel<T> implements Serializable {
     protected transient byte[] rawData;
 
     /**
-     * 序列化类型: 默认是将 EventModel 序列化成JSON字符串，JSON 是将entity内容序列化成字符串，RAW 则是将直接entity内容转为字符串
+     * 序列化类型: 默认是将 EventModel 序列化成JSON字符串，JSON 是将entity内容序列化成字符串，RAW 则是将直接entity内容转为字符串，SMILE / CBOR 等使用已注册的编解码器
      */
     @JsonIgnore
     protected transient String serializeType;
@@ -117,4 +131,23 @@ public class EventModel<T> implements Serializable {
         eventModel.serializeType = serializeType;
         return eventModel;
     }
+
+    /**
+     * 添加消息头
+     * @return 当前事件模型
+     */
+    public EventModel<T> putHeader(String name, String value) {
+        if (headers == null) {
+            headers = new LinkedHashMap<>();
+        }
+        headers.put(name, value);
+        return this;
+    }
+
+    /**
+     * 读取消息头，不存在时返回 null
+     */
+    public String getHeader(String name) {
+        return headers == null ? null : headers.get(name);
+    }
 }
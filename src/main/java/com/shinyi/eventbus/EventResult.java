@@ -13,4 +13,12 @@ public class EventResult {
      * MQ Result 源对象
      */
     private Object sourceResult;
+    /**
+     * 是否发布成功，批量发布时用于区分单条事件结果
+     */
+    private boolean success;
+    /**
+     * 发布失败原因
+     */
+    private Throwable cause;
 }
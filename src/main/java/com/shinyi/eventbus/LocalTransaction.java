@@ -0,0 +1,16 @@
+package com.shinyi.eventbus;
+
+/**
+ * 本地事务，在事务消息（半消息）发送成功后执行
+ * @author MSGA
+ */
+@FunctionalInterface
+public interface LocalTransaction {
+
+    /**
+     * 执行本地事务
+     * @return COMMIT 投递消息，ROLLBACK 丢弃消息，UNKNOWN 由 {@link TransactionChecker} 回查决定；
+     *         抛出异常时按 UNKNOWN 处理
+     */
+    TransactionState execute() throws Exception;
+}
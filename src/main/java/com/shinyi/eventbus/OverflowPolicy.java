@@ -0,0 +1,26 @@
+package com.shinyi.eventbus;
+
+/**
+ * 监听器隔离队列写满时的处理策略
+ *
+ * @author MSGA
+ */
+public enum OverflowPolicy {
+
+    /**
+     * 阻塞提交线程直到队列有空位
+     */
+    BLOCK,
+    /**
+     * 丢弃队列中最早的事件后入队
+     */
+    DROP_OLDEST,
+    /**
+     * 拒绝并抛出 EVENTBUS_QUEUE_ERROR
+     */
+    REJECT,
+    /**
+     * 由提交线程直接执行
+     */
+    CALLER_RUNS
+}
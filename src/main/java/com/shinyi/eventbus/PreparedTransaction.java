@@ -0,0 +1,23 @@
+package com.shinyi.eventbus;
+
+/**
+ * 已发送、等待本地事务结果的事务消息
+ * @author MSGA
+ */
+public interface PreparedTransaction {
+
+    /**
+     * 事务消息的发送结果，提交后 success 为 true
+     */
+    EventResult getResult();
+
+    /**
+     * 提交，消息对消费者可见
+     */
+    void commit();
+
+    /**
+     * 回滚，丢弃消息
+     */
+    void rollback();
+}
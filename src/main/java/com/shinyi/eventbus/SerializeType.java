@@ -10,7 +10,15 @@ public enum SerializeType {
     DEFAULT("DEFAULT"),
     BASIC("BASIC"),
     JSON("JSON"),
-    MSG("MSG");
+    MSG("MSG"),
+    /**
+     * Jackson Smile 二进制格式，需引入 jackson-dataformat-smile
+     */
+    SMILE("SMILE"),
+    /**
+     * CBOR 二进制格式，需引入 jackson-dataformat-cbor
+     */
+    CBOR("CBOR");
 
     private final String type;
 
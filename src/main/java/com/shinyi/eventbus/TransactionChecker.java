@@ -0,0 +1,16 @@
+package com.shinyi.eventbus;
+
+/**
+ * 事务回查：broker 长时间未收到事务消息的提交或回滚时（如本地事务提交后进程退出），按消息查询本地事务的状态。
+ * 回查在驱动共享的线程池中执行，实现应按事件ID或业务键查询数据库，本地事务仍在进行或无法确定时返回 UNKNOWN 等待下次回查
+ * @author MSGA
+ */
+@FunctionalInterface
+public interface TransactionChecker {
+
+    /**
+     * @param event 待确认的事件，包含 topic、eventId、tags、partitionKey、消息头与原始消息体，不包含反序列化后的 entity
+     * @return 本地事务状态
+     */
+    TransactionState check(EventModel<?> event);
+}
@@ -0,0 +1,21 @@
+package com.shinyi.eventbus;
+
+/**
+ * 本地事务状态，决定事务消息投递还是丢弃
+ * @author MSGA
+ */
+public enum TransactionState {
+
+    /**
+     * 本地事务已提交，投递消息
+     */
+    COMMIT,
+    /**
+     * 本地事务已回滚，丢弃消息
+     */
+    ROLLBACK,
+    /**
+     * 无法确定，等待 broker 回查
+     */
+    UNKNOWN
+}
@@ -0,0 +1,25 @@
+package com.shinyi.eventbus;
+
+/**
+ * 支持事务消息的事件驱动，事件与本地事务一起提交或回滚
+ * @author MSGA
+ * @param <T>
+ */
+public interface TransactionalEventPublisher<T> {
+
+    /**
+     * 发送事务消息后执行本地事务，按本地事务结果提交或回滚消息
+     * @param event 消息模型
+     * @param localTransaction 本地事务
+     * @return 发送结果，消息已提交时 success 为 true
+     */
+    EventResult publishInTransaction(T event, LocalTransaction localTransaction);
+
+    /**
+     * 发送事务消息但暂不提交，由调用方在本地事务结束后提交或回滚，
+     *   未提交也未回滚的消息由 broker 回查 {@link TransactionChecker} 决定
+     * @param event 消息模型
+     * @return 待提交的事务消息
+     */
+    PreparedTransaction prepare(T event);
+}
@@ -1,5 +1,6 @@
 package com.shinyi.eventbus.anno;
 
+import com.shinyi.eventbus.OverflowPolicy;
 import com.shinyi.eventbus.SerializeType;
 
 import java.lang.annotation.Documented;
@@ -59,6 +60,12 @@ public @interface EventBusListener {
      */
     String offset() default "";
 
+    /**
+     * 消息头过滤表达式，在反序列化消息体之前丢弃不匹配的消息，例如 {@code type == 'order' && region in ('cn', 'sg')}
+     *   Kafka 匹配 headers，RocketMQ 匹配用户属性（tags / keys 可直接引用），Rabbit 匹配 AMQP headers
+     */
+    String filter() default "";
+
     /**
      * tags (RocketMQ Filter Tags)
      */
@@ -99,4 +106,22 @@ public @interface EventBusListener {
      * Rabbit 消费消息后是否删除
      */
     boolean autoDelete() default false;
+
+    // --------------- 本地异步分发隔离（Guava / Spring）
+    /**
+     * 最大并行度，大于 0 时该监听器使用独立的隔离队列，0 表示直接使用共享线程池
+     */
+    int concurrency() default 0;
+    /**
+     * 隔离队列容量
+     */
+    int queueSize() default 1000;
+    /**
+     * 执行器 Bean 名称（java.util.concurrent.Executor），为空使用共享线程池 eventBusExecutorService
+     */
+    String executor() default "";
+    /**
+     * 隔离队列写满时的处理策略
+     */
+    OverflowPolicy overflowPolicy() default OverflowPolicy.BLOCK;
 }
@@ -6,19 +6,37 @@ import com.shinyi.eventbus.config.rabbit.RabbitMqAutoConfiguration;
 import com.shinyi.eventbus.config.rabbit.RabbitMqConfig;
 import com.shinyi.eventbus.config.rocketmq.RocketMqAutoConfiguration;
 import com.shinyi.eventbus.config.rocketmq.RocketMqConfig;
+import com.shinyi.eventbus.listener.MethodInvokerType;
 import com.shinyi.eventbus.registry.GuavaEventListenerRegistry;
+import com.shinyi.eventbus.registry.RingEventListenerRegistry;
 import com.shinyi.eventbus.registry.SpringEventListenerRegistry;
+import com.shinyi.eventbus.serialize.BaseSerializer;
+import com.shinyi.eventbus.serialize.CompressionType;
+import com.shinyi.eventbus.serialize.EventCodec;
+import com.shinyi.eventbus.serialize.PayloadCompressor;
+import com.shinyi.eventbus.serialize.Serializer;
+import com.shinyi.eventbus.support.EventBusExecutors;
 import com.shinyi.eventbus.support.EventListenerRegistryManager;
+import com.shinyi.eventbus.support.ExecutorMode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.StreamUtils;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.stream.Collectors;
 
 /**
  * 事件总线组件自动配置类
@@ -37,14 +55,53 @@ public class EventBusAutoConfiguration implements InitializingBean {
 
     @Bean
     public EventListenerRegistryManager eventListenerRegistryManager() {
-        return new EventListenerRegistryManager();
+        EventListenerRegistryManager eventListenerRegistryManager = new EventListenerRegistryManager();
+        eventListenerRegistryManager.setMethodInvokerType(MethodInvokerType.fromType(eventBusProperties.getListenerInvoker()));
+        eventListenerRegistryManager.setListenerConcurrencyLimit(eventBusProperties.getListenerConcurrencyLimit());
+        return eventListenerRegistryManager;
+    }
+
+    /**
+     * 外部中间件驱动共用的序列化器，容器中的 {@link EventCodec} Bean 会注册为可选编解码器
+     */
+    @Bean
+    @ConditionalOnMissingBean(Serializer.class)
+    public Serializer eventBusSerializer(ObjectProvider<EventCodec> eventCodecs) {
+        BaseSerializer serializer = new BaseSerializer(eventCodecs.orderedStream().collect(Collectors.toList()));
+        log.info("事件总线编解码器：{}", serializer.codecNames());
+        return serializer;
+    }
+
+    /**
+     * 外部中间件驱动共用的消息体压缩，默认不压缩
+     */
+    @Bean
+    @ConditionalOnMissingBean(PayloadCompressor.class)
+    public PayloadCompressor eventBusPayloadCompressor(ResourceLoader resourceLoader) throws IOException {
+        EventBusProperties.Compression compression = eventBusProperties.getCompression();
+        CompressionType type = CompressionType.fromType(compression.getType());
+        byte[] dictionary = null;
+        if (type == CompressionType.ZSTD && compression.getZstdDictionary() != null && !compression.getZstdDictionary().isEmpty()) {
+            Resource resource = resourceLoader.getResource(compression.getZstdDictionary());
+            try (InputStream in = resource.getInputStream()) {
+                dictionary = StreamUtils.copyToByteArray(in);
+            }
+        }
+        PayloadCompressor compressor = new PayloadCompressor(type, compression.getThreshold(), compression.getZstdLevel(), dictionary);
+        if (compressor.isEnabled()) {
+            log.info("事件总线消息体压缩：{}，阈值 {} 字节，Zstd 字典：{}", type, compressor.getThreshold(),
+                    dictionary == null ? "无" : compression.getZstdDictionary());
+        }
+        return compressor;
     }
 
     @Bean(name = "guavaEventListenerRegistry")
-    public EventListenerRegistry<?> guavaEventListenerRegistry(Executor eventBusExecutorService) {
+    public EventListenerRegistry<?> guavaEventListenerRegistry(ApplicationContext applicationContext,
+            Executor eventBusExecutorService) {
         final GuavaEventListenerRegistry<EventModel<?>> eventListenerRegistry
                 =  new GuavaEventListenerRegistry<>("guavaEventListenerRegistry");
         eventListenerRegistry.setThreadPool(eventBusExecutorService);
+        eventListenerRegistry.setExecutorLookup(name -> applicationContext.getBean(name, Executor.class));
         return eventListenerRegistry;
     }
 
@@ -57,6 +114,13 @@ public class EventBusAutoConfiguration implements InitializingBean {
         return eventListenerRegistry;
     }
 
+    @Bean(name = "ringEventListenerRegistry")
+    @ConditionalOnProperty(prefix = "shinyi.eventbus.ring", name = "enabled", havingValue = "true")
+    public EventListenerRegistry<?> ringEventListenerRegistry() {
+        EventBusProperties.Ring ring = eventBusProperties.getRing();
+        return new RingEventListenerRegistry<EventModel<?>>("ringEventListenerRegistry",
+                ring.getBufferSize(), ring.getShards(), ring.getWaitStrategy());
+    }
 
     @Bean("eventBusExecutorService")
     public Executor getEventBusExecutorService() {
@@ -65,6 +129,13 @@ public class EventBusAutoConfiguration implements InitializingBean {
 
     private Executor getAsyncExecutor() {
 
+        ExecutorMode executorMode = EventBusExecutors.effectiveMode(ExecutorMode.fromType(eventBusProperties.getExecutorMode()));
+        if (executorMode == ExecutorMode.VIRTUAL) {
+            log.info("初始化虚拟线程执行器，threadNamePrefix: {}, listenerConcurrencyLimit: {}",
+                    eventBusProperties.getThreadNamePrefix(), eventBusProperties.getListenerConcurrencyLimit());
+            return EventBusExecutors.newVirtualThreadPerTaskExecutor(eventBusProperties.getThreadNamePrefix());
+        }
+
         int corePoolSize = eventBusProperties.getThreadPoolCoreSize();
         int maxPoolSize = eventBusProperties.getThreadPoolMaxSize();
         int maxQueueSize = eventBusProperties.getMaxQueueSize();
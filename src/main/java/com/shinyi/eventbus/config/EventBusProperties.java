@@ -17,4 +17,64 @@ public class EventBusProperties {
     private String threadNamePrefix = "eventbus-pool-";
     private Integer maxQueueSize = 10000;
     private Integer awaitTerminationSeconds = 60;
+    /**
+     * 注解监听方法调用策略：reflection | method_handle | lambda
+     */
+    private String listenerInvoker = "lambda";
+    /**
+     * 监听器执行线程模式：platform | virtual（JDK 21+，低版本回退为 platform）
+     */
+    private String executorMode = "platform";
+    /**
+     * 单个监听器的并发处理上限，0 表示不限制，避免虚拟线程下压垮下游连接池
+     */
+    private Integer listenerConcurrencyLimit = 0;
+    /**
+     * 环形缓冲区本地事件总线
+     */
+    private Ring ring = new Ring();
+    /**
+     * 外部中间件驱动的消息体压缩
+     */
+    private Compression compression = new Compression();
+
+    @Data
+    public static class Ring {
+        /**
+         * 是否启用 ring 驱动
+         */
+        private boolean enabled = false;
+        /**
+         * 每个分片的缓冲区容量，必须为 2 的幂
+         */
+        private Integer bufferSize = 8192;
+        /**
+         * 分片数（每个分片一个消费线程），同一 topic 固定落在同一分片
+         */
+        private Integer shards = Math.max(1, CPU_COUNT / 2);
+        /**
+         * 消费者等待策略：busy-spin | yielding | blocking
+         */
+        private String waitStrategy = "blocking";
+    }
+
+    @Data
+    public static class Compression {
+        /**
+         * 压缩算法：none | gzip | lz4 | snappy | zstd
+         */
+        private String type = "none";
+        /**
+         * 序列化后达到该字节数才压缩
+         */
+        private Integer threshold = 8192;
+        /**
+         * Zstd 压缩级别
+         */
+        private Integer zstdLevel = 3;
+        /**
+         * Zstd 共享字典资源位置，如 classpath:eventbus/order.dict，生产端与消费端需一致
+         */
+        private String zstdDictionary;
+    }
 }
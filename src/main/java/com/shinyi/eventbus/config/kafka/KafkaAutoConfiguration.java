@@ -3,10 +3,16 @@ package com.shinyi.eventbus.config.kafka;
 import com.shinyi.eventbus.EventBusType;
 import com.shinyi.eventbus.EventListenerRegistry;
 import com.shinyi.eventbus.EventModel;
+import com.shinyi.eventbus.config.EventBusProperties;
 import com.shinyi.eventbus.registry.KafkaMqEventListenerRegistry;
+import com.shinyi.eventbus.serialize.PayloadCompressor;
+import com.shinyi.eventbus.serialize.Serializer;
+import com.shinyi.eventbus.support.EventBusExecutors;
+import com.shinyi.eventbus.support.ExecutorMode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Configuration;
@@ -25,8 +31,20 @@ public class KafkaAutoConfiguration implements InitializingBean {
 
     private final ApplicationContext applicationContext;
 
+    private final ObjectProvider<EventBusProperties> eventBusProperties;
+
+    private final ObjectProvider<Serializer> serializer;
+
+    private final ObjectProvider<PayloadCompressor> payloadCompressor;
+
     private EventListenerRegistry<?> buildEventListenerRegistry(String beanName, KafkaConnectConfig kafkaConnectConfig) {
         KafkaMqEventListenerRegistry<EventModel<?>> registry = new KafkaMqEventListenerRegistry<>(applicationContext, beanName, kafkaConnectConfig);
+        EventBusProperties properties = eventBusProperties.getIfAvailable();
+        if (properties != null) {
+            registry.setExecutorMode(EventBusExecutors.effectiveMode(ExecutorMode.fromType(properties.getExecutorMode())));
+        }
+        serializer.ifAvailable(registry::setSerializer);
+        payloadCompressor.ifAvailable(registry::setPayloadCompressor);
         try {
             registry.init();
         } catch (Exception e) {
@@ -57,6 +57,106 @@ public class KafkaConnectConfig {
 
     private int sendBufferBytes = 131072;
 
+    /**
+     * 单次交给 onMessageBatch 的最大记录数（同一分区）
+     */
+    private int consumerBatchMaxSize = 500;
+
+    /**
+     * 单批最大字节数（按消息 key + value 累计），0 表示不限制
+     */
+    private long consumerBatchMaxBytes = 0;
+
+    /**
+     * 攒批最长等待时间（毫秒），0 表示每次 poll 后立即交付
+     */
+    private long consumerBatchMaxWaitMs = 0;
+
+    /**
+     * 每个消费者的工作通道数，大于 1 时 poll 线程将记录分发到多个通道并行处理，并改为按完成水位手动提交
+     */
+    private int consumerConcurrency = 1;
+
+    /**
+     * 通道选择方式：partition 保证分区内顺序 | key 只保证相同 key 的顺序
+     */
+    private String consumerOrdering = "partition";
+
+    /**
+     * 单个分区未处理完（已分发 + 攒批中）的记录数达到该值时暂停拉取该分区，0 表示不限制；
+     * 大于 0 时即使 consumerConcurrency 为 1 也交给工作通道处理，poll 线程只负责拉取和心跳
+     */
+    private int consumerPauseThreshold = 0;
+
+    /**
+     * 暂停的分区未处理完的记录数降到该值以下时恢复拉取，0 表示暂停阈值的一半
+     */
+    private int consumerResumeThreshold = 0;
+
+    /**
+     * 手动提交（enable-auto-commit=false）时，累计完成多少条记录后异步提交一次
+     */
+    private int commitBatchSize = 500;
+
+    /**
+     * 手动提交时两次异步提交的最长间隔（毫秒），与 commitBatchSize 任一满足即提交
+     */
+    private long commitIntervalMs = 1000;
+
+    /**
+     * 手动提交时处理失败的分区暂停多久后回退到失败 offset 重新投递（毫秒），同一 offset 每次失败后翻倍
+     */
+    private long redeliveryBackoffMs = 1000;
+
+    /**
+     * 重新投递退避时间的上限（毫秒）
+     */
+    private long redeliveryMaxBackoffMs = 60000;
+
+    /**
+     * 同一 offset 失败后最多重新投递的次数，超过后交给死信处理器并跳过该批次；小于 0 表示不限
+     */
+    private int maxRedeliveries = 16;
+
+    /**
+     * 幂等生产者：开启后 acks 固定为 all，单连接在途请求数不超过 5，重试不会产生重复消息
+     */
+    private boolean enableIdempotence = false;
+
+    /**
+     * 事务 ID，非空时启用事务生产者（隐含幂等），多实例部署时每个实例必须唯一
+     */
+    private String transactionalId;
+
+    /**
+     * 事务超时时间（毫秒）
+     */
+    private int transactionTimeoutMs = 60000;
+
+    /**
+     * 消费-处理-生产：每个消费批次在一个事务中处理，监听器内向本驱动发布的消息与消费 offset 一起提交，需配置 transactionalId
+     */
+    private boolean consumerTransactional = false;
+
+    /**
+     * 消费者隔离级别：read_uncommitted | read_committed，消费事务消息时应使用 read_committed
+     */
+    private String isolationLevel = "read_uncommitted";
+
+    /**
+     * 是否使用事务生产者
+     */
+    public boolean useTransactions() {
+        return transactionalId != null && !transactionalId.trim().isEmpty();
+    }
+
+    /**
+     * 是否由工作通道处理记录（poll 线程不执行监听器）
+     */
+    public boolean useWorkerLanes() {
+        return consumerConcurrency > 1 || consumerPauseThreshold > 0;
+    }
+
     public Properties toProducerProperties() {
         Properties props = new Properties();
         props.put("bootstrap.servers", bootstrapServers);
@@ -68,6 +168,15 @@ public class KafkaConnectConfig {
         props.put("max.in.flight.requests.per.connection", maxInFlightRequestsPerConnection);
         props.put("key.serializer", keySerializer);
         props.put("value.serializer", valueSerializer);
+        if (enableIdempotence || useTransactions()) {
+            props.put("enable.idempotence", true);
+            props.put("acks", "all");
+            props.put("max.in.flight.requests.per.connection", Math.min(maxInFlightRequestsPerConnection, 5));
+        }
+        if (useTransactions()) {
+            props.put("transactional.id", transactionalId);
+            props.put("transaction.timeout.ms", transactionTimeoutMs);
+        }
         return props;
     }
 
@@ -88,6 +197,7 @@ public class KafkaConnectConfig {
         props.put("max.poll.interval.ms", maxPollIntervalMs);
         props.put("receive.buffer.bytes", receiveBufferBytes);
         props.put("send.buffer.bytes", sendBufferBytes);
+        props.put("isolation.level", isolationLevel);
         return props;
     }
 
@@ -117,6 +227,23 @@ public class KafkaConnectConfig {
                 ", maxPollIntervalMs=" + maxPollIntervalMs +
                 ", receiveBufferBytes=" + receiveBufferBytes +
                 ", sendBufferBytes=" + sendBufferBytes +
+                ", consumerBatchMaxSize=" + consumerBatchMaxSize +
+                ", consumerBatchMaxBytes=" + consumerBatchMaxBytes +
+                ", consumerBatchMaxWaitMs=" + consumerBatchMaxWaitMs +
+                ", consumerConcurrency=" + consumerConcurrency +
+                ", consumerOrdering='" + consumerOrdering + '\'' +
+                ", consumerPauseThreshold=" + consumerPauseThreshold +
+                ", consumerResumeThreshold=" + consumerResumeThreshold +
+                ", commitBatchSize=" + commitBatchSize +
+                ", commitIntervalMs=" + commitIntervalMs +
+                ", redeliveryBackoffMs=" + redeliveryBackoffMs +
+                ", redeliveryMaxBackoffMs=" + redeliveryMaxBackoffMs +
+                ", maxRedeliveries=" + maxRedeliveries +
+                ", enableIdempotence=" + enableIdempotence +
+                ", transactionalId='" + transactionalId + '\'' +
+                ", transactionTimeoutMs=" + transactionTimeoutMs +
+                ", consumerTransactional=" + consumerTransactional +
+                ", isolationLevel='" + isolationLevel + '\'' +
                 '}';
     }
 }
@@ -1,10 +1,12 @@
 package com.shinyi.eventbus.config.rabbit;
 
 import cn.hutool.core.lang.Tuple;
+import com.rabbitmq.client.AMQP;
 import com.rabbitmq.client.Channel;
 import com.rabbitmq.client.ConfirmListener;
 import com.shinyi.eventbus.EventCallback;
 import com.shinyi.eventbus.EventResult;
+import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
 import java.util.Collections;
@@ -14,6 +16,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeoutException;
 
+@Slf4j
 public class AdvancedRabbitMqAsyncSender implements AutoCloseable {
 
     private final Channel channel;
@@ -40,23 +43,43 @@ public class AdvancedRabbitMqAsyncSender implements AutoCloseable {
 
             private void handleConfirm(long deliveryTag, boolean multiple, boolean ack) {
                 confirmExecutor.submit(() -> {
-                    SortedMap<Long, Tuple> confirmedMap = outstandingConfirms.headMap(deliveryTag + 1);
+                    // multiple=false 时只确认当前这一条，不能把更早的未确认消息一起出队
+                    SortedMap<Long, Tuple> confirmedMap;
+                    synchronized (outstandingConfirms) {
+                        if (multiple) {
+                            SortedMap<Long, Tuple> headMap = outstandingConfirms.headMap(deliveryTag + 1);
+                            confirmedMap = new TreeMap<>(headMap);
+                            headMap.clear();
+                        } else {
+                            confirmedMap = new TreeMap<>();
+                            Tuple tuple = outstandingConfirms.remove(deliveryTag);
+                            if (tuple != null) {
+                                confirmedMap.put(deliveryTag, tuple);
+                            }
+                        }
+                    }
                     confirmedMap.forEach((seq, tuple) -> {
                         EventCallback callback = tuple.get(0);
+                        if (callback == null) {
+                            return;
+                        }
                         String topic = tuple.get(1);
                         EventResult eventResult = new EventResult();
                         eventResult.setMessageId(String.valueOf(seq));
                         eventResult.setTopic(topic);
                         eventResult.setSourceResult(ack);
-                        if (ack) {
-                            callback.onSuccess(eventResult);
-                        } else {
-                            callback.onFailure(eventResult, new RuntimeException(
-                                    "Broker nack message, seq=" + seq
-                            ));
+                        try {
+                            if (ack) {
+                                callback.onSuccess(eventResult);
+                            } else {
+                                callback.onFailure(eventResult, new RuntimeException(
+                                        "Broker nack message, seq=" + seq
+                                ));
+                            }
+                        } catch (Exception e) {
+                            log.warn("RabbitMQ confirm 回调异常, seq={}", seq, e);
                         }
                     });
-                    confirmedMap.clear();
                 });
             }
         });
@@ -69,9 +92,28 @@ public class AdvancedRabbitMqAsyncSender implements AutoCloseable {
             byte[] body,
             EventCallback callback
     ) throws IOException {
-        long seqNo = channel.getNextPublishSeqNo();
-        outstandingConfirms.put(seqNo, new Tuple(callback, exchange));
-        channel.basicPublish(exchange, routingKey, null, body);
+        asyncPublishWithConfirm(exchange, routingKey, null, body, callback);
+    }
+
+    // 异步发送方法，携带消息属性
+    public void asyncPublishWithConfirm(
+            String exchange,
+            String routingKey,
+            AMQP.BasicProperties properties,
+            byte[] body,
+            EventCallback callback
+    ) throws IOException {
+        // 获取序号与发布必须原子执行，否则并发发布时序号与 broker 的 deliveryTag 会错位
+        synchronized (channel) {
+            long seqNo = channel.getNextPublishSeqNo();
+            outstandingConfirms.put(seqNo, new Tuple(callback, exchange));
+            try {
+                channel.basicPublish(exchange, routingKey, properties, body);
+            } catch (IOException e) {
+                outstandingConfirms.remove(seqNo);
+                throw e;
+            }
+        }
     }
 
     @Override
@@ -4,9 +4,12 @@ import com.shinyi.eventbus.EventBusType;
 import com.shinyi.eventbus.EventListenerRegistry;
 import com.shinyi.eventbus.EventModel;
 import com.shinyi.eventbus.registry.RabbitMqEventListenerRegistry;
+import com.shinyi.eventbus.serialize.PayloadCompressor;
+import com.shinyi.eventbus.serialize.Serializer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Configuration;
@@ -30,8 +33,14 @@ public class RabbitMqAutoConfiguration implements InitializingBean {
 
     private final ApplicationContext applicationContext;
 
+    private final ObjectProvider<Serializer> serializer;
+
+    private final ObjectProvider<PayloadCompressor> payloadCompressor;
+
     private EventListenerRegistry<?> buildEventListenerRegistry(String beanName, RabbitMqConnectConfig rabbitMqConfig) {
         RabbitMqEventListenerRegistry<EventModel<?>> registry = new RabbitMqEventListenerRegistry<>(applicationContext, beanName, rabbitMqConfig);
+        serializer.ifAvailable(registry::setSerializer);
+        payloadCompressor.ifAvailable(registry::setPayloadCompressor);
         try {
             registry.init();
         } catch (Exception e) {
@@ -3,10 +3,14 @@ package com.shinyi.eventbus.config.rocketmq;
 import com.shinyi.eventbus.EventBusType;
 import com.shinyi.eventbus.EventListenerRegistry;
 import com.shinyi.eventbus.EventModel;
+import com.shinyi.eventbus.TransactionChecker;
 import com.shinyi.eventbus.registry.RocketMqEventListenerRegistry;
+import com.shinyi.eventbus.serialize.PayloadCompressor;
+import com.shinyi.eventbus.serialize.Serializer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Configuration;
@@ -30,6 +34,12 @@ public class RocketMqAutoConfiguration implements InitializingBean {
 
     private final ApplicationContext applicationContext;
 
+    private final ObjectProvider<Serializer> serializer;
+
+    private final ObjectProvider<PayloadCompressor> payloadCompressor;
+
+    private final ObjectProvider<TransactionChecker> transactionChecker;
+
     private EventListenerRegistry<?> buildEventListenerRegistry(String beanName, RocketMqConnectConfig rocketMqConfig) {
         switch (rocketMqConfig.getBackendType()) {
             case "apache":
@@ -37,6 +47,9 @@ public class RocketMqAutoConfiguration implements InitializingBean {
             default:
                 RocketMqEventListenerRegistry<EventModel<?>> aliyunBackend =
                         new RocketMqEventListenerRegistry<>(applicationContext, beanName, rocketMqConfig);
+                serializer.ifAvailable(aliyunBackend::setSerializer);
+                payloadCompressor.ifAvailable(aliyunBackend::setPayloadCompressor);
+                transactionChecker.ifAvailable(aliyunBackend::setTransactionChecker);
                 aliyunBackend.newDefaultProducer();
                 return aliyunBackend;
         }
@@ -72,6 +72,26 @@ public class RocketMqConnectConfig {
      * 发送消息超时时间（毫秒）
      */
     private int sendMsgTimeout = 3000;
+    /**
+     * 批量发送单次请求的最大字节数，超过时拆分为多次请求，不超过 broker 的 maxMessageSize（默认 4MB）
+     */
+    private int batchMaxBytes = 4 * 1024 * 1024;
+    /**
+     * 按 partitionKey 顺序发送时 topic 队列列表的缓存时间（毫秒），到期后重新查询路由
+     */
+    private long queueRefreshMillis = 30000;
+    /**
+     * 开启事务消息，生产者创建为事务生产者以支持 publishInTransaction 与事务回查
+     */
+    private boolean transactionEnabled = false;
+    /**
+     * 事务回查线程数，回查请求在该线程池中排队处理
+     */
+    private int transactionCheckThreads = 4;
+    /**
+     * 排队等待处理的事务回查请求上限
+     */
+    private int transactionCheckRequestHoldMax = 2000;
     /**
      * 消费socket超时事件（毫秒）
      */
@@ -81,9 +101,17 @@ public class RocketMqConnectConfig {
      */
     private int maxReconsumeTimes = 16;
     /**
-     * 批量消费大小
+     * 批量消费大小，拉模式下为每次拉取的最大条数
      */
     private int pullBatchSize = 32;
+    /**
+     * 拉模式每次拉取的最小条数
+     */
+    private int pullBatchMinSize = 1;
+    /**
+     * 拉模式单批处理的目标耗时（毫秒），超过时减少拉取条数，0 表示固定按 pullBatchSize 拉取
+     */
+    private long pullBatchTargetMillis = 1000;
     /**
      * 批量消费超时时间（毫米秒）
      */
@@ -105,9 +133,16 @@ public class RocketMqConnectConfig {
                 ", messageModel='" + messageModel + '\'' +
                 ", retryTimesWhenSendFailed=" + retryTimesWhenSendFailed +
                 ", sendMsgTimeout=" + sendMsgTimeout +
+                ", batchMaxBytes=" + batchMaxBytes +
+                ", queueRefreshMillis=" + queueRefreshMillis +
+                ", transactionEnabled=" + transactionEnabled +
+                ", transactionCheckThreads=" + transactionCheckThreads +
+                ", transactionCheckRequestHoldMax=" + transactionCheckRequestHoldMax +
                 ", consumerTimeoutMillis=" + consumerTimeoutMillis +
                 ", maxReconsumeTimes=" + maxReconsumeTimes +
                 ", pullBatchSize=" + pullBatchSize +
+                ", pullBatchMinSize=" + pullBatchMinSize +
+                ", pullBatchTargetMillis=" + pullBatchTargetMillis +
                 ", maxBatchConsumeWaitTime=" + maxBatchConsumeWaitTime +
                 '}';
     }
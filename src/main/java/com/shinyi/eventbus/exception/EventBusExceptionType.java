@@ -18,7 +18,8 @@ public enum EventBusExceptionType implements ErrorCode {
     EVENTBUS_PUBLISH_EVENT_NULL_ERROR("200005","发布事件不能为空"),
     EVENTBUS_DRIVER_DISABLE_ERROR( "200006","<EL> 事件监听器驱动已禁用"),
     EVENTBUS_DRIVER_NOT_FOUND_ERROR("200007", "没有找到对应事件驱动器，请检查是否注册该驱动到事件中心 <EL>"),
-    EVENTBUS_DRIVER_INIT_ERROR("200008", "事件驱动器初始化异常 <EL>");
+    EVENTBUS_DRIVER_INIT_ERROR("200008", "事件驱动器初始化异常 <EL>"),
+    EVENTBUS_TRANSACTION_ERROR("200009", "事务消息发布异常 <ERR>");
 
     private final String code;
 
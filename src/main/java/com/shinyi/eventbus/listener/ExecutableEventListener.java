@@ -2,19 +2,22 @@ package com.shinyi.eventbus.listener;
 
 import cn.hutool.core.map.MapUtil;
 import cn.hutool.core.util.StrUtil;
+import com.fasterxml.jackson.databind.JavaType;
 import com.google.common.eventbus.Subscribe;
 import com.shinyi.eventbus.EventBusType;
+import com.shinyi.eventbus.EventHeaders;
 import com.shinyi.eventbus.EventModel;
 import com.shinyi.eventbus.exception.EventBusException;
 import com.shinyi.eventbus.exception.EventBusExceptionType;
+import com.shinyi.eventbus.serialize.EntityTypeDescriptor;
+import com.shinyi.eventbus.util.JsonUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
 import org.springframework.context.PayloadApplicationEvent;
 import org.springframework.lang.NonNull;
 
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.Semaphore;
 
 /**
  * @author MSGA
@@ -24,43 +27,68 @@ import java.util.*;
 public abstract class ExecutableEventListener<T> extends BaseEventListener<EventModel<T>> {
 
 
+    /**
+     * 按泛型参数解析出的实体类型（含完整泛型，如 {@code List<Order>}），首次使用时解析并缓存
+     */
+    private volatile EntityTypeDescriptor genericEntityType;
+
+    /**
+     * 实际用于反序列化的实体类型，兼容子类覆盖 {@link #entityType()}
+     */
+    private volatile EntityTypeDescriptor entityTypeDescriptor;
+
+    /**
+     * 并发处理上限，为空表示不限制；超过上限的调用在当前线程阻塞等待（虚拟线程下阻塞代价很低）
+     */
+    private volatile Semaphore concurrencyLimiter;
+
+    private int concurrencyLimit;
+
+    /**
+     * 设置该监听器同时处理的最大批次数，小于等于 0 表示不限制
+     */
+    public void setConcurrencyLimit(int concurrencyLimit) {
+        this.concurrencyLimit = Math.max(0, concurrencyLimit);
+        this.concurrencyLimiter = concurrencyLimit > 0 ? new Semaphore(concurrencyLimit) : null;
+    }
+
+    public int getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
     /**
      * 事件实体类型用于序列化
      */
     @Override
     public Class<?> entityType() {
-        Class<?> clazz = getClass();
-        // 遍历类层级，直到 Object
-        while (clazz != Object.class) {
-            // 1. 检查当前类实现的泛型接口
-            for (Type type : clazz.getGenericInterfaces()) {
-                Class<?> typeArgs = getaClass(type);
-                if (typeArgs != null) { return typeArgs; }
-            }
-
-            // 2. 检查当前类的泛型父类
-            Type superType = clazz.getGenericSuperclass();
-            Class<?> typeArgs = getaClass(superType);
-            if (typeArgs != null) { return typeArgs; }
+        return resolveGenericEntityType().getRawType();
+    }
 
-            // 3. 向上遍历父类
-            clazz = clazz.getSuperclass();
+    @Override
+    public EntityTypeDescriptor entityTypeDescriptor() {
+        EntityTypeDescriptor descriptor = entityTypeDescriptor;
+        if (descriptor == null) {
+            Class<?> entityType = entityType();
+            EntityTypeDescriptor generic = resolveGenericEntityType();
+            descriptor = generic.getRawType() == entityType ? generic : EntityTypeDescriptor.of(entityType);
+            entityTypeDescriptor = descriptor;
         }
-
-        throw new IllegalStateException("无法获取泛型类型: " + getClass().getName());
+        return descriptor;
     }
 
-    private Class<?> getaClass(Type type) {
-        if (type instanceof ParameterizedType) {
-            ParameterizedType pType = (ParameterizedType) type;
-            if (pType.getRawType() == ExecutableEventListener.class) {
-                Type[] typeArgs = pType.getActualTypeArguments();
-                if (typeArgs.length > 0 && typeArgs[0] instanceof Class) {
-                    return (Class<EventModel<T>>) typeArgs[0];
-                }
+    private EntityTypeDescriptor resolveGenericEntityType() {
+        EntityTypeDescriptor descriptor = genericEntityType;
+        if (descriptor == null) {
+            // 沿类层级解析 ExecutableEventListener<T> 的实际类型参数，支持中间抽象类传递泛型
+            JavaType[] typeArgs = JsonUtils.getTypeFactory().constructType(getClass())
+                    .findTypeParameters(ExecutableEventListener.class);
+            if (typeArgs == null || typeArgs.length == 0) {
+                throw new IllegalStateException("无法获取泛型类型: " + getClass().getName());
             }
+            descriptor = EntityTypeDescriptor.of(typeArgs[0]);
+            genericEntityType = descriptor;
         }
-        return null;
+        return descriptor;
     }
 
     private boolean checkNotSupportGroup(EventModel<T> message) {
@@ -68,6 +96,9 @@ public abstract class ExecutableEventListener<T> extends BaseEventListener<Event
         if(message.getDriveType().endsWith("#"+EventBusType.SPRING.getTypeName())) {
             return true;
         }
+        if(message.getDriveType().endsWith("#"+EventBusType.RING.getTypeName())) {
+            return true;
+        }
         return message.getDriveType().endsWith("#"+EventBusType.GUAVA.getTypeName());
     }
 
@@ -88,17 +119,19 @@ public abstract class ExecutableEventListener<T> extends BaseEventListener<Event
 
         Map<String, List<EventModel<T>>> groupMap = new HashMap<>();
         String traceId = MDC.get("traceId");
-        MDC.put("traceId", UUID.randomUUID().toString().replace("-",""));
+        MDC.put("traceId", traceIdOf(messages));
         for (EventModel<T> message : messages) {
             log.debug("从 {} 收到 {} 消息：{}", message.getDriveType(), message.getTopic(), message.getEventId());
 
             if (checkGroup(message) && topic().equals(message.getTopic())){
-                List<EventModel<T>> msgList = groupMap.getOrDefault(message.getGroup(), new ArrayList<>());
-                msgList.add(message);
-                groupMap.put(message.getTopic(), msgList);
+                groupMap.computeIfAbsent(message.getTopic(), k -> new ArrayList<>()).add(message);
             }
         }
+        Semaphore limiter = concurrencyLimiter;
         for (Map.Entry<String, List<EventModel<T>>> entry : groupMap.entrySet()) {
+            if (limiter != null) {
+                limiter.acquire();
+            }
             long start = System.currentTimeMillis();
             try {
                 handle(entry.getValue());
@@ -107,12 +140,28 @@ public abstract class ExecutableEventListener<T> extends BaseEventListener<Event
                 Map<String, String> err = MapUtil.of("ERR", errMsg);
                 throw new EventBusException(EventBusExceptionType.LISTENER_BIZ_ERROR, err, e);
             } finally {
+                if (limiter != null) {
+                    limiter.release();
+                }
                 log.info("Topic: {} 消息处理耗时：{}，数据量：{}", entry.getKey(), System.currentTimeMillis() - start, entry.getValue().size());
             }
         }
         MDC.put("traceId", traceId);
     }
 
+    /**
+     * 沿用消息头中发布端的 traceId，批量时取第一条带 traceId 的消息，没有时生成新的
+     */
+    private static String traceIdOf(List<? extends EventModel<?>> messages) {
+        for (EventModel<?> message : messages) {
+            String traceId = message.getHeader(EventHeaders.TRACE_ID);
+            if (StrUtil.isNotBlank(traceId)) {
+                return traceId;
+            }
+        }
+        return UUID.randomUUID().toString().replace("-","");
+    }
+
     @Subscribe
     @Override
     public void onMessage(EventModel<T> message) throws Exception {
@@ -3,8 +3,10 @@ package com.shinyi.eventbus.listener;
 import cn.hutool.core.collection.CollectionUtil;
 import com.shinyi.eventbus.EventBusContext;
 import com.shinyi.eventbus.EventModel;
+import com.shinyi.eventbus.OverflowPolicy;
+import com.shinyi.eventbus.anno.EventBusListener;
+import com.shinyi.eventbus.support.HeaderFilter;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.List;
@@ -31,28 +33,75 @@ public class  MethodEventListener extends ExecutableEventListener<Object> {
     private final String routingKey;
     private final boolean durable;
     private final boolean autoDelete;
-
-    public MethodEventListener(Object target, Method method, String topic, Class<?> entityType, String group,
-                               String tags, String consumerMode, String[] registerBeanName, String appName,
-                               String serializeType, String offset, String queue, String exchange, String exchangeType,
-                               String routingKey, boolean durable, boolean autoDelete) {
+    private final MethodInvoker invoker;
+    private final int concurrency;
+    private final int queueSize;
+    private final String executor;
+    private final OverflowPolicy overflowPolicy;
+    private final String filter;
+    private final HeaderFilter headerFilter;
+
+    /**
+     * @param attributes  已解析占位符的注解属性
+     * @param invokerType 方法调用方式
+     */
+    public MethodEventListener(Object target, Method method, EventBusListener attributes, MethodInvokerType invokerType) {
         this.target = target;
         this.method = method;
-        this.topic = topic;
-        this.entityType = entityType;
-        this.group = group;
-        this.tags = tags;
-        this.consumerMode = consumerMode;
-        this.registerBeanName = registerBeanName;
-        this.appName = appName;
-        this.serializeType = serializeType;
-        this.offset = offset;
-        this.queue = queue;
-        this.exchange = exchange;
-        this.exchangeType = exchangeType;
-        this.routingKey = routingKey;
-        this.durable = durable;
-        this.autoDelete = autoDelete;
+        this.topic = attributes.topic();
+        this.entityType = attributes.entityType();
+        this.group = attributes.group();
+        this.tags = attributes.tags();
+        this.consumerMode = attributes.consumerMode();
+        this.registerBeanName = attributes.name();
+        this.appName = attributes.appName();
+        this.serializeType = attributes.deserializeType().getType();
+        this.offset = attributes.offset();
+        this.queue = attributes.queue();
+        this.exchange = attributes.exchange();
+        this.exchangeType = attributes.exchangeType();
+        this.routingKey = attributes.routingKey();
+        this.durable = attributes.durable();
+        this.autoDelete = attributes.autoDelete();
+        this.concurrency = attributes.concurrency();
+        this.queueSize = attributes.queueSize();
+        this.executor = attributes.executor();
+        this.overflowPolicy = attributes.overflowPolicy();
+        this.filter = attributes.filter();
+        // 注册时编译一次，表达式不合法时启动失败
+        this.headerFilter = HeaderFilter.compile(filter);
+        // 注册时绑定一次，分发时直接调用
+        this.invoker = MethodInvokers.create(invokerType, target, method);
+    }
+
+    @Override
+    public int concurrency() {
+        return concurrency;
+    }
+
+    @Override
+    public int queueSize() {
+        return queueSize;
+    }
+
+    @Override
+    public String executor() {
+        return executor;
+    }
+
+    @Override
+    public OverflowPolicy overflowPolicy() {
+        return overflowPolicy;
+    }
+
+    @Override
+    public String filter() {
+        return filter;
+    }
+
+    @Override
+    public HeaderFilter headerFilter() {
+        return headerFilter;
     }
 
     @Override
@@ -134,16 +183,7 @@ public class  MethodEventListener extends ExecutableEventListener<Object> {
     protected void handle(List<EventModel<Object>> messages) throws Throwable {
         try {
             EventBusContext.setContext(EventBusContext.builder().messageModel(messages).build());
-            Class<?>[] paramTypes = method.getParameterTypes();
-            if (paramTypes.length > 0) {
-                Object[] paramValues = new Object[paramTypes.length];
-                paramValues[0] = messages;
-                method.invoke(target, paramValues);
-            } else {
-                method.invoke(target);
-            }
-        } catch (InvocationTargetException e) {
-            throw e.getTargetException();
+            invoker.invoke(messages);
         } finally {
             EventBusContext.clearContext();
         }
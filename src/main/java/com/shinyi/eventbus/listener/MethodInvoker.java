@@ -0,0 +1,20 @@
+package com.shinyi.eventbus.listener;
+
+import com.shinyi.eventbus.EventModel;
+
+import java.util.List;
+
+/**
+ * 监听方法调用器：注册时绑定一次目标方法与参数形态，分发时直接调用
+ * @author MSGA
+ * @see MethodInvokers
+ */
+@FunctionalInterface
+public interface MethodInvoker {
+
+    /**
+     * 按绑定的参数形态把消息传给监听方法
+     * @param messages 本批消息
+     */
+    void invoke(List<EventModel<Object>> messages) throws Throwable;
+}
@@ -0,0 +1,36 @@
+package com.shinyi.eventbus.listener;
+
+/**
+ * 监听方法调用策略
+ * @author MSGA
+ */
+public enum MethodInvokerType {
+
+    /**
+     * 反射 {@code Method.invoke}
+     */
+    REFLECTION,
+    /**
+     * 绑定目标对象的 {@code MethodHandle}
+     */
+    METHOD_HANDLE,
+    /**
+     * {@code LambdaMetafactory} 生成的函数式接口实现，方法不可访问时回退为 METHOD_HANDLE
+     */
+    LAMBDA;
+
+    /**
+     * 根据名称匹配（大小写不敏感），为空时使用 LAMBDA
+     */
+    public static MethodInvokerType fromType(String type) {
+        if (type == null || type.trim().isEmpty()) {
+            return LAMBDA;
+        }
+        for (MethodInvokerType value : values()) {
+            if (value.name().equalsIgnoreCase(type.trim().replace('-', '_'))) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Invalid method invoker type: " + type);
+    }
+}
@@ -0,0 +1,278 @@
+package com.shinyi.eventbus.listener;
+
+import com.shinyi.eventbus.EventModel;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link MethodInvoker} 工厂：在注册时解析监听方法的参数形态并按策略绑定调用方式。
+ * <p>
+ * 支持的参数形态：
+ * <ul>
+ *     <li>无参</li>
+ *     <li>{@code List<EventModel<T>>}（以及原始 List / Object，与旧版本保持一致）</li>
+ *     <li>{@code EventModel<T>}：逐条调用</li>
+ *     <li>{@code List<T>}：传入实体列表</li>
+ *     <li>{@code T}：逐条传入实体</li>
+ * </ul>
+ * 多于一个参数时只填充第一个参数，其余传 null，并固定使用反射调用。
+ * @author MSGA
+ */
+@Slf4j
+public final class MethodInvokers {
+
+    private MethodInvokers() {
+        throw new UnsupportedOperationException("Construct MethodInvokers");
+    }
+
+    /**
+     * 单参数调用
+     */
+    @FunctionalInterface
+    public interface ArgCall {
+        void call(Object arg) throws Throwable;
+    }
+
+    /**
+     * 无参调用
+     */
+    @FunctionalInterface
+    public interface NoArgCall {
+        void call() throws Throwable;
+    }
+
+    enum ParameterShape {
+        NONE, EVENT_MODEL_LIST, EVENT_MODEL, ENTITY_LIST, ENTITY
+    }
+
+    public static MethodInvoker create(MethodInvokerType type, Object target, Method method) {
+        ParameterShape shape = resolveShape(method);
+        if (shape == ParameterShape.NONE) {
+            NoArgCall call = bindNoArg(type, target, method);
+            return messages -> call.call();
+        }
+        ArgCall call = bindArg(type, target, method);
+        switch (shape) {
+            case EVENT_MODEL:
+                return messages -> {
+                    for (EventModel<Object> message : messages) {
+                        call.call(message);
+                    }
+                };
+            case ENTITY_LIST:
+                return messages -> {
+                    List<Object> entities = new ArrayList<>(messages.size());
+                    for (EventModel<Object> message : messages) {
+                        entities.add(message.getEntity());
+                    }
+                    call.call(entities);
+                };
+            case ENTITY:
+                return messages -> {
+                    for (EventModel<Object> message : messages) {
+                        call.call(message.getEntity());
+                    }
+                };
+            default:
+                return call::call;
+        }
+    }
+
+    static ParameterShape resolveShape(Method method) {
+        if (method.getParameterCount() == 0) {
+            return ParameterShape.NONE;
+        }
+        Class<?> paramType = method.getParameterTypes()[0];
+        if (paramType == Object.class) {
+            // 兼容：旧版本第一个参数总是传入消息列表
+            return ParameterShape.EVENT_MODEL_LIST;
+        }
+        if (paramType.isAssignableFrom(List.class)) {
+            Type genericType = method.getGenericParameterTypes()[0];
+            Class<?> elementType = null;
+            if (genericType instanceof ParameterizedType) {
+                elementType = rawClass(((ParameterizedType) genericType).getActualTypeArguments()[0]);
+            }
+            if (elementType == null || elementType == Object.class || EventModel.class.isAssignableFrom(elementType)) {
+                return ParameterShape.EVENT_MODEL_LIST;
+            }
+            return ParameterShape.ENTITY_LIST;
+        }
+        if (EventModel.class.isAssignableFrom(paramType)) {
+            return ParameterShape.EVENT_MODEL;
+        }
+        return ParameterShape.ENTITY;
+    }
+
+    private static Class<?> rawClass(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return rawClass(((ParameterizedType) type).getRawType());
+        }
+        if (type instanceof WildcardType) {
+            return rawClass(((WildcardType) type).getUpperBounds()[0]);
+        }
+        return null;
+    }
+
+    private static ArgCall bindArg(MethodInvokerType type, Object target, Method method) {
+        if (method.getParameterCount() > 1) {
+            return reflectionArgCall(target, method);
+        }
+        try {
+            switch (type) {
+                case LAMBDA:
+                    ArgCall lambda = lambdaArgCall(target, method);
+                    if (lambda != null) {
+                        return lambda;
+                    }
+                    return methodHandleArgCall(target, method);
+                case METHOD_HANDLE:
+                    return methodHandleArgCall(target, method);
+                default:
+                    return reflectionArgCall(target, method);
+            }
+        } catch (IllegalAccessException e) {
+            log.warn("{} 无法绑定 {} 调用，回退为反射调用：{}", method, type, e.getMessage());
+            return reflectionArgCall(target, method);
+        }
+    }
+
+    private static NoArgCall bindNoArg(MethodInvokerType type, Object target, Method method) {
+        try {
+            switch (type) {
+                case LAMBDA:
+                    NoArgCall lambda = lambdaNoArgCall(target, method);
+                    if (lambda != null) {
+                        return lambda;
+                    }
+                    return methodHandleNoArgCall(target, method);
+                case METHOD_HANDLE:
+                    return methodHandleNoArgCall(target, method);
+                default:
+                    return reflectionNoArgCall(target, method);
+            }
+        } catch (IllegalAccessException e) {
+            log.warn("{} 无法绑定 {} 调用，回退为反射调用：{}", method, type, e.getMessage());
+            return reflectionNoArgCall(target, method);
+        }
+    }
+
+    // ---------------- REFLECTION
+
+    private static ArgCall reflectionArgCall(Object target, Method method) {
+        final int parameterCount = method.getParameterCount();
+        return arg -> {
+            Object[] args = new Object[parameterCount];
+            args[0] = arg;
+            try {
+                method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        };
+    }
+
+    private static NoArgCall reflectionNoArgCall(Object target, Method method) {
+        return () -> {
+            try {
+                method.invoke(target);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        };
+    }
+
+    // ---------------- METHOD_HANDLE
+
+    private static MethodHandle boundHandle(Object target, Method method) throws IllegalAccessException {
+        MethodHandle handle = MethodHandles.lookup().unreflect(method);
+        return Modifier.isStatic(method.getModifiers()) ? handle : handle.bindTo(target);
+    }
+
+    private static ArgCall methodHandleArgCall(Object target, Method method) throws IllegalAccessException {
+        final MethodHandle handle = boundHandle(target, method).asType(MethodType.methodType(void.class, Object.class));
+        return arg -> {
+            handle.invokeExact(arg);
+        };
+    }
+
+    private static NoArgCall methodHandleNoArgCall(Object target, Method method) throws IllegalAccessException {
+        final MethodHandle handle = boundHandle(target, method).asType(MethodType.methodType(void.class));
+        return () -> {
+            handle.invokeExact();
+        };
+    }
+
+    // ---------------- LAMBDA
+
+    private static ArgCall lambdaArgCall(Object target, Method method) {
+        Class<?> paramType = method.getParameterTypes()[0];
+        if (paramType.isPrimitive() || !isLambdaAccessible(method, paramType)) {
+            return null;
+        }
+        return (ArgCall) metafactory(target, method, ArgCall.class,
+                MethodType.methodType(void.class, Object.class), MethodType.methodType(void.class, paramType));
+    }
+
+    private static NoArgCall lambdaNoArgCall(Object target, Method method) {
+        if (!isLambdaAccessible(method, null)) {
+            return null;
+        }
+        return (NoArgCall) metafactory(target, method, NoArgCall.class,
+                MethodType.methodType(void.class), MethodType.methodType(void.class));
+    }
+
+    private static Object metafactory(Object target, Method method, Class<?> interfaceType,
+                                      MethodType samMethodType, MethodType instantiatedMethodType) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle implMethod = lookup.unreflect(method);
+            boolean isStatic = Modifier.isStatic(method.getModifiers());
+            MethodType factoryType = isStatic
+                    ? MethodType.methodType(interfaceType)
+                    : MethodType.methodType(interfaceType, method.getDeclaringClass());
+            CallSite callSite = LambdaMetafactory.metafactory(lookup, "call", factoryType,
+                    samMethodType, implMethod, instantiatedMethodType);
+            return isStatic ? callSite.getTarget().invoke() : callSite.getTarget().invoke(target);
+        } catch (Throwable e) {
+            log.debug("{} 生成 Lambda 调用失败，回退为 MethodHandle：{}", method, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 生成的 Lambda 类由本类的类加载器定义，只有公有且对本类加载器可见的方法才能直接调用
+     */
+    private static boolean isLambdaAccessible(Method method, Class<?> paramType) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        if (!Modifier.isPublic(method.getModifiers()) || !Modifier.isPublic(declaringClass.getModifiers())) {
+            return false;
+        }
+        return isVisible(declaringClass) && (paramType == null || isVisible(paramType));
+    }
+
+    private static boolean isVisible(Class<?> clazz) {
+        if (clazz.isArray()) {
+            return isVisible(clazz.getComponentType());
+        }
+        if (clazz.isPrimitive()) {
+            return true;
+        }
+        try {
+            return Class.forName(clazz.getName(), false, MethodInvokers.class.getClassLoader()) == clazz;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+}
@@ -2,14 +2,17 @@ package com.shinyi.eventbus.registry;
 
 import cn.hutool.core.collection.CollectionUtil;
 import com.shinyi.eventbus.*;
-import com.google.common.eventbus.AsyncEventBus;
-import com.google.common.eventbus.EventBus;
+import com.shinyi.eventbus.EventListener;
+import com.shinyi.eventbus.support.ListenerBulkhead;
+import com.shinyi.eventbus.support.LocalBatchDispatcher;
+import com.shinyi.eventbus.support.TopicListenerIndex;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 import java.util.concurrent.Executor;
+import java.util.function.Function;
 
 /**
  * @author MSGA
@@ -19,9 +22,20 @@ import java.util.concurrent.Executor;
 public class GuavaEventListenerRegistry <T extends EventModel<?>> implements EventListenerRegistry<T> {
 
     protected final String registryBeanName;
-    protected EventBus guavaEventBus;
-    protected EventBus guavaSynchronousEventBus;
     protected Executor executor;
+    /**
+     * topic -> group -> 监听器 索引，发布时只分发给匹配的监听器
+     */
+    protected volatile TopicListenerIndex<EventListener<T>> listenerIndex = TopicListenerIndex.empty();
+    /**
+     * 配置了并行度或指定执行器的监听器 -> 独立执行器，其余监听器使用共享线程池
+     */
+    protected volatile Map<EventListener<T>, Executor> listenerExecutors = Collections.emptyMap();
+    /**
+     * 按 Bean 名称查找监听器指定的执行器
+     */
+    @Setter
+    protected Function<String, Executor> executorLookup;
 
     @Override
     public EventBusType getEventBusType() {
@@ -35,17 +49,49 @@ public class GuavaEventListenerRegistry <T extends EventModel<?>> implements Eve
     @Override
     public void initRegistryEventListener(List<EventListener<T>> listener) {
         if(listener == null) { return; }
-        guavaEventBus = new AsyncEventBus(GuavaEventListenerRegistry.class.getName(),executor);
-        guavaSynchronousEventBus = new EventBus();
+        List<EventListener<T>> matched = new ArrayList<>();
         for (EventListener<T> l : listener) {
             if(CollectionUtil.isNotEmpty(l.registryBeanName()) && !CollectionUtil.contains(l.registryBeanName(), registryBeanName)) {
                 log.debug("{} not match skip listener [{}]", registryBeanName, l);
                 continue;
             }
             log.info("注册监听器：{}",l.getClass().getName());
-            guavaEventBus.register(l);
-            guavaSynchronousEventBus.register(l);
+            matched.add(l);
         }
+        listenerIndex = TopicListenerIndex.of(matched);
+        rebuildListenerExecutors();
+    }
+
+    /**
+     * 运行期新增监听器，重建索引
+     */
+    public synchronized void addEventListener(EventListener<T> listener) {
+        listenerIndex = listenerIndex.with(listener);
+        rebuildListenerExecutors();
+    }
+
+    /**
+     * 运行期移除监听器，重建索引
+     */
+    public synchronized void removeEventListener(EventListener<T> listener) {
+        listenerIndex = listenerIndex.without(listener);
+        rebuildListenerExecutors();
+    }
+
+    private synchronized void rebuildListenerExecutors() {
+        Map<EventListener<T>, Executor> executors = new IdentityHashMap<>();
+        for (EventListener<T> l : listenerIndex.getListeners()) {
+            Executor existing = listenerExecutors.get(l);
+            Executor listenerExecutor = existing != null ? existing : ListenerBulkhead.executorFor(l, executor, executorLookup);
+            if (listenerExecutor != executor) {
+                executors.put(l, listenerExecutor);
+            }
+        }
+        listenerExecutors = executors;
+    }
+
+    private Executor executorOf(EventListener<T> l) {
+        return listenerExecutors.getOrDefault(l, executor);
     }
 
     @Override
@@ -54,19 +100,42 @@ public class GuavaEventListenerRegistry <T extends EventModel<?>> implements Eve
         EventResult eventResult = new EventResult();
         eventResult.setTopic(eventModel.getTopic());
         eventResult.setMessageId(eventModel.getEventId());
+        List<EventListener<T>> matched = listenerIndex.match(eventModel.getTopic(), eventModel.getGroup());
         if(eventModel.isEnableAsync()) {
             try {
-                guavaEventBus.post(eventModel);
+                for (EventListener<T> l : matched) {
+                    executorOf(l).execute(() -> dispatch(l, eventModel));
+                }
                 eventCallback.ifPresent(callback -> callback.onSuccess(eventResult));
             } catch (Exception e) {
                 eventCallback.ifPresent(callback -> callback.onFailure(eventResult, e));
             }
         } else {
-            guavaSynchronousEventBus.post(eventModel);
+            for (EventListener<T> l : matched) {
+                dispatch(l, eventModel);
+            }
             eventCallback.ifPresent(callback -> callback.onSuccess(eventResult));
         }
     }
 
+    private void dispatch(EventListener<T> l, T eventModel) {
+        try {
+            l.onMessage(eventModel);
+        } catch (Exception e) {
+            // 与 Guava EventBus 一致：监听器异常只记录日志，不影响其它监听器
+            log.error("{} 分发事件异常，topic: {}, listener: {}", registryBeanName, eventModel.getTopic(), l.getClass().getName(), e);
+        }
+    }
+
+    /**
+     * 按 topic/group 聚合后对每个监听器只分发一次 {@link EventListener#onMessageBatch(List)}，
+     * 同步事件在当前线程执行，异步事件整体提交到线程池
+     */
+    @Override
+    public List<EventResult> publishBatch(Collection<T> events) {
+        return LocalBatchDispatcher.publishBatch(registryBeanName, events, listenerIndex, this::executorOf);
+    }
+
     @Override
     public void close() throws Exception {
         // do nothing
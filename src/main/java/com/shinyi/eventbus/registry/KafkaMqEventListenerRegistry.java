@@ -7,27 +7,54 @@ import com.shinyi.eventbus.config.kafka.KafkaConnectConfig;
 import com.shinyi.eventbus.exception.EventBusException;
 import com.shinyi.eventbus.exception.EventBusExceptionType;
 import com.shinyi.eventbus.serialize.BaseSerializer;
+import com.shinyi.eventbus.serialize.PayloadCompressor;
 import com.shinyi.eventbus.serialize.Serializer;
+import com.shinyi.eventbus.support.EventBusExecutors;
+import com.shinyi.eventbus.support.ExecutorMode;
+import com.shinyi.eventbus.support.HeaderFilter;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import com.shinyi.eventbus.support.kafka.KafkaCommitMetrics;
+import com.shinyi.eventbus.support.kafka.KafkaConsumerLoop;
+import com.shinyi.eventbus.support.kafka.KafkaDeadLetterHandler;
+import com.shinyi.eventbus.support.kafka.KafkaListenerAcks;
+import com.shinyi.eventbus.support.kafka.KafkaTopicRouter;
+import com.shinyi.eventbus.support.kafka.KafkaWorkerLanes;
+import com.shinyi.eventbus.support.kafka.RecordBatchHandler;
+import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.ConsumerGroupMetadata;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
 import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
-import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.AuthorizationException;
+import org.apache.kafka.common.errors.OutOfOrderSequenceException;
+import org.apache.kafka.common.errors.ProducerFencedException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.slf4j.MDC;
 import org.springframework.context.ApplicationContext;
 
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -37,11 +64,41 @@ public class KafkaMqEventListenerRegistry<T extends EventModel<?>> implements Ev
     protected final String registryBeanName;
     protected final KafkaConnectConfig kafkaConnectConfig;
 
-    private KafkaProducer<String, byte[]> producer;
-    private final Set<KafkaConsumer<String, byte[]>> consumerSet = new ConcurrentHashSet<>();
+    private volatile Producer<byte[], byte[]> producer;
+    private static final long CLOSE_TIMEOUT_MILLIS = 30000L;
+
+    private final Set<Consumer<byte[], byte[]>> consumerSet = new ConcurrentHashSet<>();
     private final Set<ExecutorService> executorSet = new ConcurrentHashSet<>();
-    protected final Serializer serializer = new BaseSerializer();
+    private final Map<String, KafkaConsumerLoop<byte[], byte[]>> consumerLoops = new ConcurrentHashMap<>();
+    /**
+     * 序列化器，Spring 环境下使用容器中的 {@link Serializer}
+     */
+    @Setter
+    protected Serializer serializer = new BaseSerializer();
+    /**
+     * 消息体压缩，Spring 环境下使用容器中的 {@link PayloadCompressor}
+     */
+    @Setter
+    protected PayloadCompressor payloadCompressor = PayloadCompressor.none();
     private final AtomicBoolean started = new AtomicBoolean(false);
+    /**
+     * 消费线程模式，VIRTUAL 时消费循环及监听器处理运行在虚拟线程上
+     */
+    @Setter
+    private ExecutorMode executorMode = ExecutorMode.PLATFORM;
+    /**
+     * 手动提交时重新投递超过 maxRedeliveries 次仍失败的批次的处理器，可转发到死信 topic，为空时只记录日志
+     */
+    @Setter
+    private KafkaDeadLetterHandler<byte[], byte[]> deadLetterHandler;
+    /**
+     * 当前线程打开的事务中待确认的发送，事务提交或中止后统一回调
+     */
+    private final ThreadLocal<List<PendingSend<T>>> transactionScope = new ThreadLocal<>();
+    /**
+     * 事务生产者同一时刻只能有一个打开的事务
+     */
+    private final ReentrantLock transactionLock = new ReentrantLock();
 
     @Override
     public EventBusType getEventBusType() {
@@ -52,9 +109,18 @@ public class KafkaMqEventListenerRegistry<T extends EventModel<?>> implements Ev
         if (kafkaConnectConfig.getBootstrapServers() == null || kafkaConnectConfig.getBootstrapServers().isEmpty()) {
             throw new IllegalArgumentException("Kafka bootstrapServers cannot be empty");
         }
-        Properties producerProps = kafkaConnectConfig.toProducerProperties();
-        producer = new KafkaProducer<>(producerProps);
-        log.info("Kafka Producer initialized for {}", kafkaConnectConfig.getBootstrapServers());
+        if (kafkaConnectConfig.isConsumerTransactional()) {
+            if (!kafkaConnectConfig.useTransactions()) {
+                throw new IllegalArgumentException("Kafka consumerTransactional requires transactionalId");
+            }
+            if (KafkaWorkerLanes.Ordering.fromType(kafkaConnectConfig.getConsumerOrdering()) != KafkaWorkerLanes.Ordering.PARTITION) {
+                // 按 key 并行时同一分区的批次乱序完成，事务内提交的 offset 会越过未完成的记录
+                throw new IllegalArgumentException("Kafka consumerTransactional requires consumerOrdering=partition");
+            }
+        }
+        producer = newProducer();
+        log.info("Kafka Producer initialized for {}, idempotence: {}, transactional: {}", kafkaConnectConfig.getBootstrapServers(),
+                kafkaConnectConfig.isEnableIdempotence() || kafkaConnectConfig.useTransactions(), kafkaConnectConfig.useTransactions());
     }
 
     @Override
@@ -62,65 +128,219 @@ public class KafkaMqEventListenerRegistry<T extends EventModel<?>> implements Ev
         if (listener == null) {
             return;
         }
-        CompletableFuture[] futures = listener.stream()
+        // 同一消费组的监听器共享一个消费者，按记录 topic 分发
+        Map<String, List<com.shinyi.eventbus.EventListener<T>>> groupListeners = new LinkedHashMap<>();
+        listener.stream()
                 .filter(l -> CollectionUtil.isNotEmpty(l.registryBeanName()) && CollectionUtil.contains(l.registryBeanName(), registryBeanName)
                         || CollectionUtil.isEmpty(l.registryBeanName()) && kafkaConnectConfig.getIsDefault())
-                .map(l -> CompletableFuture.runAsync(() -> initConsumer(l)))
+                .forEach(l -> groupListeners.computeIfAbsent(groupOf(l), k -> new ArrayList<>()).add(l));
+        CompletableFuture[] futures = groupListeners.entrySet().stream()
+                .map(e -> CompletableFuture.runAsync(() -> initConsumer(e.getKey(), e.getValue())))
                 .toArray(CompletableFuture[]::new);
         CompletableFuture.allOf(futures).join();
     }
 
-    private void initConsumer(com.shinyi.eventbus.EventListener<T> listener) {
+    private void initConsumer(String group, List<com.shinyi.eventbus.EventListener<T>> listeners) {
         Properties consumerProps = kafkaConnectConfig.toConsumerProperties();
-        consumerProps.put(ConsumerConfig.GROUP_ID_CONFIG, listener.group());
-        
-        KafkaConsumer<String, byte[]> consumer = new KafkaConsumer<>(consumerProps);
+        consumerProps.put(ConsumerConfig.GROUP_ID_CONFIG, group);
+        boolean manualCommit = !kafkaConnectConfig.isEnableAutoCommit();
+        if ((kafkaConnectConfig.useWorkerLanes() || kafkaConnectConfig.isConsumerTransactional()) && !manualCommit) {
+            // 工作通道处理或事务消费时自动提交会越过仍在处理中的记录，改为按完成水位手动提交
+            consumerProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+            manualCommit = true;
+        }
+
+        KafkaTopicRouter<com.shinyi.eventbus.EventListener<T>> router = new KafkaTopicRouter<>();
+        for (com.shinyi.eventbus.EventListener<T> l : listeners) {
+            router.add(topicOf(l), l);
+        }
+
+        Consumer<byte[], byte[]> consumer = createConsumer(consumerProps);
         consumerSet.add(consumer);
 
+        String name = "kafka-consumer-" + group;
+        ExecutorService executor = EventBusExecutors.newSingleThreadExecutor(executorMode, name);
+        executorSet.add(executor);
+
+        AtomicReference<KafkaConsumerLoop<byte[], byte[]>> loopRef = new AtomicReference<>();
+        // 事务消费失败时整个事务回滚，成功监听器发布的消息也随之撤销，需全部重新处理，不记录逐监听器进度
+        KafkaListenerAcks<com.shinyi.eventbus.EventListener<T>> acks = kafkaConnectConfig.isConsumerTransactional()
+                ? null : new KafkaListenerAcks<>();
+        RecordBatchHandler<byte[], byte[]> handler = kafkaConnectConfig.isConsumerTransactional()
+                // 批次处理、其间发布的消息与消费 offset 在同一事务中提交
+                ? records -> runInTransaction(() -> dispatchBatch(router, null, records), nextOffsets(records), loopRef.get().getGroupMetadata())
+                : records -> dispatchBatch(router, acks, records);
+        Pattern pattern = router.subscriptionPattern();
+        KafkaConsumerLoop<byte[], byte[]> loop = pattern != null
+                ? new KafkaConsumerLoop<>(name, consumer, pattern, kafkaConnectConfig, executorMode, manualCommit, handler)
+                : new KafkaConsumerLoop<>(name, consumer, router.topics(), kafkaConnectConfig, executorMode, manualCommit, handler);
+        loop.setDeadLetterHandler((records, cause) -> {
+            if (acks != null) {
+                acks.clear(records);
+            }
+            if (deadLetterHandler != null) {
+                deadLetterHandler.handle(records, cause);
+            }
+        });
+        loopRef.set(loop);
+        consumerLoops.put(group, loop);
+        executor.submit(loop);
+
+        log.info("Kafka consumer started for group: {}, topics: {}, listeners: {}",
+                group, pattern != null ? pattern.pattern() : router.topics(), listeners.size());
+    }
+
+    private String groupOf(com.shinyi.eventbus.EventListener<T> listener) {
+        String group = listener.group();
+        return group == null || group.isEmpty() ? kafkaConnectConfig.getGroupId() : group;
+    }
+
+    private String topicOf(com.shinyi.eventbus.EventListener<T> listener) {
         String topic = listener.topic();
-        if (topic == null || topic.isEmpty()) {
-            topic = kafkaConnectConfig.getTopic();
+        return topic == null || topic.isEmpty() ? kafkaConnectConfig.getTopic() : topic;
+    }
+
+    /**
+     * 各消费循环的 offset 提交统计，key 为消费组
+     */
+    public Map<String, KafkaCommitMetrics> getCommitMetrics() {
+        Map<String, KafkaCommitMetrics> metrics = new LinkedHashMap<>();
+        consumerLoops.forEach((key, loop) -> metrics.put(key, loop.getMetrics()));
+        return metrics;
+    }
+
+    private Producer<byte[], byte[]> newProducer() {
+        Producer<byte[], byte[]> newProducer = createProducer(kafkaConnectConfig.toProducerProperties());
+        if (kafkaConnectConfig.useTransactions()) {
+            newProducer.initTransactions();
         }
-        final String finalTopic = topic;
-        consumer.subscribe(Collections.singletonList(finalTopic));
+        return newProducer;
+    }
 
-        ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "kafka-consumer-" + finalTopic));
-        executorSet.add(executor);
+    /**
+     * 事务生产者出现不可恢复的异常后关闭并重建，重新 initTransactions 以新的 epoch 继续事务（持有 transactionLock 时调用）
+     */
+    private void rebuildProducer() {
+        Producer<byte[], byte[]> fenced = producer;
+        try {
+            fenced.close(Duration.ZERO);
+        } catch (Exception e) {
+            log.warn("{} Kafka 事务生产者关闭失败：{}", registryBeanName, e.getMessage());
+        }
+        try {
+            producer = newProducer();
+            log.warn("{} Kafka 事务生产者已重建", registryBeanName);
+        } catch (Exception e) {
+            log.error("{} Kafka 事务生产者重建失败，后续事务将失败：{}", registryBeanName, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 创建生产者，子类可覆盖（如测试时替换为 MockProducer）
+     */
+    protected Producer<byte[], byte[]> createProducer(Properties producerProps) {
+        return new KafkaProducer<>(producerProps);
+    }
 
-        final com.shinyi.eventbus.EventListener<T> finalListener = listener;
-        executor.submit(() -> {
+    /**
+     * 创建消费者，子类可覆盖（如测试时替换为 MockConsumer）
+     */
+    protected Consumer<byte[], byte[]> createConsumer(Properties consumerProps) {
+        return new KafkaConsumer<>(consumerProps);
+    }
+
+    /**
+     * 将同一分区的一批记录交给订阅了该 topic 的全部监听器，任一监听器失败时整批视为失败并重新投递。
+     * acks 不为空时登记成功的监听器，重新投递时只交给尚未成功处理的监听器
+     */
+    private void dispatchBatch(KafkaTopicRouter<com.shinyi.eventbus.EventListener<T>> router,
+                               KafkaListenerAcks<com.shinyi.eventbus.EventListener<T>> acks,
+                               List<ConsumerRecord<byte[], byte[]>> records) throws Exception {
+        String topic = records.get(0).topic();
+        Exception failure = null;
+        List<com.shinyi.eventbus.EventListener<T>> succeeded = new ArrayList<>();
+        for (com.shinyi.eventbus.EventListener<T> listener : router.route(topic)) {
+            List<ConsumerRecord<byte[], byte[]>> pending = acks != null ? acks.pending(listener, records) : records;
+            if (pending.isEmpty()) {
+                continue;
+            }
             try {
-                while (!Thread.currentThread().isInterrupted()) {
-                    try {
-                        ConsumerRecords<String, byte[]> records = consumer.poll(Duration.ofMillis(1000));
-                        for (ConsumerRecord<String, byte[]> record : records) {
-                            try {
-                                if (record.value() == null || record.value().length == 0) {
-                                    log.warn("Message body is empty, skipping. offset={}", record.offset());
-                                    continue;
-                                }
-                                EventModel<?> eventModel = deserialize(record.value(), record.offset() + "", finalListener);
-                                finalListener.onMessage((T) eventModel);
-                            } catch (Exception e) {
-                                log.warn("Message processing failed: " + e.getMessage(), e);
-                            }
-                        }
-                    } catch (WakeupException e) {
-                        break;
-                    }
+                dispatchBatch(listener, pending);
+                succeeded.add(listener);
+            } catch (Exception e) {
+                log.warn("{} Kafka listener {} failed on topic {}: {}", registryBeanName, listener.getClass().getName(), topic, e.getMessage());
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
                 }
-            } finally {
-                consumer.close();
             }
-        });
+        }
+        if (failure != null) {
+            if (acks != null) {
+                for (com.shinyi.eventbus.EventListener<T> listener : succeeded) {
+                    acks.acked(listener, records);
+                }
+            }
+            throw failure;
+        }
+        if (acks != null) {
+            acks.clear(records);
+        }
+    }
 
-        log.info("Kafka consumer started for topic: {}, group: {}", finalTopic, finalListener.group());
+    /**
+     * 将同一分区的一批记录反序列化后一次性交给 {@link com.shinyi.eventbus.EventListener#onMessageBatch(List)}，
+     * 不匹配监听器消息头过滤表达式的记录在反序列化之前跳过，按已处理提交位点
+     */
+    @SuppressWarnings("unchecked")
+    private void dispatchBatch(com.shinyi.eventbus.EventListener<T> listener, List<ConsumerRecord<byte[], byte[]>> records) throws Exception {
+        boolean patternTopic = KafkaTopicRouter.isPattern(listener.topic());
+        HeaderFilter headerFilter = listener.headerFilter();
+        List<T> events = new ArrayList<>(records.size());
+        for (ConsumerRecord<byte[], byte[]> record : records) {
+            if (!headerFilter.isMatchAll() && !headerFilter.matches(name -> lastHeader(record, name))) {
+                continue;
+            }
+            if (record.value() == null || record.value().length == 0) {
+                log.warn("Message body is empty, skipping. offset={}", record.offset());
+                continue;
+            }
+            EventModel<?> event = deserialize(record.value(), lastHeader(record, EventHeaders.CONTENT_TYPE),
+                    lastHeader(record, EventHeaders.CONTENT_ENCODING), record.offset() + "", listener);
+            applyHeaders(event, record);
+            if (patternTopic) {
+                // 正则订阅时以实际 topic 为准
+                event.setTopic(record.topic());
+            }
+            events.add((T) event);
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+        listener.onMessageBatch(events);
     }
 
     protected EventModel<?> deserialize(byte[] body, String consumerTag, com.shinyi.eventbus.EventListener<T> listener) {
+        return deserialize(body, null, consumerTag, listener);
+    }
+
+    /**
+     * @param contentType 消息头中的内容类型，用于选择编解码器
+     */
+    protected EventModel<?> deserialize(byte[] body, String contentType, String consumerTag, com.shinyi.eventbus.EventListener<T> listener) {
+        return deserialize(body, contentType, null, consumerTag, listener);
+    }
+
+    /**
+     * @param contentEncoding 消息头中的压缩算法，先解压再反序列化
+     */
+    protected EventModel<?> deserialize(byte[] body, String contentType, String contentEncoding, String consumerTag,
+            com.shinyi.eventbus.EventListener<T> listener) {
         EventModel<?> eventModel;
         try {
-            eventModel = serializer.deserialize(body, listener.serializeType(), listener.entityType());
+            body = payloadCompressor.decompress(contentEncoding, body);
+            eventModel = serializer.deserialize(body, listener.serializeType(), contentType, listener.entityTypeDescriptor());
             if ("MSG".equals(listener.serializeType())) {
                 eventModel = EventModel.build(listener.topic(), null);
             }
@@ -142,18 +362,24 @@ public class KafkaMqEventListenerRegistry<T extends EventModel<?>> implements Ev
 
     @Override
     public void publish(T eventModel) {
+        List<PendingSend<T>> scope = transactionScope.get();
+        if (scope != null) {
+            // 加入当前线程的事务，提交后回调
+            PendingSend<T> pending = new PendingSend<>(eventModel);
+            scope.add(pending);
+            send(pending);
+            return;
+        }
+        if (kafkaConnectConfig.useTransactions()) {
+            publishInTransaction(eventModel);
+            return;
+        }
         final EventCallback eventCallback = eventModel.getEventCallback();
         final EventResult eventResult = new EventResult();
         try {
-            byte[] body = serializer.serialize(eventModel, eventModel.getSerializeType());
-            String topic = eventModel.getTopic();
-            if (topic == null || topic.isEmpty()) {
-                topic = kafkaConnectConfig.getTopic();
-            }
-            final String finalTopic = topic;
-            String key = eventModel.getEventId();
-            ProducerRecord<String, byte[]> record = new ProducerRecord<>(finalTopic, key, body);
-            
+            ProducerRecord<byte[], byte[]> record = buildRecord(eventModel);
+            final String finalTopic = record.topic();
+
             if (eventModel.isEnableAsync()) {
                 producer.send(record, (metadata, exception) -> {
                     if (exception == null) {
@@ -173,7 +399,7 @@ public class KafkaMqEventListenerRegistry<T extends EventModel<?>> implements Ev
             } else {
                 RecordMetadata metadata = producer.send(record).get();
                 eventResult.setMessageId(String.valueOf(metadata.offset()));
-                eventResult.setTopic(topic);
+                eventResult.setTopic(finalTopic);
                 if (eventCallback != null) {
                     eventCallback.onSuccess(eventResult);
                 }
@@ -188,18 +414,321 @@ public class KafkaMqEventListenerRegistry<T extends EventModel<?>> implements Ev
         }
     }
 
+    /**
+     * 批量发送：所有记录先交给 producer 按 batch.size/linger.ms 合并成记录批次，flush 后统一等待结果；
+     * 事务模式下整批在一个事务中提交，在外层事务中调用时结果在外层事务结束后填充
+     */
+    @Override
+    public List<EventResult> publishBatch(Collection<T> events) {
+        if (kafkaConnectConfig.useTransactions() || transactionScope.get() != null) {
+            return publishBatchInTransaction(events);
+        }
+        List<EventResult> results = new ArrayList<>(events.size());
+        List<Future<RecordMetadata>> futures = new ArrayList<>(events.size());
+        for (T eventModel : events) {
+            EventResult eventResult = new EventResult();
+            Future<RecordMetadata> future = null;
+            try {
+                ProducerRecord<byte[], byte[]> record = buildRecord(eventModel);
+                eventResult.setTopic(record.topic());
+                future = producer.send(record);
+            } catch (Exception e) {
+                eventResult.setCause(e);
+            }
+            results.add(eventResult);
+            futures.add(future);
+        }
+        producer.flush();
+
+        Iterator<T> iterator = events.iterator();
+        for (int i = 0; i < results.size(); i++) {
+            T eventModel = iterator.next();
+            EventResult eventResult = results.get(i);
+            Future<RecordMetadata> future = futures.get(i);
+            if (future != null) {
+                try {
+                    RecordMetadata metadata = future.get();
+                    eventResult.setMessageId(String.valueOf(metadata.offset()));
+                    eventResult.setSourceResult(metadata);
+                    eventResult.setSuccess(true);
+                } catch (ExecutionException e) {
+                    eventResult.setCause(e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    eventResult.setCause(e);
+                }
+            }
+            EventCallback eventCallback = eventModel.getEventCallback();
+            if (eventCallback != null) {
+                if (eventResult.isSuccess()) {
+                    eventCallback.onSuccess(eventResult);
+                } else {
+                    eventCallback.onFailure(eventResult, eventResult.getCause());
+                }
+            } else if (!eventResult.isSuccess()) {
+                log.warn("{} Publish message exception: {}", getEventBusType().getTypeName(), eventResult.getCause().getMessage());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 在一个 Kafka 事务中执行，期间当前线程向本驱动发布的消息全部在该事务中发送，全部成功才提交；
+     * 已在事务中时直接加入外层事务。需配置 transactionalId
+     */
+    public void executeInTransaction(Runnable action) {
+        if (!kafkaConnectConfig.useTransactions()) {
+            throw new EventBusException(EventBusExceptionType.EVENTBUS_PUBLISH_ERROR, registryBeanName + " transactionalId 未配置，无法使用事务");
+        }
+        try {
+            runInTransaction(action::run, null, null);
+        } catch (EventBusException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new EventBusException(EventBusExceptionType.EVENTBUS_PUBLISH_ERROR, e.getMessage(), e);
+        }
+    }
+
+    private void publishInTransaction(T eventModel) {
+        try {
+            runInTransaction(() -> publish(eventModel), null, null);
+        } catch (Exception e) {
+            log.warn("{} Publish message exception: {}", getEventBusType().getTypeName(), e.getMessage());
+            // 有回调时失败已通过回调通知
+            if (eventModel.getEventCallback() == null) {
+                throw e instanceof EventBusException ? (EventBusException) e
+                        : new EventBusException(EventBusExceptionType.EVENTBUS_PUBLISH_ERROR, e.getMessage(), e);
+            }
+        }
+    }
+
+    private List<EventResult> publishBatchInTransaction(Collection<T> events) {
+        List<EventResult> results = new ArrayList<>(events.size());
+        try {
+            runInTransaction(() -> {
+                List<PendingSend<T>> scope = transactionScope.get();
+                List<PendingSend<T>> pendings = new ArrayList<>(events.size());
+                for (T eventModel : events) {
+                    PendingSend<T> pending = new PendingSend<>(eventModel);
+                    pendings.add(pending);
+                    results.add(pending.eventResult);
+                }
+                // 先登记全部消息，发送中途失败时未发送的消息同样收到失败回调
+                scope.addAll(pendings);
+                for (PendingSend<T> pending : pendings) {
+                    send(pending);
+                }
+            }, null, null);
+        } catch (Exception e) {
+            log.warn("{} Publish batch in transaction exception: {}", getEventBusType().getTypeName(), e.getMessage());
+        }
+        return results;
+    }
+
+    /**
+     * 开启事务执行 action，可选地将消费 offset 一并提交；已在事务中时直接执行
+     */
+    private void runInTransaction(TransactionAction action, Map<TopicPartition, OffsetAndMetadata> offsets,
+                                  ConsumerGroupMetadata groupMetadata) throws Exception {
+        if (transactionScope.get() != null) {
+            action.run();
+            return;
+        }
+        List<PendingSend<T>> scope = new ArrayList<>();
+        transactionLock.lock();
+        transactionScope.set(scope);
+        try {
+            try {
+                producer.beginTransaction();
+                action.run();
+                if (offsets != null && !offsets.isEmpty()) {
+                    producer.sendOffsetsToTransaction(offsets, groupMetadata);
+                }
+                producer.commitTransaction();
+            } catch (ProducerFencedException | OutOfOrderSequenceException | AuthorizationException e) {
+                // 致命异常，事务无法中止，重建生产者后后续事务继续
+                log.error("{} Kafka 事务生产者不可恢复：{}", registryBeanName, e.getMessage());
+                rebuildProducer();
+                completePending(scope, e);
+                throw e;
+            } catch (Throwable e) {
+                abortTransaction();
+                completePending(scope, e);
+                throw e;
+            }
+            completePending(scope, null);
+        } finally {
+            transactionScope.remove();
+            transactionLock.unlock();
+        }
+    }
+
+    private void abortTransaction() {
+        try {
+            producer.abortTransaction();
+        } catch (Exception e) {
+            log.warn("{} Kafka 事务中止失败：{}", registryBeanName, e.getMessage());
+        }
+    }
+
+    private void send(PendingSend<T> pending) {
+        ProducerRecord<byte[], byte[]> record = buildRecord(pending.eventModel);
+        pending.eventResult.setTopic(record.topic());
+        pending.future = producer.send(record);
+    }
+
+    /**
+     * 事务结束后填充发布结果并触发回调，cause 为空表示事务已提交
+     */
+    private void completePending(List<PendingSend<T>> scope, Throwable cause) {
+        for (PendingSend<T> pending : scope) {
+            EventResult eventResult = pending.eventResult;
+            Throwable failure = cause;
+            if (failure == null) {
+                try {
+                    RecordMetadata metadata = pending.future.get();
+                    eventResult.setMessageId(String.valueOf(metadata.offset()));
+                    eventResult.setSourceResult(metadata);
+                    eventResult.setSuccess(true);
+                } catch (ExecutionException e) {
+                    failure = e.getCause();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failure = e;
+                }
+            }
+            if (failure != null) {
+                eventResult.setCause(failure);
+            }
+            EventCallback eventCallback = pending.eventModel.getEventCallback();
+            if (eventCallback == null) {
+                continue;
+            }
+            if (eventResult.isSuccess()) {
+                eventCallback.onSuccess(eventResult);
+            } else {
+                eventCallback.onFailure(eventResult, eventResult.getCause());
+            }
+        }
+    }
+
+    /**
+     * 同一分区批次的下一个消费位置
+     */
+    private static Map<TopicPartition, OffsetAndMetadata> nextOffsets(List<ConsumerRecord<byte[], byte[]>> records) {
+        ConsumerRecord<byte[], byte[]> last = records.get(records.size() - 1);
+        return Collections.singletonMap(new TopicPartition(last.topic(), last.partition()), new OffsetAndMetadata(last.offset() + 1));
+    }
+
+    @FunctionalInterface
+    private interface TransactionAction {
+        void run() throws Exception;
+    }
+
+    private static class PendingSend<T> {
+        private final T eventModel;
+        private final EventResult eventResult = new EventResult();
+        private Future<RecordMetadata> future;
+
+        private PendingSend(T eventModel) {
+            this.eventModel = eventModel;
+        }
+    }
+
+    /**
+     * 有分区键时以其作为记录 key，相同键进入同一分区；否则不设 key，由生产者粘性分区以提升批量效果。
+     * 事件元数据与自定义消息头写入 Kafka headers
+     */
+    private ProducerRecord<byte[], byte[]> buildRecord(T eventModel) {
+        byte[] body = serializer.serialize(eventModel, eventModel.getSerializeType());
+        String topic = eventModel.getTopic();
+        if (topic == null || topic.isEmpty()) {
+            topic = kafkaConnectConfig.getTopic();
+        }
+        String partitionKey = eventModel.getPartitionKey();
+        byte[] key = partitionKey == null ? null : partitionKey.getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = payloadCompressor.compress(body);
+        ProducerRecord<byte[], byte[]> record = new ProducerRecord<>(topic, key, compressed == null ? body : compressed);
+        Headers headers = record.headers();
+        addHeader(headers, EventHeaders.EVENT_ID, eventModel.getEventId());
+        addHeader(headers, EventHeaders.GROUP, eventModel.getGroup());
+        addHeader(headers, EventHeaders.SERIALIZE_TYPE, eventModel.getSerializeType());
+        addHeader(headers, EventHeaders.CONTENT_TYPE, serializer.contentType(eventModel.getSerializeType()));
+        if (compressed != null) {
+            addHeader(headers, EventHeaders.CONTENT_ENCODING, payloadCompressor.encoding());
+        }
+        addHeader(headers, EventHeaders.PARTITION_KEY, partitionKey);
+        if (eventModel.getHeader(EventHeaders.TRACE_ID) == null) {
+            // 链路 traceId 随消息传递，消费端恢复到 MDC
+            addHeader(headers, EventHeaders.TRACE_ID, MDC.get("traceId"));
+        }
+        if (eventModel.getHeaders() != null) {
+            eventModel.getHeaders().forEach((name, value) -> addHeader(headers, name, value));
+        }
+        return record;
+    }
+
+    private static void addHeader(Headers headers, String name, String value) {
+        if (value != null) {
+            headers.add(name, value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String lastHeader(ConsumerRecord<byte[], byte[]> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header == null || header.value() == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 将 Kafka headers 还原到事件模型：元数据优先于消息体，自定义消息头放入 headers
+     */
+    private static void applyHeaders(EventModel<?> eventModel, ConsumerRecord<byte[], byte[]> record) {
+        for (Header header : record.headers()) {
+            if (header.value() == null) {
+                continue;
+            }
+            String value = new String(header.value(), StandardCharsets.UTF_8);
+            switch (header.key()) {
+                case EventHeaders.EVENT_ID:
+                    eventModel.setEventId(value);
+                    break;
+                case EventHeaders.PARTITION_KEY:
+                    eventModel.setPartitionKey(value);
+                    break;
+                case EventHeaders.GROUP:
+                case EventHeaders.SERIALIZE_TYPE:
+                case EventHeaders.CONTENT_TYPE:
+                case EventHeaders.CONTENT_ENCODING:
+                    break;
+                default:
+                    eventModel.putHeader(header.key(), value);
+            }
+        }
+        if (eventModel.getPartitionKey() == null && record.key() != null) {
+            eventModel.setPartitionKey(new String(record.key(), StandardCharsets.UTF_8));
+        }
+    }
+
     @Override
     public void close() throws Exception {
-        for (KafkaConsumer<String, byte[]> consumer : consumerSet) {
+        for (Consumer<byte[], byte[]> consumer : consumerSet) {
             try {
                 consumer.wakeup();
             } catch (Throwable ignored) {
             }
         }
+        // 等待消费循环处理完已拉取的记录并提交 offset
+        for (ExecutorService executor : executorSet) {
+            executor.shutdown();
+        }
         for (ExecutorService executor : executorSet) {
             try {
+                if (!executor.awaitTermination(CLOSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
                 executor.shutdownNow();
-            } catch (Throwable ignored) {
             }
         }
         if (producer != null) {
@@ -4,20 +4,24 @@ import cn.hutool.core.collection.CollectionUtil;
 import cn.hutool.core.collection.ConcurrentHashSet;
 import com.rabbitmq.client.*;
 import com.shinyi.eventbus.*;
+import com.shinyi.eventbus.EventListener;
 import com.shinyi.eventbus.config.rabbit.AdvancedRabbitMqAsyncSender;
 import com.shinyi.eventbus.config.rabbit.RabbitMqConnectConfig;
 import com.shinyi.eventbus.exception.EventBusException;
 import com.shinyi.eventbus.exception.EventBusExceptionType;
 import com.shinyi.eventbus.serialize.BaseSerializer;
+import com.shinyi.eventbus.serialize.PayloadCompressor;
 import com.shinyi.eventbus.serialize.Serializer;
+import com.shinyi.eventbus.support.HeaderFilter;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationContext;
 import org.springframework.util.StringUtils;
 
 import java.io.IOException;
-import java.util.List;
-import java.util.Set;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeoutException;
 
@@ -38,8 +42,21 @@ public class RabbitMqEventListenerRegistry<T extends EventModel<?>> implements E
     private Channel producerChannel;
     private Channel producerAsyncChannel;
     protected final Set<Channel> consumerChannels = new ConcurrentHashSet<>();
-    protected final Serializer serializer = new BaseSerializer();
+    /**
+     * 序列化器，Spring 环境下使用容器中的 {@link Serializer}
+     */
+    @Setter
+    protected Serializer serializer = new BaseSerializer();
+    /**
+     * 消息体压缩，Spring 环境下使用容器中的 {@link PayloadCompressor}
+     */
+    @Setter
+    protected PayloadCompressor payloadCompressor = PayloadCompressor.none();
     protected AdvancedRabbitMqAsyncSender asyncSender;
+    /**
+     * 同步通道上批量发布、等待 broker 确认的事件，按发布序号索引
+     */
+    private final SortedMap<Long, EventResult> batchConfirms = new TreeMap<>();
 
     @Override
     public EventBusType getEventBusType() {
@@ -57,6 +74,18 @@ public class RabbitMqEventListenerRegistry<T extends EventModel<?>> implements E
             producerConnection = factory.newConnection();
             consumerConnection = factory.newConnection();
             producerChannel = producerConnection.createChannel();
+            producerChannel.confirmSelect();
+            producerChannel.addConfirmListener(new ConfirmListener() {
+                @Override
+                public void handleAck(long deliveryTag, boolean multiple) {
+                    handleBatchConfirm(deliveryTag, multiple, true);
+                }
+
+                @Override
+                public void handleNack(long deliveryTag, boolean multiple) {
+                    handleBatchConfirm(deliveryTag, multiple, false);
+                }
+            });
             producerAsyncChannel = producerConnection.createChannel();
             asyncSender = new AdvancedRabbitMqAsyncSender(producerAsyncChannel);
         } catch (Exception e) {
@@ -111,14 +140,29 @@ public class RabbitMqEventListenerRegistry<T extends EventModel<?>> implements E
     }
 
     protected EventModel<?> deserialize(byte[] body, String consumerTag, EventListener<T> listener) {
+        return deserialize(body, null, consumerTag, listener);
+    }
+
+    /**
+     * @param contentType AMQP 消息属性中的内容类型，用于选择编解码器
+     */
+    protected EventModel<?> deserialize(byte[] body, String contentType, String consumerTag, EventListener<T> listener) {
+        return deserialize(body, contentType, null, consumerTag, listener);
+    }
+
+    /**
+     * @param contentEncoding 消息头中的压缩算法，先解压再反序列化
+     */
+    protected EventModel<?> deserialize(byte[] body, String contentType, String contentEncoding, String consumerTag, EventListener<T> listener) {
         EventModel<?> eventModel;
         try {
-            eventModel = serializer.deserialize(body, listener.serializeType(), listener.entityType());
+            body = payloadCompressor.decompress(contentEncoding, body);
+            eventModel = serializer.deserialize(body, listener.serializeType(), contentType, listener.entityTypeDescriptor());
             if("MSG".equals(listener.serializeType())) {
                 eventModel = EventModel.build(listener.topic(), null);
             }
         } catch (Throwable e) {
-            log.warn(registryBeanName + " msgId: "+consumerTag+" 消息反序列化失败：" + new String(body));
+            log.warn(registryBeanName + " msgId: "+consumerTag+" 消息反序列化失败：" + new String(body, StandardCharsets.UTF_8));
             // 返回空
             eventModel = EventModel.build(listener.topic(), null);
         }
@@ -175,7 +219,14 @@ public class RabbitMqEventListenerRegistry<T extends EventModel<?>> implements E
                             log.warn("消息体为空，跳过处理. consumerTag={}", consumerTag);
                             return;
                         }
-                        EventModel<?> eventModel = deserialize(body, consumerTag, listener);
+                        HeaderFilter headerFilter = listener.headerFilter();
+                        if (!headerFilter.isMatchAll() && !headerFilter.matches(name -> headerOf(envelope, properties, name))) {
+                            // 不匹配的消息不反序列化，直接确认
+                            consumerChannel.basicAck(envelope.getDeliveryTag(), false);
+                            return;
+                        }
+                        EventModel<?> eventModel = deserialize(body, properties == null ? null : properties.getContentType(),
+                                headerOf(envelope, properties, EventHeaders.CONTENT_ENCODING), consumerTag, listener);
                         listener.onMessage((T) eventModel);
                         consumerChannel.basicAck(envelope.getDeliveryTag(), false);
                     } catch (Exception e) {
@@ -191,6 +242,56 @@ public class RabbitMqEventListenerRegistry<T extends EventModel<?>> implements E
         }
     }
 
+    /**
+     * 过滤表达式读取的消息头，AMQP headers 优先，routingKey / type / contentType / messageId 对应消息属性
+     */
+    private static String headerOf(Envelope envelope, AMQP.BasicProperties properties, String name) {
+        Map<String, Object> headers = properties == null ? null : properties.getHeaders();
+        Object value = headers == null ? null : headers.get(name);
+        if (value != null) {
+            return value instanceof byte[] ? new String((byte[]) value, StandardCharsets.UTF_8) : value.toString();
+        }
+        switch (name) {
+            case "routingKey":
+                return envelope.getRoutingKey();
+            case "type":
+                return properties == null ? null : properties.getType();
+            case "contentType":
+                return properties == null ? null : properties.getContentType();
+            case "messageId":
+                return properties == null ? null : properties.getMessageId();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 元数据与自定义消息头写入 AMQP headers，消费端可在反序列化之前按消息头过滤
+     * @param contentEncoding 消息体压缩算法，未压缩时为 null
+     */
+    private AMQP.BasicProperties propertiesOf(EventModel<?> eventModel, String contentEncoding) {
+        Map<String, Object> headers = new HashMap<>();
+        putHeader(headers, EventHeaders.CONTENT_ENCODING, contentEncoding);
+        putHeader(headers, EventHeaders.EVENT_ID, eventModel.getEventId());
+        putHeader(headers, EventHeaders.GROUP, eventModel.getGroup());
+        putHeader(headers, EventHeaders.SERIALIZE_TYPE, eventModel.getSerializeType());
+        putHeader(headers, EventHeaders.PARTITION_KEY, eventModel.getPartitionKey());
+        if (eventModel.getHeaders() != null) {
+            eventModel.getHeaders().forEach((name, value) -> putHeader(headers, name, value));
+        }
+        return new AMQP.BasicProperties.Builder()
+                .messageId(eventModel.getEventId())
+                .contentType(serializer.contentType(eventModel.getSerializeType()))
+                .headers(headers)
+                .build();
+    }
+
+    private static void putHeader(Map<String, Object> headers, String name, String value) {
+        if (name != null && value != null) {
+            headers.put(name, value);
+        }
+    }
+
     private void sendAsync(T eventModel, String exchange, String routingKey, byte[] body) throws IOException {
         // 启用 Confirm 模式
         producerAsyncChannel.confirmSelect();
@@ -230,6 +331,11 @@ public class RabbitMqEventListenerRegistry<T extends EventModel<?>> implements E
         EventResult eventResult = new EventResult();
         try {
             byte[] body = serializer.serialize(eventModel, eventModel.getSerializeType());
+            byte[] compressed = payloadCompressor.compress(body);
+            AMQP.BasicProperties properties = propertiesOf(eventModel, compressed == null ? null : payloadCompressor.encoding());
+            if (compressed != null) {
+                body = compressed;
+            }
             String exchange = eventModel.getTopic();
             String routingKey = eventModel.getTags();
             if(!StringUtils.hasText(routingKey)) {
@@ -238,12 +344,12 @@ public class RabbitMqEventListenerRegistry<T extends EventModel<?>> implements E
             if(eventModel.isEnableAsync()) {
                 // 异步发送
                 //sendAsync(eventModel, exchange, routingKey, body);
-                asyncSender.asyncPublishWithConfirm(exchange, routingKey, body, eventCallback);
+                asyncSender.asyncPublishWithConfirm(exchange, routingKey, properties, body, eventCallback);
             } else {
                 // 同步阻塞发送
                 producerChannel.confirmSelect();
                 long seqNo = producerChannel.getNextPublishSeqNo();
-                producerChannel.basicPublish(exchange, routingKey, null, body);
+                producerChannel.basicPublish(exchange, routingKey, properties, body);
                 producerChannel.waitForConfirms();
                 if(null != eventCallback) {
                     eventResult.setMessageId(String.valueOf(seqNo));
@@ -262,6 +368,105 @@ public class RabbitMqEventListenerRegistry<T extends EventModel<?>> implements E
         }
     }
 
+    /**
+     * 批量确认：按发布序号逐条记录 ack / nack，multiple 时包含该序号及之前的全部事件
+     */
+    private void handleBatchConfirm(long deliveryTag, boolean multiple, boolean ack) {
+        synchronized (batchConfirms) {
+            SortedMap<Long, EventResult> confirmed = multiple
+                    ? batchConfirms.headMap(deliveryTag + 1)
+                    : batchConfirms.subMap(deliveryTag, deliveryTag + 1);
+            confirmed.forEach((seq, eventResult) -> {
+                eventResult.setSourceResult(ack);
+                if (ack) {
+                    eventResult.setSuccess(true);
+                } else {
+                    eventResult.setCause(new RuntimeException("Broker nack message in batch, seq=" + seq));
+                }
+            });
+            confirmed.clear();
+        }
+    }
+
+    /**
+     * 批量发送：在同步通道上连续发布，由 ConfirmListener 逐条确认，最多等待 sendMsgTimeout 毫秒，
+     * 超时或通道异常时尚未确认的事件视为失败
+     */
+    @Override
+    public List<EventResult> publishBatch(Collection<T> events) {
+        List<EventResult> results = new ArrayList<>(events.size());
+        for (T eventModel : events) {
+            EventResult eventResult = new EventResult();
+            eventResult.setTopic(eventModel.getTopic());
+            results.add(eventResult);
+        }
+        synchronized (producerChannel) {
+            Exception failure = null;
+            try {
+                producerChannel.confirmSelect();
+                Iterator<EventResult> resultIterator = results.iterator();
+                for (T eventModel : events) {
+                    EventResult eventResult = resultIterator.next();
+                    long seqNo = -1;
+                    try {
+                        byte[] body = serializer.serialize(eventModel, eventModel.getSerializeType());
+                        byte[] compressed = payloadCompressor.compress(body);
+                        AMQP.BasicProperties properties = propertiesOf(eventModel, compressed == null ? null : payloadCompressor.encoding());
+                        if (compressed != null) {
+                            body = compressed;
+                        }
+                        String exchange = eventModel.getTopic();
+                        String routingKey = eventModel.getTags();
+                        if(!StringUtils.hasText(routingKey)) {
+                            routingKey = exchange;
+                        }
+                        seqNo = producerChannel.getNextPublishSeqNo();
+                        eventResult.setMessageId(String.valueOf(seqNo));
+                        synchronized (batchConfirms) {
+                            batchConfirms.put(seqNo, eventResult);
+                        }
+                        producerChannel.basicPublish(exchange, routingKey, properties, body);
+                    } catch (Exception e) {
+                        if (seqNo >= 0) {
+                            synchronized (batchConfirms) {
+                                batchConfirms.remove(seqNo);
+                            }
+                        }
+                        eventResult.setCause(e);
+                    }
+                }
+                // nack 已由 ConfirmListener 逐条记录，忽略汇总结果
+                producerChannel.waitForConfirms(rabbitMqConnectConfig.getSendMsgTimeout());
+            } catch (Exception e) {
+                log.warn("{} 批量推送消息异常 {}", getEventBusType().getTypeName(), e.getMessage());
+                failure = e;
+            } finally {
+                synchronized (batchConfirms) {
+                    // 批次之间持有 producerChannel 锁，剩余的只有本批次未确认的事件
+                    batchConfirms.clear();
+                    for (EventResult eventResult : results) {
+                        if (!eventResult.isSuccess() && eventResult.getCause() == null) {
+                            eventResult.setCause(failure != null ? failure
+                                    : new TimeoutException("Broker confirm not received, seq=" + eventResult.getMessageId()));
+                        }
+                    }
+                }
+            }
+        }
+        Iterator<T> iterator = events.iterator();
+        for (EventResult eventResult : results) {
+            EventCallback eventCallback = iterator.next().getEventCallback();
+            if(null != eventCallback) {
+                if(eventResult.isSuccess()) {
+                    eventCallback.onSuccess(eventResult);
+                } else {
+                    eventCallback.onFailure(eventResult, eventResult.getCause());
+                }
+            }
+        }
+        return results;
+    }
+
     @Override
     public void close() throws Exception {
         if(producerChannel != null) {
@@ -5,23 +5,33 @@ import cn.hutool.core.collection.ConcurrentHashSet;
 import com.shinyi.eventbus.*;
 import com.shinyi.eventbus.config.redis.RedisConnectConfig;
 import com.shinyi.eventbus.serialize.BaseSerializer;
+import com.shinyi.eventbus.serialize.PayloadCompressor;
 import com.shinyi.eventbus.serialize.Serializer;
+import com.shinyi.eventbus.support.EventBusExecutors;
+import com.shinyi.eventbus.support.ExecutorMode;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationContext;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.listener.ChannelTopic;
 import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.listener.Topic;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -38,11 +48,28 @@ public class RedisMqEventListenerRegistry<T extends EventModel<?>> implements Ev
     protected final RedisConnectConfig redisConnectConfig;
     protected final RedisConnectionFactory redisConnectionFactory;
 
+    private static final byte[] STREAM_TOPIC_FIELD = "topic".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] STREAM_BODY_FIELD = "body".getBytes(StandardCharsets.UTF_8);
+
     private StringRedisTemplate redisTemplate;
     private RedisMessageListenerContainer container;
     private final Set<ExecutorService> executorSet = ConcurrentHashMap.newKeySet();
-    protected final Serializer serializer = new BaseSerializer();
+    /**
+     * 序列化器，Spring 环境下使用容器中的 {@link Serializer}
+     */
+    @Setter
+    protected Serializer serializer = new BaseSerializer();
+    /**
+     * 消息体压缩，Redis 没有消息头，压缩后的消息体带帧前缀
+     */
+    @Setter
+    protected PayloadCompressor payloadCompressor = PayloadCompressor.none();
     private final AtomicBoolean started = new AtomicBoolean(false);
+    /**
+     * 消费线程模式，VIRTUAL 时消费循环及监听器处理运行在虚拟线程上
+     */
+    @Setter
+    private ExecutorMode executorMode = ExecutorMode.PLATFORM;
 
     @Override
     public EventBusType getEventBusType() {
@@ -92,7 +119,7 @@ public class RedisMqEventListenerRegistry<T extends EventModel<?>> implements Ev
     private void initPubSubConsumer(com.shinyi.eventbus.EventListener<T> listener, String channel) {
         // Note: Pub/Sub requires RedisConnectionFactory to be properly configured
         // This is a simplified implementation
-        ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "redis-sub-" + channel));
+        ExecutorService executor = EventBusExecutors.newSingleThreadExecutor(executorMode, "redis-sub-" + channel);
         executorSet.add(executor);
 
         executor.submit(() -> {
@@ -115,7 +142,7 @@ public class RedisMqEventListenerRegistry<T extends EventModel<?>> implements Ev
     }
 
     private void initStreamConsumer(com.shinyi.eventbus.EventListener<T> listener, String streamKey) {
-        ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "redis-stream-" + streamKey));
+        ExecutorService executor = EventBusExecutors.newSingleThreadExecutor(executorMode, "redis-stream-" + streamKey);
         executorSet.add(executor);
 
         String actualStreamKey = streamKey;
@@ -148,7 +175,8 @@ public class RedisMqEventListenerRegistry<T extends EventModel<?>> implements Ev
     protected EventModel<?> deserialize(byte[] body, com.shinyi.eventbus.EventListener<T> listener) {
         EventModel<?> eventModel;
         try {
-            eventModel = serializer.deserialize(body, listener.serializeType(), listener.entityType());
+            body = payloadCompressor.unframe(body);
+            eventModel = serializer.deserialize(body, listener.serializeType(), listener.entityTypeDescriptor());
         } catch (Throwable e) {
             log.warn(registryBeanName + " Message deserialization failed: " + new String(body, StandardCharsets.UTF_8));
             eventModel = EventModel.build(listener.topic(), null);
@@ -167,27 +195,135 @@ public class RedisMqEventListenerRegistry<T extends EventModel<?>> implements Ev
 
     @Override
     public void publish(T eventModel) {
+        final EventCallback eventCallback = eventModel.getEventCallback();
+        final EventResult eventResult = new EventResult();
         try {
-            byte[] body = serializer.serialize(eventModel, eventModel.getSerializeType());
+            byte[] serialized = serializer.serialize(eventModel, eventModel.getSerializeType());
+            byte[] body = payloadCompressor.frame(serialized);
             String channel = eventModel.getTopic();
 
             if (channel == null || channel.isEmpty()) {
                 channel = redisConnectConfig.getChannelPrefix() + registryBeanName;
             }
+            eventResult.setTopic(channel);
+            eventResult.setMessageId(eventModel.getEventId());
 
-            if (redisConnectConfig.isUseStream() && redisConnectConfig.getStreamKey() != null) {
-                // Publish to stream - would need proper stream operations
-                log.debug("Redis stream publish to: {}", redisConnectConfig.getStreamKey());
+            if (useStream()) {
+                byte[] streamKey = redisConnectConfig.getStreamKey().getBytes(StandardCharsets.UTF_8);
+                Map<byte[], byte[]> content = streamRecord(channel, body);
+                redisTemplate.execute((RedisCallback<RecordId>) connection -> connection.streamCommands().xAdd(streamKey, content));
             } else {
                 // Publish to pub/sub
-                redisTemplate.convertAndSend(channel, new String(body, StandardCharsets.UTF_8));
+                if (body == serialized) {
+                    redisTemplate.convertAndSend(channel, new String(body, StandardCharsets.UTF_8));
+                } else {
+                    // 压缩后的二进制消息体不能按字符串发送
+                    byte[] channelBytes = channel.getBytes(StandardCharsets.UTF_8);
+                    redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channelBytes, body));
+                }
             }
 
             log.debug("Redis message published to channel: {}", channel);
+            eventResult.setSuccess(true);
+            if (eventCallback != null) {
+                eventCallback.onSuccess(eventResult);
+            }
         } catch (Exception e) {
             log.warn("{} Publish message exception: {}", getEventBusType().getTypeName(), e.getMessage());
-            throw new RuntimeException("Redis publish failed", e);
+            if (eventCallback != null) {
+                eventCallback.onFailure(eventResult, e);
+            } else {
+                throw new RuntimeException("Redis publish failed", e);
+            }
+        }
+    }
+
+    private boolean useStream() {
+        return redisConnectConfig.isUseStream() && redisConnectConfig.getStreamKey() != null;
+    }
+
+    /**
+     * Stream 消息的字段：topic 与消息体
+     */
+    private static Map<byte[], byte[]> streamRecord(String topic, byte[] body) {
+        Map<byte[], byte[]> content = new LinkedHashMap<>(2);
+        content.put(STREAM_TOPIC_FIELD, topic.getBytes(StandardCharsets.UTF_8));
+        content.put(STREAM_BODY_FIELD, body);
+        return content;
+    }
+
+    /**
+     * 批量发送：使用 pipeline 一次往返发送全部消息，Stream 模式下逐条 XADD
+     */
+    @Override
+    public List<EventResult> publishBatch(Collection<T> events) {
+        List<EventResult> results = new ArrayList<>(events.size());
+        List<byte[]> channels = new ArrayList<>(events.size());
+        List<byte[]> bodies = new ArrayList<>(events.size());
+        for (T eventModel : events) {
+            EventResult eventResult = new EventResult();
+            results.add(eventResult);
+            try {
+                String channel = eventModel.getTopic();
+                if (channel == null || channel.isEmpty()) {
+                    channel = redisConnectConfig.getChannelPrefix() + registryBeanName;
+                }
+                eventResult.setTopic(channel);
+                eventResult.setMessageId(eventModel.getEventId());
+                bodies.add(payloadCompressor.frame(serializer.serialize(eventModel, eventModel.getSerializeType())));
+                channels.add(channel.getBytes(StandardCharsets.UTF_8));
+            } catch (Exception e) {
+                eventResult.setCause(e);
+                bodies.add(null);
+                channels.add(null);
+            }
+        }
+        try {
+            if (useStream()) {
+                byte[] streamKey = redisConnectConfig.getStreamKey().getBytes(StandardCharsets.UTF_8);
+                redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    for (int i = 0; i < bodies.size(); i++) {
+                        if (bodies.get(i) != null) {
+                            connection.streamCommands().xAdd(streamKey, streamRecord(new String(channels.get(i), StandardCharsets.UTF_8), bodies.get(i)));
+                        }
+                    }
+                    return null;
+                });
+            } else {
+                redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    for (int i = 0; i < bodies.size(); i++) {
+                        if (bodies.get(i) != null) {
+                            connection.publish(channels.get(i), bodies.get(i));
+                        }
+                    }
+                    return null;
+                });
+            }
+            for (int i = 0; i < results.size(); i++) {
+                if (bodies.get(i) != null) {
+                    results.get(i).setSuccess(true);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("{} Batch publish message exception: {}", getEventBusType().getTypeName(), e.getMessage());
+            for (int i = 0; i < results.size(); i++) {
+                if (bodies.get(i) != null) {
+                    results.get(i).setCause(e);
+                }
+            }
+        }
+        Iterator<T> iterator = events.iterator();
+        for (EventResult eventResult : results) {
+            EventCallback eventCallback = iterator.next().getEventCallback();
+            if (eventCallback != null) {
+                if (eventResult.isSuccess()) {
+                    eventCallback.onSuccess(eventResult);
+                } else {
+                    eventCallback.onFailure(eventResult, eventResult.getCause());
+                }
+            }
         }
+        return results;
     }
 
     @Override
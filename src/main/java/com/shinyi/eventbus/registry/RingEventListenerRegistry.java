@@ -0,0 +1,169 @@
+package com.shinyi.eventbus.registry;
+
+import cn.hutool.core.collection.CollectionUtil;
+import com.shinyi.eventbus.*;
+import com.shinyi.eventbus.EventListener;
+import com.shinyi.eventbus.support.TopicListenerIndex;
+import com.shinyi.eventbus.support.ring.RingBuffer;
+import com.shinyi.eventbus.support.ring.RingConsumer;
+import com.shinyi.eventbus.support.ring.WaitStrategy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+
+/**
+ * 基于环形缓冲区的本地事件总线。
+ * <p>
+ * 按 topic 哈希分片，每个分片一个预分配的无锁环形缓冲区和一个消费线程，同一 topic 的事件保持发布顺序；
+ * 消费线程每次取出全部可用事件，按 topic 聚合后调用 {@link EventListener#onMessageBatch(List)}。
+ * 异步事件的回调在监听器处理完成后于消费线程中触发，同步事件直接在当前线程分发。
+ * @author MSGA
+ */
+@Slf4j
+public class RingEventListenerRegistry<T extends EventModel<?>> implements EventListenerRegistry<T> {
+
+    private static final long CLOSE_TIMEOUT_MILLIS = 5000L;
+
+    protected final String registryBeanName;
+    protected final int bufferSize;
+    protected final int shardCount;
+    protected final String waitStrategy;
+
+    protected volatile TopicListenerIndex<EventListener<T>> listenerIndex = TopicListenerIndex.empty();
+
+    private volatile RingBuffer<T>[] shards;
+    private Thread[] consumerThreads;
+
+    public RingEventListenerRegistry(String registryBeanName, int bufferSize, int shardCount, String waitStrategy) {
+        this.registryBeanName = registryBeanName;
+        this.bufferSize = bufferSize;
+        this.shardCount = Math.max(1, shardCount);
+        this.waitStrategy = waitStrategy;
+    }
+
+    @Override
+    public EventBusType getEventBusType() {
+        return EventBusType.RING;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized void initRegistryEventListener(List<EventListener<T>> listener) {
+        if(listener == null) { return; }
+        List<EventListener<T>> matched = new ArrayList<>();
+        for (EventListener<T> l : listener) {
+            if(CollectionUtil.isNotEmpty(l.registryBeanName()) && !CollectionUtil.contains(l.registryBeanName(), registryBeanName)) {
+                log.debug("{} not match skip listener [{}]", registryBeanName, l);
+                continue;
+            }
+            log.info("注册监听器：{}",l.getClass().getName());
+            matched.add(l);
+        }
+        listenerIndex = TopicListenerIndex.of(matched);
+        if(shards != null) { return; }
+        shards = new RingBuffer[shardCount];
+        consumerThreads = new Thread[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            RingBuffer<T> ringBuffer = new RingBuffer<>(bufferSize, WaitStrategy.of(waitStrategy));
+            shards[i] = ringBuffer;
+            Thread thread = new Thread(new RingConsumer<>(ringBuffer, this::dispatchBatch), "eventbus-ring-" + registryBeanName + "-" + i);
+            thread.setDaemon(true);
+            consumerThreads[i] = thread;
+            thread.start();
+        }
+        log.info("{} RingBuffer 启动完成，分片：{}，容量：{}，等待策略：{}", registryBeanName, shardCount, bufferSize, waitStrategy);
+    }
+
+    /**
+     * 运行期新增监听器，重建索引
+     */
+    public synchronized void addEventListener(EventListener<T> listener) {
+        listenerIndex = listenerIndex.with(listener);
+    }
+
+    /**
+     * 运行期移除监听器，重建索引
+     */
+    public synchronized void removeEventListener(EventListener<T> listener) {
+        listenerIndex = listenerIndex.without(listener);
+    }
+
+    @Override
+    public void publish(T eventModel) {
+        RingBuffer<T>[] ringBuffers = shards;
+        if(!eventModel.isEnableAsync() || ringBuffers == null) {
+            dispatchBatch(Collections.singletonList(eventModel));
+            return;
+        }
+        try {
+            shardOf(ringBuffers, eventModel.getTopic()).publish(eventModel);
+        } catch (Exception e) {
+            EventCallback eventCallback = eventModel.getEventCallback();
+            if(null == eventCallback) { throw e; }
+            eventCallback.onFailure(newResult(eventModel), e);
+        }
+    }
+
+    private RingBuffer<T> shardOf(RingBuffer<T>[] ringBuffers, String topic) {
+        int hash = topic == null ? 0 : topic.hashCode();
+        // 扰动后取模，同一 topic 固定落在同一分片以保证顺序
+        return ringBuffers[((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % ringBuffers.length];
+    }
+
+    /**
+     * 按 topic 聚合后整批交给匹配的监听器，处理完成后触发回调
+     */
+    private void dispatchBatch(List<T> batch) {
+        Map<String, List<T>> topicEvents;
+        if(batch.size() == 1) {
+            topicEvents = Collections.singletonMap(batch.get(0).getTopic(), batch);
+        } else {
+            topicEvents = new LinkedHashMap<>();
+            for (T eventModel : batch) {
+                topicEvents.computeIfAbsent(eventModel.getTopic(), k -> new ArrayList<>()).add(eventModel);
+            }
+        }
+        for (Map.Entry<String, List<T>> entry : topicEvents.entrySet()) {
+            Throwable cause = null;
+            for (EventListener<T> l : listenerIndex.match(entry.getKey())) {
+                try {
+                    l.onMessageBatch(entry.getValue());
+                } catch (Throwable e) {
+                    log.error("{} 分发事件异常，topic: {}, listener: {}", registryBeanName, entry.getKey(), l.getClass().getName(), e);
+                    cause = e;
+                }
+            }
+            for (T eventModel : entry.getValue()) {
+                EventCallback eventCallback = eventModel.getEventCallback();
+                if(null == eventCallback) { continue; }
+                EventResult eventResult = newResult(eventModel);
+                if(cause == null) {
+                    eventCallback.onSuccess(eventResult);
+                } else {
+                    eventCallback.onFailure(eventResult, cause);
+                }
+            }
+        }
+    }
+
+    private EventResult newResult(T eventModel) {
+        EventResult eventResult = new EventResult();
+        eventResult.setTopic(eventModel.getTopic());
+        eventResult.setMessageId(eventModel.getEventId());
+        return eventResult;
+    }
+
+    @Override
+    public synchronized void close() throws Exception {
+        if(shards == null) { return; }
+        for (RingBuffer<T> shard : shards) {
+            shard.halt();
+        }
+        // 消费线程处理完已发布的事件后退出
+        for (Thread thread : consumerThreads) {
+            thread.join(CLOSE_TIMEOUT_MILLIS);
+        }
+        shards = null;
+        consumerThreads = null;
+    }
+}
@@ -1,22 +1,31 @@
 package com.shinyi.eventbus.registry;
 
 import cn.hutool.core.collection.CollectionUtil;
+import cn.hutool.core.date.DateUtil;
 import cn.hutool.core.lang.UUID;
+import cn.hutool.core.map.MapUtil;
 import cn.hutool.core.util.StrUtil;
 import com.aliyun.openservices.ons.api.impl.rocketmq.ONSConsumerAbstract;
 import com.aliyun.openservices.shade.com.alibaba.rocketmq.client.consumer.listener.MessageListener;
 import com.aliyun.openservices.ons.api.ONSFactory;
 import com.aliyun.openservices.ons.api.PropertyKeyConst;
 import com.aliyun.openservices.ons.api.impl.rocketmq.ProducerImpl;
+import com.aliyun.openservices.ons.api.impl.rocketmq.TransactionProducerImpl;
 import com.aliyun.openservices.shade.com.alibaba.rocketmq.client.consumer.*;
 import com.aliyun.openservices.shade.com.alibaba.rocketmq.client.consumer.listener.*;
 import com.aliyun.openservices.shade.com.alibaba.rocketmq.client.exception.MQClientException;
 import com.aliyun.openservices.shade.com.alibaba.rocketmq.client.producer.DefaultMQProducer;
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.client.producer.LocalTransactionExecuter;
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.client.producer.LocalTransactionState;
 import com.aliyun.openservices.shade.com.alibaba.rocketmq.client.producer.MQProducer;
 import com.aliyun.openservices.shade.com.alibaba.rocketmq.client.producer.SendCallback;
 import com.aliyun.openservices.shade.com.alibaba.rocketmq.client.producer.SendResult;
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.client.producer.SendStatus;
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.client.producer.TransactionMQProducer;
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.client.producer.TransactionSendResult;
 import com.aliyun.openservices.shade.com.alibaba.rocketmq.common.consumer.ConsumeFromWhere;
 import com.aliyun.openservices.shade.com.alibaba.rocketmq.common.message.Message;
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.common.message.MessageConst;
 import com.aliyun.openservices.shade.com.alibaba.rocketmq.common.message.MessageExt;
 import com.aliyun.openservices.shade.com.alibaba.rocketmq.common.message.MessageQueue;
 import com.aliyun.openservices.shade.com.alibaba.rocketmq.common.protocol.heartbeat.MessageModel;
@@ -26,19 +35,24 @@ import com.shinyi.eventbus.config.rocketmq.RocketMqConnectConfig;
 import com.shinyi.eventbus.exception.EventBusException;
 import com.shinyi.eventbus.exception.EventBusExceptionType;
 import com.shinyi.eventbus.serialize.BaseSerializer;
+import com.shinyi.eventbus.serialize.PayloadCompressor;
 import com.shinyi.eventbus.serialize.Serializer;
+import com.shinyi.eventbus.support.HeaderFilter;
+import com.shinyi.eventbus.support.rocketmq.MessageBatchSplitter;
+import com.shinyi.eventbus.support.rocketmq.RocketMqPullLoop;
+import com.shinyi.eventbus.support.rocketmq.ShardingKeyQueueSelector;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationContext;
 import org.springframework.util.StringUtils;
 
 import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * RockMq事件监听器注册器
@@ -48,7 +62,12 @@ import java.util.concurrent.atomic.AtomicInteger;
 @Slf4j
 @RequiredArgsConstructor
 @SuppressWarnings("unchecked")
-public class RocketMqEventListenerRegistry<T extends EventModel<?>> implements EventListenerRegistry<T> {
+public class RocketMqEventListenerRegistry<T extends EventModel<?>> implements EventListenerRegistry<T>, TransactionalEventPublisher<T> {
+
+    /**
+     * 所有事务消息共用的本地事务执行器，本地事务随 arg 传入，不为每个事务注册监听
+     */
+    private static final LocalTransactionExecuter LOCAL_TRANSACTION_EXECUTER = (message, arg) -> ((LocalTransactionCall) arg).execute();
 
     protected final ApplicationContext applicationContext;
 
@@ -60,9 +79,25 @@ public class RocketMqEventListenerRegistry<T extends EventModel<?>> implements E
 
     protected MQProducer mqProducer = null;
 
-    protected final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors()+1);
+    protected final List<RocketMqPullLoop> pullLoops = new CopyOnWriteArrayList<>();
 
-    protected final Serializer serializer = new BaseSerializer();
+    private volatile ShardingKeyQueueSelector queueSelector;
+
+    /**
+     * 序列化器，Spring 环境下使用容器中的 {@link Serializer}
+     */
+    @Setter
+    protected Serializer serializer = new BaseSerializer();
+    /**
+     * 消息体压缩，Spring 环境下使用容器中的 {@link PayloadCompressor}
+     */
+    @Setter
+    protected PayloadCompressor payloadCompressor = PayloadCompressor.none();
+    /**
+     * 事务回查，Spring 环境下使用容器中的 {@link TransactionChecker}
+     */
+    @Setter
+    protected TransactionChecker transactionChecker;
 
     @Override
     public EventBusType getEventBusType() {
@@ -88,20 +123,20 @@ public class RocketMqEventListenerRegistry<T extends EventModel<?>> implements E
         CompletableFuture.allOf(futures).join();
     }
 
+    /**
+     * 发送单条事件，设置了 partitionKey 时按键哈希选择队列发送，相同键的事件进入同一队列
+     */
     @Override
     public void publish(T eventModel) {
-        // 解决按序、事务发送
         EventCallback eventCallback = eventModel.getEventCallback();
         EventResult eventResult = new EventResult();
+        boolean sharded = StrUtil.isNotBlank(eventModel.getPartitionKey());
         try {
-            Message message = new Message();
-            message.setBody(serializer.serialize(eventModel, eventModel.getSerializeType()));
-            message.setTopic(eventModel.getTopic());
-            String tags = StrUtil.isBlank(eventModel.getTags()) ? "*": eventModel.getTags();
-            message.setTags(tags);
+            Message message = buildMessage(eventModel);
+            MessageQueue queue = sharded ? queueSelector().select(eventModel.getTopic(), eventModel.getPartitionKey()) : null;
 
             if(eventModel.isEnableAsync()) {
-                mqProducer.send(message, new SendCallback() {
+                SendCallback sendCallback = new SendCallback() {
                     @Override
                     public void onSuccess(SendResult sendResult) {
                         if(null != eventCallback) {
@@ -113,14 +148,22 @@ public class RocketMqEventListenerRegistry<T extends EventModel<?>> implements E
                     }
                     @Override
                     public void onException(Throwable e) {
+                        if(sharded) {
+                            queueSelector().invalidate(eventModel.getTopic());
+                        }
                         if(null != eventCallback) {
                             eventResult.setTopic(eventModel.getTopic());
                             eventCallback.onFailure(eventResult, e);
                         }
                     }
-                });
+                };
+                if(queue == null) {
+                    mqProducer.send(message, sendCallback);
+                } else {
+                    mqProducer.send(message, queue, sendCallback);
+                }
             } else {
-                SendResult sendResult = mqProducer.send(message);
+                SendResult sendResult = queue == null ? mqProducer.send(message) : mqProducer.send(message, queue);
                 if(null != eventCallback) {
                     eventResult.setMessageId(sendResult.getMsgId());
                     eventResult.setTopic(sendResult.getMessageQueue().getTopic());
@@ -129,6 +172,10 @@ public class RocketMqEventListenerRegistry<T extends EventModel<?>> implements E
             }
         } catch (Exception e) {
             log.warn("{} 推送消息异常 {}", getEventBusType().getTypeName(), e.getMessage());
+            if(sharded) {
+                // 队列可能已迁移或缩容，下次发送重新加载路由
+                queueSelector().invalidate(eventModel.getTopic());
+            }
             if(null != eventCallback) {
                 eventCallback.onFailure(eventResult, e);
             } else {
@@ -138,14 +185,282 @@ public class RocketMqEventListenerRegistry<T extends EventModel<?>> implements E
         }
     }
 
+    /**
+     * 批量发送：按 topic 分组，设置了 partitionKey 的事件再按选中的队列分组，
+     * 组内按编码后大小切分为不超过 {@link #maxBatchBytes()} 的批次，
+     * 每批通过一次 {@code send(Collection<Message>)} 请求发送，逐条回填发送结果
+     */
+    @Override
+    public List<EventResult> publishBatch(Collection<T> events) {
+        List<T> eventList = new ArrayList<>(events);
+        List<EventResult> results = new ArrayList<>(eventList.size());
+        // topic -> 队列（未设置 partitionKey 时为 null，由生产者轮询选择） -> 事件下标
+        Map<String, Map<MessageQueue, List<Integer>>> groups = new LinkedHashMap<>();
+        List<Message> messages = new ArrayList<>(eventList.size());
+        for (int i = 0; i < eventList.size(); i++) {
+            T eventModel = eventList.get(i);
+            EventResult eventResult = new EventResult();
+            eventResult.setTopic(eventModel.getTopic());
+            results.add(eventResult);
+            try {
+                messages.add(buildMessage(eventModel));
+                MessageQueue queue = StrUtil.isBlank(eventModel.getPartitionKey()) ? null
+                        : queueSelector().select(eventModel.getTopic(), eventModel.getPartitionKey());
+                groups.computeIfAbsent(eventModel.getTopic(), k -> new LinkedHashMap<>())
+                        .computeIfAbsent(queue, k -> new ArrayList<>()).add(i);
+            } catch (Exception e) {
+                if(messages.size() == i) {
+                    messages.add(null);
+                }
+                eventResult.setCause(e);
+            }
+        }
+        int maxBatchBytes = maxBatchBytes();
+        for (Map<MessageQueue, List<Integer>> queueGroups : groups.values()) {
+            for (Map.Entry<MessageQueue, List<Integer>> group : queueGroups.entrySet()) {
+                List<Integer> groupIndexes = group.getValue();
+                List<Message> groupMessages = new ArrayList<>(groupIndexes.size());
+                for (Integer index : groupIndexes) {
+                    groupMessages.add(messages.get(index));
+                }
+                for (List<Integer> split : MessageBatchSplitter.split(groupMessages, maxBatchBytes)) {
+                    List<Integer> indexes = new ArrayList<>(split.size());
+                    List<Message> batch = new ArrayList<>(split.size());
+                    for (Integer position : split) {
+                        indexes.add(groupIndexes.get(position));
+                        batch.add(groupMessages.get(position));
+                    }
+                    sendBatch(batch, group.getKey(), indexes, results);
+                }
+            }
+        }
+        for (int i = 0; i < eventList.size(); i++) {
+            EventCallback eventCallback = eventList.get(i).getEventCallback();
+            EventResult eventResult = results.get(i);
+            if(null != eventCallback) {
+                if(eventResult.isSuccess()) {
+                    eventCallback.onSuccess(eventResult);
+                } else {
+                    eventCallback.onFailure(eventResult, eventResult.getCause());
+                }
+            }
+        }
+        return results;
+    }
+
+    private void sendBatch(List<Message> batch, MessageQueue queue, List<Integer> indexes, List<EventResult> results) {
+        try {
+            SendResult sendResult = queue == null ? mqProducer.send(batch) : mqProducer.send(batch, queue);
+            // 批量发送返回的 msgId 为逗号拼接的每条消息 id
+            String[] msgIds = StrUtil.isBlank(sendResult.getMsgId()) ? new String[0] : sendResult.getMsgId().split(",");
+            for (int i = 0; i < indexes.size(); i++) {
+                EventResult eventResult = results.get(indexes.get(i));
+                eventResult.setMessageId(i < msgIds.length ? msgIds[i] : null);
+                eventResult.setSourceResult(sendResult);
+                eventResult.setSuccess(true);
+            }
+        } catch (Exception e) {
+            log.warn("{} 批量推送消息异常 {}", getEventBusType().getTypeName(), e.getMessage());
+            if(queue != null) {
+                queueSelector().invalidate(queue.getTopic());
+            }
+            for (Integer index : indexes) {
+                results.get(index).setCause(e);
+            }
+        }
+    }
+
+    @Override
+    public EventResult publishInTransaction(T eventModel, LocalTransaction localTransaction) {
+        LocalTransactionCall call = new LocalTransactionCall(localTransaction);
+        TransactionSendResult sendResult = sendHalfMessage(eventModel, call);
+        EventResult eventResult = toEventResult(eventModel, sendResult);
+        if(call.error != null) {
+            throw new EventBusException(EventBusExceptionType.EVENTBUS_TRANSACTION_ERROR,
+                    MapUtil.of("ERR", "本地事务执行失败，消息 " + sendResult.getMsgId() + " 等待回查: " + call.error.getMessage()), call.error);
+        }
+        eventResult.setSuccess(sendResult.getLocalTransactionState() == LocalTransactionState.COMMIT_MESSAGE);
+        return eventResult;
+    }
+
+    /**
+     * 发送半消息，执行器返回 UNKNOW 使消息保持未决，由 {@link PreparedTransaction} 提交或回滚
+     */
+    @Override
+    public PreparedTransaction prepare(T eventModel) {
+        TransactionSendResult sendResult = sendHalfMessage(eventModel, new LocalTransactionCall(null));
+        return new RocketMqPreparedTransaction(transactionProducer(), sendResult, toEventResult(eventModel, sendResult));
+    }
+
+    private TransactionSendResult sendHalfMessage(T eventModel, LocalTransactionCall call) {
+        TransactionMQProducer producer = transactionProducer();
+        TransactionSendResult sendResult;
+        try {
+            sendResult = producer.sendMessageInTransaction(buildMessage(eventModel), LOCAL_TRANSACTION_EXECUTER, call);
+        } catch (MQClientException e) {
+            log.warn("{} 推送事务消息异常 {}", getEventBusType().getTypeName(), e.getMessage());
+            throw new EventBusException(EventBusExceptionType.EVENTBUS_PUBLISH_ERROR, e.getMessage(), e);
+        }
+        if(sendResult.getSendStatus() != SendStatus.SEND_OK) {
+            throw new EventBusException(EventBusExceptionType.EVENTBUS_PUBLISH_ERROR, "事务消息发送失败: " + sendResult.getSendStatus());
+        }
+        return sendResult;
+    }
+
+    private TransactionMQProducer transactionProducer() {
+        if(!(mqProducer instanceof TransactionMQProducer)) {
+            throw new EventBusException(EventBusExceptionType.EVENTBUS_TRANSACTION_ERROR,
+                    MapUtil.of("ERR", registryBeanName + " 未开启事务消息 transaction-enabled"));
+        }
+        return (TransactionMQProducer) mqProducer;
+    }
+
+    private static EventResult toEventResult(EventModel<?> eventModel, SendResult sendResult) {
+        EventResult eventResult = new EventResult();
+        eventResult.setMessageId(sendResult.getMsgId());
+        eventResult.setTopic(eventModel.getTopic());
+        eventResult.setSourceResult(sendResult);
+        return eventResult;
+    }
+
+    /**
+     * broker 回查未决的事务消息，在生产者固定大小的回查线程池中执行
+     */
+    protected LocalTransactionState checkLocalTransaction(MessageExt message) {
+        if(transactionChecker == null) {
+            log.warn("{} 未配置 TransactionChecker，事务消息 {} 等待下次回查", registryBeanName, message.getMsgId());
+            return LocalTransactionState.UNKNOW;
+        }
+        try {
+            return toLocalTransactionState(transactionChecker.check(checkEvent(message)));
+        } catch (Throwable e) {
+            log.warn("{} 事务消息 {} 回查异常，等待下次回查: {}", registryBeanName, message.getMsgId(), e.getMessage(), e);
+            return LocalTransactionState.UNKNOW;
+        }
+    }
+
+    /**
+     * 回查使用的事件：元数据、自定义消息头与原始消息体，不反序列化 entity
+     */
+    private EventModel<?> checkEvent(MessageExt message) {
+        String eventId = message.getUserProperty(EventHeaders.EVENT_ID);
+        EventModel<Object> eventModel = EventModel.build(message.getTopic(), null, eventId == null ? message.getMsgId() : eventId, false);
+        eventModel.setTags(message.getTags());
+        eventModel.setGroup(message.getUserProperty(EventHeaders.GROUP));
+        eventModel.setPartitionKey(message.getUserProperty(EventHeaders.PARTITION_KEY));
+        message.getProperties().forEach((name, value) -> {
+            if(!MessageConst.STRING_HASH_SET.contains(name)) {
+                eventModel.putHeader(name, value);
+            }
+        });
+        String contentEncoding = message.getUserProperty(EventHeaders.CONTENT_ENCODING);
+        eventModel.setRawData(contentEncoding == null ? message.getBody() : payloadCompressor.decompress(contentEncoding, message.getBody()));
+        eventModel.setDriveType(registryBeanName + "#" + getEventBusType().getTypeName());
+        return eventModel;
+    }
+
+    private static LocalTransactionState toLocalTransactionState(TransactionState state) {
+        if(state == null) {
+            return LocalTransactionState.UNKNOW;
+        }
+        switch (state) {
+            case COMMIT:
+                return LocalTransactionState.COMMIT_MESSAGE;
+            case ROLLBACK:
+                return LocalTransactionState.ROLLBACK_MESSAGE;
+            case UNKNOWN:
+            default:
+                return LocalTransactionState.UNKNOW;
+        }
+    }
+
+    /**
+     * 单次批量请求的字节上限：配置的 batchMaxBytes 与生产者 maxMessageSize 取小
+     */
+    protected int maxBatchBytes() {
+        int maxBatchBytes = rocketMqConnectConfig.getBatchMaxBytes();
+        if (mqProducer instanceof DefaultMQProducer) {
+            maxBatchBytes = Math.min(maxBatchBytes, ((DefaultMQProducer) mqProducer).getMaxMessageSize());
+        }
+        return maxBatchBytes;
+    }
+
+    /**
+     * 按 partitionKey 选择队列的选择器，缓存各 topic 的队列列表
+     */
+    protected ShardingKeyQueueSelector queueSelector() {
+        if (queueSelector == null) {
+            synchronized (this) {
+                if (queueSelector == null) {
+                    queueSelector = new ShardingKeyQueueSelector(topic -> mqProducer.fetchPublishMessageQueues(topic),
+                            rocketMqConnectConfig.getQueueRefreshMillis());
+                }
+            }
+        }
+        return queueSelector;
+    }
+
+    private Message buildMessage(T eventModel) {
+        Message message = new Message();
+        byte[] body = serializer.serialize(eventModel, eventModel.getSerializeType());
+        byte[] compressed = payloadCompressor.compress(body);
+        message.setBody(compressed == null ? body : compressed);
+        message.setTopic(eventModel.getTopic());
+        String tags = StrUtil.isBlank(eventModel.getTags()) ? "*": eventModel.getTags();
+        message.setTags(tags);
+        // 元数据与自定义消息头写入用户属性，消费端可在反序列化之前按属性过滤
+        putProperty(message, EventHeaders.EVENT_ID, eventModel.getEventId());
+        putProperty(message, EventHeaders.GROUP, eventModel.getGroup());
+        putProperty(message, EventHeaders.SERIALIZE_TYPE, eventModel.getSerializeType());
+        putProperty(message, EventHeaders.CONTENT_TYPE, serializer.contentType(eventModel.getSerializeType()));
+        if (compressed != null) {
+            putProperty(message, EventHeaders.CONTENT_ENCODING, payloadCompressor.encoding());
+        }
+        putProperty(message, EventHeaders.PARTITION_KEY, eventModel.getPartitionKey());
+        if(StrUtil.isNotBlank(eventModel.getPartitionKey())) {
+            // 业务键索引，可在控制台按键查询
+            message.setKeys(eventModel.getPartitionKey());
+        }
+        if(eventModel.getHeaders() != null) {
+            eventModel.getHeaders().forEach((name, value) -> putProperty(message, name, value));
+        }
+        return message;
+    }
+
+    private static void putProperty(Message message, String name, String value) {
+        if(StrUtil.isNotBlank(name) && StrUtil.isNotBlank(value)) {
+            message.putUserProperty(name, value);
+        }
+    }
+
+    /**
+     * 过滤表达式读取的消息属性，用户属性优先，tags / keys 对应消息标签与业务键
+     */
+    private static String propertyOf(MessageExt message, String name) {
+        String value = message.getProperty(name);
+        if(value != null) {
+            return value;
+        }
+        if("tags".equals(name)) {
+            return message.getTags();
+        }
+        if("keys".equals(name)) {
+            return message.getKeys();
+        }
+        return null;
+    }
+
     public void newDefaultProducer() {
         if(rocketMqConnectConfig.getProducerGroupId() == null || rocketMqConnectConfig.isSkipCreateProducer()) {
             log.warn("跳过producer创建 {}。 skip: {}", registryBeanName, rocketMqConnectConfig.isSkipCreateProducer());
             return;
         }
         DefaultMQProducer mqProducer;
-        // 无认证兼容
-        if(rocketMqConnectConfig.getAccessKey() == null && rocketMqConnectConfig.getSecretKey() == null) {
+        if(rocketMqConnectConfig.isTransactionEnabled()) {
+            // 事务生产者同样支持普通发送
+            mqProducer = newTransactionProducer();
+        } else if(rocketMqConnectConfig.getAccessKey() == null && rocketMqConnectConfig.getSecretKey() == null) {
+            // 无认证兼容
             mqProducer = new DefaultMQProducer(rocketMqConnectConfig.getProducerGroupId());
             mqProducer.setNamesrvAddr(rocketMqConnectConfig.getNamesrvAddr());
         } else {
@@ -168,6 +483,37 @@ public class RocketMqEventListenerRegistry<T extends EventModel<?>> implements E
             throw new EventBusException(EventBusExceptionType.EVENTBUS_DRIVER_ERROR, "RocketMQ生产者启动失败: " + e.getMessage(), e);
         }
     }
+
+    private TransactionMQProducer newTransactionProducer() {
+        TransactionMQProducer mqProducer;
+        if(rocketMqConnectConfig.getAccessKey() == null && rocketMqConnectConfig.getSecretKey() == null) {
+            mqProducer = new TransactionMQProducer(rocketMqConnectConfig.getProducerGroupId());
+            mqProducer.setNamesrvAddr(rocketMqConnectConfig.getNamesrvAddr());
+        } else {
+            Properties properties = new Properties();
+            properties.put(PropertyKeyConst.NAMESRV_ADDR, rocketMqConnectConfig.getNamesrvAddr());
+            properties.put(PropertyKeyConst.AccessKey, rocketMqConnectConfig.getAccessKey());
+            properties.put(PropertyKeyConst.SecretKey, rocketMqConnectConfig.getSecretKey());
+            // 回查按生产者分组路由到存活的实例
+            properties.put(PropertyKeyConst.GROUP_ID, rocketMqConnectConfig.getProducerGroupId());
+
+            // 通过反射拿到 producer 的 transactionMQProducer 这个字段
+            try {
+                TransactionProducerImpl producer = new TransactionProducerImpl(properties, this::checkLocalTransaction);
+                Field field = TransactionProducerImpl.class.getDeclaredField("transactionMQProducer");
+                field.setAccessible(true);
+                mqProducer = (TransactionMQProducer) field.get(producer);
+            } catch (Exception e) {
+                throw new EventBusException(EventBusExceptionType.EVENTBUS_DRIVER_ERROR, "初始化事务生产者异常："+e.getMessage());
+            }
+        }
+        mqProducer.setTransactionCheckListener(this::checkLocalTransaction);
+        // 回查在固定大小的线程池中处理，超出上限的请求排队，不为每个未决事务占用线程
+        mqProducer.setCheckThreadPoolMinSize(rocketMqConnectConfig.getTransactionCheckThreads());
+        mqProducer.setCheckThreadPoolMaxSize(rocketMqConnectConfig.getTransactionCheckThreads());
+        mqProducer.setCheckRequestHoldMax(rocketMqConnectConfig.getTransactionCheckRequestHoldMax());
+        return mqProducer;
+    }
 
     private DefaultMQPushConsumer newPushConsumer(String groupId) {
         DefaultMQPushConsumer mqConsumer;
@@ -304,6 +650,12 @@ public class RocketMqEventListenerRegistry<T extends EventModel<?>> implements E
         mqConsumer.setInstanceName(instanceName);
         mqConsumer.setConsumerPullTimeoutMillis(rocketMqConnectConfig.getConsumerTimeoutMillis());
         mqConsumer.setMaxReconsumeTimes(rocketMqConnectConfig.getMaxReconsumeTimes());
+        // 广播模式的消费位点保存在本地文件，集群模式保存在 broker
+        if("broadcasting".equals(rocketMqConnectConfig.getMessageModel())) {
+            mqConsumer.setMessageModel(MessageModel.BROADCASTING);
+        } else {
+            mqConsumer.setMessageModel(MessageModel.CLUSTERING);
+        }
         mqConsumers.add(mqConsumer);
         log.info("create new pull consumer, instance [{}]", instanceName);
         return mqConsumer;
@@ -313,12 +665,19 @@ public class RocketMqEventListenerRegistry<T extends EventModel<?>> implements E
     protected EventModel<?> deserialize(MessageExt message, EventListener<T> listener) {
         EventModel<?> eventModel;
         try {
-            eventModel = serializer.deserialize(message.getBody(), listener.serializeType(), listener.entityType());
+            String contentEncoding = message.getUserProperty(EventHeaders.CONTENT_ENCODING);
+            if (contentEncoding != null) {
+                // 解压后写回消息，MSG 模式的监听器拿到的也是原始消息体
+                message.setBody(payloadCompressor.decompress(contentEncoding, message.getBody()));
+                message.getProperties().remove(EventHeaders.CONTENT_ENCODING);
+            }
+            eventModel = serializer.deserialize(message.getBody(), listener.serializeType(),
+                    message.getUserProperty(EventHeaders.CONTENT_TYPE), listener.entityTypeDescriptor());
             if("MSG".equals(listener.serializeType())) {
                 eventModel = EventModel.build(listener.topic(), message);
             }
         } catch (Throwable e) {
-            log.warn(registryBeanName + " msgId: "+message.getMsgId()+" 消息解析失败：" + new String(message.getBody()), e);
+            log.warn(registryBeanName + " msgId: "+message.getMsgId()+" 消息解析失败：" + new String(message.getBody(), StandardCharsets.UTF_8), e);
             // 返回空
             eventModel = EventModel.build(listener.topic(), null);
         }
@@ -335,8 +694,12 @@ public class RocketMqEventListenerRegistry<T extends EventModel<?>> implements E
     }
 
     protected void handleMsg(List<MessageExt> messages, EventListener<T> listener) {
+        HeaderFilter headerFilter = listener.headerFilter();
         List<EventModel<?>> eventModels = new ArrayList<>();
         for (MessageExt message : messages) {
+            if (!headerFilter.isMatchAll() && !headerFilter.matches(name -> propertyOf(message, name))) {
+                continue;
+            }
             if (message.getBody() == null || message.getBody().length == 0) {
                 log.warn("消息体为空，跳过处理. msgId={}", message.getMsgId());
                 continue;
@@ -344,6 +707,10 @@ public class RocketMqEventListenerRegistry<T extends EventModel<?>> implements E
             EventModel<?> eventModel = deserialize(message, listener);
             eventModels.add(eventModel);
         }
+        if (eventModels.isEmpty() && !headerFilter.isMatchAll()) {
+            // 全部被过滤，视为消费成功
+            return;
+        }
         try {
             listener.onMessageBatch((List<T>) eventModels);
         } catch (Exception e) {
@@ -352,94 +719,41 @@ public class RocketMqEventListenerRegistry<T extends EventModel<?>> implements E
     }
 
     /**
-     * 初始化拉模式消费者
+     * 初始化拉模式消费者：注册队列变更监听后启动，由 {@link RocketMqPullLoop} 长轮询分配到的队列
      *
      * @param listener 事件监听器
      */
     private void initPullConsumer(EventListener<T> listener) {
         try {
             DefaultMQPullConsumer mqConsumer = newPullConsumer(listener);
-            String tags = StrUtil.isBlank(listener.tags()) ? "*": listener.tags();
+            String tags = StrUtil.isBlank(listener.tags()) ? "*": listener.tags().trim();
+            String offset = StringUtils.hasText(listener.offset()) ? listener.offset() : rocketMqConnectConfig.getOffset();
+            RocketMqPullLoop pullLoop = new RocketMqPullLoop("rocketmq-pull-" + listener.group(), mqConsumer, tags, offset,
+                    consumeTimestamp(), rocketMqConnectConfig.getPullBatchMinSize(), rocketMqConnectConfig.getPullBatchSize(),
+                    rocketMqConnectConfig.getPullBatchTargetMillis(), messages -> handleMsg(messages, listener));
+            for (String topic : listener.topic().split(",")) {
+                mqConsumer.registerMessageQueueListener(topic.trim(), pullLoop);
+            }
+            pullLoops.add(pullLoop);
 
             // 启动消费者
             mqConsumer.start();
-            log.info("拉模式消费者已启动: group={}, topic={}}", listener.group(), listener.topic());
-
-            // 获取订阅 Topic 的所有队列
-            Set<MessageQueue> messageQueues = mqConsumer.fetchSubscribeMessageQueues(listener.topic());
-
-            // 为每个队列创建一个定时任务
-            for (MessageQueue queue : messageQueues) {
-                log.info("开始消费队列: {}", queue);
-
-                // 使用 AtomicInteger 实现原子化操作
-                // 初始等待时间（秒）
-                AtomicInteger initialDelay = new AtomicInteger(1);
-                // 最大等待时间（秒）
-                int maxDelay = 60;
-                // 退避因子
-                int backoffFactor = 2;
-
-                // 提交定时任务
-                scheduler.scheduleWithFixedDelay(() -> {
-                    try {
-                        PullResult pullResult = mqConsumer.pull(queue, tags, getMessageQueueOffset(queue), 32); // 每次拉取 32 条消息
-                        switch (pullResult.getPullStatus()) {
-                            case FOUND: // 拉取到消息
-                                List<MessageExt> messages = pullResult.getMsgFoundList();
-                                handleMsg(messages, listener);
-                                // 更新消费进度
-                                putMessageQueueOffset(queue, pullResult.getNextBeginOffset());
-                                break;
-                            case NO_NEW_MSG: // 没有新消息
-                                log.trace("没有新消息，稍后重试");
-                                // 动态调整等待时间
-                                int currentDelay = initialDelay.get();
-                                int newDelay = Math.min(currentDelay * backoffFactor, maxDelay);
-                                initialDelay.set(newDelay);
-                                break;
-                            case NO_MATCHED_MSG: // 没有匹配的消息
-                                log.trace("没有匹配的消息");
-                                break;
-                            case OFFSET_ILLEGAL: // 消费进度非法
-                                log.debug("消费进度非法");
-                                break;
-                            default:
-                                break;
-                        }
-                    } catch (Exception e) {
-                        log.warn("拉取消息失败: {}", e.getMessage(), e);
-                    }
-                    // 初始延迟和固定延迟
-                }, initialDelay.get(), initialDelay.get(), TimeUnit.SECONDS);
-            }
+            // 立即分配队列，不等待客户端的定时再均衡
+            mqConsumer.getDefaultMQPullConsumerImpl().doRebalance();
+            log.info("拉模式消费者已启动: group={}, topic={}", listener.group(), listener.topic());
         } catch (Exception e) {
             throw new RuntimeException("拉模式消费者启动失败", e);
         }
     }
 
-
-    // 用于存储每个队列的消费进度
-    private final Map<MessageQueue, Long> offsetTable = new HashMap<>();
-
-    /**
-     * 获取队列的消费进度
-     *
-     * @param queue 消息队列
-     * @return 消费进度
-     */
-    private long getMessageQueueOffset(MessageQueue queue) {
-        return offsetTable.getOrDefault(queue, 0L);
-    }
-
     /**
-     * 更新队列的消费进度
-     *
-     * @param queue  消息队列
-     * @param offset 消费进度
+     * offset=timestamp 时的起始时间，未配置 consumeTimestamp 时为当前时间
      */
-    private void putMessageQueueOffset(MessageQueue queue, long offset) {
-        offsetTable.put(queue, offset);
+    private long consumeTimestamp() {
+        if (StrUtil.isBlank(rocketMqConnectConfig.getConsumeTimestamp())) {
+            return System.currentTimeMillis();
+        }
+        return DateUtil.parse(rocketMqConnectConfig.getConsumeTimestamp(), "yyyyMMddHHmmss").getTime();
     }
 
     @Override
@@ -448,7 +762,7 @@ public class RocketMqEventListenerRegistry<T extends EventModel<?>> implements E
         if(mqProducer != null) {
             mqProducer.shutdown();
         }
-        scheduler.shutdown();
+        pullLoops.forEach(RocketMqPullLoop::close);
         mqConsumers.forEach(m -> {
             if(m instanceof MQPullConsumer) {
                 try {
@@ -466,4 +780,62 @@ public class RocketMqEventListenerRegistry<T extends EventModel<?>> implements E
         });
         log.info("{} 事件监听组件销毁完成。", registryBeanName);
     }
+
+    /**
+     * 一次事务发送的本地事务与其异常，作为 arg 传给共用的执行器
+     */
+    private static final class LocalTransactionCall {
+
+        private final LocalTransaction localTransaction;
+        private Exception error;
+
+        LocalTransactionCall(LocalTransaction localTransaction) {
+            this.localTransaction = localTransaction;
+        }
+
+        LocalTransactionState execute() {
+            if(localTransaction == null) {
+                return LocalTransactionState.UNKNOW;
+            }
+            try {
+                return toLocalTransactionState(localTransaction.execute());
+            } catch (Exception e) {
+                error = e;
+                return LocalTransactionState.UNKNOW;
+            }
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class RocketMqPreparedTransaction implements PreparedTransaction {
+
+        private final TransactionMQProducer producer;
+        private final TransactionSendResult sendResult;
+        private final EventResult eventResult;
+
+        @Override
+        public EventResult getResult() {
+            return eventResult;
+        }
+
+        @Override
+        public void commit() {
+            end(LocalTransactionState.COMMIT_MESSAGE);
+            eventResult.setSuccess(true);
+        }
+
+        @Override
+        public void rollback() {
+            end(LocalTransactionState.ROLLBACK_MESSAGE);
+        }
+
+        private void end(LocalTransactionState state) {
+            try {
+                producer.getDefaultMQProducerImpl().endTransaction(sendResult, state, null);
+            } catch (Exception e) {
+                throw new EventBusException(EventBusExceptionType.EVENTBUS_TRANSACTION_ERROR,
+                        MapUtil.of("ERR", "事务消息 " + sendResult.getMsgId() + " 结束失败: " + e.getMessage()), e);
+            }
+        }
+    }
 }
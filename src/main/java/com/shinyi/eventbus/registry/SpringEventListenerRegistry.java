@@ -2,14 +2,22 @@ package com.shinyi.eventbus.registry;
 
 import cn.hutool.core.collection.CollectionUtil;
 import com.shinyi.eventbus.*;
+import com.shinyi.eventbus.EventListener;
 import com.shinyi.eventbus.listener.BaseEventListener;
+import com.shinyi.eventbus.support.EventListenerRegistryManager;
+import com.shinyi.eventbus.support.ListenerBulkhead;
+import com.shinyi.eventbus.support.LocalBatchDispatcher;
+import com.shinyi.eventbus.support.TopicListenerIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.PayloadApplicationEvent;
 import org.springframework.context.event.ApplicationEventMulticaster;
+import org.springframework.context.event.SmartApplicationListener;
+import org.springframework.lang.NonNull;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 import java.util.concurrent.Executor;
 
 /**
@@ -24,6 +32,15 @@ public class SpringEventListenerRegistry <T extends EventModel<?>> implements Ev
     protected final ApplicationContext applicationContext;
     protected final String registryBeanName;
     protected Executor executor;
+    /**
+     * topic -> group -> 监听器 索引，由单个分发器按索引投递，避免每个事件广播给全部监听器
+     */
+    protected volatile TopicListenerIndex<BaseEventListener<T>> listenerIndex = TopicListenerIndex.empty();
+    /**
+     * 配置了并行度或指定执行器的监听器 -> 独立执行器，其余监听器使用共享线程池
+     */
+    protected volatile Map<BaseEventListener<T>, Executor> listenerExecutors = Collections.emptyMap();
+    private IndexedDispatchListener dispatchListener;
 
     @Override
     public EventBusType getEventBusType() {
@@ -42,17 +59,59 @@ public class SpringEventListenerRegistry <T extends EventModel<?>> implements Ev
             log.warn("[SpringEventListenerRegistry] Oops! current env is not spring env so skip init that .");
             return;
         }
-        ApplicationEventMulticaster eventMulticaster = applicationContext.getBean(ApplicationEventMulticaster.class);
+        List<BaseEventListener<T>> matched = new ArrayList<>();
         for (EventListener<T> l : listener) {
             if(CollectionUtil.isNotEmpty(l.registryBeanName()) && !CollectionUtil.contains(l.registryBeanName(), registryBeanName)) {
                 log.debug("{} not match skip listener [{}]", registryBeanName, l);
                 continue;
             }
             if(l instanceof BaseEventListener) {
-                BaseEventListener<T> baseEventListener = (BaseEventListener<T>)l;
-                eventMulticaster.addApplicationListener(baseEventListener);
+                matched.add((BaseEventListener<T>)l);
             }
         }
+        listenerIndex = TopicListenerIndex.of(matched);
+        rebuildListenerExecutors();
+        registerDispatchListener();
+    }
+
+    /**
+     * 运行期新增监听器，重建索引
+     */
+    public synchronized void addEventListener(BaseEventListener<T> listener) {
+        listenerIndex = listenerIndex.with(listener);
+        rebuildListenerExecutors();
+        registerDispatchListener();
+    }
+
+    /**
+     * 运行期移除监听器，重建索引
+     */
+    public synchronized void removeEventListener(BaseEventListener<T> listener) {
+        listenerIndex = listenerIndex.without(listener);
+        rebuildListenerExecutors();
+    }
+
+    private synchronized void rebuildListenerExecutors() {
+        Map<BaseEventListener<T>, Executor> executors = new IdentityHashMap<>();
+        for (BaseEventListener<T> l : listenerIndex.getListeners()) {
+            Executor existing = listenerExecutors.get(l);
+            Executor listenerExecutor = existing != null ? existing
+                    : ListenerBulkhead.executorFor(l, executor, name -> applicationContext.getBean(name, Executor.class));
+            if (listenerExecutor != executor) {
+                executors.put(l, listenerExecutor);
+            }
+        }
+        listenerExecutors = executors;
+    }
+
+    private Executor executorOf(BaseEventListener<T> l) {
+        return listenerExecutors.getOrDefault(l, executor);
+    }
+
+    private synchronized void registerDispatchListener() {
+        if(dispatchListener != null || listenerIndex.isEmpty()) { return; }
+        dispatchListener = new IndexedDispatchListener();
+        applicationContext.getBean(ApplicationEventMulticaster.class).addApplicationListener(dispatchListener);
     }
 
     @Override
@@ -75,8 +134,49 @@ public class SpringEventListenerRegistry <T extends EventModel<?>> implements Ev
         }
     }
 
+    /**
+     * 按 topic/group 聚合后直接对已注册监听器只分发一次 {@link EventListener#onMessageBatch(List)}，
+     * 不再逐条经过 {@link ApplicationEventMulticaster} 广播
+     */
+    @Override
+    public List<EventResult> publishBatch(Collection<T> events) {
+        return LocalBatchDispatcher.publishBatch(registryBeanName, events, listenerIndex, this::executorOf);
+    }
+
     @Override
     public void close() throws Exception {
         // do nothing
     }
+
+    /**
+     * 注册到 Spring 广播器的唯一监听器，按 topic/group 从索引中取出匹配的监听器投递。
+     * 多个 Spring 注册器共享同一广播器，只处理 driveType 为本注册器的事件，避免同一事件被每个注册器各投递一次
+     */
+    private class IndexedDispatchListener implements SmartApplicationListener {
+
+        private final String driveType = EventListenerRegistryManager.driveTypeOf(registryBeanName, getEventBusType());
+
+        @Override
+        public boolean supportsEventType(@NonNull Class<? extends ApplicationEvent> eventType) {
+            return PayloadApplicationEvent.class.isAssignableFrom(eventType);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void onApplicationEvent(@NonNull ApplicationEvent event) {
+            Object payload = ((PayloadApplicationEvent<?>) event).getPayload();
+            if(!(payload instanceof EventModel)) { return; }
+            EventModel<?> eventModel = (EventModel<?>) payload;
+            if(!driveType.equals(eventModel.getDriveType())) { return; }
+            for (BaseEventListener<T> l : listenerIndex.match(eventModel.getTopic(), eventModel.getGroup())) {
+                Executor listenerExecutor = eventModel.isEnableAsync() ? listenerExecutors.get(l) : null;
+                if(listenerExecutor == null) {
+                    l.onApplicationEvent((PayloadApplicationEvent<T>) event);
+                } else {
+                    // 异步事件交给监听器自己的隔离执行器，避免慢监听器占用共享线程
+                    listenerExecutor.execute(() -> l.onApplicationEvent((PayloadApplicationEvent<T>) event));
+                }
+            }
+        }
+    }
 }
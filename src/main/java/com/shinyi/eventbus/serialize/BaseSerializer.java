@@ -5,27 +5,120 @@ import com.shinyi.eventbus.util.JsonUtils;
 import lombok.extern.slf4j.Slf4j;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+/**
+ * 默认序列化器：内置 DEFAULT / JSON / BASIC / MSG，其他序列化类型交给注册的 {@link EventCodec}
+ * @author MSGA
+ */
 @Slf4j
 public class BaseSerializer implements Serializer {
 
+    public static final String JSON_CONTENT_TYPE = "application/json";
+
+    private static final Set<String> RESERVED_NAMES = new HashSet<>(Arrays.asList("DEFAULT", "JSON", "BASIC", "MSG"));
+
+    private final Map<String, EventCodec> codecsByName = new HashMap<>();
+    private final Map<String, EventCodec> codecsByContentType = new HashMap<>();
+
+    public BaseSerializer() {
+        this(Collections.emptyList());
+    }
+
+    /**
+     * @param codecs 自定义编解码器，与内置编解码器同名时覆盖
+     */
+    public BaseSerializer(Collection<? extends EventCodec> codecs) {
+        JacksonCodec.builtIn().forEach(this::register);
+        codecs.forEach(this::register);
+    }
+
+    private void register(EventCodec codec) {
+        String name = codec.name().toUpperCase(Locale.ROOT);
+        if (RESERVED_NAMES.contains(name)) {
+            throw new IllegalArgumentException("Codec name is reserved: " + codec.name());
+        }
+        EventCodec previous = codecsByName.put(name, codec);
+        if (previous != null) {
+            codecsByContentType.remove(previous.contentType());
+        }
+        codecsByContentType.put(codec.contentType(), codec);
+        log.debug("注册事件编解码器：{}", codec);
+    }
+
+    private EventCodec codec(String serializeType) {
+        return serializeType == null || codecsByName.isEmpty() ? null : codecsByName.get(serializeType.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * 已注册的编解码器名称
+     */
+    public Set<String> codecNames() {
+        return Collections.unmodifiableSet(codecsByName.keySet());
+    }
+
+    @Override
+    public String contentType(String serializeType) {
+        EventCodec codec = codec(serializeType);
+        if (codec != null) {
+            return codec.contentType();
+        }
+        // BASIC 为实体原始内容，不声明内容类型
+        return "BASIC".equals(serializeType) ? null : JSON_CONTENT_TYPE;
+    }
+
     @Override
     public byte[] serialize(EventModel<?> object, String serializeType) {
         serializeType = Optional.ofNullable(serializeType).orElse("DEFAULT");
+        EventCodec codec = codec(serializeType);
+        if (codec != null) {
+            return codec.encode(object);
+        }
         switch (serializeType) {
             case "BASIC":
                 return String.valueOf(object).getBytes(StandardCharsets.UTF_8);
             case "JSON":
-                return JsonUtils.toJsonString(object).getBytes(StandardCharsets.UTF_8);
             case "DEFAULT":
             default:
-                return JsonUtils.toJsonString(object).getBytes(StandardCharsets.UTF_8);
+                return JsonUtils.toJsonBytes(object);
         }
     }
 
     @Override
     public EventModel<?> deserialize(byte[] bytes, String serializeType, Class<?> entityType) {
+        return deserialize(bytes, serializeType, EntityTypeDescriptor.of(entityType));
+    }
+
+    @Override
+    public EventModel<?> deserialize(byte[] bytes, String serializeType, String contentType, EntityTypeDescriptor entityType) {
+        // MSG、BASIC 由监听器决定如何读取消息体，不参与协商
+        if (contentType != null && !"MSG".equals(serializeType) && !"BASIC".equals(serializeType)) {
+            EventCodec codec = codecsByContentType.get(contentType);
+            if (codec != null) {
+                return codec.decode(bytes, entityType);
+            }
+            if (JSON_CONTENT_TYPE.equals(contentType) && codec(serializeType) != null) {
+                // 监听器声明了二进制格式，但消息来自 JSON 生产者
+                return deserialize(bytes, "DEFAULT", entityType);
+            }
+        }
+        return deserialize(bytes, serializeType, entityType);
+    }
+
+    @Override
+    public EventModel<?> deserialize(byte[] bytes, String serializeType, EntityTypeDescriptor entityType) {
+        EventCodec codec = codec(serializeType);
+        if (codec != null) {
+            return codec.decode(bytes, entityType);
+        }
         EventModel<?> eventModel;
         switch (serializeType) {
             case "MSG":
@@ -33,25 +126,23 @@ public class BaseSerializer implements Serializer {
                 eventModel = EventModel.build(null, null);
                 break;
             case "BASIC":
-                eventModel = EventModel.build(null, deserialize2Basic(bytes, entityType));
+                eventModel = EventModel.build(null, deserialize2Basic(bytes, entityType.getRawType()));
                 break;
             case "JSON":
-                eventModel = EventModel.build(null, JsonUtils.parseObject(new String(bytes), entityType));
+                eventModel = EventModel.build(null, JsonUtils.parseObject(bytes, entityType.getEntityReader()));
                 break;
             case "DEFAULT":
             default:
-                // 取消息内容
-                String jsonStr = new String(bytes);
-                eventModel = JsonUtils.parseObject(jsonStr, EventModel.class, entityType);
+                // 信封或直接发送的实体，按顶层字段判定后只解析一次
+                try {
+                    eventModel = EnvelopeJsonReader.read(bytes, entityType);
+                } catch (Exception e) {
+                    throw new RuntimeException("Json parse object exception!", e);
+                }
                 if(eventModel == null) {
-                    log.warn("JSON 消息解析 -> {} 失败：{}", entityType, jsonStr);
+                    log.warn("JSON 消息解析 -> {} 失败：{}", entityType, new String(bytes, StandardCharsets.UTF_8));
                     eventModel = EventModel.build(null, null);
                 }
-                // 能走到这说明是一个json字符串，否则报错了
-                if(eventModel.getEventId() == null && eventModel.getEntity() == null) {
-                    // 可能是不支持转为 EventModel，尝试使用 JSON 模式
-                    eventModel = EventModel.build(null, JsonUtils.parseObject(new String(bytes), entityType));
-                }
         }
         return eventModel;
     }
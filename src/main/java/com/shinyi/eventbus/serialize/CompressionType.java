@@ -0,0 +1,101 @@
+package com.shinyi.eventbus.serialize;
+
+import lombok.Getter;
+
+/**
+ * 消息体压缩算法，名称即写入消息头的 content-encoding
+ * @author MSGA
+ */
+@Getter
+public enum CompressionType {
+
+    /**
+     * 不压缩
+     */
+    NONE(0, null, null, null),
+    /**
+     * JDK 自带 gzip
+     */
+    GZIP(1, "gzip", null, null),
+    /**
+     * LZ4 帧格式，压缩解压速度最快
+     */
+    LZ4(2, "lz4", "net.jpountz.lz4.LZ4FrameOutputStream", "org.lz4:lz4-java"),
+    /**
+     * Snappy
+     */
+    SNAPPY(3, "snappy", "org.xerial.snappy.Snappy", "org.xerial.snappy:snappy-java"),
+    /**
+     * Zstandard，压缩率最高，支持共享字典
+     */
+    ZSTD(4, "zstd", "com.github.luben.zstd.Zstd", "com.github.luben:zstd-jni");
+
+    /**
+     * 无消息头驱动（Redis）帧前缀中的算法标识
+     */
+    private final int id;
+    private final String encoding;
+    private final String requiredClass;
+    private final String artifact;
+
+    CompressionType(int id, String encoding, String requiredClass, String artifact) {
+        this.id = id;
+        this.encoding = encoding;
+        this.requiredClass = requiredClass;
+        this.artifact = artifact;
+    }
+
+    /**
+     * 依赖的压缩库是否在类路径中
+     */
+    public boolean isAvailable() {
+        if (requiredClass == null) {
+            return true;
+        }
+        try {
+            Class.forName(requiredClass, false, CompressionType.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * 根据名称匹配（大小写不敏感），为空时使用 NONE
+     */
+    public static CompressionType fromType(String type) {
+        if (type == null || type.trim().isEmpty()) {
+            return NONE;
+        }
+        for (CompressionType value : values()) {
+            if (value.name().equalsIgnoreCase(type.trim())) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Invalid compression type: " + type);
+    }
+
+    /**
+     * 根据消息头中的 content-encoding 匹配，未压缩（空或 identity）返回 NONE，未知编码返回 null
+     */
+    public static CompressionType fromEncoding(String encoding) {
+        if (encoding == null || encoding.isEmpty() || "identity".equalsIgnoreCase(encoding)) {
+            return NONE;
+        }
+        for (CompressionType value : values()) {
+            if (value.encoding != null && value.encoding.equalsIgnoreCase(encoding)) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    static CompressionType fromId(int id) {
+        for (CompressionType value : values()) {
+            if (value.id == id) {
+                return value;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,74 @@
+package com.shinyi.eventbus.serialize;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.shinyi.eventbus.EventModel;
+import com.shinyi.eventbus.util.JsonUtils;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 已解析的事件实体类型描述，包含完整泛型信息（如 {@code List<Order>}），
+ * 监听器注册时解析一次，反序列化时直接使用，避免逐条消息重复解析类型。
+ * @author MSGA
+ */
+@Getter
+public final class EntityTypeDescriptor {
+
+    private static final Map<JavaType, EntityTypeDescriptor> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * 实体原始类型
+     */
+    private final Class<?> rawType;
+
+    /**
+     * 实体完整类型
+     */
+    private final JavaType javaType;
+
+    /**
+     * {@code EventModel<实体>} 完整类型，DEFAULT 反序列化使用
+     */
+    private final JavaType eventModelType;
+
+    /**
+     * 实体类型的 JSON 读取器，JSON 反序列化使用
+     */
+    private final ObjectReader entityReader;
+
+    /**
+     * {@code EventModel<实体>} 的 JSON 读取器，DEFAULT 反序列化使用
+     */
+    private final ObjectReader eventModelReader;
+
+    /**
+     * DEFAULT 反序列化时连续识别为 EventModel 信封的次数，见 {@link EnvelopeJsonReader}
+     */
+    @Getter(AccessLevel.NONE)
+    volatile int envelopeStreak;
+
+    private EntityTypeDescriptor(JavaType javaType) {
+        this.rawType = javaType.getRawClass();
+        this.javaType = javaType;
+        this.eventModelType = JsonUtils.getTypeFactory().constructParametricType(EventModel.class, javaType);
+        this.entityReader = JsonUtils.readerFor(javaType);
+        this.eventModelReader = JsonUtils.readerFor(eventModelType);
+    }
+
+    public static EntityTypeDescriptor of(Class<?> entityType) {
+        return of(JsonUtils.getTypeFactory().constructType(entityType == null ? Object.class : entityType));
+    }
+
+    public static EntityTypeDescriptor of(JavaType javaType) {
+        return CACHE.computeIfAbsent(javaType, EntityTypeDescriptor::new);
+    }
+
+    @Override
+    public String toString() {
+        return javaType.toCanonical();
+    }
+}
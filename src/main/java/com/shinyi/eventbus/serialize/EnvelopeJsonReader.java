@@ -0,0 +1,108 @@
+package com.shinyi.eventbus.serialize;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.shinyi.eventbus.EventModel;
+
+import java.io.IOException;
+
+/**
+ * DEFAULT 模式的单次解析：消息体可能是 {@link EventModel} 信封，也可能是直接发送的实体。
+ * <p>
+ * 逐个读取顶层字段并写入 {@link TokenBuffer}，出现非空的 {@code eventId} 或 {@code entity} 即判定为信封，
+ * 然后从缓冲回放给对应的读取器，消息体只解析一次。
+ * 同一实体类型连续多次判定为信封后直接按信封读取，结果不像信封时再回到探测。
+ * @author MSGA
+ */
+final class EnvelopeJsonReader {
+
+    /**
+     * 连续判定为信封达到该次数后跳过探测
+     */
+    static final int ENVELOPE_STREAK_THRESHOLD = 16;
+
+    private static final String EVENT_ID = "eventId";
+    private static final String ENTITY = "entity";
+
+    private EnvelopeJsonReader() {
+        throw new UnsupportedOperationException("Construct EnvelopeJsonReader");
+    }
+
+    /**
+     * @return 空消息体返回 null
+     */
+    static EventModel<?> read(byte[] bytes, EntityTypeDescriptor entityType) throws IOException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (entityType.envelopeStreak >= ENVELOPE_STREAK_THRESHOLD) {
+            EventModel<?> eventModel = readEnvelope(bytes, entityType);
+            if (isEnvelope(eventModel)) {
+                return eventModel;
+            }
+            entityType.envelopeStreak = 0;
+        }
+        return peekAndRead(bytes, entityType);
+    }
+
+    private static EventModel<?> readEnvelope(byte[] bytes, EntityTypeDescriptor entityType) {
+        try {
+            return entityType.getEventModelReader().readValue(bytes);
+        } catch (IOException | RuntimeException e) {
+            // 不是信封结构，交给探测处理
+            return null;
+        }
+    }
+
+    private static EventModel<?> peekAndRead(byte[] bytes, EntityTypeDescriptor entityType) throws IOException {
+        try (JsonParser parser = entityType.getEventModelReader().createParser(bytes)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return null;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                // 数组或标量只能是实体
+                entityType.envelopeStreak = 0;
+                return EventModel.build(null, entityType.getEntityReader().readValue(parser));
+            }
+            TokenBuffer buffer = new TokenBuffer(parser);
+            buffer.writeStartObject();
+            boolean envelope = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                buffer.writeFieldName(name);
+                JsonToken value = parser.nextToken();
+                if (!envelope && value != JsonToken.VALUE_NULL && (EVENT_ID.equals(name) || ENTITY.equals(name))) {
+                    envelope = true;
+                }
+                buffer.copyCurrentStructure(parser);
+            }
+            buffer.writeEndObject();
+            recordShape(entityType, envelope);
+            try (JsonParser replay = buffer.asParser(parser.getCodec())) {
+                replay.nextToken();
+                if (envelope) {
+                    return entityType.getEventModelReader().readValue(replay);
+                }
+                return EventModel.build(null, entityType.getEntityReader().readValue(replay));
+            }
+        }
+    }
+
+    private static void recordShape(EntityTypeDescriptor entityType, boolean envelope) {
+        // 并发下计数可能丢失更新，只影响何时进入快速路径
+        int streak = entityType.envelopeStreak;
+        if (!envelope) {
+            if (streak != 0) {
+                entityType.envelopeStreak = 0;
+            }
+        } else if (streak < ENVELOPE_STREAK_THRESHOLD) {
+            entityType.envelopeStreak = streak + 1;
+        }
+    }
+
+    private static boolean isEnvelope(EventModel<?> eventModel) {
+        return eventModel != null && (eventModel.getEventId() != null || eventModel.getEntity() != null);
+    }
+}
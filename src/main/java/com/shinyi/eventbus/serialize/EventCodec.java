@@ -0,0 +1,34 @@
+package com.shinyi.eventbus.serialize;
+
+import com.shinyi.eventbus.EventModel;
+
+/**
+ * 事件编解码器扩展点，注册为 Spring Bean 后由 {@link BaseSerializer} 选用：
+ * 发布端按事件的 serializeType 匹配 {@link #name()}，并将 {@link #contentType()} 写入消息头；
+ * 消费端按消息头中的内容类型选择编解码器，无需与监听器的序列化类型一致。
+ * @author MSGA
+ */
+public interface EventCodec {
+
+    /**
+     * 编解码器名称，对应事件 / 监听器的 serializeType，不区分大小写
+     */
+    String name();
+
+    /**
+     * 内容类型，例如 {@code application/x-jackson-smile}
+     */
+    String contentType();
+
+    /**
+     * 编码完整的事件模型
+     */
+    byte[] encode(EventModel<?> eventModel);
+
+    /**
+     * 解码为事件模型
+     *
+     * @param entityType 监听器预先解析好的实体类型
+     */
+    EventModel<?> decode(byte[] bytes, EntityTypeDescriptor entityType);
+}
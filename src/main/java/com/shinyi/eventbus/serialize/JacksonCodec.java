@@ -0,0 +1,109 @@
+package com.shinyi.eventbus.serialize;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.shinyi.eventbus.EventModel;
+import com.shinyi.eventbus.util.JsonUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 基于 Jackson 数据格式的编解码器，与 JSON 使用相同的映射配置。
+ * <p>
+ * 内置 Smile 与 CBOR：引入 {@code jackson-dataformat-smile} / {@code jackson-dataformat-cbor} 后自动注册，
+ * 未引入时跳过。
+ * @author MSGA
+ */
+public class JacksonCodec implements EventCodec {
+
+    public static final String SMILE = "SMILE";
+    public static final String SMILE_CONTENT_TYPE = "application/x-jackson-smile";
+    public static final String CBOR = "CBOR";
+    public static final String CBOR_CONTENT_TYPE = "application/cbor";
+
+    private static final String SMILE_FACTORY = "com.fasterxml.jackson.dataformat.smile.SmileFactory";
+    private static final String CBOR_FACTORY = "com.fasterxml.jackson.dataformat.cbor.CBORFactory";
+
+    private final String name;
+    private final String contentType;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter writer;
+    private final Map<JavaType, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    public JacksonCodec(String name, String contentType, ObjectMapper objectMapper) {
+        this.name = name;
+        this.contentType = contentType;
+        this.objectMapper = objectMapper;
+        this.writer = objectMapper.writer();
+    }
+
+    /**
+     * 类路径中存在的内置二进制编解码器
+     */
+    public static List<EventCodec> builtIn() {
+        List<EventCodec> codecs = new ArrayList<>(2);
+        JacksonCodec smile = ofFactory(SMILE, SMILE_CONTENT_TYPE, SMILE_FACTORY);
+        if (smile != null) {
+            codecs.add(smile);
+        }
+        JacksonCodec cbor = ofFactory(CBOR, CBOR_CONTENT_TYPE, CBOR_FACTORY);
+        if (cbor != null) {
+            codecs.add(cbor);
+        }
+        return codecs;
+    }
+
+    /**
+     * 按 JsonFactory 类名创建，类不存在时返回 null
+     */
+    public static JacksonCodec ofFactory(String name, String contentType, String factoryClassName) {
+        try {
+            Class<?> factoryClass = Class.forName(factoryClassName, true, JacksonCodec.class.getClassLoader());
+            JsonFactory factory = (JsonFactory) factoryClass.getDeclaredConstructor().newInstance();
+            return new JacksonCodec(name, contentType, JsonUtils.newObjectMapper(factory));
+        } catch (ClassNotFoundException | NoClassDefFoundError e) {
+            return null;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Create " + name + " codec failed", e);
+        }
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public String contentType() {
+        return contentType;
+    }
+
+    @Override
+    public byte[] encode(EventModel<?> eventModel) {
+        try {
+            return writer.writeValueAsBytes(eventModel);
+        } catch (Exception e) {
+            throw new RuntimeException(name + " encode exception!", e);
+        }
+    }
+
+    @Override
+    public EventModel<?> decode(byte[] bytes, EntityTypeDescriptor entityType) {
+        try {
+            return readers.computeIfAbsent(entityType.getEventModelType(), objectMapper::readerFor).readValue(bytes);
+        } catch (Exception e) {
+            throw new RuntimeException(name + " decode exception!", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name + "(" + contentType + ")";
+    }
+}
@@ -0,0 +1,332 @@
+package com.shinyi.eventbus.serialize;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import net.jpountz.lz4.LZ4FrameInputStream;
+import net.jpountz.lz4.LZ4FrameOutputStream;
+import org.xerial.snappy.Snappy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 序列化之后的消息体压缩：超过阈值才压缩，压缩后不变小则原样发送。
+ * <p>
+ * 支持消息头的驱动把算法写入 {@link com.shinyi.eventbus.EventHeaders#CONTENT_ENCODING}，
+ * Redis 没有消息头，使用 {@link #frame(byte[])} 在消息体前加帧前缀。
+ * 解压按消息携带的算法进行，与本端配置的算法无关；Zstd 字典需生产端与消费端一致。
+ * LZ4 / Snappy / Zstd 依赖对应压缩库，未引入时配置该算法启动失败。
+ * @author MSGA
+ */
+public class PayloadCompressor {
+
+    public static final int DEFAULT_THRESHOLD = 8 * 1024;
+    public static final int DEFAULT_ZSTD_LEVEL = 3;
+    /**
+     * 解压后大小上限，防止异常消息耗尽内存
+     */
+    public static final int MAX_DECOMPRESSED_SIZE = 64 * 1024 * 1024;
+
+    private static final byte[] FRAME_MAGIC = {0, 'E', 'B', 'Z'};
+    private static final int FRAME_HEADER_LENGTH = FRAME_MAGIC.length + 1;
+
+    private static final PayloadCompressor NONE = new PayloadCompressor(CompressionType.NONE, DEFAULT_THRESHOLD);
+
+    private final CompressionType type;
+    private final int threshold;
+    private final int zstdLevel;
+    private final byte[] zstdDictionary;
+    private final Compression compression;
+    private final Map<CompressionType, Compression> decoders = new ConcurrentHashMap<>();
+
+    public PayloadCompressor(CompressionType type, int threshold) {
+        this(type, threshold, DEFAULT_ZSTD_LEVEL, null);
+    }
+
+    /**
+     * @param threshold      序列化后字节数达到该值才压缩
+     * @param zstdLevel      Zstd 压缩级别
+     * @param zstdDictionary Zstd 共享字典，为空时不使用字典
+     */
+    public PayloadCompressor(CompressionType type, int threshold, int zstdLevel, byte[] zstdDictionary) {
+        if (type == null) {
+            type = CompressionType.NONE;
+        }
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Compression threshold must not be negative: " + threshold);
+        }
+        this.type = type;
+        this.threshold = threshold;
+        this.zstdLevel = zstdLevel;
+        this.zstdDictionary = zstdDictionary == null || zstdDictionary.length == 0 ? null : zstdDictionary;
+        this.compression = type == CompressionType.NONE ? null : decoder(type);
+    }
+
+    /**
+     * 不压缩，仍可解压携带压缩标记的消息
+     */
+    public static PayloadCompressor none() {
+        return NONE;
+    }
+
+    public CompressionType getType() {
+        return type;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public boolean isEnabled() {
+        return compression != null;
+    }
+
+    /**
+     * 写入消息头的 content-encoding
+     */
+    public String encoding() {
+        return type.getEncoding();
+    }
+
+    /**
+     * @return 压缩后的消息体；未启用、未达到阈值或压缩后不变小时返回 null，调用方发送原消息体且不写压缩标记
+     */
+    public byte[] compress(byte[] body) {
+        if (compression == null || body == null || body.length < threshold) {
+            return null;
+        }
+        byte[] compressed;
+        try {
+            compressed = compression.compress(body);
+        } catch (IOException e) {
+            throw new IllegalStateException(type + " compress exception!", e);
+        }
+        return compressed.length < body.length ? compressed : null;
+    }
+
+    /**
+     * 按消息头中的 content-encoding 解压，未压缩时原样返回
+     */
+    public byte[] decompress(String encoding, byte[] body) {
+        CompressionType bodyType = CompressionType.fromEncoding(encoding);
+        if (bodyType == null) {
+            throw new IllegalArgumentException("Unsupported content encoding: " + encoding);
+        }
+        return decompress(bodyType, body);
+    }
+
+    /**
+     * 压缩并加帧前缀，用于无消息头的驱动；不需要压缩时原样返回
+     */
+    public byte[] frame(byte[] body) {
+        byte[] compressed = compress(body);
+        if (compressed == null) {
+            return body;
+        }
+        byte[] framed = new byte[FRAME_HEADER_LENGTH + compressed.length];
+        System.arraycopy(FRAME_MAGIC, 0, framed, 0, FRAME_MAGIC.length);
+        framed[FRAME_MAGIC.length] = (byte) type.getId();
+        System.arraycopy(compressed, 0, framed, FRAME_HEADER_LENGTH, compressed.length);
+        return framed;
+    }
+
+    /**
+     * 识别 {@link #frame(byte[])} 的帧前缀并解压，没有帧前缀时原样返回
+     */
+    public byte[] unframe(byte[] body) {
+        if (!isFramed(body)) {
+            return body;
+        }
+        CompressionType bodyType = CompressionType.fromId(body[FRAME_MAGIC.length]);
+        if (bodyType == null || bodyType == CompressionType.NONE) {
+            throw new IllegalArgumentException("Unsupported compression frame: " + body[FRAME_MAGIC.length]);
+        }
+        byte[] compressed = new byte[body.length - FRAME_HEADER_LENGTH];
+        System.arraycopy(body, FRAME_HEADER_LENGTH, compressed, 0, compressed.length);
+        return decompress(bodyType, compressed);
+    }
+
+    private static boolean isFramed(byte[] body) {
+        if (body == null || body.length < FRAME_HEADER_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < FRAME_MAGIC.length; i++) {
+            if (body[i] != FRAME_MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte[] decompress(CompressionType bodyType, byte[] body) {
+        if (bodyType == CompressionType.NONE || body == null || body.length == 0) {
+            return body;
+        }
+        try {
+            return decoder(bodyType).decompress(body);
+        } catch (IOException e) {
+            throw new IllegalStateException(bodyType + " decompress exception!", e);
+        }
+    }
+
+    private Compression decoder(CompressionType bodyType) {
+        return decoders.computeIfAbsent(bodyType, this::create);
+    }
+
+    private Compression create(CompressionType bodyType) {
+        if (!bodyType.isAvailable()) {
+            throw new IllegalArgumentException(bodyType + " compression requires " + bodyType.getArtifact() + " on the classpath");
+        }
+        switch (bodyType) {
+            case GZIP:
+                return new GzipCompression();
+            case LZ4:
+                return new Lz4Compression();
+            case SNAPPY:
+                return new SnappyCompression();
+            case ZSTD:
+                return zstdDictionary == null ? new ZstdCompression(zstdLevel) : new ZstdDictCompression(zstdDictionary, zstdLevel);
+            default:
+                throw new IllegalArgumentException("Unsupported compression type: " + bodyType);
+        }
+    }
+
+    private static void checkSize(long size) {
+        if (size > MAX_DECOMPRESSED_SIZE) {
+            throw new IllegalArgumentException("Decompressed payload exceeds " + MAX_DECOMPRESSED_SIZE + " bytes");
+        }
+    }
+
+    private static byte[] readAll(InputStream in, int sizeHint) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.min(Math.max(sizeHint, 256), MAX_DECOMPRESSED_SIZE));
+        byte[] buffer = new byte[8192];
+        int read;
+        long total = 0;
+        while ((read = in.read(buffer)) != -1) {
+            total += read;
+            checkSize(total);
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 单个压缩算法，实现类各自引用压缩库，未使用的算法不会加载对应的库
+     */
+    private interface Compression {
+
+        byte[] compress(byte[] body) throws IOException;
+
+        byte[] decompress(byte[] body) throws IOException;
+    }
+
+    private static final class GzipCompression implements Compression {
+
+        @Override
+        public byte[] compress(byte[] body) throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2);
+            try (OutputStream gzip = new GZIPOutputStream(out, 8192)) {
+                gzip.write(body);
+            }
+            return out.toByteArray();
+        }
+
+        @Override
+        public byte[] decompress(byte[] body) throws IOException {
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body), 8192)) {
+                return readAll(in, body.length * 4);
+            }
+        }
+    }
+
+    private static final class Lz4Compression implements Compression {
+
+        @Override
+        public byte[] compress(byte[] body) throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2);
+            try (OutputStream lz4 = new LZ4FrameOutputStream(out)) {
+                lz4.write(body);
+            }
+            return out.toByteArray();
+        }
+
+        @Override
+        public byte[] decompress(byte[] body) throws IOException {
+            try (InputStream in = new LZ4FrameInputStream(new ByteArrayInputStream(body))) {
+                return readAll(in, body.length * 3);
+            }
+        }
+    }
+
+    private static final class SnappyCompression implements Compression {
+
+        @Override
+        public byte[] compress(byte[] body) throws IOException {
+            return Snappy.compress(body);
+        }
+
+        @Override
+        public byte[] decompress(byte[] body) throws IOException {
+            checkSize(Snappy.uncompressedLength(body));
+            return Snappy.uncompress(body);
+        }
+    }
+
+    private static class ZstdCompression implements Compression {
+
+        private final int level;
+
+        ZstdCompression(int level) {
+            this.level = level;
+        }
+
+        @Override
+        public byte[] compress(byte[] body) {
+            return Zstd.compress(body, level);
+        }
+
+        @Override
+        public byte[] decompress(byte[] body) {
+            return Zstd.decompress(body, originalSize(body));
+        }
+
+        static int originalSize(byte[] body) {
+            long size = Zstd.decompressedSize(body);
+            if (size <= 0) {
+                throw new IllegalArgumentException("Zstd frame without content size");
+            }
+            checkSize(size);
+            return (int) size;
+        }
+    }
+
+    private static final class ZstdDictCompression extends ZstdCompression {
+
+        private final ZstdDictCompress dictCompress;
+        private final ZstdDictDecompress dictDecompress;
+
+        ZstdDictCompression(byte[] dictionary, int level) {
+            super(level);
+            this.dictCompress = new ZstdDictCompress(dictionary, level);
+            this.dictDecompress = new ZstdDictDecompress(dictionary);
+        }
+
+        @Override
+        public byte[] compress(byte[] body) {
+            return Zstd.compress(body, dictCompress);
+        }
+
+        @Override
+        public byte[] decompress(byte[] body) {
+            return Zstd.decompress(body, dictDecompress, originalSize(body));
+        }
+    }
+}
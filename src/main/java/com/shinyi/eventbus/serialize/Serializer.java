@@ -10,4 +10,25 @@ public interface Serializer {
     byte[] serialize(EventModel<?> object, String serializeType);
 
     EventModel<?> deserialize(byte[] bytes, String serializeType, Class<?> entityType);
+
+    /**
+     * 使用监听器预先解析好的实体类型反序列化
+     */
+    default EventModel<?> deserialize(byte[] bytes, String serializeType, EntityTypeDescriptor entityType) {
+        return deserialize(bytes, serializeType, entityType.getRawType());
+    }
+
+    /**
+     * 按消息头中的内容类型选择编解码器，为空或未知时按监听器的序列化类型反序列化
+     */
+    default EventModel<?> deserialize(byte[] bytes, String serializeType, String contentType, EntityTypeDescriptor entityType) {
+        return deserialize(bytes, serializeType, entityType);
+    }
+
+    /**
+     * 序列化类型对应的内容类型，写入消息头供消费端选择编解码器，未知返回 null
+     */
+    default String contentType(String serializeType) {
+        return null;
+    }
 }
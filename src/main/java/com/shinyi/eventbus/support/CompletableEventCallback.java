@@ -0,0 +1,73 @@
+package com.shinyi.eventbus.support;
+
+import com.shinyi.eventbus.EventCallback;
+import com.shinyi.eventbus.EventResult;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 将驱动原生回调桥接为 {@link CompletableFuture}，并继续回调用户原有的 {@link EventCallback}
+ * @author MSGA
+ */
+@Slf4j
+public class CompletableEventCallback implements EventCallback {
+
+    @Getter
+    private final CompletableFuture<EventResult> future = new CompletableFuture<>();
+
+    private final EventCallback delegate;
+    /**
+     * 回调用户原有回调之前执行，如还原发布时修改过的事件
+     */
+    private final Runnable beforeComplete;
+
+    public CompletableEventCallback(EventCallback delegate) {
+        this(delegate, null);
+    }
+
+    public CompletableEventCallback(EventCallback delegate, Runnable beforeComplete) {
+        this.delegate = delegate;
+        this.beforeComplete = beforeComplete;
+    }
+
+    @Override
+    public void onSuccess(EventResult eventResult) {
+        eventResult.setSuccess(true);
+        try {
+            runBeforeComplete();
+            if(null != delegate) {
+                delegate.onSuccess(eventResult);
+            }
+        } catch (Exception e) {
+            log.warn("事件回调执行异常 {}", e.getMessage(), e);
+        } finally {
+            future.complete(eventResult);
+        }
+    }
+
+    @Override
+    public void onFailure(EventResult eventResult, Throwable throwable) {
+        if(null != eventResult) {
+            eventResult.setSuccess(false);
+            eventResult.setCause(throwable);
+        }
+        try {
+            runBeforeComplete();
+            if(null != delegate) {
+                delegate.onFailure(eventResult, throwable);
+            }
+        } catch (Exception e) {
+            log.warn("事件回调执行异常 {}", e.getMessage(), e);
+        } finally {
+            future.completeExceptionally(throwable);
+        }
+    }
+
+    private void runBeforeComplete() {
+        if(null != beforeComplete) {
+            beforeComplete.run();
+        }
+    }
+}
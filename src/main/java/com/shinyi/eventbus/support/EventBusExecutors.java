@@ -0,0 +1,107 @@
+package com.shinyi.eventbus.support;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 线程创建工具：按 {@link ExecutorMode} 创建平台线程或虚拟线程。
+ * <p>
+ * 项目以 Java 8 编译，虚拟线程 API 通过反射调用，运行时 JDK 不支持时回退为平台线程。
+ * @author MSGA
+ */
+@Slf4j
+public final class EventBusExecutors {
+
+    private static final Method OF_VIRTUAL;
+    private static final Method BUILDER_NAME;
+    private static final Method BUILDER_NAME_COUNTER;
+    private static final Method BUILDER_FACTORY;
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method nameCounter = null;
+        Method factory = null;
+        Method newThreadPerTaskExecutor = null;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            name = builderClass.getMethod("name", String.class);
+            nameCounter = builderClass.getMethod("name", String.class, long.class);
+            factory = builderClass.getMethod("factory");
+            newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+        } catch (ReflectiveOperationException e) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = name;
+        BUILDER_NAME_COUNTER = nameCounter;
+        BUILDER_FACTORY = factory;
+        NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+    }
+
+    private EventBusExecutors() {
+        throw new UnsupportedOperationException("Construct EventBusExecutors");
+    }
+
+    /**
+     * 当前运行时是否支持虚拟线程
+     */
+    public static boolean isVirtualThreadSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * 实际生效的执行模式，运行时不支持虚拟线程时返回 PLATFORM
+     */
+    public static ExecutorMode effectiveMode(ExecutorMode mode) {
+        if (mode == ExecutorMode.VIRTUAL && !isVirtualThreadSupported()) {
+            log.warn("当前 JDK {} 不支持虚拟线程，回退为平台线程", System.getProperty("java.version"));
+            return ExecutorMode.PLATFORM;
+        }
+        return mode == null ? ExecutorMode.PLATFORM : mode;
+    }
+
+    /**
+     * 每个任务一个虚拟线程的执行器，线程名为 prefix + 序号
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor(String namePrefix) {
+        if (!isVirtualThreadSupported()) {
+            throw new UnsupportedOperationException("Virtual threads require JDK 21+");
+        }
+        try {
+            Object builder = BUILDER_NAME_COUNTER.invoke(OF_VIRTUAL.invoke(null), namePrefix, 0L);
+            ThreadFactory threadFactory = (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+            return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, threadFactory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Create virtual thread executor failed", e);
+        }
+    }
+
+    /**
+     * 指定线程名的线程工厂，VIRTUAL 且运行时支持时创建虚拟线程
+     */
+    public static ThreadFactory threadFactory(ExecutorMode mode, String name) {
+        if (mode == ExecutorMode.VIRTUAL && isVirtualThreadSupported()) {
+            try {
+                Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), name);
+                return (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+            } catch (ReflectiveOperationException e) {
+                log.warn("创建虚拟线程工厂失败，回退为平台线程：{}", e.getMessage());
+            }
+        }
+        return r -> new Thread(r, name);
+    }
+
+    /**
+     * 单线程执行器，用于 MQ 消费循环
+     */
+    public static ExecutorService newSingleThreadExecutor(ExecutorMode mode, String name) {
+        return Executors.newSingleThreadExecutor(threadFactory(mode, name));
+    }
+}
@@ -1,16 +1,24 @@
 package com.shinyi.eventbus.support;
 
 import cn.hutool.core.map.MapUtil;
-import cn.hutool.core.util.IdUtil;
 import cn.hutool.core.util.StrUtil;
 import com.shinyi.eventbus.EventBusType;
+import com.shinyi.eventbus.EventCallback;
+import com.shinyi.eventbus.EventHeaders;
 import com.shinyi.eventbus.EventListener;
 import com.shinyi.eventbus.EventListenerRegistry;
 import com.shinyi.eventbus.EventModel;
+import com.shinyi.eventbus.EventResult;
+import com.shinyi.eventbus.LocalTransaction;
+import com.shinyi.eventbus.PreparedTransaction;
+import com.shinyi.eventbus.TransactionalEventPublisher;
 import com.shinyi.eventbus.anno.EventBusListener;
 import com.shinyi.eventbus.exception.EventBusException;
 import com.shinyi.eventbus.exception.EventBusExceptionType;
 import com.shinyi.eventbus.listener.MethodEventListener;
+import com.shinyi.eventbus.listener.MethodInvokerType;
+import com.shinyi.eventbus.util.EventIdGenerator;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
 import org.springframework.beans.BeansException;
@@ -21,13 +29,18 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.context.support.GenericApplicationContext;
 import org.springframework.core.MethodIntrospector;
 import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.env.Environment;
 import org.springframework.lang.NonNull;
+import org.springframework.util.ClassUtils;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -41,8 +54,13 @@ import java.util.concurrent.atomic.AtomicBoolean;
 @SuppressWarnings("unchecked")
 public class EventListenerRegistryManager implements SmartLifecycle, ApplicationContextAware, AutoCloseable {
 
+    private static final boolean TRANSACTION_SYNCHRONIZATION_PRESENT = ClassUtils.isPresent(
+            "org.springframework.transaction.support.TransactionSynchronizationManager", EventListenerRegistryManager.class.getClassLoader());
+
     private final Map<String, EventListenerRegistry<EventModel<?>>> ALL_EVENT_DRIVE_REGISTRY = new ConcurrentHashMap<>();
 
+    private final Map<String, String> DRIVE_TYPE_MAP = new ConcurrentHashMap<>();
+
     private final Map<String, EventListener<EventModel<Object>>> EVENT_LISTENERS_MAP = new ConcurrentHashMap<>();
 
     private final AtomicBoolean isRunning = new AtomicBoolean(false);
@@ -51,6 +69,17 @@ public class EventListenerRegistryManager implements SmartLifecycle, Application
 
     private ApplicationContext applicationContext;
 
+    /**
+     * 注解监听方法的调用策略
+     */
+    @Setter
+    private MethodInvokerType methodInvokerType = MethodInvokerType.LAMBDA;
+    /**
+     * 注解监听器的并发处理上限，0 表示不限制
+     */
+    @Setter
+    private int listenerConcurrencyLimit;
+
     public void publish(EventBusType eventBusType, EventModel<?> event) throws EventBusException {
         if(!eventBusType.isEnabled()) { throw new EventBusException(EventBusExceptionType.EVENTBUS_DRIVER_DISABLE_ERROR, MapUtil.of("EL", eventBusType.getTypeName())); }
         publish(eventBusType.getTypeName(), event);
@@ -59,22 +88,21 @@ public class EventListenerRegistryManager implements SmartLifecycle, Application
 
     public void publish(String eventBusTypeName, EventModel<?> event) throws EventBusException {
         if(null == event) { throw new EventBusException(EventBusExceptionType.EVENTBUS_PUBLISH_EVENT_NULL_ERROR, "事件模型不能为空"); }
+        EventListenerRegistry<EventModel<?>> eventModelEventListenerRegistry = ALL_EVENT_DRIVE_REGISTRY.get(eventBusTypeName);
+        if(eventModelEventListenerRegistry == null) {
+            throw new EventBusException(EventBusExceptionType.EVENTBUS_DRIVER_NOT_FOUND_ERROR, MapUtil.of("EL", eventBusTypeName));
+        }
         if(null == event.getEventId()) {
-            String traceId = MDC.get("traceId");
-            if(StrUtil.isBlank(traceId)) {
-                traceId = IdUtil.randomUUID().replace("-", "");
-            }
-            event.setEventId(traceId);
+            event.setEventId(nextEventId());
+        }
+        event.setDriveType(DRIVE_TYPE_MAP.get(eventBusTypeName));
+        // 热点路径：日志按级别守卫，未开启 debug 时不取时间也不拼装参数
+        final boolean debugEnabled = log.isDebugEnabled();
+        final long start = debugEnabled ? System.nanoTime() : 0L;
+        if(debugEnabled) {
+            log.debug("{} 开始发布 {} {} 事件：{}", event.getTopic(), eventBusTypeName, event.isEnableAsync() ? "异步" : "同步", event.getEventId());
         }
-        final long start = System.currentTimeMillis();
         try {
-            EventListenerRegistry<EventModel<?>> eventModelEventListenerRegistry = ALL_EVENT_DRIVE_REGISTRY.get(eventBusTypeName);
-            if(eventModelEventListenerRegistry == null) {
-                throw new EventBusException(EventBusExceptionType.EVENTBUS_DRIVER_NOT_FOUND_ERROR, MapUtil.of("EL", eventBusTypeName));
-            }
-            event.setDriveType(eventBusTypeName+"#"+eventModelEventListenerRegistry.getEventBusType().getTypeName());
-            String syncDescribe = event.isEnableAsync() ? "异步" : "同步";
-            log.info("{} 开始发布 {} {} 事件：{}", event.getTopic(), eventBusTypeName, syncDescribe, event.getEventId());
             eventModelEventListenerRegistry.publish(event);
         } catch (Exception e) {
             if(event.isEnableAsync()) {
@@ -84,8 +112,163 @@ public class EventListenerRegistryManager implements SmartLifecycle, Application
                 throw new EventBusException(EventBusExceptionType.LISTENER_BIZ_ERROR, MapUtil.of("ERR", e.getMessage()), e);
             }
         } finally {
-            log.info("{} 事件发布 {} 耗时：{}", eventBusTypeName, event.getTopic(), System.currentTimeMillis() - start);
+            if(debugEnabled) {
+                log.debug("{} 事件发布 {} 耗时：{}μs", eventBusTypeName, event.getTopic(), (System.nanoTime() - start) / 1000);
+            }
+        }
+    }
+
+    public CompletableFuture<EventResult> publishAsync(EventBusType eventBusType, EventModel<?> event) throws EventBusException {
+        if(!eventBusType.isEnabled()) { throw new EventBusException(EventBusExceptionType.EVENTBUS_DRIVER_DISABLE_ERROR, MapUtil.of("EL", eventBusType.getTypeName())); }
+        return publishAsync(eventBusType.getTypeName(), event);
+    }
+
+    /**
+     * 异步发布事件，返回由驱动原生回调（Kafka send callback、RocketMQ SendCallback、RabbitMQ confirm）完成的 Future，
+     * 调用线程不阻塞，可配合 {@link CompletableFuture#allOf} 汇总大量在途发布。事件上原有的回调仍会被调用。
+     *   发布期间事件的回调被替换为 {@link CompletableEventCallback}、enableAsync 置为 true，Future 完成前还原为调用方原有的值
+     * @param eventBusTypeName 驱动名称
+     * @param event 事件
+     * @return 发布结果，失败时以异常完成
+     */
+    public CompletableFuture<EventResult> publishAsync(String eventBusTypeName, EventModel<?> event) throws EventBusException {
+        if(null == event) { throw new EventBusException(EventBusExceptionType.EVENTBUS_PUBLISH_EVENT_NULL_ERROR, "事件模型不能为空"); }
+        EventCallback eventCallback = event.getEventCallback();
+        boolean enableAsync = event.isEnableAsync();
+        // 部分驱动在投递时才读取事件上的回调（如 Ring），只能在回调触发时还原
+        Runnable restore = () -> {
+            event.setEventCallback(eventCallback);
+            event.setEnableAsync(enableAsync);
+        };
+        CompletableEventCallback callback = new CompletableEventCallback(eventCallback, restore);
+        event.setEventCallback(callback);
+        event.setEnableAsync(true);
+        try {
+            publish(eventBusTypeName, event);
+        } catch (EventBusException e) {
+            restore.run();
+            callback.getFuture().completeExceptionally(e);
         }
+        return callback.getFuture();
+    }
+
+    public List<EventResult> publishBatch(EventBusType eventBusType, Collection<? extends EventModel<?>> events) throws EventBusException {
+        if(!eventBusType.isEnabled()) { throw new EventBusException(EventBusExceptionType.EVENTBUS_DRIVER_DISABLE_ERROR, MapUtil.of("EL", eventBusType.getTypeName())); }
+        return publishBatch(eventBusType.getTypeName(), events);
+    }
+
+    /**
+     * 批量发布事件，只查找一次驱动并交由驱动一次性发送
+     * @param eventBusTypeName 驱动名称
+     * @param events 事件集合
+     * @return 每条事件的发布结果，顺序与入参一致
+     */
+    public List<EventResult> publishBatch(String eventBusTypeName, Collection<? extends EventModel<?>> events) throws EventBusException {
+        if(null == events) { throw new EventBusException(EventBusExceptionType.EVENTBUS_PUBLISH_EVENT_NULL_ERROR, "事件集合不能为空"); }
+        if(events.isEmpty()) { return Collections.emptyList(); }
+        EventListenerRegistry<EventModel<?>> eventModelEventListenerRegistry = ALL_EVENT_DRIVE_REGISTRY.get(eventBusTypeName);
+        if(eventModelEventListenerRegistry == null) {
+            throw new EventBusException(EventBusExceptionType.EVENTBUS_DRIVER_NOT_FOUND_ERROR, MapUtil.of("EL", eventBusTypeName));
+        }
+        final String driveType = DRIVE_TYPE_MAP.get(eventBusTypeName);
+        final String traceId = MDC.get("traceId");
+        for (EventModel<?> event : events) {
+            if(null == event) { throw new EventBusException(EventBusExceptionType.EVENTBUS_PUBLISH_EVENT_NULL_ERROR, "事件模型不能为空"); }
+            if(null == event.getEventId()) {
+                // 同一批次共享一个 traceId，事件ID各自生成，traceId 放入消息头随事件传递
+                event.setEventId(EventIdGenerator.nextId());
+            }
+            if(StrUtil.isNotBlank(traceId) && null == event.getHeader(EventHeaders.TRACE_ID)) {
+                event.putHeader(EventHeaders.TRACE_ID, traceId);
+            }
+            event.setDriveType(driveType);
+        }
+        final long start = System.currentTimeMillis();
+        log.info("{} 开始批量发布事件，数量：{}", eventBusTypeName, events.size());
+        try {
+            return eventModelEventListenerRegistry.publishBatch((Collection<EventModel<?>>) events);
+        } catch (EventBusException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new EventBusException(EventBusExceptionType.EVENTBUS_PUBLISH_ERROR, e);
+        } finally {
+            log.info("{} 事件批量发布 {} 条 耗时：{}", eventBusTypeName, events.size(), System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * 发送事务消息后执行本地事务，本地事务返回 COMMIT 时投递事件，返回 ROLLBACK 时丢弃。
+     *   本地事务抛出异常或执行后进程退出时，由驱动的 {@link com.shinyi.eventbus.TransactionChecker} 回查决定
+     * @param eventBusTypeName 驱动名称，驱动需实现 {@link TransactionalEventPublisher}
+     * @param event 事件
+     * @param localTransaction 本地事务
+     * @return 发布结果，事件已投递时 success 为 true
+     */
+    public EventResult publishInTransaction(String eventBusTypeName, EventModel<?> event, LocalTransaction localTransaction) throws EventBusException {
+        TransactionalEventPublisher<EventModel<?>> publisher = transactionalPublisher(eventBusTypeName, event);
+        try {
+            return publisher.publishInTransaction(event, localTransaction);
+        } catch (EventBusException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new EventBusException(EventBusExceptionType.EVENTBUS_TRANSACTION_ERROR, MapUtil.of("ERR", e.getMessage()), e);
+        }
+    }
+
+    /**
+     * 在当前 Spring 事务（{@code @Transactional}）中发布事件：立即发送事务消息，事务提交后投递，回滚后丢弃；
+     *   提交后进程退出等导致消息未结束时，由驱动的 {@link com.shinyi.eventbus.TransactionChecker} 回查决定。
+     *   必须在开启了事务同步的线程中调用，事务消息发送失败时抛出异常，可随之回滚本地事务
+     * @param eventBusTypeName 驱动名称，驱动需实现 {@link TransactionalEventPublisher}
+     * @param event 事件
+     * @return 事务消息的发送结果
+     */
+    public EventResult publishInTransaction(String eventBusTypeName, EventModel<?> event) throws EventBusException {
+        if(!TRANSACTION_SYNCHRONIZATION_PRESENT || !EventTransactionSynchronization.isActive()) {
+            throw new EventBusException(EventBusExceptionType.EVENTBUS_TRANSACTION_ERROR, MapUtil.of("ERR", "当前线程没有进行中的 Spring 事务"));
+        }
+        TransactionalEventPublisher<EventModel<?>> publisher = transactionalPublisher(eventBusTypeName, event);
+        PreparedTransaction preparedTransaction;
+        try {
+            preparedTransaction = publisher.prepare(event);
+        } catch (EventBusException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new EventBusException(EventBusExceptionType.EVENTBUS_TRANSACTION_ERROR, MapUtil.of("ERR", e.getMessage()), e);
+        }
+        EventTransactionSynchronization.register(preparedTransaction);
+        return preparedTransaction.getResult();
+    }
+
+    private TransactionalEventPublisher<EventModel<?>> transactionalPublisher(String eventBusTypeName, EventModel<?> event) {
+        if(null == event) { throw new EventBusException(EventBusExceptionType.EVENTBUS_PUBLISH_EVENT_NULL_ERROR, "事件模型不能为空"); }
+        EventListenerRegistry<EventModel<?>> eventModelEventListenerRegistry = ALL_EVENT_DRIVE_REGISTRY.get(eventBusTypeName);
+        if(eventModelEventListenerRegistry == null) {
+            throw new EventBusException(EventBusExceptionType.EVENTBUS_DRIVER_NOT_FOUND_ERROR, MapUtil.of("EL", eventBusTypeName));
+        }
+        if(!(eventModelEventListenerRegistry instanceof TransactionalEventPublisher)) {
+            throw new EventBusException(EventBusExceptionType.EVENTBUS_TRANSACTION_ERROR, MapUtil.of("ERR", eventBusTypeName + " 不支持事务消息"));
+        }
+        if(null == event.getEventId()) {
+            event.setEventId(nextEventId());
+        }
+        event.setDriveType(DRIVE_TYPE_MAP.get(eventBusTypeName));
+        return (TransactionalEventPublisher<EventModel<?>>) eventModelEventListenerRegistry;
+    }
+
+    /**
+     * 事件的驱动类型：注册器名称（去掉 EventListenerRegistry 后缀）#驱动类型名
+     */
+    public static String driveTypeOf(String registryBeanName, EventBusType eventBusType) {
+        return registryBeanName.replace("EventListenerRegistry", "") + "#" + eventBusType.getTypeName();
+    }
+
+    /**
+     * 优先沿用链路 traceId，否则生成时间有序的事件ID
+     */
+    private static String nextEventId() {
+        String traceId = MDC.get("traceId");
+        return StrUtil.isBlank(traceId) ? EventIdGenerator.nextId() : traceId;
     }
 
     @Override
@@ -185,23 +368,9 @@ public class EventListenerRegistryManager implements SmartLifecycle, Application
         executeMethod.setAccessible(true);
 
         // registry listener
-        EventListener<EventModel<Object>> listener = new MethodEventListener(bean, executeMethod,
-                env.resolveRequiredPlaceholders(eventListener.topic()),
-                eventListener.entityType(),
-                env.resolveRequiredPlaceholders(eventListener.group()),
-                env.resolveRequiredPlaceholders(eventListener.tags()),
-                env.resolveRequiredPlaceholders(eventListener.consumerMode()),
-                eventListener.name(),
-                env.resolveRequiredPlaceholders(eventListener.appName()),
-                eventListener.deserializeType().getType(),
-                env.resolveRequiredPlaceholders(eventListener.offset()),
-                env.resolveRequiredPlaceholders(eventListener.queue()),
-                env.resolveRequiredPlaceholders(eventListener.exchange()),
-                env.resolveRequiredPlaceholders(eventListener.exchangeType()),
-                env.resolveRequiredPlaceholders(eventListener.routingKey()),
-                eventListener.durable(),
-                eventListener.autoDelete()
-        );
+        MethodEventListener listener = new MethodEventListener(bean, executeMethod, resolvePlaceholders(eventListener),
+                methodInvokerType);
+        listener.setConcurrencyLimit(listenerConcurrencyLimit);
         EVENT_LISTENERS_MAP.put(registerBeanName, listener);
 
         // 如果类型是 Spring 则需要注册到 Spring
@@ -210,6 +379,15 @@ public class EventListenerRegistryManager implements SmartLifecycle, Application
         }
     }
 
+    /**
+     * 解析注解字符串属性中的占位符，返回解析后的注解
+     */
+    private EventBusListener resolvePlaceholders(EventBusListener eventListener) {
+        Map<String, Object> attributes = AnnotationUtils.getAnnotationAttributes(eventListener);
+        attributes.replaceAll((name, value) -> value instanceof String ? env.resolveRequiredPlaceholders((String) value) : value);
+        return AnnotationUtils.synthesizeAnnotation(attributes, EventBusListener.class, null);
+    }
+
     private String getRegisterBeanName(EventBusListener eventListener, Object bean, Method executeMethod) {
         String registerBeanName = eventListener.beanName();
         if(registerBeanName.trim().isEmpty()) {
@@ -226,7 +404,10 @@ public class EventListenerRegistryManager implements SmartLifecycle, Application
         applicationContext.getBeansOfType(EventListenerRegistry.class)
                 .forEach((k, v) -> {
                     if(null != v) {
-                        ALL_EVENT_DRIVE_REGISTRY.put(k.replace("EventListenerRegistry", ""), v);
+                        String name = k.replace("EventListenerRegistry", "");
+                        ALL_EVENT_DRIVE_REGISTRY.put(name, v);
+                        // 预先计算驱动类型，避免每次发布时拼接字符串
+                        DRIVE_TYPE_MAP.put(name, driveTypeOf(k, v.getEventBusType()));
                     }
                 });
     }
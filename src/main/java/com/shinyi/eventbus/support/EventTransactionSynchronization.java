@@ -0,0 +1,44 @@
+package com.shinyi.eventbus.support;
+
+import com.shinyi.eventbus.PreparedTransaction;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 随 Spring 事务结束提交或回滚事务消息：事务提交后提交消息，回滚后回滚消息，状态未知时交给 broker 回查。
+ * 只在存在 spring-tx 时加载
+ * @author MSGA
+ */
+@Slf4j
+@RequiredArgsConstructor
+final class EventTransactionSynchronization implements TransactionSynchronization {
+
+    private final PreparedTransaction preparedTransaction;
+
+    static boolean isActive() {
+        return TransactionSynchronizationManager.isSynchronizationActive();
+    }
+
+    static void register(PreparedTransaction preparedTransaction) {
+        TransactionSynchronizationManager.registerSynchronization(new EventTransactionSynchronization(preparedTransaction));
+    }
+
+    @Override
+    public void afterCompletion(int status) {
+        String messageId = preparedTransaction.getResult().getMessageId();
+        try {
+            if (status == STATUS_COMMITTED) {
+                preparedTransaction.commit();
+            } else if (status == STATUS_ROLLED_BACK) {
+                preparedTransaction.rollback();
+            } else {
+                log.warn("事务消息 {} 所在事务的结果未知，等待回查", messageId);
+            }
+        } catch (Exception e) {
+            // 本地事务已结束，消息状态由回查确定
+            log.warn("事务消息 {} 结束失败，等待回查: {}", messageId, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.shinyi.eventbus.support;
+
+/**
+ * 监听器执行线程模式
+ * @author MSGA
+ */
+public enum ExecutorMode {
+
+    /**
+     * 平台线程池
+     */
+    PLATFORM,
+    /**
+     * 虚拟线程（JDK 21+），每个任务一个虚拟线程，低版本 JDK 回退为 PLATFORM
+     */
+    VIRTUAL;
+
+    /**
+     * 根据名称匹配（大小写不敏感），为空时使用 PLATFORM
+     */
+    public static ExecutorMode fromType(String type) {
+        if (type == null || type.trim().isEmpty()) {
+            return PLATFORM;
+        }
+        for (ExecutorMode value : values()) {
+            if (value.name().equalsIgnoreCase(type.trim())) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Invalid executor mode: " + type);
+    }
+}
@@ -0,0 +1,216 @@
+package com.shinyi.eventbus.support;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 基于消息头的消费端预过滤表达式，在反序列化消息体之前按传输层元数据（Kafka headers、RocketMQ 属性、AMQP headers）丢弃不匹配的消息。
+ * <p>
+ * 语法：
+ * <pre>
+ *   type == 'order'                      等于
+ *   type != 'refund'                     不等于（消息头缺失时成立）
+ *   region in ('cn', 'sg')               属于
+ *   priority                             消息头存在
+ *   !(a == '1' || b == '2') &amp;&amp; c       组合，优先级 ! &gt; &amp;&amp; &gt; ||
+ * </pre>
+ * 名称可包含字母、数字和 {@code . _ - :}，值使用单引号或双引号。表达式按文本缓存，编译后线程安全。
+ * @author MSGA
+ */
+public final class HeaderFilter {
+
+    private static final HeaderFilter MATCH_ALL = new HeaderFilter("", null);
+
+    private static final Map<String, HeaderFilter> CACHE = new ConcurrentHashMap<>();
+
+    private final String expression;
+    private final Predicate<Function<String, String>> predicate;
+
+    private HeaderFilter(String expression, Predicate<Function<String, String>> predicate) {
+        this.expression = expression;
+        this.predicate = predicate;
+    }
+
+    /**
+     * 编译过滤表达式，为空返回全部匹配
+     *
+     * @throws IllegalArgumentException 表达式不合法
+     */
+    public static HeaderFilter compile(String expression) {
+        if (expression == null || expression.trim().isEmpty()) {
+            return MATCH_ALL;
+        }
+        return CACHE.computeIfAbsent(expression.trim(), e -> new HeaderFilter(e, new Parser(e).parse()));
+    }
+
+    public static HeaderFilter matchAll() {
+        return MATCH_ALL;
+    }
+
+    public boolean isMatchAll() {
+        return predicate == null;
+    }
+
+    /**
+     * @param headers 按名称读取消息头，不存在时返回 null
+     */
+    public boolean matches(Function<String, String> headers) {
+        return predicate == null || predicate.test(headers);
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    /**
+     * 递归下降解析
+     */
+    private static final class Parser {
+
+        private final String text;
+        private int pos;
+
+        private Parser(String text) {
+            this.text = text;
+        }
+
+        private Predicate<Function<String, String>> parse() {
+            Predicate<Function<String, String>> result = parseOr();
+            skipWhitespace();
+            if (pos < text.length()) {
+                throw error("unexpected '" + text.charAt(pos) + "'");
+            }
+            return result;
+        }
+
+        private Predicate<Function<String, String>> parseOr() {
+            Predicate<Function<String, String>> left = parseAnd();
+            while (accept("||")) {
+                left = left.or(parseAnd());
+            }
+            return left;
+        }
+
+        private Predicate<Function<String, String>> parseAnd() {
+            Predicate<Function<String, String>> left = parseUnary();
+            while (accept("&&")) {
+                left = left.and(parseUnary());
+            }
+            return left;
+        }
+
+        private Predicate<Function<String, String>> parseUnary() {
+            if (accept("!")) {
+                return parseUnary().negate();
+            }
+            if (accept("(")) {
+                Predicate<Function<String, String>> inner = parseOr();
+                expect(")");
+                return inner;
+            }
+            return parsePredicate();
+        }
+
+        private Predicate<Function<String, String>> parsePredicate() {
+            String name = parseName();
+            if (accept("==")) {
+                String value = parseValue();
+                return headers -> value.equals(headers.apply(name));
+            }
+            if (accept("!=")) {
+                String value = parseValue();
+                return headers -> !value.equals(headers.apply(name));
+            }
+            if (acceptKeyword("in")) {
+                expect("(");
+                Set<String> values = new HashSet<>(Arrays.asList(parseValue()));
+                while (accept(",")) {
+                    values.add(parseValue());
+                }
+                expect(")");
+                return headers -> {
+                    String value = headers.apply(name);
+                    return value != null && values.contains(value);
+                };
+            }
+            return headers -> Objects.nonNull(headers.apply(name));
+        }
+
+        private String parseName() {
+            skipWhitespace();
+            int start = pos;
+            while (pos < text.length() && isNameChar(text.charAt(pos))) {
+                pos++;
+            }
+            if (start == pos) {
+                throw error(pos < text.length() ? "unexpected '" + text.charAt(pos) + "'" : "unexpected end");
+            }
+            return text.substring(start, pos);
+        }
+
+        private String parseValue() {
+            skipWhitespace();
+            if (pos >= text.length() || (text.charAt(pos) != '\'' && text.charAt(pos) != '"')) {
+                throw error("quoted value expected");
+            }
+            char quote = text.charAt(pos++);
+            int end = text.indexOf(quote, pos);
+            if (end < 0) {
+                throw error("unterminated value");
+            }
+            String value = text.substring(pos, end);
+            pos = end + 1;
+            return value;
+        }
+
+        private boolean acceptKeyword(String keyword) {
+            skipWhitespace();
+            int end = pos + keyword.length();
+            if (text.startsWith(keyword, pos) && (end >= text.length() || !isNameChar(text.charAt(end)))) {
+                pos = end;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean accept(String token) {
+            skipWhitespace();
+            // 避免将 != 误识别为 !
+            if ("!".equals(token) && text.startsWith("!=", pos)) {
+                return false;
+            }
+            if (text.startsWith(token, pos)) {
+                pos += token.length();
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(String token) {
+            if (!accept(token)) {
+                throw error("'" + token + "' expected");
+            }
+        }
+
+        private void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private static boolean isNameChar(char c) {
+            return Character.isLetterOrDigit(c) || c == '.' || c == '_' || c == '-' || c == ':';
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Invalid header filter [" + text + "] at " + pos + ": " + message);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.shinyi.eventbus.support;
+
+import cn.hutool.core.util.StrUtil;
+import com.shinyi.eventbus.EventListener;
+import com.shinyi.eventbus.OverflowPolicy;
+import com.shinyi.eventbus.exception.EventBusException;
+import com.shinyi.eventbus.exception.EventBusExceptionType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 单个监听器的隔离舱：独立的有界队列 + 最大并行度，任务由底层执行器（共享线程池或指定的执行器）运行。
+ * <p>
+ * 慢监听器的积压只占用自己的队列和至多 maxConcurrency 个线程，不会挤占共享线程池队列，
+ * 也不会因共享线程池的 CallerRunsPolicy 把监听器逻辑拖回发布线程。
+ * @author MSGA
+ */
+@Slf4j
+public class ListenerBulkhead implements Executor {
+
+    private final String name;
+    private final int maxConcurrency;
+    private final BlockingQueue<Runnable> queue;
+    private final OverflowPolicy overflowPolicy;
+    private final Executor delegate;
+    private final AtomicInteger workers = new AtomicInteger();
+
+    public ListenerBulkhead(String name, int maxConcurrency, int queueSize, OverflowPolicy overflowPolicy, Executor delegate) {
+        this.name = name;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+        this.overflowPolicy = overflowPolicy == null ? OverflowPolicy.BLOCK : overflowPolicy;
+        this.delegate = delegate;
+    }
+
+    /**
+     * 按监听器配置选择执行器：未配置并行度时使用指定执行器或共享执行器，否则创建隔离舱
+     *
+     * @param executorLookup 按 Bean 名称查找执行器，为空时忽略监听器指定的执行器
+     */
+    public static Executor executorFor(EventListener<?> listener, Executor sharedExecutor, Function<String, Executor> executorLookup) {
+        Executor delegate = sharedExecutor;
+        String executorName = listener.executor();
+        if (StrUtil.isNotBlank(executorName)) {
+            if (executorLookup == null) {
+                log.warn("监听器 {} 指定的执行器 {} 无法解析，使用共享线程池", listener.getClass().getName(), executorName);
+            } else {
+                delegate = executorLookup.apply(executorName);
+            }
+        }
+        if (listener.concurrency() <= 0) {
+            return delegate;
+        }
+        String name = listener.topic() + "#" + listener.group();
+        return new ListenerBulkhead(name, listener.concurrency(), listener.queueSize(), listener.overflowPolicy(), delegate);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!queue.offer(task)) {
+            switch (overflowPolicy) {
+                case DROP_OLDEST:
+                    do {
+                        Runnable dropped = queue.poll();
+                        if (dropped != null) {
+                            log.warn("监听器 {} 队列已满，丢弃最早的事件", name);
+                        }
+                    } while (!queue.offer(task));
+                    break;
+                case REJECT:
+                    throw new EventBusException(EventBusExceptionType.EVENTBUS_QUEUE_ERROR, "监听器 " + name + " 队列已满");
+                case CALLER_RUNS:
+                    task.run();
+                    return;
+                default:
+                    try {
+                        queue.put(task);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new EventBusException(EventBusExceptionType.EVENTBUS_QUEUE_ERROR, "监听器 " + name + " 等待入队被中断", e);
+                    }
+            }
+        }
+        startWorkerIfNeeded();
+    }
+
+    private void startWorkerIfNeeded() {
+        while (!queue.isEmpty()) {
+            int current = workers.get();
+            if (current >= maxConcurrency) {
+                return;
+            }
+            if (workers.compareAndSet(current, current + 1)) {
+                try {
+                    delegate.execute(this::drain);
+                } catch (RuntimeException e) {
+                    workers.decrementAndGet();
+                    throw e;
+                }
+                return;
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            Runnable task;
+            while ((task = queue.poll()) != null) {
+                try {
+                    task.run();
+                } catch (Throwable e) {
+                    log.error("监听器 {} 执行异常", name, e);
+                }
+            }
+        } finally {
+            workers.decrementAndGet();
+        }
+        // 退出与入队之间可能有新任务到达
+        startWorkerIfNeeded();
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public int getActiveWorkers() {
+        return workers.get();
+    }
+}
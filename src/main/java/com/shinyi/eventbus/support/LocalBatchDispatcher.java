@@ -0,0 +1,99 @@
+package com.shinyi.eventbus.support;
+
+import com.shinyi.eventbus.EventCallback;
+import com.shinyi.eventbus.EventListener;
+import com.shinyi.eventbus.EventModel;
+import com.shinyi.eventbus.EventResult;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * 本地事件总线（Guava/Spring）的批量发布：按 topic/group 聚合后对每个匹配的监听器只分发一次
+ * {@link EventListener#onMessageBatch(List)}，与单条发布一样按 {@link TopicListenerIndex#match(String, String)} 匹配。
+ * 同步事件在当前线程执行，异步事件整体提交到监听器的执行器
+ * @author MSGA
+ */
+@Slf4j
+public final class LocalBatchDispatcher {
+
+    private LocalBatchDispatcher() {
+    }
+
+    /**
+     * @param registryBeanName 注册器名称，用于日志
+     * @param events           事件集合
+     * @param index            监听器索引
+     * @param executorOf       监听器 -> 异步分发使用的执行器
+     * @return 每条事件的发布结果，顺序与入参一致
+     */
+    public static <T extends EventModel<?>, L extends EventListener<T>> List<EventResult> publishBatch(
+            String registryBeanName, Collection<T> events, TopicListenerIndex<L> index, Function<L, Executor> executorOf) {
+        Map<T, EventResult> results = new IdentityHashMap<>(events.size());
+        Map<String, Map<String, List<T>>> syncEvents = new LinkedHashMap<>();
+        Map<String, Map<String, List<T>>> asyncEvents = new LinkedHashMap<>();
+        for (T eventModel : events) {
+            EventResult eventResult = new EventResult();
+            eventResult.setTopic(eventModel.getTopic());
+            eventResult.setMessageId(eventModel.getEventId());
+            eventResult.setSuccess(true);
+            results.put(eventModel, eventResult);
+            (eventModel.isEnableAsync() ? asyncEvents : syncEvents)
+                    .computeIfAbsent(eventModel.getTopic(), k -> new LinkedHashMap<>())
+                    .computeIfAbsent(eventModel.getGroup(), k -> new ArrayList<>()).add(eventModel);
+        }
+        asyncEvents.forEach((topic, groups) -> groups.forEach((group, batch) ->
+                dispatchBatch(registryBeanName, index.match(topic, group), executorOf, topic, batch, results, true)));
+        syncEvents.forEach((topic, groups) -> groups.forEach((group, batch) ->
+                dispatchBatch(registryBeanName, index.match(topic, group), executorOf, topic, batch, results, false)));
+
+        List<EventResult> eventResults = new ArrayList<>(events.size());
+        for (T eventModel : events) {
+            EventResult eventResult = results.get(eventModel);
+            EventCallback eventCallback = eventModel.getEventCallback();
+            if(null != eventCallback) {
+                if(eventResult.isSuccess()) {
+                    eventCallback.onSuccess(eventResult);
+                } else {
+                    eventCallback.onFailure(eventResult, eventResult.getCause());
+                }
+            }
+            eventResults.add(eventResult);
+        }
+        return eventResults;
+    }
+
+    private static <T extends EventModel<?>, L extends EventListener<T>> void dispatchBatch(
+            String registryBeanName, List<L> listeners, Function<L, Executor> executorOf,
+            String topic, List<T> batch, Map<T, EventResult> results, boolean async) {
+        for (L l : listeners) {
+            try {
+                if(async) {
+                    executorOf.apply(l).execute(() -> {
+                        try {
+                            l.onMessageBatch(batch);
+                        } catch (Exception e) {
+                            log.error("{} 批量分发事件异常，topic: {}", registryBeanName, topic, e);
+                        }
+                    });
+                } else {
+                    l.onMessageBatch(batch);
+                }
+            } catch (Exception e) {
+                log.error("{} 批量分发事件异常，topic: {}", registryBeanName, topic, e);
+                for (T eventModel : batch) {
+                    EventResult eventResult = results.get(eventModel);
+                    eventResult.setSuccess(false);
+                    eventResult.setCause(e);
+                }
+            }
+        }
+    }
+}
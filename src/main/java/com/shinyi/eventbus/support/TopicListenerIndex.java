@@ -0,0 +1,99 @@
+package com.shinyi.eventbus.support;
+
+import com.shinyi.eventbus.EventListener;
+
+import java.util.*;
+
+/**
+ * 本地事件总线的 topic -> group -> 监听器 不可变索引。
+ * <p>
+ * 注册时一次性构建，发布时按 topic/group 直接定位监听器，避免每个事件遍历全部监听器；
+ * 增删监听器通过 {@link #with}/{@link #without} 生成新索引（写时复制），读路径无锁。
+ * @author MSGA
+ */
+public final class TopicListenerIndex<L extends EventListener<?>> {
+
+    private final List<L> listeners;
+
+    private final Map<String, List<L>> topicListeners;
+
+    private final Map<String, Map<String, List<L>>> topicGroupListeners;
+
+    private TopicListenerIndex(List<L> listeners) {
+        Map<String, List<L>> byTopic = new HashMap<>();
+        Map<String, Map<String, List<L>>> byTopicGroup = new HashMap<>();
+        for (L l : listeners) {
+            byTopic.computeIfAbsent(l.topic(), k -> new ArrayList<>()).add(l);
+            byTopicGroup.computeIfAbsent(l.topic(), k -> new HashMap<>())
+                    .computeIfAbsent(l.group(), k -> new ArrayList<>()).add(l);
+        }
+        byTopic.replaceAll((topic, list) -> Collections.unmodifiableList(list));
+        byTopicGroup.replaceAll((topic, groups) -> {
+            groups.replaceAll((group, list) -> Collections.unmodifiableList(list));
+            return Collections.unmodifiableMap(groups);
+        });
+        this.listeners = Collections.unmodifiableList(listeners);
+        this.topicListeners = Collections.unmodifiableMap(byTopic);
+        this.topicGroupListeners = Collections.unmodifiableMap(byTopicGroup);
+    }
+
+    public static <L extends EventListener<?>> TopicListenerIndex<L> empty() {
+        return new TopicListenerIndex<>(new ArrayList<>());
+    }
+
+    public static <L extends EventListener<?>> TopicListenerIndex<L> of(Collection<? extends L> listeners) {
+        return new TopicListenerIndex<>(new ArrayList<>(listeners));
+    }
+
+    /**
+     * 订阅该 topic 的全部监听器
+     */
+    public List<L> match(String topic) {
+        return topicListeners.getOrDefault(topic, Collections.emptyList());
+    }
+
+    /**
+     * 订阅该 topic 且分组匹配的监听器，事件未指定分组时返回该 topic 的全部监听器（本地总线不区分分组）
+     */
+    public List<L> match(String topic, String group) {
+        if (group == null) {
+            return match(topic);
+        }
+        Map<String, List<L>> groups = topicGroupListeners.get(topic);
+        if (groups == null) {
+            return Collections.emptyList();
+        }
+        return groups.getOrDefault(group, Collections.emptyList());
+    }
+
+    /**
+     * 返回追加了监听器的新索引
+     */
+    public TopicListenerIndex<L> with(L listener) {
+        List<L> newListeners = new ArrayList<>(listeners.size() + 1);
+        newListeners.addAll(listeners);
+        newListeners.add(listener);
+        return new TopicListenerIndex<>(newListeners);
+    }
+
+    /**
+     * 返回移除了监听器（按引用匹配）的新索引
+     */
+    public TopicListenerIndex<L> without(L listener) {
+        List<L> newListeners = new ArrayList<>(listeners.size());
+        for (L l : listeners) {
+            if (l != listener) {
+                newListeners.add(l);
+            }
+        }
+        return new TopicListenerIndex<>(newListeners);
+    }
+
+    public List<L> getListeners() {
+        return listeners;
+    }
+
+    public boolean isEmpty() {
+        return listeners.isEmpty();
+    }
+}
@@ -0,0 +1,107 @@
+package com.shinyi.eventbus.support.kafka;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个消费循环的 offset 提交统计：提交次数、失败次数、提交耗时、重新投递次数及因积压暂停分区的次数。
+ * 异步提交的耗时从发起到回调计算。
+ * @author MSGA
+ */
+public class KafkaCommitMetrics {
+
+    private final LongAdder asyncCommits = new LongAdder();
+    private final LongAdder syncCommits = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder redeliveries = new LongAdder();
+    private final LongAdder deadLetters = new LongAdder();
+    private final LongAdder pauses = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    void recordCommit(boolean async, long latencyNanos, boolean success) {
+        if (async) {
+            asyncCommits.increment();
+        } else {
+            syncCommits.increment();
+        }
+        if (!success) {
+            failures.increment();
+        }
+        totalLatencyNanos.add(latencyNanos);
+        long max;
+        while (latencyNanos > (max = maxLatencyNanos.get())) {
+            if (maxLatencyNanos.compareAndSet(max, latencyNanos)) {
+                break;
+            }
+        }
+    }
+
+    void recordRedelivery() {
+        redeliveries.increment();
+    }
+
+    void recordDeadLetter() {
+        deadLetters.increment();
+    }
+
+    void recordPause() {
+        pauses.increment();
+    }
+
+    public long getAsyncCommits() {
+        return asyncCommits.sum();
+    }
+
+    public long getSyncCommits() {
+        return syncCommits.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * 失败后回退 offset 重新投递的次数
+     */
+    public long getRedeliveries() {
+        return redeliveries.sum();
+    }
+
+    /**
+     * 超过最大重新投递次数后交给死信处理器并跳过的批次数
+     */
+    public long getDeadLetters() {
+        return deadLetters.sum();
+    }
+
+    /**
+     * 因积压暂停分区的次数
+     */
+    public long getPauses() {
+        return pauses.sum();
+    }
+
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos.get();
+    }
+
+    public long getAvgLatencyNanos() {
+        long commits = getAsyncCommits() + getSyncCommits();
+        return commits == 0 ? 0 : totalLatencyNanos.sum() / commits;
+    }
+
+    @Override
+    public String toString() {
+        return "KafkaCommitMetrics{" +
+                "asyncCommits=" + getAsyncCommits() +
+                ", syncCommits=" + getSyncCommits() +
+                ", failures=" + getFailures() +
+                ", redeliveries=" + getRedeliveries() +
+                ", deadLetters=" + getDeadLetters() +
+                ", pauses=" + getPauses() +
+                ", avgLatencyNanos=" + getAvgLatencyNanos() +
+                ", maxLatencyNanos=" + getMaxLatencyNanos() +
+                '}';
+    }
+}
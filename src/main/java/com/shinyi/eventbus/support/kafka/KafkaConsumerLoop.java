@@ -0,0 +1,522 @@
+package com.shinyi.eventbus.support.kafka;
+
+import com.shinyi.eventbus.config.kafka.KafkaConnectConfig;
+import com.shinyi.eventbus.support.ExecutorMode;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerGroupMetadata;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Kafka 消费循环：单线程 poll，攒批后在 poll 线程内处理，或按分区 / key 分发到多个工作通道并行处理。
+ * <p>
+ * 手动提交模式下只提交 {@link PartitionOffsetTracker} 计算出的连续完成水位，
+ * 并行处理时乱序完成的记录不会导致未处理的 offset 被提交：
+ * <ul>
+ *     <li>累计完成 commitBatchSize 条或距上次提交超过 commitIntervalMs 时异步提交</li>
+ *     <li>处理失败的记录不提交，暂停该分区，等处理中的记录完成并经过退避时间后回退到失败 offset 重新投递；
+ *     退避时间从 redeliveryBackoffMs 起随同一 offset 的失败次数翻倍，最长 redeliveryMaxBackoffMs</li>
+ *     <li>同一 offset 重新投递超过 maxRedeliveries 次仍失败时，失败批次交给 {@link KafkaDeadLetterHandler} 后跳过，水位越过这些记录</li>
+ *     <li>分区回收时先处理完已拉取的记录再同步提交，关闭时同步提交最终水位</li>
+ * </ul>
+ * 事务消费时由处理器在事务中提交 offset，消费循环不再自行提交，只负责失败记录的回退与重新投递。
+ * 使用工作通道时，分区未处理完的记录达到暂停阈值后 {@code pause()} 该分区，降到恢复阈值以下再 {@code resume()}，
+ * poll 线程持续 poll 维持心跳，避免监听器处理慢时超过 max.poll.interval.ms 触发再均衡。
+ * @author MSGA
+ */
+@Slf4j
+public class KafkaConsumerLoop<K, V> implements Runnable, ConsumerRebalanceListener {
+
+    private static final long POLL_TIMEOUT_MS = 1000L;
+    private static final long IN_FLIGHT_CHECK_INTERVAL_MS = 10L;
+
+    private final String name;
+    private final Consumer<K, V> consumer;
+    private final Collection<String> topics;
+    /**
+     * 非空时按正则订阅
+     */
+    private final Pattern topicPattern;
+    private final RecordBatchHandler<K, V> handler;
+    private final KafkaRecordBatcher<K, V> batcher;
+    private final PartitionOffsetTracker tracker = new PartitionOffsetTracker();
+    private final KafkaCommitMetrics metrics = new KafkaCommitMetrics();
+    /**
+     * 为空时在 poll 线程内处理
+     */
+    private final KafkaWorkerLanes<K, V> lanes;
+    private final boolean manualCommit;
+    /**
+     * 处理器在事务中提交 offset（consumerTransactional），消费循环不调用 commitAsync / commitSync
+     */
+    private final boolean handlerCommitsOffsets;
+    private final long shutdownTimeoutMs;
+    private final int commitBatchSize;
+    private final long commitIntervalMs;
+    private final long redeliveryBackoffMs;
+    private final long redeliveryMaxBackoffMs;
+    private final int maxRedeliveries;
+    private final int pauseThreshold;
+    private final int resumeThreshold;
+
+    private final AtomicLong completedSinceCommit = new AtomicLong();
+    private long lastCommitMs = System.currentTimeMillis();
+    /**
+     * 因处理失败而暂停的分区 -> 最早可重新投递的时间，仅 poll 线程访问
+     */
+    private final Map<TopicPartition, Long> redeliverAt = new HashMap<>();
+    /**
+     * poll 线程缓存的消费组元数据，供工作通道在事务中提交 offset（KafkaConsumer 不允许跨线程访问）
+     */
+    private volatile ConsumerGroupMetadata groupMetadata;
+    /**
+     * 因积压而暂停的分区，仅 poll 线程访问
+     */
+    private final Set<TopicPartition> backpressurePaused = new HashSet<>();
+    /**
+     * 分区最近失败的 offset 及其失败次数，仅 poll 线程访问
+     */
+    private final Map<TopicPartition, FailureCount> failureCounts = new HashMap<>();
+    /**
+     * 分区中 offset 最小的失败批次及其异常，工作通道写入、poll 线程读取
+     */
+    private final Map<TopicPartition, FailedBatch<K, V>> failedBatches = new ConcurrentHashMap<>();
+    /**
+     * 已交给死信处理器、重新拉取时直接跳过的 offset，仅 poll 线程访问
+     */
+    private final Map<TopicPartition, Set<Long>> skipped = new HashMap<>();
+    /**
+     * 为空时只记录错误日志
+     */
+    private volatile KafkaDeadLetterHandler<K, V> deadLetterHandler;
+
+    public KafkaConsumerLoop(String name, Consumer<K, V> consumer, Collection<String> topics, KafkaConnectConfig config,
+                             ExecutorMode executorMode, boolean manualCommit, RecordBatchHandler<K, V> handler) {
+        this(name, consumer, topics, null, config, executorMode, manualCommit, handler);
+    }
+
+    public KafkaConsumerLoop(String name, Consumer<K, V> consumer, Pattern topicPattern, KafkaConnectConfig config,
+                             ExecutorMode executorMode, boolean manualCommit, RecordBatchHandler<K, V> handler) {
+        this(name, consumer, Collections.emptyList(), topicPattern, config, executorMode, manualCommit, handler);
+    }
+
+    private KafkaConsumerLoop(String name, Consumer<K, V> consumer, Collection<String> topics, Pattern topicPattern,
+                              KafkaConnectConfig config, ExecutorMode executorMode, boolean manualCommit,
+                              RecordBatchHandler<K, V> handler) {
+        this.name = name;
+        this.consumer = consumer;
+        this.topics = topics;
+        this.topicPattern = topicPattern;
+        this.handler = handler;
+        this.manualCommit = manualCommit;
+        this.handlerCommitsOffsets = config.isConsumerTransactional();
+        this.batcher = new KafkaRecordBatcher<>(config.getConsumerBatchMaxSize(),
+                config.getConsumerBatchMaxBytes(), config.getConsumerBatchMaxWaitMs());
+        this.lanes = config.useWorkerLanes()
+                ? new KafkaWorkerLanes<>(Math.max(1, config.getConsumerConcurrency()),
+                        KafkaWorkerLanes.Ordering.fromType(config.getConsumerOrdering()), executorMode, name)
+                : null;
+        this.shutdownTimeoutMs = config.getSessionTimeoutMs();
+        this.commitBatchSize = Math.max(1, config.getCommitBatchSize());
+        this.commitIntervalMs = Math.max(0, config.getCommitIntervalMs());
+        this.redeliveryBackoffMs = Math.max(0, config.getRedeliveryBackoffMs());
+        this.redeliveryMaxBackoffMs = Math.max(redeliveryBackoffMs, config.getRedeliveryMaxBackoffMs());
+        this.maxRedeliveries = config.getMaxRedeliveries();
+        this.pauseThreshold = lanes == null ? 0 : Math.max(0, config.getConsumerPauseThreshold());
+        this.resumeThreshold = config.getConsumerResumeThreshold() > 0
+                ? Math.min(config.getConsumerResumeThreshold(), pauseThreshold)
+                : pauseThreshold / 2;
+    }
+
+    @Override
+    public void run() {
+        try {
+            if (topicPattern != null) {
+                consumer.subscribe(topicPattern, this);
+            } else {
+                consumer.subscribe(topics, this);
+            }
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    long now = System.currentTimeMillis();
+                    ConsumerRecords<K, V> records = consumer.poll(Duration.ofMillis(pollTimeoutMs(now)));
+                    now = System.currentTimeMillis();
+                    groupMetadata = consumer.groupMetadata();
+                    batcher.add(records, now);
+                    redeliverFailed(now);
+                    for (List<ConsumerRecord<K, V>> batch : batcher.drain(now, false)) {
+                        dispatch(batch);
+                    }
+                    applyBackpressure();
+                    maybeCommitAsync(now);
+                } catch (WakeupException e) {
+                    break;
+                }
+            }
+            // 关闭前处理完已拉取的记录
+            for (List<ConsumerRecord<K, V>> batch : batcher.drain(System.currentTimeMillis(), true)) {
+                dispatch(batch);
+            }
+        } finally {
+            if (lanes != null) {
+                lanes.shutdown(shutdownTimeoutMs);
+            }
+            commitSync(tracker.committable());
+            consumer.close();
+        }
+    }
+
+    private long pollTimeoutMs(long now) {
+        long timeout = batcher.pollTimeoutMs(POLL_TIMEOUT_MS, now);
+        if (manualCommit && commitIntervalMs > 0) {
+            timeout = Math.min(timeout, Math.max(0, lastCommitMs + commitIntervalMs - now));
+        }
+        return timeout;
+    }
+
+    private void dispatch(List<ConsumerRecord<K, V>> batch) {
+        ConsumerRecord<K, V> first = batch.get(0);
+        TopicPartition partition = new TopicPartition(first.topic(), first.partition());
+        if (manualCommit && tracker.failedOffset(partition) >= 0) {
+            // 分区已有失败记录，后续记录回退后会重新拉取
+            return;
+        }
+        if (skipped.containsKey(partition)) {
+            batch = removeSkipped(partition, batch);
+            if (batch.isEmpty()) {
+                return;
+            }
+        }
+        for (ConsumerRecord<K, V> record : batch) {
+            tracker.dispatched(record);
+        }
+        if (lanes == null) {
+            process(batch);
+        } else {
+            lanes.submit(batch, this::process);
+        }
+    }
+
+    private void process(List<ConsumerRecord<K, V>> batch) {
+        ConsumerRecord<K, V> first = batch.get(0);
+        if (manualCommit && tracker.failedOffset(new TopicPartition(first.topic(), first.partition())) >= 0) {
+            // 分发后同一分区的前序批次失败：不再处理，随失败记录一起回退后重新拉取，避免越过失败记录提交
+            for (ConsumerRecord<K, V> record : batch) {
+                tracker.failed(record);
+            }
+            return;
+        }
+        try {
+            handler.handle(batch);
+        } catch (Throwable e) {
+            log.warn("{} Message processing failed: {}", name, e.getMessage(), e);
+            if (manualCommit) {
+                // 不提交失败记录，由 poll 线程回退 offset 重新投递
+                failedBatches.merge(new TopicPartition(first.topic(), first.partition()), new FailedBatch<>(batch, e),
+                        (previous, current) -> previous.firstOffset() <= current.firstOffset() ? previous : current);
+                for (ConsumerRecord<K, V> record : batch) {
+                    tracker.failed(record);
+                }
+                return;
+            }
+        }
+        for (ConsumerRecord<K, V> record : batch) {
+            tracker.completed(record);
+        }
+        completedSinceCommit.addAndGet(batch.size());
+    }
+
+    /**
+     * 暂停出现失败的分区并丢弃其缓存，处理中记录完成且退避时间已到后回退到失败 offset
+     */
+    private void redeliverFailed(long now) {
+        if (!manualCommit) {
+            return;
+        }
+        for (TopicPartition partition : tracker.failedPartitions()) {
+            Long deadline = redeliverAt.get(partition);
+            if (deadline == null) {
+                consumer.pause(Collections.singleton(partition));
+                batcher.discard(partition);
+                int failures = countFailure(partition, tracker.failedOffset(partition));
+                redeliverAt.put(partition, now + backoffMs(failures));
+                continue;
+            }
+            if (now < deadline || tracker.inFlight(partition) > 0) {
+                continue;
+            }
+            long offset = tracker.failedOffset(partition);
+            FailedBatch<K, V> failed = failedBatches.remove(partition);
+            FailureCount failures = failureCounts.get(partition);
+            if (maxRedeliveries >= 0 && failures != null && failures.offset == offset && failures.count > maxRedeliveries
+                    && failed != null && failed.firstOffset() == offset) {
+                deadLetter(partition, failed);
+            } else {
+                metrics.recordRedelivery();
+                log.warn("{} 分区 {} 从 offset {} 重新投递", name, partition, offset);
+            }
+            consumer.seek(partition, offset);
+            tracker.rewind(partition, offset);
+            consumer.resume(Collections.singleton(partition));
+            redeliverAt.remove(partition);
+            backpressurePaused.remove(partition);
+        }
+    }
+
+    /**
+     * 记录分区在 offset 处的一次失败，返回该 offset 累计失败次数
+     */
+    private int countFailure(TopicPartition partition, long offset) {
+        FailureCount failures = failureCounts.get(partition);
+        if (failures == null || failures.offset != offset) {
+            failures = new FailureCount(offset);
+            failureCounts.put(partition, failures);
+        }
+        return ++failures.count;
+    }
+
+    /**
+     * 第 n 次失败后的退避时间：redeliveryBackoffMs * 2^(n-1)，不超过 redeliveryMaxBackoffMs
+     */
+    private long backoffMs(int failures) {
+        long backoff = redeliveryBackoffMs;
+        for (int i = 1; i < failures && backoff < redeliveryMaxBackoffMs; i++) {
+            backoff *= 2;
+        }
+        return Math.min(backoff, redeliveryMaxBackoffMs);
+    }
+
+    /**
+     * 失败批次交给死信处理器，回退后重新拉取时跳过这些记录
+     */
+    private void deadLetter(TopicPartition partition, FailedBatch<K, V> failed) {
+        failureCounts.remove(partition);
+        Set<Long> offsets = skipped.computeIfAbsent(partition, k -> new HashSet<>());
+        for (ConsumerRecord<K, V> record : failed.records) {
+            offsets.add(record.offset());
+        }
+        metrics.recordDeadLetter();
+        log.error("{} 分区 {} offset {}~{} 重新投递 {} 次后仍失败，跳过", name, partition, failed.firstOffset(),
+                failed.records.get(failed.records.size() - 1).offset(), maxRedeliveries, failed.cause);
+        KafkaDeadLetterHandler<K, V> current = deadLetterHandler;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.handle(failed.records, failed.cause);
+        } catch (Exception e) {
+            // 死信处理失败时同样跳过，避免阻塞分区
+            log.error("{} 分区 {} 死信处理失败：{}", name, partition, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 去掉已交给死信处理器的记录，视为处理完成
+     */
+    private List<ConsumerRecord<K, V>> removeSkipped(TopicPartition partition, List<ConsumerRecord<K, V>> batch) {
+        Set<Long> offsets = skipped.get(partition);
+        List<ConsumerRecord<K, V>> remaining = new ArrayList<>(batch.size());
+        for (ConsumerRecord<K, V> record : batch) {
+            if (offsets.remove(record.offset())) {
+                tracker.dispatched(record);
+                tracker.completed(record);
+                completedSinceCommit.incrementAndGet();
+            } else {
+                remaining.add(record);
+            }
+        }
+        if (offsets.isEmpty()) {
+            skipped.remove(partition);
+        }
+        return remaining;
+    }
+
+    /**
+     * 积压超过暂停阈值的分区暂停拉取，低于恢复阈值后恢复；因处理失败暂停的分区由重新投递流程恢复
+     */
+    private void applyBackpressure() {
+        if (pauseThreshold <= 0) {
+            return;
+        }
+        Iterator<TopicPartition> iterator = backpressurePaused.iterator();
+        while (iterator.hasNext()) {
+            TopicPartition partition = iterator.next();
+            if (pending(partition) > resumeThreshold) {
+                continue;
+            }
+            iterator.remove();
+            if (!redeliverAt.containsKey(partition)) {
+                consumer.resume(Collections.singleton(partition));
+                log.debug("{} 分区 {} 积压回落，恢复拉取", name, partition);
+            }
+        }
+        for (TopicPartition partition : consumer.assignment()) {
+            if (!backpressurePaused.contains(partition) && pending(partition) >= pauseThreshold) {
+                consumer.pause(Collections.singleton(partition));
+                backpressurePaused.add(partition);
+                metrics.recordPause();
+                log.debug("{} 分区 {} 积压达到 {}，暂停拉取", name, partition, pauseThreshold);
+            }
+        }
+    }
+
+    private int pending(TopicPartition partition) {
+        return tracker.inFlight(partition) + batcher.buffered(partition);
+    }
+
+    private void maybeCommitAsync(long now) {
+        if (!manualCommit || handlerCommitsOffsets) {
+            return;
+        }
+        if (completedSinceCommit.get() < commitBatchSize && now - lastCommitMs < commitIntervalMs) {
+            return;
+        }
+        completedSinceCommit.set(0);
+        lastCommitMs = now;
+        Map<TopicPartition, OffsetAndMetadata> offsets = tracker.committable();
+        if (offsets.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        // 回调在 poll 线程中执行，提交成功后才记录水位，失败的提交会在下一次重试
+        consumer.commitAsync(offsets, (committed, exception) -> {
+            metrics.recordCommit(true, System.nanoTime() - start, exception == null);
+            if (exception != null) {
+                log.warn("{} Kafka 异步提交失败：{}", name, exception.getMessage());
+                return;
+            }
+            tracker.markCommitted(offsets);
+        });
+    }
+
+    private void commitSync(Map<TopicPartition, OffsetAndMetadata> offsets) {
+        if (!manualCommit || handlerCommitsOffsets || offsets.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            consumer.commitSync(offsets);
+            metrics.recordCommit(false, System.nanoTime() - start, true);
+            tracker.markCommitted(offsets);
+        } catch (Exception e) {
+            metrics.recordCommit(false, System.nanoTime() - start, false);
+            log.warn("{} Kafka 同步提交失败：{}", name, e.getMessage());
+        }
+    }
+
+    /**
+     * 分区回收（poll 线程内回调）：处理完已拉取的记录，等待处理中的记录完成后同步提交
+     */
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        for (TopicPartition partition : partitions) {
+            backpressurePaused.remove(partition);
+            failureCounts.remove(partition);
+            failedBatches.remove(partition);
+            skipped.remove(partition);
+            if (redeliverAt.remove(partition) != null) {
+                // 失败分区的缓存已丢弃，由新的持有者从已提交位置重新消费
+                batcher.discard(partition);
+            }
+        }
+        for (List<ConsumerRecord<K, V>> batch : batcher.drain(partitions)) {
+            dispatch(batch);
+        }
+        awaitInFlight(partitions);
+        commitSync(tracker.committable(partitions));
+        tracker.remove(partitions);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+    }
+
+    private void awaitInFlight(Collection<TopicPartition> partitions) {
+        long deadline = System.currentTimeMillis() + shutdownTimeoutMs;
+        Iterator<TopicPartition> iterator = partitions.iterator();
+        TopicPartition partition = iterator.next();
+        while (true) {
+            if (tracker.inFlight(partition) == 0) {
+                if (!iterator.hasNext()) {
+                    return;
+                }
+                partition = iterator.next();
+                continue;
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                log.warn("{} 等待分区 {} 处理完成超时，未完成记录将重新投递", name, partition);
+                return;
+            }
+            try {
+                Thread.sleep(IN_FLIGHT_CHECK_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * 设置死信处理器，需在启动前调用
+     */
+    public void setDeadLetterHandler(KafkaDeadLetterHandler<K, V> deadLetterHandler) {
+        this.deadLetterHandler = deadLetterHandler;
+    }
+
+    public PartitionOffsetTracker getTracker() {
+        return tracker;
+    }
+
+    public ConsumerGroupMetadata getGroupMetadata() {
+        return groupMetadata;
+    }
+
+    public KafkaCommitMetrics getMetrics() {
+        return metrics;
+    }
+
+    private static final class FailureCount {
+        private final long offset;
+        private int count;
+
+        private FailureCount(long offset) {
+            this.offset = offset;
+        }
+    }
+
+    private static final class FailedBatch<K, V> {
+        private final List<ConsumerRecord<K, V>> records;
+        private final Throwable cause;
+
+        private FailedBatch(List<ConsumerRecord<K, V>> records, Throwable cause) {
+            this.records = records;
+            this.cause = cause;
+        }
+
+        private long firstOffset() {
+            return records.get(0).offset();
+        }
+    }
+}
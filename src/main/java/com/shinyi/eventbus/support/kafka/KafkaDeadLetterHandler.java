@@ -0,0 +1,19 @@
+package com.shinyi.eventbus.support.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import java.util.List;
+
+/**
+ * 处理重新投递超过 maxRedeliveries 次仍失败的批次（同一分区，按 offset 升序），返回后跳过这些记录，已提交 offset 越过它们
+ * @author MSGA
+ */
+@FunctionalInterface
+public interface KafkaDeadLetterHandler<K, V> {
+
+    /**
+     * @param records 失败的批次
+     * @param cause   最后一次处理失败的异常
+     */
+    void handle(List<ConsumerRecord<K, V>> records, Throwable cause) throws Exception;
+}
@@ -0,0 +1,68 @@
+package com.shinyi.eventbus.support.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 记录同一消费者上各监听器已成功处理的记录。
+ * <p>
+ * 多个监听器共享一个消费者时，任一监听器失败都会使整批重新投递；
+ * 只登记部分失败批次中成功的监听器，重新投递时这些监听器跳过已处理的记录，只有失败的监听器重新处理。
+ * 登记在批次全部成功或进入死信时清除。可由任意工作线程调用。
+ * @author MSGA
+ */
+public class KafkaListenerAcks<L> {
+
+    private final Map<TopicPartition, Map<Long, Set<L>>> acked = new ConcurrentHashMap<>();
+
+    /**
+     * 返回该监听器尚未成功处理的记录
+     */
+    public <K, V> List<ConsumerRecord<K, V>> pending(L listener, List<ConsumerRecord<K, V>> records) {
+        Map<Long, Set<L>> offsets = acked.get(partitionOf(records.get(0)));
+        if (offsets == null || offsets.isEmpty()) {
+            return records;
+        }
+        List<ConsumerRecord<K, V>> pending = new ArrayList<>(records.size());
+        for (ConsumerRecord<K, V> record : records) {
+            Set<L> listeners = offsets.get(record.offset());
+            if (listeners == null || !listeners.contains(listener)) {
+                pending.add(record);
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * 登记监听器已成功处理这批记录
+     */
+    public void acked(L listener, List<? extends ConsumerRecord<?, ?>> records) {
+        Map<Long, Set<L>> offsets = acked.computeIfAbsent(partitionOf(records.get(0)), k -> new ConcurrentHashMap<>());
+        for (ConsumerRecord<?, ?> record : records) {
+            offsets.computeIfAbsent(record.offset(), k -> ConcurrentHashMap.newKeySet()).add(listener);
+        }
+    }
+
+    /**
+     * 清除这批记录的登记（批次全部成功或进入死信后调用）
+     */
+    public void clear(List<? extends ConsumerRecord<?, ?>> records) {
+        Map<Long, Set<L>> offsets = acked.get(partitionOf(records.get(0)));
+        if (offsets == null) {
+            return;
+        }
+        for (ConsumerRecord<?, ?> record : records) {
+            offsets.remove(record.offset());
+        }
+    }
+
+    private static TopicPartition partitionOf(ConsumerRecord<?, ?> record) {
+        return new TopicPartition(record.topic(), record.partition());
+    }
+}
@@ -0,0 +1,181 @@
+package com.shinyi.eventbus.support.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kafka 消费攒批：按分区缓存 poll 到的记录，满足条数 / 字节数 / 等待时间任一条件后整批交付。
+ * <p>
+ * 每个批次只包含同一分区的记录，保持分区内顺序；仅由 poll 线程调用，非线程安全。
+ * @author MSGA
+ * @param <K> key 类型
+ * @param <V> value 类型
+ */
+public class KafkaRecordBatcher<K, V> {
+
+    private final int maxBatchSize;
+    private final long maxBatchBytes;
+    private final long maxWaitMs;
+
+    private final Map<TopicPartition, PartitionBuffer<K, V>> buffers = new LinkedHashMap<>();
+
+    /**
+     * @param maxBatchSize  单批最大条数
+     * @param maxBatchBytes 单批最大字节数，小于等于 0 表示不限制
+     * @param maxWaitMs     最长攒批时间，小于等于 0 表示每次 poll 后立即交付
+     */
+    public KafkaRecordBatcher(int maxBatchSize, long maxBatchBytes, long maxWaitMs) {
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxBatchBytes = maxBatchBytes;
+        this.maxWaitMs = maxWaitMs;
+    }
+
+    public void add(ConsumerRecords<K, V> records, long nowMs) {
+        for (TopicPartition partition : records.partitions()) {
+            List<ConsumerRecord<K, V>> partitionRecords = records.records(partition);
+            if (partitionRecords.isEmpty()) {
+                continue;
+            }
+            PartitionBuffer<K, V> buffer = buffers.computeIfAbsent(partition, k -> new PartitionBuffer<>());
+            if (buffer.records.isEmpty()) {
+                buffer.firstArrivalMs = nowMs;
+            }
+            for (ConsumerRecord<K, V> record : partitionRecords) {
+                buffer.records.add(record);
+                buffer.bytes += sizeOf(record);
+            }
+        }
+    }
+
+    /**
+     * 取出已满足交付条件的批次
+     *
+     * @param force 为 true 时取出全部缓存（停止消费 / 分区回收时使用）
+     */
+    public List<List<ConsumerRecord<K, V>>> drain(long nowMs, boolean force) {
+        List<List<ConsumerRecord<K, V>>> batches = null;
+        Iterator<PartitionBuffer<K, V>> iterator = buffers.values().iterator();
+        while (iterator.hasNext()) {
+            PartitionBuffer<K, V> buffer = iterator.next();
+            if (buffer.records.isEmpty()) {
+                iterator.remove();
+                continue;
+            }
+            if (!force && !isReady(buffer, nowMs)) {
+                continue;
+            }
+            if (batches == null) {
+                batches = new ArrayList<>();
+            }
+            split(buffer.records, batches);
+            iterator.remove();
+        }
+        return batches == null ? Collections.emptyList() : batches;
+    }
+
+    /**
+     * 取出指定分区的全部缓存（分区回收前处理完已拉取的记录）
+     */
+    public List<List<ConsumerRecord<K, V>>> drain(Collection<TopicPartition> partitions) {
+        List<List<ConsumerRecord<K, V>>> batches = null;
+        for (TopicPartition partition : partitions) {
+            PartitionBuffer<K, V> buffer = buffers.remove(partition);
+            if (buffer == null || buffer.records.isEmpty()) {
+                continue;
+            }
+            if (batches == null) {
+                batches = new ArrayList<>();
+            }
+            split(buffer.records, batches);
+        }
+        return batches == null ? Collections.emptyList() : batches;
+    }
+
+    /**
+     * 丢弃指定分区的缓存（分区被回收且不再处理时使用）
+     */
+    public void discard(TopicPartition partition) {
+        buffers.remove(partition);
+    }
+
+    /**
+     * 下一次 poll 的等待时间：有缓存时不超过最早批次的剩余等待时间
+     */
+    public long pollTimeoutMs(long defaultTimeoutMs, long nowMs) {
+        long timeout = defaultTimeoutMs;
+        for (PartitionBuffer<K, V> buffer : buffers.values()) {
+            if (!buffer.records.isEmpty()) {
+                timeout = Math.min(timeout, Math.max(0, buffer.firstArrivalMs + maxWaitMs - nowMs));
+            }
+        }
+        return timeout;
+    }
+
+    /**
+     * 指定分区缓存中的记录数
+     */
+    public int buffered(TopicPartition partition) {
+        PartitionBuffer<K, V> buffer = buffers.get(partition);
+        return buffer == null ? 0 : buffer.records.size();
+    }
+
+    public boolean isEmpty() {
+        for (PartitionBuffer<K, V> buffer : buffers.values()) {
+            if (!buffer.records.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isReady(PartitionBuffer<K, V> buffer, long nowMs) {
+        return maxWaitMs <= 0
+                || buffer.records.size() >= maxBatchSize
+                || (maxBatchBytes > 0 && buffer.bytes >= maxBatchBytes)
+                || nowMs - buffer.firstArrivalMs >= maxWaitMs;
+    }
+
+    private void split(List<ConsumerRecord<K, V>> records, List<List<ConsumerRecord<K, V>>> batches) {
+        List<ConsumerRecord<K, V>> batch = new ArrayList<>(Math.min(records.size(), maxBatchSize));
+        long batchBytes = 0;
+        for (ConsumerRecord<K, V> record : records) {
+            long size = sizeOf(record);
+            boolean full = batch.size() >= maxBatchSize || (maxBatchBytes > 0 && batchBytes + size > maxBatchBytes);
+            if (full && !batch.isEmpty()) {
+                batches.add(batch);
+                batch = new ArrayList<>(Math.min(records.size(), maxBatchSize));
+                batchBytes = 0;
+            }
+            batch.add(record);
+            batchBytes += size;
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+    }
+
+    static long sizeOf(ConsumerRecord<?, ?> record) {
+        long size = Math.max(0, record.serializedKeySize());
+        if (record.serializedValueSize() >= 0) {
+            size += record.serializedValueSize();
+        } else if (record.value() instanceof byte[]) {
+            size += ((byte[]) record.value()).length;
+        }
+        return size;
+    }
+
+    private static class PartitionBuffer<K, V> {
+        private final List<ConsumerRecord<K, V>> records = new ArrayList<>();
+        private long bytes;
+        private long firstArrivalMs;
+    }
+}
@@ -0,0 +1,93 @@
+package com.shinyi.eventbus.support.kafka;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * 同一消费组内多个监听器共享一个消费者时的 topic 路由：
+ * 汇总订阅（普通 topic 或正则），并按记录所属 topic 找到对应的监听器。
+ * <p>
+ * 合法的 Kafka topic 只包含字母、数字、{@code .}、{@code _}、{@code -}，含有其他字符时按正则处理。
+ * 注册完成后只读，路由结果按 topic 缓存。
+ * @author MSGA
+ * @param <L> 监听器类型
+ */
+public class KafkaTopicRouter<L> {
+
+    private static final Pattern LITERAL_TOPIC = Pattern.compile("[a-zA-Z0-9._-]+");
+
+    private final Map<String, List<L>> literalTopics = new LinkedHashMap<>();
+    private final Map<String, List<L>> patternTopics = new LinkedHashMap<>();
+    private final Map<String, Pattern> patterns = new LinkedHashMap<>();
+    private final Map<String, List<L>> routeCache = new ConcurrentHashMap<>();
+
+    public static boolean isPattern(String topic) {
+        return topic != null && !LITERAL_TOPIC.matcher(topic).matches();
+    }
+
+    public KafkaTopicRouter<L> add(String topic, L listener) {
+        if (isPattern(topic)) {
+            patterns.computeIfAbsent(topic, Pattern::compile);
+            patternTopics.computeIfAbsent(topic, k -> new ArrayList<>()).add(listener);
+        } else {
+            literalTopics.computeIfAbsent(topic, k -> new ArrayList<>()).add(listener);
+        }
+        routeCache.clear();
+        return this;
+    }
+
+    /**
+     * 含正则订阅时返回合并后的订阅正则（普通 topic 按字面量合并），否则返回 null
+     */
+    public Pattern subscriptionPattern() {
+        if (patternTopics.isEmpty()) {
+            return null;
+        }
+        StringBuilder regex = new StringBuilder();
+        for (String topic : literalTopics.keySet()) {
+            regex.append(regex.length() == 0 ? "" : "|").append(Pattern.quote(topic));
+        }
+        for (String pattern : patternTopics.keySet()) {
+            regex.append(regex.length() == 0 ? "" : "|").append("(?:").append(pattern).append(')');
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    /**
+     * 普通订阅的 topic
+     */
+    public Set<String> topics() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(literalTopics.keySet()));
+    }
+
+    /**
+     * 订阅了该 topic 的监听器：普通订阅在前，正则订阅按注册顺序在后
+     */
+    public List<L> route(String topic) {
+        return routeCache.computeIfAbsent(topic, this::resolve);
+    }
+
+    private List<L> resolve(String topic) {
+        List<L> literal = literalTopics.get(topic);
+        List<L> matched = null;
+        for (Map.Entry<String, List<L>> entry : patternTopics.entrySet()) {
+            if (patterns.get(entry.getKey()).matcher(topic).matches()) {
+                if (matched == null) {
+                    matched = literal == null ? new ArrayList<>() : new ArrayList<>(literal);
+                }
+                matched.addAll(entry.getValue());
+            }
+        }
+        if (matched != null) {
+            return Collections.unmodifiableList(matched);
+        }
+        return literal == null ? Collections.emptyList() : Collections.unmodifiableList(literal);
+    }
+}
@@ -0,0 +1,129 @@
+package com.shinyi.eventbus.support.kafka;
+
+import com.shinyi.eventbus.support.EventBusExecutors;
+import com.shinyi.eventbus.support.ExecutorMode;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Kafka 记录工作通道：每个通道一个线程，按分区或按记录 key 选择通道。
+ * <p>
+ * 同一分区（或同一 key）的记录总是进入同一通道，通道内串行处理，因此保持分区（key）内顺序，
+ * 不同通道之间并行。
+ * @author MSGA
+ */
+@Slf4j
+public class KafkaWorkerLanes<K, V> {
+
+    /**
+     * 通道选择方式
+     */
+    public enum Ordering {
+        /**
+         * 按分区，保证分区内顺序
+         */
+        PARTITION,
+        /**
+         * 按记录 key，只保证相同 key 的顺序，并行度更高；key 为空时按分区
+         */
+        KEY;
+
+        public static Ordering fromType(String type) {
+            if (type == null || type.trim().isEmpty()) {
+                return PARTITION;
+            }
+            for (Ordering value : values()) {
+                if (value.name().equalsIgnoreCase(type.trim())) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Invalid kafka consumer ordering: " + type);
+        }
+    }
+
+    private final ExecutorService[] lanes;
+    private final Ordering ordering;
+
+    public KafkaWorkerLanes(int laneCount, Ordering ordering, ExecutorMode executorMode, String name) {
+        this.ordering = ordering;
+        this.lanes = new ExecutorService[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = EventBusExecutors.newSingleThreadExecutor(executorMode, name + "-lane-" + i);
+        }
+    }
+
+    public int laneOf(ConsumerRecord<K, V> record) {
+        int hash;
+        if (ordering == Ordering.KEY && record.key() != null) {
+            // byte[] key 按内容计算哈希，相同 key 进入同一通道
+            hash = record.key() instanceof byte[] ? Arrays.hashCode((byte[]) record.key()) : record.key().hashCode();
+        } else {
+            hash = record.topic().hashCode() * 31 + record.partition();
+        }
+        return ((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % lanes.length;
+    }
+
+    /**
+     * 将一批同分区记录按通道拆分后提交，拆分后的子批次保持原有顺序
+     */
+    public void submit(List<ConsumerRecord<K, V>> batch, Consumer<List<ConsumerRecord<K, V>>> task) {
+        if (ordering == Ordering.PARTITION || lanes.length == 1) {
+            lanes[laneOf(batch.get(0))].execute(() -> task.accept(batch));
+            return;
+        }
+        List<List<ConsumerRecord<K, V>>> laneBatches = new ArrayList<>(lanes.length);
+        for (int i = 0; i < lanes.length; i++) {
+            laneBatches.add(null);
+        }
+        for (ConsumerRecord<K, V> record : batch) {
+            int lane = laneOf(record);
+            List<ConsumerRecord<K, V>> laneBatch = laneBatches.get(lane);
+            if (laneBatch == null) {
+                laneBatch = new ArrayList<>();
+                laneBatches.set(lane, laneBatch);
+            }
+            laneBatch.add(record);
+        }
+        for (int i = 0; i < lanes.length; i++) {
+            List<ConsumerRecord<K, V>> laneBatch = laneBatches.get(i);
+            if (laneBatch != null) {
+                lanes[i].execute(() -> task.accept(laneBatch));
+            }
+        }
+    }
+
+    public int size() {
+        return lanes.length;
+    }
+
+    /**
+     * 停止接收新任务并等待已提交的任务完成
+     */
+    public void shutdown(long timeoutMs) {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        try {
+            for (ExecutorService lane : lanes) {
+                long remaining = Math.max(0, deadline - System.currentTimeMillis());
+                if (!lane.awaitTermination(remaining, TimeUnit.MILLISECONDS)) {
+                    log.warn("Kafka 工作通道未在 {}ms 内处理完成，强制停止", timeoutMs);
+                    lane.shutdownNow();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (ExecutorService lane : lanes) {
+                lane.shutdownNow();
+            }
+        }
+    }
+}
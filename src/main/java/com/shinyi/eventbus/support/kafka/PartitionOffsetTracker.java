@@ -0,0 +1,200 @@
+package com.shinyi.eventbus.support.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * 按分区跟踪已分发、未完成的 offset，计算可提交的连续完成水位。
+ * <p>
+ * 水位 = 最小的未完成 offset；没有未完成记录时为最后分发的 offset + 1；
+ * 存在处理失败的记录时不超过最小的失败 offset，直到 {@link #rewind} 回退重新投递。
+ * 乱序完成时只提交连续完成的部分，保证不会越过仍在处理中或处理失败的记录。
+ * 分发由 poll 线程调用，完成可由任意工作线程调用。
+ * @author MSGA
+ */
+public class PartitionOffsetTracker {
+
+    private final Map<TopicPartition, PartitionState> states = new ConcurrentHashMap<>();
+
+    /**
+     * 记录已分发（poll 线程调用）
+     */
+    public void dispatched(ConsumerRecord<?, ?> record) {
+        // 首次分发时以该 offset 作为已提交起点，未完成任何记录前不产生提交
+        PartitionState state = states.computeIfAbsent(new TopicPartition(record.topic(), record.partition()),
+                k -> new PartitionState(record.offset()));
+        state.inFlight.add(record.offset());
+        if (record.offset() + 1 > state.nextOffset) {
+            state.nextOffset = record.offset() + 1;
+        }
+    }
+
+    /**
+     * 记录处理完成
+     */
+    public void completed(ConsumerRecord<?, ?> record) {
+        PartitionState state = states.get(new TopicPartition(record.topic(), record.partition()));
+        if (state != null) {
+            state.inFlight.remove(record.offset());
+        }
+    }
+
+    /**
+     * 记录处理失败：不再视为处理中，但水位停在失败 offset 之前
+     */
+    public void failed(ConsumerRecord<?, ?> record) {
+        PartitionState state = states.get(new TopicPartition(record.topic(), record.partition()));
+        if (state == null) {
+            return;
+        }
+        synchronized (state) {
+            if (state.failedOffset < 0 || record.offset() < state.failedOffset) {
+                state.failedOffset = record.offset();
+            }
+        }
+        state.inFlight.remove(record.offset());
+    }
+
+    /**
+     * 存在处理失败记录的分区
+     */
+    public Set<TopicPartition> failedPartitions() {
+        Set<TopicPartition> partitions = null;
+        for (Map.Entry<TopicPartition, PartitionState> entry : states.entrySet()) {
+            if (entry.getValue().failedOffset >= 0) {
+                if (partitions == null) {
+                    partitions = new HashSet<>();
+                }
+                partitions.add(entry.getKey());
+            }
+        }
+        return partitions == null ? Collections.emptySet() : partitions;
+    }
+
+    /**
+     * 最小的失败 offset，没有失败记录时返回 -1
+     */
+    public long failedOffset(TopicPartition partition) {
+        PartitionState state = states.get(partition);
+        return state == null ? -1 : state.failedOffset;
+    }
+
+    /**
+     * 消费位置回退到 offset 后重置分区状态，需在该分区没有处理中记录时调用（poll 线程）
+     */
+    public void rewind(TopicPartition partition, long offset) {
+        PartitionState state = states.get(partition);
+        if (state == null) {
+            return;
+        }
+        state.nextOffset = offset;
+        state.failedOffset = -1;
+        if (state.committedOffset > offset) {
+            state.committedOffset = offset;
+        }
+    }
+
+    /**
+     * 水位相比上次提交有推进的分区及其可提交 offset
+     */
+    public Map<TopicPartition, OffsetAndMetadata> committable() {
+        Map<TopicPartition, OffsetAndMetadata> offsets = null;
+        for (Map.Entry<TopicPartition, PartitionState> entry : states.entrySet()) {
+            PartitionState state = entry.getValue();
+            long watermark = state.watermark();
+            if (watermark > state.committedOffset) {
+                if (offsets == null) {
+                    offsets = new HashMap<>();
+                }
+                offsets.put(entry.getKey(), new OffsetAndMetadata(watermark));
+            }
+        }
+        return offsets == null ? Collections.emptyMap() : offsets;
+    }
+
+    /**
+     * 提交成功后记录已提交水位
+     */
+    public void markCommitted(Map<TopicPartition, OffsetAndMetadata> offsets) {
+        for (Map.Entry<TopicPartition, OffsetAndMetadata> entry : offsets.entrySet()) {
+            PartitionState state = states.get(entry.getKey());
+            if (state != null && entry.getValue().offset() > state.committedOffset) {
+                state.committedOffset = entry.getValue().offset();
+            }
+        }
+    }
+
+    /**
+     * 未完成记录数
+     */
+    public int inFlight(TopicPartition partition) {
+        PartitionState state = states.get(partition);
+        return state == null ? 0 : state.inFlight.size();
+    }
+
+    public int inFlight() {
+        int count = 0;
+        for (PartitionState state : states.values()) {
+            count += state.inFlight.size();
+        }
+        return count;
+    }
+
+    /**
+     * 指定分区中水位有推进的部分
+     */
+    public Map<TopicPartition, OffsetAndMetadata> committable(Collection<TopicPartition> partitions) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = committable();
+        if (offsets.isEmpty()) {
+            return offsets;
+        }
+        Map<TopicPartition, OffsetAndMetadata> selected = new HashMap<>();
+        for (TopicPartition partition : partitions) {
+            OffsetAndMetadata offset = offsets.get(partition);
+            if (offset != null) {
+                selected.put(partition, offset);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * 分区被回收后移除跟踪
+     */
+    public void remove(Collection<TopicPartition> partitions) {
+        for (TopicPartition partition : partitions) {
+            states.remove(partition);
+        }
+    }
+
+    private static class PartitionState {
+        private final ConcurrentSkipListSet<Long> inFlight = new ConcurrentSkipListSet<>();
+        private volatile long nextOffset;
+        private volatile long committedOffset;
+        private volatile long failedOffset = -1;
+
+        private PartitionState(long startOffset) {
+            this.nextOffset = startOffset;
+            this.committedOffset = startOffset;
+        }
+
+        private long watermark() {
+            // 先读 nextOffset：完成只会移除元素，读到空集合时 nextOffset 之前的记录均已完成
+            long next = nextOffset;
+            Long first = inFlight.ceiling(Long.MIN_VALUE);
+            long watermark = first == null ? next : first;
+            long failed = failedOffset;
+            return failed >= 0 && failed < watermark ? failed : watermark;
+        }
+    }
+}
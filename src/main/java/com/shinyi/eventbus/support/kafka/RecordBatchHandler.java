@@ -0,0 +1,15 @@
+package com.shinyi.eventbus.support.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import java.util.List;
+
+/**
+ * 处理一批 Kafka 记录（同一分区，按 offset 升序）
+ * @author MSGA
+ */
+@FunctionalInterface
+public interface RecordBatchHandler<K, V> {
+
+    void handle(List<ConsumerRecord<K, V>> records) throws Exception;
+}
@@ -0,0 +1,52 @@
+package com.shinyi.eventbus.support.ring;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 锁 + 条件变量阻塞：空闲时不占 CPU。生产者只有在消费者确实阻塞时才加锁唤醒
+ * @author MSGA
+ */
+public class BlockingWaitStrategy implements WaitStrategy {
+
+    private static final long MAX_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Lock lock = new ReentrantLock();
+    private final Condition processorNotifyCondition = lock.newCondition();
+    private final AtomicBoolean signalNeeded = new AtomicBoolean(false);
+
+    @Override
+    public void waitFor(long sequence, RingBuffer<?> ringBuffer) throws InterruptedException {
+        if (ringBuffer.isAvailable(sequence)) {
+            return;
+        }
+        lock.lock();
+        try {
+            while (!ringBuffer.isAvailable(sequence) && !ringBuffer.isHalted()) {
+                signalNeeded.set(true);
+                // 二次检查，避免在设置标记前已发布而错过唤醒
+                if (ringBuffer.isAvailable(sequence)) {
+                    break;
+                }
+                processorNotifyCondition.awaitNanos(MAX_WAIT_NANOS);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+        if (signalNeeded.getAndSet(false)) {
+            lock.lock();
+            try {
+                processorNotifyCondition.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.shinyi.eventbus.support.ring;
+
+/**
+ * 忙等：延迟最低，独占一个 CPU 核心，适合消费线程数不超过物理核数的场景
+ * @author MSGA
+ */
+public class BusySpinWaitStrategy implements WaitStrategy {
+
+    @Override
+    public void waitFor(long sequence, RingBuffer<?> ringBuffer) {
+        while (!ringBuffer.isAvailable(sequence) && !ringBuffer.isHalted()) {
+            // busy spin
+        }
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+    }
+}
@@ -0,0 +1,161 @@
+package com.shinyi.eventbus.support.ring;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 预分配、无锁的多生产者单消费者环形缓冲区（Disruptor 风格）。
+ * <p>
+ * 生产者通过 CAS 自增领取序号，写入槽位后按“圈数”标记可用；消费者按序读取连续可用的区间，
+ * 读取后推进消费序号释放槽位。缓冲区满时生产者自旋等待（背压），不分配任何队列节点。
+ * 停止后拒绝新的发布，消费者等在途的发布写完、处理完已领取的全部序号后才退出。
+ * @author MSGA
+ * @param <E> 元素类型
+ */
+public final class RingBuffer<E> {
+
+    private final Object[] entries;
+    private final AtomicIntegerArray availableRounds;
+    private final int bufferSize;
+    private final int indexMask;
+    private final int indexShift;
+    private final WaitStrategy waitStrategy;
+
+    /**
+     * 已领取的最大序号（生产者）
+     */
+    private final PaddedSequence claimSequence = new PaddedSequence();
+    /**
+     * 已消费的最大序号（消费者）
+     */
+    private final PaddedSequence consumedSequence = new PaddedSequence();
+    /**
+     * 已通过停止检查、尚未写完槽位的生产者数量
+     */
+    private final AtomicInteger activePublishers = new AtomicInteger();
+
+    private volatile boolean halted;
+
+    public RingBuffer(int bufferSize, WaitStrategy waitStrategy) {
+        if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("bufferSize must be a power of 2: " + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+        this.indexMask = bufferSize - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(bufferSize);
+        this.entries = new Object[bufferSize];
+        this.availableRounds = new AtomicIntegerArray(bufferSize);
+        for (int i = 0; i < bufferSize; i++) {
+            availableRounds.set(i, -1);
+        }
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * 发布一个元素，缓冲区满时等待消费者释放槽位；已停止时抛出 {@link IllegalStateException}
+     */
+    public void publish(E element) {
+        // 先登记再检查停止标记：消费者看到 halted 后只要还有在途生产者就不会退出
+        activePublishers.incrementAndGet();
+        try {
+            if (halted) {
+                throw new IllegalStateException("RingBuffer halted");
+            }
+            long sequence = claimSequence.incrementAndGet();
+            long wrapPoint = sequence - bufferSize;
+            // 已领取序号必须写入，停止后消费者仍会继续释放槽位
+            while (wrapPoint > consumedSequence.get()) {
+                LockSupport.parkNanos(1L);
+            }
+            entries[(int) sequence & indexMask] = element;
+            availableRounds.lazySet((int) sequence & indexMask, (int) (sequence >>> indexShift));
+        } finally {
+            activePublishers.decrementAndGet();
+        }
+        waitStrategy.signalAllWhenBlocking();
+    }
+
+    public boolean isAvailable(long sequence) {
+        return availableRounds.get((int) sequence & indexMask) == (int) (sequence >>> indexShift);
+    }
+
+    /**
+     * 从 lowerBound 开始连续可用的最大序号，lowerBound 不可用时返回 lowerBound - 1
+     */
+    public long getHighestPublishedSequence(long lowerBound) {
+        long upperBound = claimSequence.get();
+        for (long sequence = lowerBound; sequence <= upperBound; sequence++) {
+            if (!isAvailable(sequence)) {
+                return sequence - 1;
+            }
+        }
+        return upperBound;
+    }
+
+    /**
+     * 取出元素并清空槽位引用（仅消费者线程调用）
+     */
+    @SuppressWarnings("unchecked")
+    public E take(long sequence) {
+        int index = (int) sequence & indexMask;
+        E element = (E) entries[index];
+        entries[index] = null;
+        return element;
+    }
+
+    /**
+     * 推进消费序号，释放槽位给生产者（仅消费者线程调用）
+     */
+    public void markConsumed(long sequence) {
+        consumedSequence.lazySet(sequence);
+    }
+
+    public long getConsumedSequence() {
+        return consumedSequence.get();
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * 当前积压数量
+     */
+    public long size() {
+        return claimSequence.get() - consumedSequence.get();
+    }
+
+    public boolean isHalted() {
+        return halted;
+    }
+
+    /**
+     * 已停止、没有在途生产者且 nextSequence 之前的序号都已取出，消费者可以退出（仅消费者线程调用）
+     */
+    public boolean isDrained(long nextSequence) {
+        return halted && activePublishers.get() == 0 && claimSequence.get() < nextSequence;
+    }
+
+    public void halt() {
+        halted = true;
+        waitStrategy.signalAllWhenBlocking();
+    }
+
+    /**
+     * 前后填充，避免生产者序号与消费者序号伪共享同一缓存行
+     */
+    @SuppressWarnings("unused")
+    static final class PaddedSequence extends AtomicLong {
+        long p1, p2, p3, p4, p5, p6, p7;
+
+        PaddedSequence() {
+            super(-1L);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.shinyi.eventbus.support.ring;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 批量消费者：每次取出当前全部连续可用的元素交给处理器，停止时处理完已领取的全部元素再退出
+ * @author MSGA
+ * @param <E> 元素类型
+ */
+@Slf4j
+public class RingConsumer<E> implements Runnable {
+
+    private final RingBuffer<E> ringBuffer;
+    private final Consumer<List<E>> batchHandler;
+
+    public RingConsumer(RingBuffer<E> ringBuffer, Consumer<List<E>> batchHandler) {
+        this.ringBuffer = ringBuffer;
+        this.batchHandler = batchHandler;
+    }
+
+    @Override
+    public void run() {
+        long nextSequence = ringBuffer.getConsumedSequence() + 1;
+        WaitStrategy waitStrategy = ringBuffer.getWaitStrategy();
+        while (true) {
+            try {
+                waitStrategy.waitFor(nextSequence, ringBuffer);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                ringBuffer.halt();
+            }
+            long availableSequence = ringBuffer.getHighestPublishedSequence(nextSequence);
+            if (availableSequence < nextSequence) {
+                // 停止后仍有已领取未写入的序号时继续等待，避免丢弃在途发布
+                if (ringBuffer.isDrained(nextSequence)) {
+                    return;
+                }
+                continue;
+            }
+            List<E> batch = new ArrayList<>((int) (availableSequence - nextSequence + 1));
+            for (long sequence = nextSequence; sequence <= availableSequence; sequence++) {
+                batch.add(ringBuffer.take(sequence));
+            }
+            // 先释放槽位，处理期间生产者可以继续写入
+            ringBuffer.markConsumed(availableSequence);
+            nextSequence = availableSequence + 1;
+            try {
+                batchHandler.accept(batch);
+            } catch (Throwable e) {
+                log.error("RingBuffer 批量处理异常，数量：{}", batch.size(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.shinyi.eventbus.support.ring;
+
+/**
+ * 消费者等待生产者发布的策略
+ * @author MSGA
+ */
+public interface WaitStrategy {
+
+    /**
+     * 等待直到 sequence 对应的槽位已发布，或 ringBuffer 已停止
+     */
+    void waitFor(long sequence, RingBuffer<?> ringBuffer) throws InterruptedException;
+
+    /**
+     * 生产者发布后唤醒阻塞中的消费者
+     */
+    void signalAllWhenBlocking();
+
+    /**
+     * 根据名称创建：busy-spin | yielding | blocking（默认）
+     */
+    static WaitStrategy of(String name) {
+        if (name == null) {
+            return new BlockingWaitStrategy();
+        }
+        switch (name.trim().toLowerCase().replace('_', '-')) {
+            case "busy-spin":
+                return new BusySpinWaitStrategy();
+            case "yielding":
+                return new YieldingWaitStrategy();
+            case "blocking":
+                return new BlockingWaitStrategy();
+            default:
+                throw new IllegalArgumentException("Invalid ring wait strategy: " + name);
+        }
+    }
+}
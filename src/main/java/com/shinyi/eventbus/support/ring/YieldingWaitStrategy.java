@@ -0,0 +1,26 @@
+package com.shinyi.eventbus.support.ring;
+
+/**
+ * 先自旋再 {@link Thread#yield()}：延迟接近忙等，空闲时让出 CPU
+ * @author MSGA
+ */
+public class YieldingWaitStrategy implements WaitStrategy {
+
+    private static final int SPIN_TRIES = 100;
+
+    @Override
+    public void waitFor(long sequence, RingBuffer<?> ringBuffer) {
+        int counter = SPIN_TRIES;
+        while (!ringBuffer.isAvailable(sequence) && !ringBuffer.isHalted()) {
+            if (counter > 0) {
+                --counter;
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+    }
+}
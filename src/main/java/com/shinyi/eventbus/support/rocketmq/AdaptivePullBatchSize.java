@@ -0,0 +1,43 @@
+package com.shinyi.eventbus.support.rocketmq;
+
+/**
+ * 按监听器处理耗时调整每次拉取的条数：处理超过目标耗时减半，拉满且耗时低于目标一半时翻倍。
+ * 每个队列一个实例，只在该队列的拉取线程内访问。
+ * @author MSGA
+ */
+public class AdaptivePullBatchSize {
+
+    private final int min;
+    private final int max;
+    private final long targetMillis;
+    private int current;
+
+    /**
+     * @param targetMillis 单批处理的目标耗时，不大于 0 时固定为 max
+     */
+    public AdaptivePullBatchSize(int min, int max, long targetMillis) {
+        this.max = Math.max(1, max);
+        this.min = Math.max(1, Math.min(min, this.max));
+        this.targetMillis = targetMillis;
+        this.current = this.max;
+    }
+
+    public int current() {
+        return current;
+    }
+
+    /**
+     * @param received      本次拉取到的条数
+     * @param elapsedMillis 监听器处理这批消息的耗时
+     */
+    public void record(int received, long elapsedMillis) {
+        if (targetMillis <= 0) {
+            return;
+        }
+        if (elapsedMillis > targetMillis) {
+            current = Math.max(min, current / 2);
+        } else if (received >= current && elapsedMillis * 2 < targetMillis) {
+            current = Math.min(max, current * 2);
+        }
+    }
+}
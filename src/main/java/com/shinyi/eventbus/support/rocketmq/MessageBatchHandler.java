@@ -0,0 +1,15 @@
+package com.shinyi.eventbus.support.rocketmq;
+
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.common.message.MessageExt;
+
+import java.util.List;
+
+/**
+ * 处理拉模式下同一队列拉取到的一批消息，抛出异常时该批消息稍后从同一位点重新拉取
+ * @author MSGA
+ */
+@FunctionalInterface
+public interface MessageBatchHandler {
+
+    void handle(List<MessageExt> messages) throws Exception;
+}
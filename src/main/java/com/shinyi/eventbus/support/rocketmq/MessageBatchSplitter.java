@@ -0,0 +1,75 @@
+package com.shinyi.eventbus.support.rocketmq;
+
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.common.message.Message;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 将同一 topic 的消息按编码后的大小切分为多个批次，每批不超过 broker 的单次消息大小上限（默认 4MB）。
+ * 单条消息超过上限时单独成批，由发送结果报告失败。
+ * @author MSGA
+ */
+public final class MessageBatchSplitter {
+
+    /**
+     * 单条消息编码后的固定开销：总长度、魔数、CRC、flag、消息体长度、属性长度
+     */
+    static final int MESSAGE_OVERHEAD = 4 + 4 + 4 + 4 + 4 + 2;
+    /**
+     * 发送时客户端追加的属性（唯一 id UNIQ_KEY 等）预留
+     */
+    static final int CLIENT_PROPERTIES_ALLOWANCE = 64;
+
+    private MessageBatchSplitter() {
+        throw new UnsupportedOperationException("Construct MessageBatchSplitter");
+    }
+
+    /**
+     * @param messages 同一 topic 的消息
+     * @param maxBytes 每批编码后的最大字节数
+     * @return 每批消息在 messages 中的下标，保持原有顺序
+     */
+    public static List<List<Integer>> split(List<Message> messages, int maxBytes) {
+        if (messages.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<List<Integer>> batches = new ArrayList<>();
+        List<Integer> current = new ArrayList<>();
+        long currentBytes = 0;
+        for (int i = 0; i < messages.size(); i++) {
+            int size = encodedSize(messages.get(i));
+            if (!current.isEmpty() && currentBytes + size > maxBytes) {
+                batches.add(current);
+                current = new ArrayList<>();
+                currentBytes = 0;
+            }
+            current.add(i);
+            currentBytes += size;
+        }
+        batches.add(current);
+        return batches;
+    }
+
+    /**
+     * 消息在批量请求中编码后的字节数
+     */
+    public static int encodedSize(Message message) {
+        int size = MESSAGE_OVERHEAD + CLIENT_PROPERTIES_ALLOWANCE + (message.getBody() == null ? 0 : message.getBody().length);
+        Map<String, String> properties = message.getProperties();
+        if (properties != null) {
+            for (Map.Entry<String, String> entry : properties.entrySet()) {
+                // 属性编码为 name\u0001value\u0002
+                size += utf8Length(entry.getKey()) + utf8Length(entry.getValue()) + 2;
+            }
+        }
+        return size;
+    }
+
+    private static int utf8Length(String value) {
+        return value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
@@ -0,0 +1,333 @@
+package com.shinyi.eventbus.support.rocketmq;
+
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.client.consumer.DefaultMQPullConsumer;
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.client.consumer.MessageQueueListener;
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.client.consumer.PullResult;
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.client.exception.MQClientException;
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.common.message.MessageExt;
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.common.message.MessageQueue;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * RocketMQ 拉模式消费引擎：每个分配到的队列一个拉取线程，使用 {@code pullBlockIfNotFound} 长轮询。
+ * <ul>
+ *     <li>起始位点从消费者的 OffsetStore 读取（集群模式存于 broker，广播模式存于本地文件），没有时按 offset 策略定位</li>
+ *     <li>处理成功后更新 OffsetStore，由客户端定时持久化，关闭时立即持久化</li>
+ *     <li>处理失败不推进位点，按 1s 起翻倍、最长 60s 的退避后从同一位点重新拉取</li>
+ *     <li>同一位点失败超过消费者的 maxReconsumeTimes 次后，整批发回 broker 进入死信队列，提交位点后继续</li>
+ *     <li>作为 {@link MessageQueueListener} 注册到消费者，再均衡时启动新分配的队列、停止被移除的队列；
+ *     被移除的队列不再提交位点，重新分配回来时等上一个拉取线程退出后才开始拉取</li>
+ * </ul>
+ * @author MSGA
+ */
+@Slf4j
+public class RocketMqPullLoop implements MessageQueueListener, AutoCloseable {
+
+    static final long MIN_BACKOFF_MILLIS = 1000L;
+    static final long MAX_BACKOFF_MILLIS = 60000L;
+    /**
+     * maxReconsumeTimes 为负数时的重试次数，与推模式一致
+     */
+    static final int DEFAULT_MAX_RECONSUME_TIMES = 16;
+    /**
+     * 发回 broker 时的延迟级别，小于 0 时 broker 直接投递到死信队列
+     */
+    private static final int DEAD_LETTER_DELAY_LEVEL = -1;
+
+    private final String name;
+    private final DefaultMQPullConsumer consumer;
+    private final String subExpression;
+    private final String offsetStrategy;
+    private final long consumeTimestamp;
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final long targetMillis;
+    private final MessageBatchHandler handler;
+    private final ExecutorService executor;
+    private final Map<MessageQueue, QueueWorker> workers = new ConcurrentHashMap<>();
+    /**
+     * 已停止但拉取线程尚未退出的队列
+     */
+    private final Map<MessageQueue, QueueWorker> stopping = new ConcurrentHashMap<>();
+    private volatile boolean running = true;
+
+    /**
+     * @param offsetStrategy   没有已提交位点时的起始位置：earliest | latest | timestamp
+     * @param consumeTimestamp offsetStrategy 为 timestamp 时的起始时间（毫秒）
+     * @param targetMillis     单批处理的目标耗时，用于自适应拉取条数
+     */
+    public RocketMqPullLoop(String name, DefaultMQPullConsumer consumer, String subExpression, String offsetStrategy,
+                            long consumeTimestamp, int minBatchSize, int maxBatchSize, long targetMillis,
+                            MessageBatchHandler handler) {
+        this.name = name;
+        this.consumer = consumer;
+        this.subExpression = subExpression;
+        this.offsetStrategy = offsetStrategy;
+        this.consumeTimestamp = consumeTimestamp;
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.targetMillis = targetMillis;
+        this.handler = handler;
+        AtomicInteger index = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, name + "-" + index.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void messageQueueChanged(String topic, Set<MessageQueue> mqAll, Set<MessageQueue> mqDivided) {
+        if (!running) {
+            return;
+        }
+        for (MessageQueue queue : new ArrayList<>(workers.keySet())) {
+            if (topic.equals(queue.getTopic()) && !mqDivided.contains(queue)) {
+                QueueWorker worker = workers.remove(queue);
+                if (worker != null) {
+                    worker.stop();
+                    stopping.put(queue, worker);
+                    log.info("{} 停止消费队列: {}", name, queue);
+                }
+            }
+        }
+        for (MessageQueue queue : mqDivided) {
+            workers.computeIfAbsent(queue, q -> {
+                QueueWorker worker = new QueueWorker(q, stopping.get(q));
+                executor.execute(worker);
+                log.info("{} 开始消费队列: {}", name, q);
+                return worker;
+            });
+        }
+    }
+
+    /**
+     * 当前分配到的队列
+     */
+    public Set<MessageQueue> assignedQueues() {
+        return new HashSet<>(workers.keySet());
+    }
+
+    /**
+     * 队列下一次拉取的位点，未分配或尚未初始化时返回 -1
+     */
+    public long nextOffset(MessageQueue queue) {
+        QueueWorker worker = workers.get(queue);
+        return worker == null ? -1 : worker.offset;
+    }
+
+    @Override
+    public void close() {
+        // 不调用 stop，拉取线程仍持有队列，退出前提交并持久化已处理的位点
+        running = false;
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(consumer.getConsumerTimeoutMillisWhenSuspend(), TimeUnit.MILLISECONDS)) {
+                log.warn("{} 拉取线程未在超时时间内退出", name);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.clear();
+    }
+
+    private long initialOffset(MessageQueue queue) throws MQClientException {
+        long offset = consumer.fetchConsumeOffset(queue, true);
+        if (offset >= 0) {
+            return offset;
+        }
+        switch (offsetStrategy == null ? "" : offsetStrategy) {
+            case "earliest":
+                return consumer.minOffset(queue);
+            case "timestamp":
+                return consumer.searchOffset(queue, consumeTimestamp);
+            case "latest":
+            default:
+                return consumer.maxOffset(queue);
+        }
+    }
+
+    private class QueueWorker implements Runnable {
+
+        private final MessageQueue queue;
+        private final CountDownLatch exited = new CountDownLatch(1);
+        /**
+         * 同一队列上一个已停止的工作线程，退出后才开始拉取
+         */
+        private QueueWorker previous;
+        private final AdaptivePullBatchSize batchSize = new AdaptivePullBatchSize(minBatchSize, maxBatchSize, targetMillis);
+        private volatile boolean active = true;
+        private volatile long offset = -1;
+        private long backoffMillis = MIN_BACKOFF_MILLIS;
+        /**
+         * 当前位点已失败的次数，位点推进后清零
+         */
+        private int reconsumeTimes;
+
+        QueueWorker(MessageQueue queue, QueueWorker previous) {
+            this.queue = queue;
+            this.previous = previous;
+        }
+
+        void stop() {
+            active = false;
+        }
+
+        private boolean isActive() {
+            return active && running && !Thread.currentThread().isInterrupted();
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (awaitPrevious()) {
+                    pullLoop();
+                }
+            } finally {
+                stopping.remove(queue, this);
+                exited.countDown();
+            }
+        }
+
+        /**
+         * 等待同一队列上一个工作线程退出，避免其处理中的批次与本线程同时提交位点。
+         * 本线程被停止时仍继续等待，保证之后分配的线程同样排在其后
+         */
+        private boolean awaitPrevious() {
+            try {
+                while (previous != null && !previous.exited.await(MIN_BACKOFF_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (!running) {
+                        return false;
+                    }
+                    log.info("{} 队列 {} 等待上一个拉取线程退出", name, queue);
+                }
+                previous = null;
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        private void pullLoop() {
+            while (isActive()) {
+                try {
+                    if (offset < 0) {
+                        offset = initialOffset(queue);
+                    }
+                    PullResult pullResult = consumer.pullBlockIfNotFound(queue, subExpression, offset, batchSize.current());
+                    if (!isActive()) {
+                        // 长轮询期间队列被移除，丢弃结果，由新的持有者从已提交位点继续
+                        break;
+                    }
+                    switch (pullResult.getPullStatus()) {
+                        case FOUND:
+                            consume(pullResult.getMsgFoundList());
+                            commit(pullResult.getNextBeginOffset());
+                            break;
+                        case NO_MATCHED_MSG:
+                        case OFFSET_ILLEGAL:
+                            log.debug("{} 队列 {} 拉取状态 {}，位点调整为 {}", name, queue, pullResult.getPullStatus(),
+                                    pullResult.getNextBeginOffset());
+                            commit(pullResult.getNextBeginOffset());
+                            break;
+                        case NO_NEW_MSG:
+                        default:
+                            offset = pullResult.getNextBeginOffset();
+                            break;
+                    }
+                    backoffMillis = MIN_BACKOFF_MILLIS;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Exception e) {
+                    log.warn("{} 队列 {} 位点 {} 消费失败，{}ms 后重试: {}", name, queue, offset, backoffMillis, e.getMessage(), e);
+                    sleepBackoff();
+                }
+            }
+            if (active) {
+                persist();
+            }
+        }
+
+        /**
+         * 处理一批消息，失败时抛出异常由调用方退避重试；同一位点失败超过 maxReconsumeTimes 次后发送到死信队列并返回
+         */
+        private void consume(List<MessageExt> messages) throws Exception {
+            long start = System.currentTimeMillis();
+            try {
+                handler.handle(messages);
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                if (++reconsumeTimes <= maxReconsumeTimes()) {
+                    throw e;
+                }
+                log.error("{} 队列 {} 位点 {} 重试 {} 次后仍失败，发送到死信队列: {}", name, queue, offset,
+                        reconsumeTimes - 1, e.getMessage(), e);
+                sendToDeadLetter(messages);
+                return;
+            }
+            batchSize.record(messages.size(), System.currentTimeMillis() - start);
+        }
+
+        private int maxReconsumeTimes() {
+            int maxReconsumeTimes = consumer.getMaxReconsumeTimes();
+            return maxReconsumeTimes < 0 ? DEFAULT_MAX_RECONSUME_TIMES : maxReconsumeTimes;
+        }
+
+        private void sendToDeadLetter(List<MessageExt> messages) {
+            for (MessageExt message : messages) {
+                try {
+                    consumer.sendMessageBack(message, DEAD_LETTER_DELAY_LEVEL, queue.getBrokerName());
+                } catch (Exception e) {
+                    if (e instanceof InterruptedException) {
+                        Thread.currentThread().interrupt();
+                    }
+                    // 发回失败时记录后跳过，避免阻塞整个队列
+                    log.error("{} 消息 {} 发送到死信队列失败，已跳过: {}", name, message.getMsgId(), e.getMessage(), e);
+                }
+            }
+        }
+
+        private void commit(long nextOffset) throws MQClientException {
+            if (!active) {
+                // 队列已被移除，位点由新的持有者维护，处理中完成的批次不再提交
+                return;
+            }
+            offset = nextOffset;
+            reconsumeTimes = 0;
+            consumer.updateConsumeOffset(queue, nextOffset);
+        }
+
+        private void sleepBackoff() {
+            try {
+                TimeUnit.MILLISECONDS.sleep(backoffMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+        }
+
+        private void persist() {
+            try {
+                if (consumer.getOffsetStore() != null) {
+                    consumer.getOffsetStore().persist(queue);
+                }
+            } catch (Exception e) {
+                log.warn("{} 队列 {} 持久化位点失败: {}", name, queue, e.getMessage());
+            }
+        }
+    }
+}
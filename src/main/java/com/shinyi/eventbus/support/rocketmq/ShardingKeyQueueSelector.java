@@ -0,0 +1,109 @@
+package com.shinyi.eventbus.support.rocketmq;
+
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.client.exception.MQClientException;
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.client.producer.MessageQueueSelector;
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.common.message.Message;
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.common.message.MessageQueue;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按分区键哈希选择队列：相同键的消息进入同一队列，配合 orderly 消费模式保证同键有序，不同键仍分散在各队列并行消费。
+ * <ul>
+ *     <li>topic 的队列列表按 broker、queueId 排序后缓存，每次发送不再查询路由，超过刷新间隔后重新加载</li>
+ *     <li>刷新失败时继续使用旧的队列列表，发送失败时调用 {@link #invalidate(String)} 使下次发送重新加载</li>
+ * </ul>
+ * @author MSGA
+ */
+@Slf4j
+public class ShardingKeyQueueSelector implements MessageQueueSelector {
+
+    /**
+     * 加载 topic 的可发送队列，通常为 {@code MQProducer#fetchPublishMessageQueues}
+     */
+    @FunctionalInterface
+    public interface QueueLoader {
+
+        List<MessageQueue> load(String topic) throws MQClientException;
+    }
+
+    private final QueueLoader loader;
+    private final long refreshMillis;
+    private final Map<String, TopicQueues> topicQueues = new ConcurrentHashMap<>();
+
+    /**
+     * @param refreshMillis 队列列表的缓存时间（毫秒），小于等于 0 时只在首次或失效后加载
+     */
+    public ShardingKeyQueueSelector(QueueLoader loader, long refreshMillis) {
+        this.loader = loader;
+        this.refreshMillis = refreshMillis;
+    }
+
+    /**
+     * 按分区键选择 topic 的队列
+     */
+    public MessageQueue select(String topic, String shardingKey) throws MQClientException {
+        return select(queues(topic), null, shardingKey);
+    }
+
+    @Override
+    public MessageQueue select(List<MessageQueue> mqs, Message msg, Object arg) {
+        return mqs.get(Math.floorMod(arg.hashCode(), mqs.size()));
+    }
+
+    /**
+     * 丢弃 topic 缓存的队列列表
+     */
+    public void invalidate(String topic) {
+        topicQueues.remove(topic);
+    }
+
+    /**
+     * topic 当前缓存的队列列表，必要时加载
+     */
+    public List<MessageQueue> queues(String topic) throws MQClientException {
+        TopicQueues cached = topicQueues.get(topic);
+        long now = System.currentTimeMillis();
+        if (cached != null && (refreshMillis <= 0 || now - cached.loadedAt < refreshMillis)) {
+            return cached.queues;
+        }
+        List<MessageQueue> loaded;
+        try {
+            loaded = loader.load(topic);
+        } catch (MQClientException e) {
+            if (cached == null) {
+                throw e;
+            }
+            log.warn("刷新 topic {} 的队列列表失败，继续使用缓存: {}", topic, e.getMessage());
+            return cached.queues;
+        }
+        if (loaded == null || loaded.isEmpty()) {
+            if (cached != null) {
+                return cached.queues;
+            }
+            throw new MQClientException("topic " + topic + " 没有可发送的队列", null);
+        }
+        List<MessageQueue> queues = new ArrayList<>(loaded);
+        // 各生产者实例对同一个键选出相同的队列
+        Collections.sort(queues);
+        TopicQueues refreshed = new TopicQueues(Collections.unmodifiableList(queues), now);
+        topicQueues.put(topic, refreshed);
+        return refreshed.queues;
+    }
+
+    private static final class TopicQueues {
+
+        private final List<MessageQueue> queues;
+        private final long loadedAt;
+
+        TopicQueues(List<MessageQueue> queues, long loadedAt) {
+            this.queues = queues;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.shinyi.eventbus.util;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 事件ID生成器：非加密、单调递增、按时间有序的 128 位 ID，编码为 32 位小写十六进制字符串。
+ * <p>
+ * 高 64 位为 {@code 毫秒时间戳 << 16 | 毫秒内序号}，通过 CAS 保证进程内严格递增；
+ * 低 64 位为进程启动时生成的随机节点标识，用于区分不同实例。
+ * 生成过程只分配一个 char[] 与最终的 String，不产生中间字符串。
+ * @author MSGA
+ */
+public final class EventIdGenerator {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final int SEQUENCE_BITS = 16;
+
+    private static final AtomicLong LAST_HIGH = new AtomicLong();
+
+    private static final long NODE = new SecureRandom().nextLong();
+
+    private EventIdGenerator() {
+        throw new UnsupportedOperationException("Construct EventIdGenerator");
+    }
+
+    /**
+     * 生成下一个事件ID
+     */
+    public static String nextId() {
+        char[] buf = new char[32];
+        writeHex(buf, 0, nextHigh());
+        writeHex(buf, 16, NODE);
+        return new String(buf);
+    }
+
+    /**
+     * 高 64 位：同一毫秒内序号用尽或时钟回拨时沿用上一个值加一，保证单调
+     */
+    static long nextHigh() {
+        long now = System.currentTimeMillis() << SEQUENCE_BITS;
+        for (;;) {
+            long last = LAST_HIGH.get();
+            long next = Math.max(now, last + 1);
+            if (LAST_HIGH.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+
+    private static void writeHex(char[] buf, int offset, long value) {
+        for (int i = offset + 15; i >= offset; i--) {
+            buf[i] = HEX_DIGITS[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+}
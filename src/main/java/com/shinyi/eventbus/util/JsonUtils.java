@@ -2,18 +2,26 @@
 package com.shinyi.eventbus.util;
 
 import cn.hutool.core.util.StrUtil;
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
 import com.fasterxml.jackson.databind.*;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.node.TextNode;
 import com.fasterxml.jackson.databind.type.CollectionType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.fasterxml.jackson.databind.DeserializationFeature.*;
 import static com.fasterxml.jackson.databind.MapperFeature.REQUIRE_SETTERS_FOR_GETTERS;
@@ -21,18 +29,44 @@ import static com.fasterxml.jackson.databind.MapperFeature.REQUIRE_SETTERS_FOR_G
 public class JsonUtils {
 
     /** can use static singleton, inject: just make sure to reuse! */
-    private static final ObjectMapper OBJECT_MAPPER =
-            new ObjectMapper()
-                    .configure(FAIL_ON_UNKNOWN_PROPERTIES, false)
-                    .configure(ACCEPT_EMPTY_ARRAY_AS_NULL_OBJECT, true)
-                    .configure(READ_UNKNOWN_ENUM_VALUES_AS_NULL, true)
-                    .configure(REQUIRE_SETTERS_FOR_GETTERS, true)
-                    .setTimeZone(TimeZone.getDefault());
+    private static final ObjectMapper OBJECT_MAPPER = newObjectMapper(null);
+
+    private static final ObjectWriter OBJECT_WRITER = OBJECT_MAPPER.writer();
+
+    /**
+     * 按完整类型缓存的读取器，ObjectReader 不可变且线程安全
+     */
+    private static final Map<JavaType, ObjectReader> READERS = new ConcurrentHashMap<>();
+
+    /**
+     * 线程复用的输出缓冲，超过该大小的缓冲用完即丢弃，避免线程长期持有大块内存
+     */
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<ByteArrayBuilder> OUTPUT_BUFFER = new ThreadLocal<>();
 
     private JsonUtils() {
         throw new UnsupportedOperationException("Construct JSONUtils");
     }
 
+    /**
+     * 创建与默认配置一致的 ObjectMapper，二进制格式（Smile、CBOR 等）传入对应的 JsonFactory
+     *
+     * @param factory 为空使用 JSON
+     */
+    public static ObjectMapper newObjectMapper(JsonFactory factory) {
+        return new ObjectMapper(factory)
+                .configure(FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .configure(ACCEPT_EMPTY_ARRAY_AS_NULL_OBJECT, true)
+                .configure(READ_UNKNOWN_ENUM_VALUES_AS_NULL, true)
+                .configure(REQUIRE_SETTERS_FOR_GETTERS, true)
+                .setTimeZone(TimeZone.getDefault());
+    }
+
+    public static TypeFactory getTypeFactory() {
+        return OBJECT_MAPPER.getTypeFactory();
+    }
+
     public static ArrayNode createArrayNode() {
         return OBJECT_MAPPER.createArrayNode();
     }
@@ -116,6 +150,26 @@ public class JsonUtils {
         }
     }
 
+    /**
+     * 按已构造好的完整类型反序列化，支持 {@code EventModel<List<Order>>} 等嵌套泛型
+     *
+     * @param json json string
+     * @param javaType 完整类型
+     * @param <T> T
+     * @return object
+     */
+    public static <T> T parseObject(String json, JavaType javaType) {
+        if (StrUtil.isEmpty(json)) {
+            return null;
+        }
+
+        try {
+            return OBJECT_MAPPER.readValue(json, javaType);
+        } catch (Exception e) {
+            throw new RuntimeException("Json parse object exception!", e);
+        }
+    }
+
     /**
      * json to list
      *
@@ -228,8 +282,91 @@ public class JsonUtils {
         }
     }
 
+    /**
+     * 直接序列化为 UTF-8 字节，不经过中间 String，使用线程复用的输出缓冲
+     *
+     * @param object object
+     * @return json bytes
+     */
+    public static byte[] toJsonBytes(Object object) {
+        ByteArrayBuilder buffer = OUTPUT_BUFFER.get();
+        if (buffer == null) {
+            buffer = new ByteArrayBuilder();
+        } else {
+            // 借出期间置空，序列化过程中重入时使用新缓冲
+            OUTPUT_BUFFER.set(null);
+        }
+        try {
+            OBJECT_WRITER.writeValue(buffer, object);
+            return buffer.toByteArray();
+        } catch (Exception e) {
+            throw new RuntimeException("Object to json exception!", e);
+        } finally {
+            if (buffer.size() <= MAX_RETAINED_BUFFER_SIZE) {
+                buffer.reset();
+                OUTPUT_BUFFER.set(buffer);
+            }
+        }
+    }
+
+    /**
+     * 获取指定类型的缓存读取器
+     */
+    public static ObjectReader readerFor(JavaType javaType) {
+        return READERS.computeIfAbsent(javaType, OBJECT_MAPPER::readerFor);
+    }
+
+    /**
+     * 从 UTF-8 字节直接反序列化，不经过中间 String
+     */
+    public static <T> T parseObject(byte[] bytes, JavaType javaType) {
+        return parseObject(bytes, readerFor(javaType));
+    }
+
+    /**
+     * 使用已缓存的读取器从 UTF-8 字节反序列化
+     */
+    public static <T> T parseObject(byte[] bytes, ObjectReader reader) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            return reader.readValue(bytes);
+        } catch (Exception e) {
+            throw new RuntimeException("Json parse object exception!", e);
+        }
+    }
+
+    /**
+     * 从 ByteBuffer 反序列化，堆内缓冲直接读取底层数组，不改变 position
+     */
+    public static <T> T parseObject(ByteBuffer buffer, JavaType javaType) {
+        if (buffer == null || !buffer.hasRemaining()) {
+            return null;
+        }
+        try {
+            if (buffer.hasArray()) {
+                return readerFor(javaType).readValue(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            }
+            return readerFor(javaType).readValue(new ByteBufferBackedInputStream(buffer.duplicate()));
+        } catch (Exception e) {
+            throw new RuntimeException("Json parse object exception!", e);
+        }
+    }
+
+    /**
+     * 从输入流反序列化，不关闭输入流
+     */
+    public static <T> T parseObject(InputStream inputStream, JavaType javaType) {
+        try {
+            return readerFor(javaType).without(JsonParser.Feature.AUTO_CLOSE_SOURCE).readValue(inputStream);
+        } catch (Exception e) {
+            throw new RuntimeException("Json parse object exception!", e);
+        }
+    }
+
     public static ObjectNode parseObject(String text) {
-        return parseObject(text.getBytes());
+        return parseObject(text.getBytes(StandardCharsets.UTF_8));
     }
 
     public static ObjectNode parseObject(byte[] content) {
@@ -237,7 +374,7 @@ public class JsonUtils {
             return (ObjectNode) OBJECT_MAPPER.readTree(content);
         } catch (IOException e) {
             throw new RuntimeException(
-                    "String json deserialization exception." + new String(content), e);
+                    "String json deserialization exception." + new String(content, StandardCharsets.UTF_8), e);
         }
     }
 
@@ -5,6 +5,7 @@ import cn.hutool.core.util.IdUtil;
 import com.shinyi.eventbus.registry.GuavaEventListenerRegistry;
 import com.shinyi.eventbus.registry.SpringEventListenerRegistry;
 import com.shinyi.eventbus.support.EventListenerRegistryManager;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,6 +20,8 @@ import org.springframework.util.Assert;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static org.mockito.Mockito.when;
@@ -74,6 +77,35 @@ public class EventBusTest {
         eventListenerRegistryManager.start();
     }
 
+    @Test
+    public void publishAsync_shouldCompleteFuture() throws Exception {
+        List<CompletableFuture<EventResult>> futures = new ArrayList<>();
+        List<EventModel<TestEvent>> events = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            TestEvent testEvent = new TestEvent();
+            testEvent.setFieldTest("async-" + i);
+            EventModel<TestEvent> event = EventModel.build(TestEvent.TOPIC_NAME, testEvent, false);
+            events.add(event);
+            futures.add(eventListenerRegistryManager.publishAsync(EventBusType.GUAVA, event));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+        for (CompletableFuture<EventResult> future : futures) {
+            Assertions.assertTrue(future.get().isSuccess());
+        }
+        // 完成后事件还原为调用方原有的回调与异步标记
+        for (EventModel<TestEvent> event : events) {
+            Assertions.assertNull(event.getEventCallback());
+            Assertions.assertFalse(event.isEnableAsync());
+        }
+    }
+
+    @Test
+    public void publishAsync_unknownDriver_shouldCompleteExceptionally() {
+        TestEvent testEvent = new TestEvent();
+        CompletableFuture<EventResult> future = eventListenerRegistryManager.publishAsync("unknown", EventModel.build(TestEvent.TOPIC_NAME, testEvent));
+        Assertions.assertTrue(future.isCompletedExceptionally());
+    }
+
 //    @Test
 //    public void publish() throws Exception{
 //
@@ -0,0 +1,105 @@
+package com.shinyi.eventbus.benchmark;
+
+import com.shinyi.eventbus.EventModel;
+import com.shinyi.eventbus.TestEvent;
+import com.shinyi.eventbus.listener.MethodInvoker;
+import com.shinyi.eventbus.listener.MethodInvokerType;
+import com.shinyi.eventbus.listener.MethodInvokers;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 注解监听方法调用基准：旧版逐次反射（getParameterTypes + invoke）对比各 {@link MethodInvokerType}。
+ * <p>
+ * 运行：{@code mvn test-compile} 后直接执行 {@link #main(String[])}。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodInvokerBenchmark {
+
+    private Listener target;
+
+    private Method method;
+
+    private List<EventModel<Object>> messages;
+
+    private MethodInvoker reflection;
+
+    private MethodInvoker methodHandle;
+
+    private MethodInvoker lambda;
+
+    @Setup
+    public void setUp() throws Exception {
+        target = new Listener();
+        method = Listener.class.getMethod("onEvent", List.class);
+        messages = Collections.singletonList(EventModel.build(TestEvent.TOPIC_NAME, new TestEvent()));
+        reflection = MethodInvokers.create(MethodInvokerType.REFLECTION, target, method);
+        methodHandle = MethodInvokers.create(MethodInvokerType.METHOD_HANDLE, target, method);
+        lambda = MethodInvokers.create(MethodInvokerType.LAMBDA, target, method);
+    }
+
+    /**
+     * 与旧版 MethodEventListener.handle 相同的调用方式
+     */
+    @Benchmark
+    public void legacyReflection(Blackhole blackhole) throws Throwable {
+        try {
+            Class<?>[] paramTypes = method.getParameterTypes();
+            Object[] paramValues = new Object[paramTypes.length];
+            paramValues[0] = messages;
+            method.invoke(target, paramValues);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+        blackhole.consume(target.count);
+    }
+
+    @Benchmark
+    public void reflectionInvoker(Blackhole blackhole) throws Throwable {
+        reflection.invoke(messages);
+        blackhole.consume(target.count);
+    }
+
+    @Benchmark
+    public void methodHandleInvoker(Blackhole blackhole) throws Throwable {
+        methodHandle.invoke(messages);
+        blackhole.consume(target.count);
+    }
+
+    @Benchmark
+    public void lambdaInvoker(Blackhole blackhole) throws Throwable {
+        lambda.invoke(messages);
+        blackhole.consume(target.count);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MethodInvokerBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    public static class Listener {
+
+        long count;
+
+        public void onEvent(List<EventModel<TestEvent>> messages) {
+            count += messages.size();
+        }
+    }
+}
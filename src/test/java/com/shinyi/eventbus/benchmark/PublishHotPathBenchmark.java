@@ -0,0 +1,105 @@
+package com.shinyi.eventbus.benchmark;
+
+import cn.hutool.core.util.IdUtil;
+import com.shinyi.eventbus.EventBusType;
+import com.shinyi.eventbus.EventListener;
+import com.shinyi.eventbus.EventListenerRegistry;
+import com.shinyi.eventbus.EventModel;
+import com.shinyi.eventbus.TestEvent;
+import com.shinyi.eventbus.support.EventListenerRegistryManager;
+import com.shinyi.eventbus.util.EventIdGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 发布热点路径基准：关注 gc.alloc.rate.norm（每次发布分配字节数）。
+ * <p>
+ * 运行：{@code mvn test-compile} 后直接执行 {@link #main(String[])}，已附带 GC profiler。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PublishHotPathBenchmark {
+
+    private GenericApplicationContext applicationContext;
+
+    private EventListenerRegistryManager manager;
+
+    private EventModel<TestEvent> event;
+
+    @Setup
+    public void setUp() {
+        applicationContext = new GenericApplicationContext();
+        applicationContext.registerBean("noopEventListenerRegistry", EventListenerRegistry.class, NoopEventListenerRegistry::new);
+        applicationContext.refresh();
+        manager = new EventListenerRegistryManager();
+        manager.setApplicationContext(applicationContext);
+        manager.start();
+        event = EventModel.build(TestEvent.TOPIC_NAME, new TestEvent());
+    }
+
+    @TearDown
+    public void tearDown() {
+        manager.close();
+        applicationContext.close();
+    }
+
+    @Benchmark
+    public String uuidEventId() {
+        return IdUtil.randomUUID().replace("-", "");
+    }
+
+    @Benchmark
+    public String generatorEventId() {
+        return EventIdGenerator.nextId();
+    }
+
+    @Benchmark
+    public EventModel<TestEvent> publish() {
+        event.setEventId(null);
+        manager.publish("noop", event);
+        return event;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PublishHotPathBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * 空驱动，只测量管理器自身开销
+     */
+    static class NoopEventListenerRegistry implements EventListenerRegistry<EventModel<?>> {
+
+        @Override
+        public EventBusType getEventBusType() {
+            return EventBusType.GUAVA;
+        }
+
+        @Override
+        public void initRegistryEventListener(List<EventListener<EventModel<?>>> eventListeners) {
+        }
+
+        @Override
+        public void publish(EventModel<?> eventModel) {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.shinyi.eventbus.benchmark;
+
+import com.shinyi.eventbus.EventListener;
+import com.shinyi.eventbus.EventModel;
+import com.shinyi.eventbus.TestEvent;
+import com.shinyi.eventbus.registry.RingEventListenerRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ring 驱动发布到监听器处理完成的端到端延迟，关注 p99 / p99.9。
+ * <p>
+ * 运行：{@code mvn test-compile} 后直接执行 {@link #main(String[])}。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RingLatencyBenchmark {
+
+    @Param({"busy-spin", "yielding", "blocking"})
+    public String waitStrategy;
+
+    private RingEventListenerRegistry<EventModel<TestEvent>> registry;
+
+    private final AtomicLong handled = new AtomicLong();
+
+    private long published;
+
+    @Setup
+    public void setUp() {
+        registry = new RingEventListenerRegistry<>("ring", 1024, 1, waitStrategy);
+        EventListener<EventModel<TestEvent>> listener = new EventListener<EventModel<TestEvent>>() {
+            @Override
+            public Class<?> entityType() {
+                return TestEvent.class;
+            }
+
+            @Override
+            public String topic() {
+                return TestEvent.TOPIC_NAME;
+            }
+
+            @Override
+            public void onMessageBatch(List<EventModel<TestEvent>> message) {
+                handled.addAndGet(message.size());
+            }
+
+            @Override
+            public void onMessage(EventModel<TestEvent> message) {
+                handled.incrementAndGet();
+            }
+        };
+        registry.initRegistryEventListener(Collections.singletonList(listener));
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        registry.close();
+    }
+
+    @Benchmark
+    public long publishToHandle() {
+        EventModel<TestEvent> event = EventModel.build(TestEvent.TOPIC_NAME, new TestEvent());
+        event.setEnableAsync(true);
+        registry.publish(event);
+        long target = ++published;
+        while (handled.get() < target) {
+            // 自旋等待消费线程处理完成
+        }
+        return target;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RingLatencyBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,106 @@
+package com.shinyi.eventbus.benchmark;
+
+import com.shinyi.eventbus.EventModel;
+import com.shinyi.eventbus.SerializeType;
+import com.shinyi.eventbus.TestEvent;
+import com.shinyi.eventbus.serialize.BaseSerializer;
+import com.shinyi.eventbus.serialize.EntityTypeDescriptor;
+import com.shinyi.eventbus.util.JsonUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON 编解码基准：旧版经过中间 String（toJsonString + getBytes / new String + parseObject）对比直接读写字节，
+ * 以及 DEFAULT 模式下直接发送实体时旧版两次解析对比单次解析。
+ * <p>
+ * 运行：{@code mvn test-compile} 后直接执行 {@link #main(String[])}，GC profiler 输出的
+ * {@code gc.alloc.rate.norm} 即每次操作分配的字节数。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+
+    private final BaseSerializer serializer = new BaseSerializer();
+
+    private EventModel<TestEvent> event;
+
+    private EntityTypeDescriptor entityType;
+
+    private byte[] body;
+
+    private byte[] rawBody;
+
+    @Setup
+    public void setUp() {
+        TestEvent entity = new TestEvent();
+        entity.setFieldTest("order-20240101-000001");
+        entity.setFieldTest2("下单成功，等待支付");
+        event = EventModel.build(TestEvent.TOPIC_NAME, entity, "0190a1b2c3d4e5f60718293a4b5c6d7e", false);
+        entityType = EntityTypeDescriptor.of(TestEvent.class);
+        body = serializer.serialize(event, SerializeType.DEFAULT.getType());
+        rawBody = JsonUtils.toJsonBytes(entity);
+    }
+
+    /**
+     * 与旧版 BaseSerializer.serialize 相同的方式
+     */
+    @Benchmark
+    public byte[] legacySerialize() {
+        return JsonUtils.toJsonString(event).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(event, SerializeType.DEFAULT.getType());
+    }
+
+    /**
+     * 与旧版 BaseSerializer.deserialize DEFAULT 分支相同的方式
+     */
+    @Benchmark
+    public EventModel<?> legacyDeserialize() {
+        return JsonUtils.parseObject(new String(body, StandardCharsets.UTF_8), entityType.getEventModelType());
+    }
+
+    @Benchmark
+    public EventModel<?> deserialize() {
+        return serializer.deserialize(body, SerializeType.DEFAULT.getType(), entityType);
+    }
+
+    /**
+     * 旧版 DEFAULT 分支处理直接发送的实体：先按 EventModel 解析，失败后再按实体解析
+     */
+    @Benchmark
+    public EventModel<?> legacyDeserializeRaw() {
+        String json = new String(rawBody, StandardCharsets.UTF_8);
+        EventModel<?> eventModel = JsonUtils.parseObject(json, entityType.getEventModelType());
+        if (eventModel.getEventId() == null && eventModel.getEntity() == null) {
+            eventModel = EventModel.build(null, JsonUtils.parseObject(json, entityType.getJavaType()));
+        }
+        return eventModel;
+    }
+
+    @Benchmark
+    public EventModel<?> deserializeRaw() {
+        return serializer.deserialize(rawBody, SerializeType.DEFAULT.getType(), entityType);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SerializerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -8,10 +8,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -110,6 +115,154 @@ public class GuavaEventListenerRegistryTest {
         assertTrue(callbackTriggered.get());
     }
 
+    @Test
+    public void testPublishBatch_shouldDeliverOnceAsBatch() {
+        List<EventModel<TestEvent>> received = new ArrayList<>();
+
+        List<EventListener<EventModel<TestEvent>>> listeners = new ArrayList<>();
+        EventListener<EventModel<TestEvent>> listener = new EventListener<EventModel<TestEvent>>() {
+            @Override
+            public void onMessage(EventModel<TestEvent> event) {
+            }
+
+            @Override
+            public void onMessageBatch(List<EventModel<TestEvent>> events) {
+                received.addAll(events);
+            }
+
+            @Override
+            public String topic() {
+                return "test-topic";
+            }
+
+            @Override
+            public Class<?> entityType() {
+                return TestEvent.class;
+            }
+
+            @Override
+            public String serializeType() {
+                return "JSON";
+            }
+        };
+        listeners.add(listener);
+        registry.initRegistryEventListener(listeners);
+
+        List<EventModel<TestEvent>> events = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            TestEvent event = new TestEvent();
+            event.setFieldTest("batch-" + i);
+            EventModel<TestEvent> eventModel = EventModel.build("test-topic", event);
+            eventModel.setEnableAsync(false);
+            events.add(eventModel);
+        }
+
+        List<EventResult> results = registry.publishBatch(events);
+
+        assertEquals(3, results.size());
+        assertTrue(results.stream().allMatch(EventResult::isSuccess));
+        assertEquals(events, received);
+    }
+
+    @Test
+    public void testPublishBatch_shouldMatchTopicAndGroupLikePublish() {
+        List<EventModel<TestEvent>> orders = new ArrayList<>();
+        List<EventModel<TestEvent>> reports = new ArrayList<>();
+        List<EventListener<EventModel<TestEvent>>> listeners = new ArrayList<>();
+        listeners.add(createTestListenerWithCallback(orders::add, "test-topic", "orders"));
+        listeners.add(createTestListenerWithCallback(reports::add, "test-topic", "reports"));
+        registry.initRegistryEventListener(listeners);
+
+        EventModel<TestEvent> ordersEvent = EventModel.build("test-topic", new TestEvent());
+        ordersEvent.setGroup("orders");
+        EventModel<TestEvent> anyGroupEvent = EventModel.build("test-topic", new TestEvent());
+        List<EventModel<TestEvent>> events = Arrays.asList(ordersEvent, anyGroupEvent);
+        events.forEach(e -> e.setEnableAsync(false));
+
+        List<EventResult> results = registry.publishBatch(events);
+
+        assertTrue(results.stream().allMatch(EventResult::isSuccess));
+        // 指定分组的事件只投递给该分组，未指定分组的事件投递给该 topic 的全部监听器
+        assertEquals(Arrays.asList(ordersEvent, anyGroupEvent), orders);
+        assertEquals(Collections.singletonList(anyGroupEvent), reports);
+    }
+
+    @Test
+    public void testPublish_shouldDispatchOnlyToMatchingTopic() {
+        List<EventModel<TestEvent>> matched = new ArrayList<>();
+        List<EventModel<TestEvent>> other = new ArrayList<>();
+
+        List<EventListener<EventModel<TestEvent>>> listeners = new ArrayList<>();
+        listeners.add(createTestListenerWithCallback(matched::add));
+        registry.initRegistryEventListener(listeners);
+        EventListener<EventModel<TestEvent>> otherListener = createTestListenerWithCallback(other::add, "other-topic");
+        registry.addEventListener(otherListener);
+
+        EventModel<TestEvent> eventModel = EventModel.build("test-topic", new TestEvent());
+        eventModel.setEnableAsync(false);
+        registry.publish(eventModel);
+
+        assertEquals(1, matched.size());
+        assertTrue(other.isEmpty());
+
+        EventModel<TestEvent> otherEvent = EventModel.build("other-topic", new TestEvent());
+        otherEvent.setEnableAsync(false);
+        registry.publish(otherEvent);
+        registry.removeEventListener(otherListener);
+        registry.publish(otherEvent);
+
+        assertEquals(1, other.size());
+    }
+
+    @Test
+    public void testPublishAsync_shouldDispatchThroughListenerBulkhead() throws InterruptedException {
+        Executor dedicated = Executors.newSingleThreadExecutor(r -> new Thread(r, "dedicated-listener"));
+        registry.setExecutorLookup(name -> "dedicatedExecutor".equals(name) ? dedicated : null);
+        AtomicReference<String> threadName = new AtomicReference<>();
+        CountDownLatch handled = new CountDownLatch(1);
+
+        List<EventListener<EventModel<TestEvent>>> listeners = new ArrayList<>();
+        listeners.add(new EventListener<EventModel<TestEvent>>() {
+            @Override
+            public void onMessage(EventModel<TestEvent> event) {
+                threadName.set(Thread.currentThread().getName());
+                handled.countDown();
+            }
+
+            @Override
+            public void onMessageBatch(List<EventModel<TestEvent>> events) {
+            }
+
+            @Override
+            public String topic() {
+                return "test-topic";
+            }
+
+            @Override
+            public Class<?> entityType() {
+                return TestEvent.class;
+            }
+
+            @Override
+            public int concurrency() {
+                return 1;
+            }
+
+            @Override
+            public String executor() {
+                return "dedicatedExecutor";
+            }
+        });
+        registry.initRegistryEventListener(listeners);
+
+        EventModel<TestEvent> eventModel = EventModel.build("test-topic", new TestEvent());
+        eventModel.setEnableAsync(true);
+        registry.publish(eventModel);
+
+        assertTrue(handled.await(5, TimeUnit.SECONDS));
+        assertEquals("dedicated-listener", threadName.get());
+    }
+
     @Test
     public void testClose_shouldNotThrowException() {
         assertDoesNotThrow(() -> registry.close());
@@ -154,6 +307,14 @@ public class GuavaEventListenerRegistryTest {
     }
 
     private EventListener<EventModel<TestEvent>> createTestListenerWithCallback(java.util.function.Consumer<EventModel<TestEvent>> callback) {
+        return createTestListenerWithCallback(callback, "test-topic");
+    }
+
+    private EventListener<EventModel<TestEvent>> createTestListenerWithCallback(java.util.function.Consumer<EventModel<TestEvent>> callback, String topic) {
+        return createTestListenerWithCallback(callback, topic, "test-group");
+    }
+
+    private EventListener<EventModel<TestEvent>> createTestListenerWithCallback(java.util.function.Consumer<EventModel<TestEvent>> callback, String topic, String group) {
         return new EventListener<EventModel<TestEvent>>() {
             @Override
             public void onMessage(EventModel<TestEvent> event) {
@@ -162,16 +323,17 @@ public class GuavaEventListenerRegistryTest {
 
             @Override
             public void onMessageBatch(List<EventModel<TestEvent>> events) {
+                events.forEach(callback);
             }
 
             @Override
             public String topic() {
-                return "test-topic";
+                return topic;
             }
 
             @Override
             public String group() {
-                return "test-group";
+                return group;
             }
 
             @Override
@@ -0,0 +1,252 @@
+package com.shinyi.eventbus.kafka;
+
+import com.shinyi.eventbus.config.kafka.KafkaConnectConfig;
+import com.shinyi.eventbus.support.ExecutorMode;
+import com.shinyi.eventbus.support.kafka.KafkaConsumerLoop;
+import com.shinyi.eventbus.support.kafka.KafkaDeadLetterHandler;
+import com.shinyi.eventbus.support.kafka.RecordBatchHandler;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetCommitCallback;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KafkaConsumerLoopTest {
+
+    private static final String TOPIC = "test-topic";
+    private static final TopicPartition P0 = new TopicPartition(TOPIC, 0);
+
+    private KafkaConnectConfig config;
+    private MockConsumer<String, String> consumer;
+    private final AtomicLong maxCommitted = new AtomicLong(-1);
+    private final AtomicLong syncCommitted = new AtomicLong(-1);
+    private Thread thread;
+
+    @BeforeEach
+    public void setUp() {
+        config = new KafkaConnectConfig();
+        config.setEnableAutoCommit(false);
+        config.setConsumerBatchMaxSize(1);
+        config.setRedeliveryBackoffMs(0);
+        consumer = new MockConsumer<String, String>(OffsetResetStrategy.EARLIEST) {
+            @Override
+            public synchronized void commitAsync(Map<TopicPartition, OffsetAndMetadata> offsets, OffsetCommitCallback callback) {
+                maxCommitted.accumulateAndGet(offsets.get(P0).offset(), Math::max);
+                super.commitAsync(offsets, callback);
+            }
+
+            @Override
+            public synchronized void commitSync(Map<TopicPartition, OffsetAndMetadata> offsets) {
+                maxCommitted.accumulateAndGet(offsets.get(P0).offset(), Math::max);
+                syncCommitted.set(offsets.get(P0).offset());
+                super.commitSync(offsets);
+            }
+        };
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        if (thread != null) {
+            consumer.wakeup();
+            thread.join(5000);
+        }
+    }
+
+    @Test
+    public void testFailedRecord_shouldNotCommitAndRedeliverFromFailedOffset() throws Exception {
+        List<Long> handled = new CopyOnWriteArrayList<>();
+        CountDownLatch failed = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        KafkaConsumerLoop<String, String> loop = start(batch -> {
+            long offset = batch.get(0).offset();
+            handled.add(offset);
+            if (offset == 2 && failed.getCount() > 0) {
+                failed.countDown();
+                throw new IllegalStateException("boom");
+            }
+            if (offset == 4) {
+                done.countDown();
+            }
+        });
+        consumer.schedulePollTask(() -> {
+            assign();
+            addRecords(0, 5);
+        });
+
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+        waitFor(() -> loop.getMetrics().getRedeliveries() == 1);
+        assertEquals(2L, consumer.position(P0));
+        assertTrue(maxCommitted.get() <= 2L);
+        consumer.schedulePollTask(() -> addRecords(2, 5));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        stop();
+        // 失败记录之后的 3、4 未被处理，回退后从 2 开始重新投递
+        assertEquals(Arrays.asList(0L, 1L, 2L, 2L, 3L, 4L), handled);
+        assertEquals(5L, syncCommitted.get());
+    }
+
+    @Test
+    public void testPoisonRecord_shouldDeadLetterAfterMaxRedeliveriesAndCommitPast() throws Exception {
+        config.setMaxRedeliveries(1);
+        List<Long> handled = new CopyOnWriteArrayList<>();
+        List<Long> deadLettered = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        KafkaConsumerLoop<String, String> loop = start(batch -> {
+            long offset = batch.get(0).offset();
+            handled.add(offset);
+            if (offset == 2) {
+                throw new IllegalStateException("poison");
+            }
+            if (offset == 4) {
+                done.countDown();
+            }
+        }, (records, cause) -> {
+            records.forEach(record -> deadLettered.add(record.offset()));
+            assertEquals("poison", cause.getMessage());
+        });
+        consumer.schedulePollTask(() -> {
+            assign();
+            addRecords(0, 5);
+        });
+
+        waitFor(() -> loop.getMetrics().getRedeliveries() == 1);
+        consumer.schedulePollTask(() -> addRecords(2, 5));
+        waitFor(() -> loop.getMetrics().getDeadLetters() == 1);
+        // 第二次失败超过上限：交给死信处理器，回退后跳过该记录
+        assertEquals(1, loop.getMetrics().getRedeliveries());
+        consumer.schedulePollTask(() -> addRecords(2, 5));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        stop();
+        assertEquals(Arrays.asList(0L, 1L, 2L, 2L, 3L, 4L), handled);
+        assertEquals(Collections.singletonList(2L), deadLettered);
+        assertEquals(5L, syncCommitted.get());
+    }
+
+    @Test
+    public void testCommitBatchSize_shouldBatchAsyncCommits() throws Exception {
+        config.setCommitBatchSize(5);
+        config.setCommitIntervalMs(60000);
+        CountDownLatch done = new CountDownLatch(10);
+        KafkaConsumerLoop<String, String> loop = start(batch -> done.countDown());
+        consumer.schedulePollTask(() -> {
+            assign();
+            addRecords(0, 10);
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        waitFor(() -> loop.getMetrics().getAsyncCommits() >= 1);
+        stop();
+        // 一次 poll 处理 10 条，只触发一次异步提交，关闭时不再重复提交
+        assertEquals(1, loop.getMetrics().getAsyncCommits());
+        assertEquals(10L, maxCommitted.get());
+        assertEquals(0, loop.getMetrics().getFailures());
+        assertTrue(loop.getMetrics().getMaxLatencyNanos() >= loop.getMetrics().getAvgLatencyNanos());
+    }
+
+    @Test
+    public void testRevoke_shouldCommitSyncAndDropPartition() throws Exception {
+        config.setCommitIntervalMs(60000);
+        CountDownLatch done = new CountDownLatch(3);
+        KafkaConsumerLoop<String, String> loop = start(batch -> done.countDown());
+        consumer.schedulePollTask(() -> {
+            assign();
+            addRecords(0, 3);
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        CountDownLatch revoked = new CountDownLatch(1);
+        consumer.schedulePollTask(() -> {
+            loop.onPartitionsRevoked(Collections.singleton(P0));
+            revoked.countDown();
+        });
+        assertTrue(revoked.await(5, TimeUnit.SECONDS));
+        assertEquals(3L, syncCommitted.get());
+        assertEquals(1, loop.getMetrics().getSyncCommits());
+        assertTrue(loop.getTracker().committable().isEmpty());
+    }
+
+    @Test
+    public void testBackpressure_shouldPauseAboveHighWaterAndKeepPolling() throws Exception {
+        config.setConsumerPauseThreshold(6);
+        config.setConsumerResumeThreshold(2);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(10);
+        KafkaConsumerLoop<String, String> loop = start(batch -> {
+            release.await();
+            done.countDown();
+        });
+        consumer.schedulePollTask(() -> {
+            assign();
+            addRecords(0, 10);
+        });
+
+        waitFor(() -> consumer.paused().contains(P0));
+        // 暂停期间 poll 线程仍在 poll
+        CountDownLatch polled = new CountDownLatch(1);
+        consumer.schedulePollTask(polled::countDown);
+        assertTrue(polled.await(5, TimeUnit.SECONDS));
+        assertTrue(consumer.paused().contains(P0));
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        waitFor(() -> consumer.paused().isEmpty());
+        assertEquals(1, loop.getMetrics().getPauses());
+    }
+
+    private KafkaConsumerLoop<String, String> start(RecordBatchHandler<String, String> handler) {
+        return start(handler, null);
+    }
+
+    private KafkaConsumerLoop<String, String> start(RecordBatchHandler<String, String> handler,
+                                                   KafkaDeadLetterHandler<String, String> deadLetterHandler) {
+        KafkaConsumerLoop<String, String> loop = new KafkaConsumerLoop<>("test-loop", consumer,
+                Collections.singletonList(TOPIC), config, ExecutorMode.PLATFORM, true, handler);
+        loop.setDeadLetterHandler(deadLetterHandler);
+        thread = new Thread(loop, "test-loop");
+        thread.start();
+        return loop;
+    }
+
+    private void stop() throws InterruptedException {
+        consumer.wakeup();
+        thread.join(5000);
+        thread = null;
+    }
+
+    private void assign() {
+        consumer.rebalance(Collections.singletonList(P0));
+        consumer.updateBeginningOffsets(Collections.singletonMap(P0, 0L));
+    }
+
+    private void addRecords(long from, long to) {
+        for (long offset = from; offset < to; offset++) {
+            consumer.addRecord(new ConsumerRecord<>(TOPIC, 0, offset, null, "v" + offset));
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,448 @@
+package com.shinyi.eventbus.kafka;
+
+import com.shinyi.eventbus.EventHeaders;
+import com.shinyi.eventbus.EventListener;
+import com.shinyi.eventbus.EventModel;
+import com.shinyi.eventbus.SerializeType;
+import com.shinyi.eventbus.TestEvent;
+import com.shinyi.eventbus.config.kafka.KafkaConnectConfig;
+import com.shinyi.eventbus.registry.KafkaMqEventListenerRegistry;
+import com.shinyi.eventbus.serialize.BaseSerializer;
+import com.shinyi.eventbus.serialize.CompressionType;
+import com.shinyi.eventbus.serialize.PayloadCompressor;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetCommitCallback;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KafkaMqEventListenerRegistryTest {
+
+    private static final String TOPIC = "test-topic";
+
+    private KafkaConnectConfig config;
+    private MockConsumer<byte[], byte[]> consumer;
+    private MockProducer<byte[], byte[]> producer;
+    private KafkaMqEventListenerRegistry<EventModel<TestEvent>> registry;
+    private final BaseSerializer serializer = new BaseSerializer();
+    private final Map<TopicPartition, OffsetAndMetadata> committedOffsets = new ConcurrentHashMap<>();
+    private final AtomicInteger consumerCount = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() {
+        config = new KafkaConnectConfig();
+        config.setBootstrapServers("localhost:9092");
+        config.setGroupId("test-group");
+        config.setIsDefault(true);
+        committedOffsets.clear();
+        consumerCount.set(0);
+        consumer = new MockConsumer<byte[], byte[]>(OffsetResetStrategy.EARLIEST) {
+            @Override
+            public synchronized void commitAsync(Map<TopicPartition, OffsetAndMetadata> offsets, OffsetCommitCallback callback) {
+                committedOffsets.putAll(offsets);
+                super.commitAsync(offsets, callback);
+            }
+
+            @Override
+            public synchronized void commitSync(Map<TopicPartition, OffsetAndMetadata> offsets) {
+                committedOffsets.putAll(offsets);
+                super.commitSync(offsets);
+            }
+        };
+        producer = new MockProducer<>(true, new ByteArraySerializer(), new ByteArraySerializer());
+        registry = new KafkaMqEventListenerRegistry<EventModel<TestEvent>>(null, "kafka", config) {
+            @Override
+            protected Producer<byte[], byte[]> createProducer(Properties producerProps) {
+                return producer;
+            }
+
+            @Override
+            protected Consumer<byte[], byte[]> createConsumer(Properties consumerProps) {
+                consumerCount.incrementAndGet();
+                return consumer;
+            }
+        };
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        registry.close();
+    }
+
+    @Test
+    public void testConsume_shouldDeliverWholePollAsOneBatch() throws Exception {
+        List<List<EventModel<TestEvent>>> batches = new CopyOnWriteArrayList<>();
+        CountDownLatch received = new CountDownLatch(1);
+        registry.initRegistryEventListener(Collections.singletonList(createListener(batch -> {
+            batches.add(batch);
+            received.countDown();
+        })));
+
+        TopicPartition partition = new TopicPartition(TOPIC, 0);
+        consumer.schedulePollTask(() -> {
+            consumer.rebalance(Collections.singletonList(partition));
+            consumer.updateBeginningOffsets(Collections.singletonMap(partition, 0L));
+            for (int i = 0; i < 5; i++) {
+                consumer.addRecord(record(partition, i));
+            }
+        });
+
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        assertEquals(1, batches.size());
+        assertEquals(5, batches.get(0).size());
+        assertEquals("0-0", batches.get(0).get(0).getEntity().getFieldTest());
+        assertEquals("0-4", batches.get(0).get(4).getEntity().getFieldTest());
+    }
+
+    @Test
+    public void testConsume_shouldSplitByMaxBatchSize() throws Exception {
+        config.setConsumerBatchMaxSize(2);
+        List<Integer> sizes = new CopyOnWriteArrayList<>();
+        CountDownLatch received = new CountDownLatch(3);
+        registry.initRegistryEventListener(Collections.singletonList(createListener(batch -> {
+            sizes.add(batch.size());
+            received.countDown();
+        })));
+
+        TopicPartition partition = new TopicPartition(TOPIC, 0);
+        consumer.schedulePollTask(() -> {
+            consumer.rebalance(Collections.singletonList(partition));
+            consumer.updateBeginningOffsets(Collections.singletonMap(partition, 0L));
+            for (int i = 0; i < 5; i++) {
+                consumer.addRecord(record(partition, i));
+            }
+        });
+
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(2, 2, 1), sizes);
+    }
+
+    @Test
+    public void testConsume_withLanes_shouldKeepPartitionOrderAndCommitWatermark() throws Exception {
+        config.setConsumerConcurrency(4);
+        int partitions = 4;
+        int perPartition = 50;
+        Map<Integer, List<Long>> received = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(partitions * perPartition);
+        registry.initRegistryEventListener(Collections.singletonList(createListener(batch -> {
+            for (EventModel<TestEvent> event : batch) {
+                int partition = Integer.parseInt(event.getEntity().getFieldTest().split("-")[0]);
+                received.computeIfAbsent(partition, k -> new CopyOnWriteArrayList<>())
+                        .add(Long.parseLong(event.getEntity().getFieldTest().split("-")[1]));
+                done.countDown();
+            }
+        })));
+
+        List<TopicPartition> topicPartitions = new ArrayList<>();
+        Map<TopicPartition, Long> beginningOffsets = new HashMap<>();
+        for (int p = 0; p < partitions; p++) {
+            TopicPartition partition = new TopicPartition(TOPIC, p);
+            topicPartitions.add(partition);
+            beginningOffsets.put(partition, 0L);
+        }
+        consumer.schedulePollTask(() -> {
+            consumer.rebalance(topicPartitions);
+            consumer.updateBeginningOffsets(beginningOffsets);
+            for (int i = 0; i < perPartition; i++) {
+                for (TopicPartition partition : topicPartitions) {
+                    consumer.addRecord(record(partition, i));
+                }
+            }
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (int p = 0; p < partitions; p++) {
+            List<Long> offsets = received.get(p);
+            assertEquals(perPartition, offsets.size());
+            for (int i = 0; i < perPartition; i++) {
+                assertEquals(i, offsets.get(i));
+            }
+        }
+        registry.close();
+        for (TopicPartition partition : topicPartitions) {
+            assertEquals(perPartition, committedOffsets.get(partition).offset());
+        }
+    }
+
+    @Test
+    public void testConsume_sameGroup_shouldShareConsumerAndRouteByTopic() throws Exception {
+        String otherTopic = "other-topic";
+        List<String> orders = new CopyOnWriteArrayList<>();
+        List<String> others = new CopyOnWriteArrayList<>();
+        CountDownLatch received = new CountDownLatch(2);
+        registry.initRegistryEventListener(Arrays.asList(
+                createListener(TOPIC, batch -> {
+                    batch.forEach(e -> orders.add(e.getEntity().getFieldTest()));
+                    received.countDown();
+                }),
+                createListener(otherTopic, batch -> {
+                    batch.forEach(e -> others.add(e.getEntity().getFieldTest()));
+                    received.countDown();
+                })));
+        assertEquals(1, consumerCount.get());
+
+        TopicPartition partition = new TopicPartition(TOPIC, 0);
+        TopicPartition otherPartition = new TopicPartition(otherTopic, 0);
+        consumer.schedulePollTask(() -> {
+            consumer.rebalance(Arrays.asList(partition, otherPartition));
+            Map<TopicPartition, Long> beginningOffsets = new HashMap<>();
+            beginningOffsets.put(partition, 0L);
+            beginningOffsets.put(otherPartition, 0L);
+            consumer.updateBeginningOffsets(beginningOffsets);
+            consumer.addRecord(record(partition, 0));
+            consumer.addRecord(record(otherPartition, 0));
+            consumer.addRecord(record(otherPartition, 1));
+        });
+
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        assertEquals(new HashSet<>(Arrays.asList(TOPIC, otherTopic)), consumer.subscription());
+        assertEquals(Collections.singletonList("0-0"), orders);
+        assertEquals(Arrays.asList("0-0", "0-1"), others);
+    }
+
+    @Test
+    public void testPublish_shouldKeyByPartitionKeyAndWriteHeaders() {
+        registry.init();
+        EventModel<TestEvent> event = EventModel.build(TOPIC, new TestEvent(), "event-1", false);
+        event.setPartitionKey("order-42");
+        event.setGroup("orders");
+        event.putHeader("traceparent", "00-abc-def-01");
+        registry.publish(event);
+        registry.publish(EventModel.build(TOPIC, new TestEvent(), "event-2", false));
+
+        ProducerRecord<byte[], byte[]> keyed = producer.history().get(0);
+        assertEquals("order-42", new String(keyed.key(), StandardCharsets.UTF_8));
+        assertEquals("event-1", header(keyed.headers(), EventHeaders.EVENT_ID));
+        assertEquals("orders", header(keyed.headers(), EventHeaders.GROUP));
+        assertEquals("00-abc-def-01", header(keyed.headers(), "traceparent"));
+        assertEquals(BaseSerializer.JSON_CONTENT_TYPE, header(keyed.headers(), EventHeaders.CONTENT_TYPE));
+        // 没有分区键时不设 key，交给生产者分区
+        assertNull(producer.history().get(1).key());
+        assertNull(producer.history().get(1).headers().lastHeader(EventHeaders.PARTITION_KEY));
+        // 发布线程没有 traceId 时不写入
+        assertNull(producer.history().get(1).headers().lastHeader(EventHeaders.TRACE_ID));
+    }
+
+    @Test
+    public void testConsume_shouldRestoreHeadersAndPartitionKey() throws Exception {
+        List<EventModel<TestEvent>> received = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        registry.initRegistryEventListener(Collections.singletonList(createListener(batch -> {
+            received.addAll(batch);
+            latch.countDown();
+        })));
+
+        TopicPartition partition = new TopicPartition(TOPIC, 0);
+        consumer.schedulePollTask(() -> {
+            consumer.rebalance(Collections.singletonList(partition));
+            consumer.updateBeginningOffsets(Collections.singletonMap(partition, 0L));
+            ConsumerRecord<byte[], byte[]> record = new ConsumerRecord<>(TOPIC, 0, 0, 0L, TimestampType.CREATE_TIME, 0, 0,
+                    "order-42".getBytes(StandardCharsets.UTF_8), record(partition, 0).value(), new RecordHeaders(), Optional.empty());
+            record.headers().add(EventHeaders.EVENT_ID, "event-1".getBytes(StandardCharsets.UTF_8));
+            record.headers().add("traceparent", "00-abc-def-01".getBytes(StandardCharsets.UTF_8));
+            record.headers().add(EventHeaders.TRACE_ID, "trace-1".getBytes(StandardCharsets.UTF_8));
+            consumer.addRecord(record);
+        });
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        EventModel<TestEvent> event = received.get(0);
+        assertEquals("event-1", event.getEventId());
+        assertEquals("order-42", event.getPartitionKey());
+        assertEquals("00-abc-def-01", event.getHeader("traceparent"));
+        assertNull(event.getHeader(EventHeaders.EVENT_ID));
+        // 监听器据此恢复 MDC traceId
+        assertEquals("trace-1", event.getHeader(EventHeaders.TRACE_ID));
+    }
+
+    @Test
+    public void testConsume_listenerFailure_shouldRedeliverOnlyToFailedListener() throws Exception {
+        config.setEnableAutoCommit(false);
+        config.setRedeliveryBackoffMs(0);
+        List<String> first = new CopyOnWriteArrayList<>();
+        List<String> second = new CopyOnWriteArrayList<>();
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+        registry.initRegistryEventListener(Arrays.asList(
+                createListener(batch -> batch.forEach(e -> first.add(e.getEntity().getFieldTest()))),
+                createListener(batch -> {
+                    if (attempts.incrementAndGet() == 1) {
+                        throw new IllegalStateException("boom");
+                    }
+                    batch.forEach(e -> second.add(e.getEntity().getFieldTest()));
+                    done.countDown();
+                })));
+
+        TopicPartition partition = new TopicPartition(TOPIC, 0);
+        consumer.schedulePollTask(() -> {
+            consumer.rebalance(Collections.singletonList(partition));
+            consumer.updateBeginningOffsets(Collections.singletonMap(partition, 0L));
+            consumer.addRecord(record(partition, 0));
+            consumer.addRecord(record(partition, 1));
+        });
+        long deadline = System.currentTimeMillis() + 5000;
+        while (registry.getCommitMetrics().get("test-group").getRedeliveries() == 0) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+        // 回退到失败 offset 后重新拉取
+        consumer.schedulePollTask(() -> {
+            consumer.addRecord(record(partition, 0));
+            consumer.addRecord(record(partition, 1));
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        registry.close();
+        assertEquals(Arrays.asList("0-0", "0-1"), first);
+        assertEquals(Arrays.asList("0-0", "0-1"), second);
+        assertEquals(2, committedOffsets.get(partition).offset());
+    }
+
+    @Test
+    public void testConsume_withFilter_shouldSkipBeforeDeserializeAndCommitPastFiltered() throws Exception {
+        config.setConsumerConcurrency(2);
+        List<String> received = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(2);
+        registry.initRegistryEventListener(Collections.singletonList(createListener(TOPIC, "type == 'order'", batch -> {
+            for (EventModel<TestEvent> event : batch) {
+                received.add(event.getEntity().getFieldTest());
+                latch.countDown();
+            }
+        })));
+
+        TopicPartition partition = new TopicPartition(TOPIC, 0);
+        consumer.schedulePollTask(() -> {
+            consumer.rebalance(Collections.singletonList(partition));
+            consumer.updateBeginningOffsets(Collections.singletonMap(partition, 0L));
+            String[] types = {"refund", "order", null, "order"};
+            for (int i = 0; i < types.length; i++) {
+                ConsumerRecord<byte[], byte[]> record = record(partition, i);
+                if (types[i] == null) {
+                    // 不匹配的消息体不会被解析
+                    record = new ConsumerRecord<>(TOPIC, 0, i, null, "not-json".getBytes(StandardCharsets.UTF_8));
+                } else {
+                    record.headers().add("type", types[i].getBytes(StandardCharsets.UTF_8));
+                }
+                consumer.addRecord(record);
+            }
+        });
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("0-1", "0-3"), received);
+        registry.close();
+        assertEquals(4, committedOffsets.get(partition).offset());
+    }
+
+    @Test
+    public void testCompression_shouldFlagHeaderAndDecompressOnConsume() throws Exception {
+        registry.setPayloadCompressor(new PayloadCompressor(CompressionType.LZ4, 1024));
+        registry.init();
+        StringBuilder snapshot = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            snapshot.append("order-line-").append(i % 10).append(';');
+        }
+        TestEvent entity = new TestEvent();
+        entity.setFieldTest(snapshot.toString());
+        registry.publish(EventModel.build(TOPIC, entity, "event-1", false));
+        registry.publish(EventModel.build(TOPIC, new TestEvent(), "event-2", false));
+
+        ProducerRecord<byte[], byte[]> compressed = producer.history().get(0);
+        assertEquals("lz4", header(compressed.headers(), EventHeaders.CONTENT_ENCODING));
+        assertTrue(compressed.value().length < snapshot.length());
+        // 未达到阈值的消息不压缩
+        assertNull(producer.history().get(1).headers().lastHeader(EventHeaders.CONTENT_ENCODING));
+
+        List<EventModel<TestEvent>> received = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        registry.initRegistryEventListener(Collections.singletonList(createListener(batch -> {
+            received.addAll(batch);
+            latch.countDown();
+        })));
+        TopicPartition partition = new TopicPartition(TOPIC, 0);
+        consumer.schedulePollTask(() -> {
+            consumer.rebalance(Collections.singletonList(partition));
+            consumer.updateBeginningOffsets(Collections.singletonMap(partition, 0L));
+            ConsumerRecord<byte[], byte[]> record = new ConsumerRecord<>(TOPIC, 0, 0, null, compressed.value());
+            compressed.headers().forEach(header -> record.headers().add(header));
+            consumer.addRecord(record);
+        });
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(snapshot.toString(), received.get(0).getEntity().getFieldTest());
+        assertNull(received.get(0).getHeader(EventHeaders.CONTENT_ENCODING));
+    }
+
+    private static String header(Headers headers, String name) {
+        return new String(headers.lastHeader(name).value(), StandardCharsets.UTF_8);
+    }
+
+    private ConsumerRecord<byte[], byte[]> record(TopicPartition partition, long offset) {
+        TestEvent event = new TestEvent();
+        event.setFieldTest(partition.partition() + "-" + offset);
+        byte[] body = serializer.serialize(EventModel.build(partition.topic(), event), SerializeType.DEFAULT.getType());
+        return new ConsumerRecord<>(partition.topic(), partition.partition(), offset, null, body);
+    }
+
+    private EventListener<EventModel<TestEvent>> createListener(java.util.function.Consumer<List<EventModel<TestEvent>>> handler) {
+        return createListener(TOPIC, handler);
+    }
+
+    private EventListener<EventModel<TestEvent>> createListener(String topic, java.util.function.Consumer<List<EventModel<TestEvent>>> handler) {
+        return createListener(topic, "", handler);
+    }
+
+    private EventListener<EventModel<TestEvent>> createListener(String topic, String filter, java.util.function.Consumer<List<EventModel<TestEvent>>> handler) {
+        return new EventListener<EventModel<TestEvent>>() {
+            @Override
+            public String topic() {
+                return topic;
+            }
+
+            @Override
+            public String filter() {
+                return filter;
+            }
+
+            @Override
+            public String group() {
+                return "test-group";
+            }
+
+            @Override
+            public Class<?> entityType() {
+                return TestEvent.class;
+            }
+
+            @Override
+            public void onMessageBatch(List<EventModel<TestEvent>> message) {
+                handler.accept(new ArrayList<>(message));
+            }
+
+            @Override
+            public void onMessage(EventModel<TestEvent> message) {
+                handler.accept(Collections.singletonList(message));
+            }
+        };
+    }
+}
@@ -0,0 +1,95 @@
+package com.shinyi.eventbus.kafka;
+
+import com.shinyi.eventbus.support.kafka.KafkaRecordBatcher;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KafkaRecordBatcherTest {
+
+    private static final TopicPartition P0 = new TopicPartition("test-topic", 0);
+    private static final TopicPartition P1 = new TopicPartition("test-topic", 1);
+
+    @Test
+    public void testDrain_withoutWait_shouldDeliverWholePollPerPartition() {
+        KafkaRecordBatcher<String, byte[]> batcher = new KafkaRecordBatcher<>(500, 0, 0);
+        batcher.add(records(P0, 0, 3, P1, 0, 2), 0);
+
+        List<List<ConsumerRecord<String, byte[]>>> batches = batcher.drain(0, false);
+
+        assertEquals(2, batches.size());
+        assertEquals(3, batches.get(0).size());
+        assertEquals(2, batches.get(1).size());
+        assertTrue(batcher.isEmpty());
+    }
+
+    @Test
+    public void testDrain_shouldSplitByMaxSizeAndBytes() {
+        KafkaRecordBatcher<String, byte[]> bySize = new KafkaRecordBatcher<>(2, 0, 0);
+        bySize.add(records(P0, 0, 5), 0);
+        assertEquals(3, bySize.drain(0, false).size());
+
+        // 每条 10 字节，单批上限 25 字节
+        KafkaRecordBatcher<String, byte[]> byBytes = new KafkaRecordBatcher<>(100, 25, 0);
+        byBytes.add(records(P0, 0, 5), 0);
+        List<List<ConsumerRecord<String, byte[]>>> batches = byBytes.drain(0, false);
+        assertEquals(3, batches.size());
+        assertEquals(2, batches.get(0).size());
+        assertEquals(1, batches.get(2).size());
+    }
+
+    @Test
+    public void testDrain_withWait_shouldHoldUntilDeadlineOrFull() {
+        KafkaRecordBatcher<String, byte[]> batcher = new KafkaRecordBatcher<>(4, 0, 100);
+        batcher.add(records(P0, 0, 2), 0);
+
+        assertTrue(batcher.drain(50, false).isEmpty());
+        assertEquals(50, batcher.pollTimeoutMs(1000, 50));
+
+        batcher.add(records(P0, 2, 2), 60);
+        List<List<ConsumerRecord<String, byte[]>>> full = batcher.drain(60, false);
+        assertEquals(1, full.size());
+        assertEquals(4, full.get(0).size());
+        assertEquals(0L, full.get(0).get(0).offset());
+        assertEquals(3L, full.get(0).get(3).offset());
+
+        batcher.add(records(P0, 4, 1), 200);
+        assertTrue(batcher.drain(250, false).isEmpty());
+        assertEquals(1, batcher.drain(300, false).size());
+    }
+
+    @Test
+    public void testDrain_force_shouldFlushEverything() {
+        KafkaRecordBatcher<String, byte[]> batcher = new KafkaRecordBatcher<>(100, 0, 10_000);
+        batcher.add(records(P0, 0, 1, P1, 0, 1), 0);
+
+        assertTrue(batcher.drain(1, false).isEmpty());
+        assertEquals(2, batcher.drain(1, true).size());
+        assertTrue(batcher.isEmpty());
+    }
+
+    /**
+     * 参数按 (分区, 起始 offset, 条数) 三元组重复
+     */
+    private static ConsumerRecords<String, byte[]> records(Object... specs) {
+        Map<TopicPartition, List<ConsumerRecord<String, byte[]>>> map = new HashMap<>();
+        for (int i = 0; i < specs.length; i += 3) {
+            TopicPartition partition = (TopicPartition) specs[i];
+            int from = (Integer) specs[i + 1];
+            int count = (Integer) specs[i + 2];
+            List<ConsumerRecord<String, byte[]>> list = map.computeIfAbsent(partition, k -> new ArrayList<>());
+            for (int offset = from; offset < from + count; offset++) {
+                list.add(new ConsumerRecord<>(partition.topic(), partition.partition(), offset, null, new byte[10]));
+            }
+        }
+        return new ConsumerRecords<>(map);
+    }
+}
@@ -0,0 +1,49 @@
+package com.shinyi.eventbus.kafka;
+
+import com.shinyi.eventbus.support.kafka.KafkaTopicRouter;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KafkaTopicRouterTest {
+
+    @Test
+    public void testLiteralTopics_shouldSubscribeByNameAndRoute() {
+        KafkaTopicRouter<String> router = new KafkaTopicRouter<String>()
+                .add("order.created", "a")
+                .add("order.created", "b")
+                .add("user-event", "c");
+
+        assertNull(router.subscriptionPattern());
+        assertEquals(Arrays.asList("order.created", "user-event"), Arrays.asList(router.topics().toArray()));
+        assertEquals(Arrays.asList("a", "b"), router.route("order.created"));
+        assertEquals(Collections.singletonList("c"), router.route("user-event"));
+        assertTrue(router.route("unknown").isEmpty());
+    }
+
+    @Test
+    public void testPatternTopics_shouldMergeIntoOnePatternAndRoute() {
+        KafkaTopicRouter<String> router = new KafkaTopicRouter<String>()
+                .add("order.created", "literal")
+                .add("order\\..*", "orders")
+                .add("audit-.*", "audit");
+
+        assertTrue(KafkaTopicRouter.isPattern("order\\..*"));
+        assertFalse(KafkaTopicRouter.isPattern("order.created"));
+        Pattern pattern = router.subscriptionPattern();
+        assertNotNull(pattern);
+        assertTrue(pattern.matcher("order.created").matches());
+        assertTrue(pattern.matcher("order.paid").matches());
+        assertTrue(pattern.matcher("audit-login").matches());
+        // 普通 topic 按字面量合并，"." 不作为通配符
+        assertFalse(pattern.matcher("orderXcreated").matches());
+
+        assertEquals(Arrays.asList("literal", "orders"), router.route("order.created"));
+        assertEquals(Collections.singletonList("orders"), router.route("order.paid"));
+        assertEquals(Collections.singletonList("audit"), router.route("audit-login"));
+    }
+}
@@ -0,0 +1,293 @@
+package com.shinyi.eventbus.kafka;
+
+import com.shinyi.eventbus.EventCallback;
+import com.shinyi.eventbus.EventListener;
+import com.shinyi.eventbus.EventModel;
+import com.shinyi.eventbus.EventResult;
+import com.shinyi.eventbus.SerializeType;
+import com.shinyi.eventbus.TestEvent;
+import com.shinyi.eventbus.config.kafka.KafkaConnectConfig;
+import com.shinyi.eventbus.exception.EventBusException;
+import com.shinyi.eventbus.registry.KafkaMqEventListenerRegistry;
+import com.shinyi.eventbus.serialize.BaseSerializer;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KafkaTransactionTest {
+
+    private static final String TOPIC = "test-topic";
+    private static final String OUT_TOPIC = "out-topic";
+
+    private KafkaConnectConfig config;
+    private MockProducer<byte[], byte[]> producer;
+    private MockConsumer<byte[], byte[]> consumer;
+    private KafkaMqEventListenerRegistry<EventModel<TestEvent>> registry;
+    private final BaseSerializer serializer = new BaseSerializer();
+
+    @BeforeEach
+    public void setUp() {
+        config = new KafkaConnectConfig();
+        config.setBootstrapServers("localhost:9092");
+        config.setGroupId("test-group");
+        config.setIsDefault(true);
+        config.setTransactionalId("test-tx");
+        producer = new MockProducer<>(true, new ByteArraySerializer(), new ByteArraySerializer());
+        consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        registry = new KafkaMqEventListenerRegistry<EventModel<TestEvent>>(null, "kafka", config) {
+            @Override
+            protected Producer<byte[], byte[]> createProducer(Properties producerProps) {
+                return producer;
+            }
+
+            @Override
+            protected Consumer<byte[], byte[]> createConsumer(Properties consumerProps) {
+                return consumer;
+            }
+        };
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        registry.close();
+    }
+
+    @Test
+    public void testProducerProperties_idempotentAndTransactional() {
+        KafkaConnectConfig plain = new KafkaConnectConfig();
+        plain.setBootstrapServers("localhost:9092");
+        assertNull(plain.toProducerProperties().get("enable.idempotence"));
+
+        plain.setEnableIdempotence(true);
+        plain.setMaxInFlightRequestsPerConnection(10);
+        Properties idempotent = plain.toProducerProperties();
+        assertEquals(true, idempotent.get("enable.idempotence"));
+        assertEquals("all", idempotent.get("acks"));
+        assertEquals(5, idempotent.get("max.in.flight.requests.per.connection"));
+        assertNull(idempotent.get("transactional.id"));
+
+        Properties transactional = config.toProducerProperties();
+        assertEquals(true, transactional.get("enable.idempotence"));
+        assertEquals("test-tx", transactional.get("transactional.id"));
+    }
+
+    @Test
+    public void testPublishBatch_shouldCommitInOneTransaction() {
+        registry.init();
+        assertTrue(producer.transactionInitialized());
+
+        List<EventResult> results = registry.publishBatch(Arrays.asList(event(), event(), event()));
+
+        assertEquals(1, producer.commitCount());
+        assertEquals(3, producer.history().size());
+        results.forEach(r -> assertTrue(r.isSuccess()));
+    }
+
+    @Test
+    public void testExecuteInTransaction_failure_shouldAbortAndNotifyCallbacks() {
+        registry.init();
+        AtomicInteger failures = new AtomicInteger();
+        EventModel<TestEvent> event = event();
+        event.setEventCallback(new EventCallback() {
+            @Override
+            public void onSuccess(EventResult eventResult) {
+                fail("should not succeed");
+            }
+
+            @Override
+            public void onFailure(EventResult eventResult, Throwable throwable) {
+                failures.incrementAndGet();
+            }
+        });
+
+        assertThrows(EventBusException.class, () -> registry.executeInTransaction(() -> {
+            registry.publish(event);
+            registry.publish(event());
+            throw new IllegalStateException("boom");
+        }));
+
+        assertTrue(producer.transactionAborted());
+        assertEquals(0, producer.commitCount());
+        assertTrue(producer.history().isEmpty());
+        assertEquals(1, failures.get());
+    }
+
+    @Test
+    public void testExecuteInTransaction_fenced_shouldRebuildProducer() {
+        registry.init();
+        MockProducer<byte[], byte[]> fenced = producer;
+        fenced.fenceProducer();
+        producer = new MockProducer<>(true, new ByteArraySerializer(), new ByteArraySerializer());
+
+        assertThrows(EventBusException.class, () -> registry.executeInTransaction(() -> registry.publish(event())));
+
+        assertTrue(fenced.closed());
+        assertTrue(producer.transactionInitialized());
+        registry.executeInTransaction(() -> registry.publish(event()));
+        assertEquals(1, producer.commitCount());
+        assertEquals(1, producer.history().size());
+    }
+
+    @Test
+    public void testConsumeTransformProduce_shouldCommitOffsetsInTransaction() throws Exception {
+        config.setConsumerTransactional(true);
+        registry.init();
+        CountDownLatch done = new CountDownLatch(1);
+        registry.initRegistryEventListener(Collections.singletonList(new EventListener<EventModel<TestEvent>>() {
+            @Override
+            public String topic() {
+                return TOPIC;
+            }
+
+            @Override
+            public String group() {
+                return "test-group";
+            }
+
+            @Override
+            public Class<?> entityType() {
+                return TestEvent.class;
+            }
+
+            @Override
+            public void onMessageBatch(List<EventModel<TestEvent>> message) {
+                for (EventModel<TestEvent> input : message) {
+                    registry.publish(EventModel.build(OUT_TOPIC, input.getEntity()));
+                }
+                done.countDown();
+            }
+
+            @Override
+            public void onMessage(EventModel<TestEvent> message) {
+            }
+        }));
+
+        TopicPartition partition = new TopicPartition(TOPIC, 0);
+        consumer.schedulePollTask(() -> {
+            consumer.rebalance(Collections.singletonList(partition));
+            consumer.updateBeginningOffsets(Collections.singletonMap(partition, 0L));
+            for (int i = 0; i < 3; i++) {
+                TestEvent entity = new TestEvent();
+                entity.setFieldTest("e" + i);
+                byte[] body = serializer.serialize(EventModel.build(TOPIC, entity), SerializeType.DEFAULT.getType());
+                consumer.addRecord(new ConsumerRecord<>(TOPIC, 0, i, null, body));
+            }
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        waitFor(() -> producer.commitCount() == 1);
+        assertEquals(3, producer.history().size());
+        assertEquals(OUT_TOPIC, producer.history().get(0).topic());
+        List<Map<String, Map<TopicPartition, OffsetAndMetadata>>> offsets = producer.consumerGroupOffsetsHistory();
+        assertEquals(1, offsets.size());
+        assertEquals(3L, offsets.get(0).values().iterator().next().get(partition).offset());
+    }
+
+    @Test
+    public void testConsumeTransform_laneFailure_shouldNotCommitPastFailedBatch() throws Exception {
+        config.setConsumerTransactional(true);
+        config.setConsumerConcurrency(2);
+        config.setConsumerBatchMaxSize(1);
+        config.setRedeliveryBackoffMs(0);
+        registry.init();
+        List<String> handled = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger failures = new AtomicInteger();
+        registry.initRegistryEventListener(Collections.singletonList(new EventListener<EventModel<TestEvent>>() {
+            @Override
+            public String topic() {
+                return TOPIC;
+            }
+
+            @Override
+            public String group() {
+                return "test-group";
+            }
+
+            @Override
+            public Class<?> entityType() {
+                return TestEvent.class;
+            }
+
+            @Override
+            public void onMessageBatch(List<EventModel<TestEvent>> message) throws Exception {
+                String field = message.get(0).getEntity().getFieldTest();
+                if ("e1".equals(field) && failures.getAndIncrement() == 0) {
+                    // 失败前让后续批次在同一通道排队
+                    Thread.sleep(100);
+                    throw new IllegalStateException("boom");
+                }
+                handled.add(field);
+                registry.publish(EventModel.build(OUT_TOPIC, message.get(0).getEntity()));
+            }
+
+            @Override
+            public void onMessage(EventModel<TestEvent> message) {
+            }
+        }));
+
+        TopicPartition partition = new TopicPartition(TOPIC, 0);
+        consumer.schedulePollTask(() -> {
+            consumer.rebalance(Collections.singletonList(partition));
+            consumer.updateBeginningOffsets(Collections.singletonMap(partition, 0L));
+            addRecords(0, 4);
+        });
+
+        waitFor(() -> registry.getCommitMetrics().get("test-group").getRedeliveries() >= 1);
+        // 失败批次之后排队的批次被丢弃，事务提交的 offset 停在失败批次
+        assertEquals(Collections.singletonList("e0"), new ArrayList<>(handled));
+        for (Map<String, Map<TopicPartition, OffsetAndMetadata>> offsets : producer.consumerGroupOffsetsHistory()) {
+            assertTrue(offsets.values().iterator().next().get(partition).offset() <= 1L);
+        }
+
+        consumer.schedulePollTask(() -> addRecords(1, 4));
+        waitFor(() -> handled.size() == 4);
+        assertEquals(Arrays.asList("e0", "e1", "e2", "e3"), new ArrayList<>(handled));
+        waitFor(() -> producer.consumerGroupOffsetsHistory().size() == 4);
+        long previous = 0;
+        for (Map<String, Map<TopicPartition, OffsetAndMetadata>> offsets : producer.consumerGroupOffsetsHistory()) {
+            long offset = offsets.values().iterator().next().get(partition).offset();
+            assertTrue(offset > previous);
+            previous = offset;
+        }
+        assertEquals(4L, previous);
+        // offset 只随事务提交，消费者不自行提交
+        assertTrue(consumer.committed(Collections.singleton(partition)).isEmpty());
+    }
+
+    private void addRecords(int from, int to) {
+        for (int i = from; i < to; i++) {
+            TestEvent entity = new TestEvent();
+            entity.setFieldTest("e" + i);
+            byte[] body = serializer.serialize(EventModel.build(TOPIC, entity), SerializeType.DEFAULT.getType());
+            consumer.addRecord(new ConsumerRecord<>(TOPIC, 0, i, null, body));
+        }
+    }
+
+    private EventModel<TestEvent> event() {
+        return EventModel.build(TOPIC, new TestEvent());
+    }
+
+    private static void waitFor(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.shinyi.eventbus.kafka;
+
+import com.shinyi.eventbus.support.kafka.PartitionOffsetTracker;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PartitionOffsetTrackerTest {
+
+    private static final TopicPartition P0 = new TopicPartition("test-topic", 0);
+
+    @Test
+    public void testCommittable_shouldStopAtFirstIncompleteOffset() {
+        PartitionOffsetTracker tracker = new PartitionOffsetTracker();
+        for (int offset = 10; offset < 15; offset++) {
+            tracker.dispatched(record(offset));
+        }
+        assertTrue(tracker.committable().isEmpty());
+
+        // 乱序完成：11、12 完成但 10 仍在处理
+        tracker.completed(record(11));
+        tracker.completed(record(12));
+        assertTrue(tracker.committable().isEmpty());
+
+        tracker.completed(record(10));
+        assertEquals(13L, tracker.committable().get(P0).offset());
+
+        tracker.completed(record(13));
+        tracker.completed(record(14));
+        assertEquals(15L, tracker.committable().get(P0).offset());
+        assertEquals(0, tracker.inFlight(P0));
+    }
+
+    @Test
+    public void testMarkCommitted_shouldOnlyReturnAdvancedPartitions() {
+        PartitionOffsetTracker tracker = new PartitionOffsetTracker();
+        tracker.dispatched(record(0));
+        tracker.completed(record(0));
+
+        Map<TopicPartition, OffsetAndMetadata> offsets = tracker.committable();
+        tracker.markCommitted(offsets);
+        assertTrue(tracker.committable().isEmpty());
+
+        tracker.remove(Collections.singleton(P0));
+        assertEquals(0, tracker.inFlight());
+    }
+
+    @Test
+    public void testFailed_shouldHoldWatermarkUntilRewind() {
+        PartitionOffsetTracker tracker = new PartitionOffsetTracker();
+        for (int offset = 0; offset < 4; offset++) {
+            tracker.dispatched(record(offset));
+        }
+        tracker.completed(record(0));
+        tracker.failed(record(1));
+        tracker.completed(record(2));
+        tracker.completed(record(3));
+
+        assertEquals(0, tracker.inFlight(P0));
+        assertEquals(Collections.singleton(P0), tracker.failedPartitions());
+        assertEquals(1L, tracker.failedOffset(P0));
+        assertEquals(1L, tracker.committable().get(P0).offset());
+
+        tracker.markCommitted(tracker.committable());
+        tracker.rewind(P0, 1);
+        assertTrue(tracker.failedPartitions().isEmpty());
+        assertTrue(tracker.committable().isEmpty());
+
+        tracker.dispatched(record(1));
+        tracker.completed(record(1));
+        assertEquals(2L, tracker.committable().get(P0).offset());
+    }
+
+    private static ConsumerRecord<String, byte[]> record(long offset) {
+        return new ConsumerRecord<>(P0.topic(), P0.partition(), offset, null, new byte[0]);
+    }
+}
@@ -0,0 +1,124 @@
+package com.shinyi.eventbus.listener;
+
+import com.shinyi.eventbus.EventModel;
+import com.shinyi.eventbus.SerializeType;
+import com.shinyi.eventbus.TestEvent;
+import com.shinyi.eventbus.TestListener;
+import com.shinyi.eventbus.serialize.BaseSerializer;
+import com.shinyi.eventbus.serialize.EntityTypeDescriptor;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExecutableEventListenerTest {
+
+    @Test
+    public void testEntityTypeDescriptor_shouldBeResolvedOnce() {
+        TestListener listener = new TestListener();
+
+        EntityTypeDescriptor descriptor = listener.entityTypeDescriptor();
+
+        assertEquals(TestEvent.class, listener.entityType());
+        assertEquals(TestEvent.class, descriptor.getRawType());
+        assertSame(descriptor, listener.entityTypeDescriptor());
+    }
+
+    @Test
+    public void testEntityTypeDescriptor_shouldKeepGenericEntityType() {
+        ListListener listener = new ListListener();
+
+        EntityTypeDescriptor descriptor = listener.entityTypeDescriptor();
+
+        assertEquals(List.class, listener.entityType());
+        assertEquals(TestEvent.class, descriptor.getJavaType().getContentType().getRawClass());
+    }
+
+    @Test
+    public void testDeserialize_shouldUseGenericEntityType() {
+        BaseSerializer serializer = new BaseSerializer();
+        TestEvent event = new TestEvent();
+        event.setFieldTest("generic");
+        byte[] body = serializer.serialize(EventModel.build("topic", Collections.singletonList(event)), SerializeType.DEFAULT.getType());
+
+        EventModel<?> eventModel = serializer.deserialize(body, SerializeType.DEFAULT.getType(), new ListListener().entityTypeDescriptor());
+
+        List<?> entity = (List<?>) eventModel.getEntity();
+        assertInstanceOf(TestEvent.class, entity.get(0));
+        assertEquals("generic", ((TestEvent) entity.get(0)).getFieldTest());
+    }
+
+    @Test
+    public void testConcurrencyLimit_shouldBoundConcurrentHandling() throws Exception {
+        SlowListener listener = new SlowListener();
+        listener.setConcurrencyLimit(2);
+        int tasks = 8;
+        CountDownLatch done = new CountDownLatch(tasks);
+        ExecutorService executor = Executors.newFixedThreadPool(tasks);
+        try {
+            for (int i = 0; i < tasks; i++) {
+                executor.execute(() -> {
+                    try {
+                        EventModel<TestEvent> eventModel = EventModel.build("topic", new TestEvent());
+                        eventModel.setDriveType("test#guava");
+                        listener.onMessage(eventModel);
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(2, listener.getConcurrencyLimit());
+        assertEquals(tasks, listener.handled.get());
+        assertTrue(listener.maxActive.get() <= 2);
+    }
+
+    static class SlowListener extends ExecutableEventListener<TestEvent> {
+
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger maxActive = new AtomicInteger();
+        final AtomicInteger handled = new AtomicInteger();
+
+        @Override
+        public String topic() {
+            return "topic";
+        }
+
+        @Override
+        protected void handle(List<EventModel<TestEvent>> message) throws Throwable {
+            int current = active.incrementAndGet();
+            maxActive.accumulateAndGet(current, Math::max);
+            Thread.sleep(20);
+            active.decrementAndGet();
+            handled.incrementAndGet();
+        }
+    }
+
+    static abstract class AbstractListListener<E> extends ExecutableEventListener<List<E>> {
+    }
+
+    static class ListListener extends AbstractListListener<TestEvent> {
+
+        @Override
+        public String topic() {
+            return "topic";
+        }
+
+        @Override
+        protected void handle(List<EventModel<List<TestEvent>>> message) {
+        }
+    }
+}
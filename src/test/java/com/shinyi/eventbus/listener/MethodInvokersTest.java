@@ -0,0 +1,101 @@
+package com.shinyi.eventbus.listener;
+
+import com.shinyi.eventbus.EventModel;
+import com.shinyi.eventbus.TestEvent;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MethodInvokersTest {
+
+    @Test
+    public void testInvoke_shouldAdaptParameterShapes() throws Throwable {
+        for (MethodInvokerType type : MethodInvokerType.values()) {
+            testInvoke_shouldAdaptParameterShapes(type);
+        }
+    }
+
+    @Test
+    public void testInvoke_shouldPropagateListenerException() throws Exception {
+        for (MethodInvokerType type : MethodInvokerType.values()) {
+            Method method = Target.class.getMethod("fail", List.class);
+            MethodInvoker invoker = MethodInvokers.create(type, new Target(), method);
+            assertThrows(IllegalStateException.class, () -> invoker.invoke(messages()), type.name());
+        }
+    }
+
+    private void testInvoke_shouldAdaptParameterShapes(MethodInvokerType type) throws Throwable {
+        Target target = new Target();
+        List<EventModel<Object>> messages = messages();
+
+        invoke(type, target, "none", messages);
+        invoke(type, target, "eventModelList", messages);
+        invoke(type, target, "eventModel", messages);
+        invoke(type, target, "entityList", messages);
+        invoke(type, target, "entity", messages);
+        invoke(type, target, "privateEntity", messages);
+
+        assertEquals(Arrays.asList("none", "eventModelList:2", "eventModel:a", "eventModel:b",
+                "entityList:2", "entity:a", "entity:b", "privateEntity:a", "privateEntity:b"), target.calls, type.name());
+    }
+
+    private static void invoke(MethodInvokerType type, Target target, String name, List<EventModel<Object>> messages) throws Throwable {
+        for (Method method : Target.class.getDeclaredMethods()) {
+            if (method.getName().equals(name)) {
+                method.setAccessible(true);
+                MethodInvokers.create(type, target, method).invoke(messages);
+                return;
+            }
+        }
+        fail("method not found: " + name);
+    }
+
+    private static List<EventModel<Object>> messages() {
+        List<EventModel<Object>> messages = new ArrayList<>();
+        for (String field : Arrays.asList("a", "b")) {
+            TestEvent event = new TestEvent();
+            event.setFieldTest(field);
+            messages.add(EventModel.build(TestEvent.TOPIC_NAME, event));
+        }
+        return messages;
+    }
+
+    public static class Target {
+
+        final List<String> calls = new ArrayList<>();
+
+        public void none() {
+            calls.add("none");
+        }
+
+        public void eventModelList(List<EventModel<TestEvent>> messages) {
+            calls.add("eventModelList:" + messages.size());
+        }
+
+        public void eventModel(EventModel<TestEvent> message) {
+            calls.add("eventModel:" + message.getEntity().getFieldTest());
+        }
+
+        public void entityList(List<TestEvent> entities) {
+            calls.add("entityList:" + entities.size());
+        }
+
+        public String entity(TestEvent entity) {
+            calls.add("entity:" + entity.getFieldTest());
+            return entity.getFieldTest();
+        }
+
+        private void privateEntity(TestEvent entity) {
+            calls.add("privateEntity:" + entity.getFieldTest());
+        }
+
+        public void fail(List<EventModel<TestEvent>> messages) {
+            throw new IllegalStateException("fail");
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.shinyi.eventbus.ring;
+
+import com.shinyi.eventbus.*;
+import com.shinyi.eventbus.registry.RingEventListenerRegistry;
+import com.shinyi.eventbus.support.ring.RingBuffer;
+import com.shinyi.eventbus.support.ring.RingConsumer;
+import com.shinyi.eventbus.support.ring.WaitStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RingEventListenerRegistryTest {
+
+    private RingEventListenerRegistry<EventModel<TestEvent>> registry;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new RingEventListenerRegistry<>("ring", 64, 2, "blocking");
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        registry.close();
+    }
+
+    @Test
+    public void testGetEventBusType() {
+        assertEquals(EventBusType.RING, registry.getEventBusType());
+    }
+
+    @Test
+    public void testPublishAsync_shouldDeliverInOrderAndFireCallbacks() throws Exception {
+        int count = 1000;
+        List<String> received = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch callbacks = new CountDownLatch(count);
+        List<EventListener<EventModel<TestEvent>>> listeners = new ArrayList<>();
+        listeners.add(createListener("test-topic", batch -> batch.forEach(e -> received.add(e.getEntity().getFieldTest()))));
+        registry.initRegistryEventListener(listeners);
+
+        for (int i = 0; i < count; i++) {
+            TestEvent event = new TestEvent();
+            event.setFieldTest(String.valueOf(i));
+            EventModel<TestEvent> eventModel = EventModel.build("test-topic", event);
+            eventModel.setEnableAsync(true);
+            eventModel.setEventCallback(new EventCallback() {
+                @Override
+                public void onSuccess(EventResult result) {
+                    callbacks.countDown();
+                }
+
+                @Override
+                public void onFailure(EventResult result, Throwable throwable) {
+                }
+            });
+            registry.publish(eventModel);
+        }
+
+        assertTrue(callbacks.await(5, TimeUnit.SECONDS));
+        assertEquals(count, received.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(String.valueOf(i), received.get(i));
+        }
+    }
+
+    @Test
+    public void testPublishSync_shouldDispatchOnlyToMatchingTopic() {
+        List<EventModel<TestEvent>> matched = new ArrayList<>();
+        List<EventModel<TestEvent>> other = new ArrayList<>();
+        List<EventListener<EventModel<TestEvent>>> listeners = new ArrayList<>();
+        listeners.add(createListener("test-topic", matched::addAll));
+        listeners.add(createListener("other-topic", other::addAll));
+        registry.initRegistryEventListener(listeners);
+
+        EventModel<TestEvent> eventModel = EventModel.build("test-topic", new TestEvent());
+        eventModel.setEnableAsync(false);
+        registry.publish(eventModel);
+
+        assertEquals(1, matched.size());
+        assertTrue(other.isEmpty());
+    }
+
+    @Test
+    public void testPublishAsync_listenerErrorShouldFireFailureCallback() throws Exception {
+        CountDownLatch failed = new CountDownLatch(1);
+        List<EventListener<EventModel<TestEvent>>> listeners = new ArrayList<>();
+        listeners.add(createListener("test-topic", batch -> {
+            throw new IllegalStateException("boom");
+        }));
+        registry.initRegistryEventListener(listeners);
+
+        EventModel<TestEvent> eventModel = EventModel.build("test-topic", new TestEvent());
+        eventModel.setEnableAsync(true);
+        eventModel.setEventCallback(new EventCallback() {
+            @Override
+            public void onSuccess(EventResult result) {
+            }
+
+            @Override
+            public void onFailure(EventResult result, Throwable throwable) {
+                failed.countDown();
+            }
+        });
+        registry.publish(eventModel);
+
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testClose_shouldDrainPublishedEvents() throws Exception {
+        List<EventModel<TestEvent>> received = Collections.synchronizedList(new ArrayList<>());
+        List<EventListener<EventModel<TestEvent>>> listeners = new ArrayList<>();
+        listeners.add(createListener("test-topic", received::addAll));
+        registry.initRegistryEventListener(listeners);
+
+        for (int i = 0; i < 100; i++) {
+            EventModel<TestEvent> eventModel = EventModel.build("test-topic", new TestEvent());
+            eventModel.setEnableAsync(true);
+            registry.publish(eventModel);
+        }
+        registry.close();
+
+        assertEquals(100, received.size());
+        assertDoesNotThrow(() -> registry.close());
+    }
+
+    @Test
+    public void testRingBuffer_shouldWrapAroundWhenFull() throws Exception {
+        RingBuffer<Integer> ringBuffer = new RingBuffer<>(4, WaitStrategy.of("yielding"));
+        List<Integer> taken = new ArrayList<>();
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 4; i++) {
+                ringBuffer.publish(round * 4 + i);
+            }
+            assertEquals(4, ringBuffer.size());
+            long consumed = ringBuffer.getConsumedSequence();
+            long highest = ringBuffer.getHighestPublishedSequence(consumed + 1);
+            for (long seq = consumed + 1; seq <= highest; seq++) {
+                taken.add(ringBuffer.take(seq));
+            }
+            ringBuffer.markConsumed(highest);
+        }
+        assertEquals(12, taken.size());
+        for (int i = 0; i < 12; i++) {
+            assertEquals(i, taken.get(i));
+        }
+    }
+
+    @Test
+    public void testRingBuffer_haltShouldRejectNewPublishesAndDrainClaimed() throws Exception {
+        RingBuffer<Integer> ringBuffer = new RingBuffer<>(8, WaitStrategy.of("blocking"));
+        AtomicInteger consumed = new AtomicInteger();
+        Thread consumer = new Thread(new RingConsumer<>(ringBuffer, batch -> consumed.addAndGet(batch.size())));
+        consumer.start();
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(4);
+        List<Thread> producers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread producer = new Thread(() -> {
+                started.countDown();
+                while (true) {
+                    try {
+                        ringBuffer.publish(1);
+                        accepted.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        rejected.incrementAndGet();
+                        return;
+                    }
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Thread.sleep(20);
+        ringBuffer.halt();
+        for (Thread producer : producers) {
+            producer.join(5000);
+        }
+        consumer.join(5000);
+
+        // 停止前被接受的发布全部被消费，停止后的发布全部被拒绝
+        assertFalse(consumer.isAlive());
+        assertEquals(4, rejected.get());
+        assertEquals(accepted.get(), consumed.get());
+        assertThrows(IllegalStateException.class, () -> ringBuffer.publish(1));
+    }
+
+    private EventListener<EventModel<TestEvent>> createListener(String topic, Consumer<List<EventModel<TestEvent>>> handler) {
+        return new EventListener<EventModel<TestEvent>>() {
+            @Override
+            public void onMessage(EventModel<TestEvent> event) {
+                handler.accept(Collections.singletonList(event));
+            }
+
+            @Override
+            public void onMessageBatch(List<EventModel<TestEvent>> events) {
+                handler.accept(events);
+            }
+
+            @Override
+            public Class<?> entityType() {
+                return TestEvent.class;
+            }
+
+            @Override
+            public String topic() {
+                return topic;
+            }
+
+            @Override
+            public String group() {
+                return "test-group";
+            }
+        };
+    }
+}
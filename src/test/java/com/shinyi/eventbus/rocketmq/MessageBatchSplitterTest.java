@@ -0,0 +1,47 @@
+package com.shinyi.eventbus.rocketmq;
+
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.common.message.Message;
+import com.shinyi.eventbus.support.rocketmq.MessageBatchSplitter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MessageBatchSplitterTest {
+
+    private static Message message(int bodySize) {
+        Message message = new Message("topic", new byte[bodySize]);
+        message.putUserProperty("eventbus-event-id", "event-1");
+        return message;
+    }
+
+    @Test
+    public void testSplit_shouldKeepEachBatchUnderLimitInOrder() {
+        List<Message> messages = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            messages.add(message(1000));
+        }
+        int size = MessageBatchSplitter.encodedSize(messages.get(0));
+        assertTrue(size > 1000);
+
+        List<List<Integer>> batches = MessageBatchSplitter.split(messages, size * 4);
+        assertEquals(3, batches.size());
+        assertEquals(Arrays.asList(0, 1, 2, 3), batches.get(0));
+        assertEquals(Arrays.asList(4, 5, 6, 7), batches.get(1));
+        assertEquals(Arrays.asList(8, 9), batches.get(2));
+
+        assertEquals(1, MessageBatchSplitter.split(messages, Integer.MAX_VALUE).size());
+        assertTrue(MessageBatchSplitter.split(Collections.emptyList(), 100).isEmpty());
+    }
+
+    @Test
+    public void testSplit_oversizedMessage_shouldBeAlone() {
+        List<Message> messages = Arrays.asList(message(10), message(5000), message(10));
+        List<List<Integer>> batches = MessageBatchSplitter.split(messages, 1000);
+        assertEquals(Arrays.asList(Collections.singletonList(0), Collections.singletonList(1), Collections.singletonList(2)), batches);
+    }
+}
@@ -1,5 +1,9 @@
 package com.shinyi.eventbus.rocketmq;
 
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.client.producer.MQProducer;
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.client.producer.SendResult;
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.common.message.Message;
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.common.message.MessageQueue;
 import com.shinyi.eventbus.*;
 import com.shinyi.eventbus.config.rocketmq.RocketMqConnectConfig;
 import com.shinyi.eventbus.registry.RocketMqEventListenerRegistry;
@@ -13,8 +17,16 @@ import org.mockito.quality.Strictness;
 import org.springframework.context.ApplicationContext;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
@@ -52,6 +64,119 @@ public class RocketMqEventListenerRegistryTest {
         assertDoesNotThrow(() -> registry.initRegistryEventListener(new ArrayList<>()));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPublishBatch_shouldSplitBySizeAndReportPerMessage() throws Exception {
+        config.setBatchMaxBytes(4000);
+        MQProducer producer = mock(MQProducer.class);
+        List<Integer> batchSizes = new ArrayList<>();
+        when(producer.send(anyCollection())).thenAnswer(invocation -> {
+            Collection<Message> batch = invocation.getArgument(0);
+            batchSizes.add(batch.size());
+            SendResult sendResult = new SendResult();
+            sendResult.setMsgId(batch.stream().map(m -> m.getUserProperty(EventHeaders.EVENT_ID)).collect(Collectors.joining(",")));
+            return sendResult;
+        });
+        registry = new RocketMqEventListenerRegistry<EventModel<TestEvent>>(applicationContext, "rocketmq", config) {
+            {
+                mqProducer = producer;
+            }
+        };
+        List<EventModel<TestEvent>> events = new ArrayList<>();
+        char[] value = new char[1500];
+        Arrays.fill(value, 'x');
+        for (int i = 0; i < 5; i++) {
+            TestEvent entity = new TestEvent();
+            entity.setFieldTest(new String(value));
+            events.add(EventModel.build(i == 4 ? "other-topic" : "topic", entity, "event-" + i, false));
+        }
+
+        List<EventResult> results = registry.publishBatch(events);
+
+        // topic 的 4 条按 4000 字节拆成两批，other-topic 单独一批
+        assertEquals(Arrays.asList(2, 2, 1), batchSizes);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(results.get(i).isSuccess());
+            assertEquals("event-" + i, results.get(i).getMessageId());
+        }
+    }
+
+    @Test
+    public void testPublish_withPartitionKey_shouldSendSameKeyToSameQueue() throws Exception {
+        MQProducer producer = mock(MQProducer.class);
+        List<MessageQueue> routes = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            routes.add(new MessageQueue("topic", "broker-a", i));
+        }
+        when(producer.fetchPublishMessageQueues("topic")).thenReturn(routes);
+        Map<String, MessageQueue> queueByKey = new HashMap<>();
+        when(producer.send(any(Message.class), any(MessageQueue.class))).thenAnswer(invocation -> {
+            Message message = invocation.getArgument(0);
+            MessageQueue queue = invocation.getArgument(1);
+            MessageQueue previous = queueByKey.putIfAbsent(message.getKeys(), queue);
+            assertTrue(previous == null || previous.equals(queue));
+            return new SendResult(null, "id", null, queue, 0);
+        });
+        registry = new RocketMqEventListenerRegistry<EventModel<TestEvent>>(applicationContext, "rocketmq", config) {
+            {
+                mqProducer = producer;
+            }
+        };
+
+        for (int i = 0; i < 20; i++) {
+            EventModel<TestEvent> event = EventModel.build("topic", new TestEvent(), "event-" + i, false);
+            event.setPartitionKey("order-" + (i % 4));
+            registry.publish(event);
+        }
+        registry.publish(EventModel.build("topic", new TestEvent(), "unkeyed", false));
+
+        assertEquals(4, queueByKey.size());
+        verify(producer, times(20)).send(any(Message.class), any(MessageQueue.class));
+        verify(producer).send(any(Message.class));
+        // 队列列表只查询一次路由
+        verify(producer, times(1)).fetchPublishMessageQueues("topic");
+    }
+
+    @Test
+    public void testPublishBatch_withPartitionKey_shouldGroupByQueue() throws Exception {
+        MQProducer producer = mock(MQProducer.class);
+        when(producer.fetchPublishMessageQueues("topic")).thenReturn(Arrays.asList(
+                new MessageQueue("topic", "broker-a", 0), new MessageQueue("topic", "broker-a", 1)));
+        Map<MessageQueue, List<String>> sent = new HashMap<>();
+        when(producer.send(anyCollection(), any(MessageQueue.class))).thenAnswer(invocation -> {
+            Collection<Message> batch = invocation.getArgument(0);
+            MessageQueue queue = invocation.getArgument(1);
+            batch.forEach(m -> sent.computeIfAbsent(queue, k -> new ArrayList<>()).add(m.getUserProperty(EventHeaders.EVENT_ID)));
+            SendResult sendResult = new SendResult();
+            sendResult.setMsgId(batch.stream().map(m -> m.getUserProperty(EventHeaders.EVENT_ID)).collect(Collectors.joining(",")));
+            return sendResult;
+        });
+        registry = new RocketMqEventListenerRegistry<EventModel<TestEvent>>(applicationContext, "rocketmq", config) {
+            {
+                mqProducer = producer;
+            }
+        };
+        // "a".hashCode() 与 "b".hashCode() 奇偶不同，落在两个队列
+        List<EventModel<TestEvent>> events = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            EventModel<TestEvent> event = EventModel.build("topic", new TestEvent(), "event-" + i, false);
+            event.setPartitionKey(i % 2 == 0 ? "a" : "b");
+            events.add(event);
+        }
+
+        List<EventResult> results = registry.publishBatch(events);
+
+        verify(producer, times(2)).send(anyCollection(), any(MessageQueue.class));
+        verify(producer, never()).send(anyCollection());
+        assertEquals(2, sent.size());
+        assertTrue(sent.containsValue(Arrays.asList("event-0", "event-2", "event-4")));
+        assertTrue(sent.containsValue(Arrays.asList("event-1", "event-3", "event-5")));
+        for (int i = 0; i < 6; i++) {
+            assertTrue(results.get(i).isSuccess());
+            assertEquals("event-" + i, results.get(i).getMessageId());
+        }
+    }
+
     @Test
     public void testClose_shouldNotThrowException() {
         registry = new RocketMqEventListenerRegistry<>(applicationContext, "rocketmq", config);
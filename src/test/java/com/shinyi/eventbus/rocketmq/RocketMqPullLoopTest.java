@@ -0,0 +1,239 @@
+package com.shinyi.eventbus.rocketmq;
+
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.client.consumer.DefaultMQPullConsumer;
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.client.consumer.PullResult;
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.client.consumer.PullStatus;
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.client.consumer.store.OffsetStore;
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.common.message.MessageExt;
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.common.message.MessageQueue;
+import com.shinyi.eventbus.support.rocketmq.AdaptivePullBatchSize;
+import com.shinyi.eventbus.support.rocketmq.MessageBatchHandler;
+import com.shinyi.eventbus.support.rocketmq.RocketMqPullLoop;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class RocketMqPullLoopTest {
+
+    private static final String TOPIC = "test-topic";
+
+    private final MessageQueue queue = new MessageQueue(TOPIC, "broker-a", 0);
+    private DefaultMQPullConsumer consumer;
+    private RocketMqPullLoop loop;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        consumer = mock(DefaultMQPullConsumer.class);
+        when(consumer.getConsumerTimeoutMillisWhenSuspend()).thenReturn(1000L);
+        when(consumer.fetchConsumeOffset(any(MessageQueue.class), anyBoolean())).thenReturn(-1L);
+        when(consumer.minOffset(any(MessageQueue.class))).thenReturn(3L);
+        when(consumer.maxOffset(any(MessageQueue.class))).thenReturn(100L);
+        when(consumer.getMaxReconsumeTimes()).thenReturn(16);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (loop != null) {
+            loop.close();
+        }
+    }
+
+    private static PullResult found(long offset, int count) {
+        List<MessageExt> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            MessageExt message = new MessageExt();
+            message.setQueueOffset(offset + i);
+            messages.add(message);
+        }
+        return new PullResult(PullStatus.FOUND, offset + count, 0, offset + count, messages);
+    }
+
+    /**
+     * 模拟长轮询：没有新消息时阻塞一段时间再返回
+     */
+    private static PullResult noNewMessage(long offset) throws InterruptedException {
+        TimeUnit.MILLISECONDS.sleep(20);
+        return new PullResult(PullStatus.NO_NEW_MSG, offset, 0, offset, null);
+    }
+
+    private RocketMqPullLoop newLoop(String offsetStrategy, MessageBatchHandler handler) {
+        return new RocketMqPullLoop("test-pull", consumer, "*", offsetStrategy, 0L, 1, 32, 0, handler);
+    }
+
+    @Test
+    public void testPull_shouldResumeFromStoredOffsetAndCommit() throws Exception {
+        when(consumer.fetchConsumeOffset(queue, true)).thenReturn(5L);
+        when(consumer.pullBlockIfNotFound(eq(queue), eq("*"), anyLong(), anyInt())).thenAnswer(invocation -> {
+            long offset = invocation.getArgument(2);
+            return offset == 5L ? found(5L, 2) : noNewMessage(offset);
+        });
+        List<Long> received = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(2);
+        loop = newLoop("earliest", messages -> messages.forEach(m -> {
+            received.add(m.getQueueOffset());
+            latch.countDown();
+        }));
+
+        loop.messageQueueChanged(TOPIC, Collections.singleton(queue), Collections.singleton(queue));
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(5L, 6L), received);
+        verify(consumer, timeout(1000)).updateConsumeOffset(queue, 7L);
+        verify(consumer, never()).minOffset(queue);
+        verify(consumer, timeout(1000).atLeastOnce()).pullBlockIfNotFound(eq(queue), eq("*"), eq(7L), anyInt());
+    }
+
+    @Test
+    public void testPull_withoutStoredOffset_shouldStartFromStrategy() throws Exception {
+        when(consumer.pullBlockIfNotFound(eq(queue), eq("*"), anyLong(), anyInt()))
+                .thenAnswer(invocation -> noNewMessage(invocation.getArgument(2)));
+        loop = newLoop("earliest", messages -> { });
+        loop.messageQueueChanged(TOPIC, Collections.singleton(queue), Collections.singleton(queue));
+        verify(consumer, timeout(1000).atLeastOnce()).pullBlockIfNotFound(eq(queue), eq("*"), eq(3L), anyInt());
+        loop.close();
+
+        MessageQueue other = new MessageQueue(TOPIC, "broker-a", 1);
+        when(consumer.pullBlockIfNotFound(eq(other), eq("*"), anyLong(), anyInt()))
+                .thenAnswer(invocation -> noNewMessage(invocation.getArgument(2)));
+        loop = newLoop("latest", messages -> { });
+        loop.messageQueueChanged(TOPIC, Collections.singleton(other), Collections.singleton(other));
+        verify(consumer, timeout(1000).atLeastOnce()).pullBlockIfNotFound(eq(other), eq("*"), eq(100L), anyInt());
+    }
+
+    @Test
+    public void testPull_handlerFailure_shouldRetrySameOffsetWithoutCommit() throws Exception {
+        when(consumer.fetchConsumeOffset(queue, true)).thenReturn(0L);
+        when(consumer.pullBlockIfNotFound(eq(queue), eq("*"), anyLong(), anyInt())).thenAnswer(invocation -> {
+            long offset = invocation.getArgument(2);
+            return offset == 0L ? found(0L, 1) : noNewMessage(offset);
+        });
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch succeeded = new CountDownLatch(1);
+        loop = newLoop("earliest", messages -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("downstream unavailable");
+            }
+            succeeded.countDown();
+        });
+
+        loop.messageQueueChanged(TOPIC, Collections.singleton(queue), Collections.singleton(queue));
+
+        assertTrue(succeeded.await(5, TimeUnit.SECONDS));
+        assertEquals(2, attempts.get());
+        verify(consumer, timeout(1000).times(1)).updateConsumeOffset(queue, 1L);
+    }
+
+    @Test
+    public void testPull_poisonBatch_shouldSendToDeadLetterAfterMaxReconsumeTimes() throws Exception {
+        when(consumer.getMaxReconsumeTimes()).thenReturn(1);
+        when(consumer.fetchConsumeOffset(queue, true)).thenReturn(0L);
+        when(consumer.pullBlockIfNotFound(eq(queue), eq("*"), anyLong(), anyInt())).thenAnswer(invocation -> {
+            long offset = invocation.getArgument(2);
+            return offset == 0L ? found(0L, 2) : noNewMessage(offset);
+        });
+        AtomicInteger attempts = new AtomicInteger();
+        loop = newLoop("earliest", messages -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("poison");
+        });
+
+        loop.messageQueueChanged(TOPIC, Collections.singleton(queue), Collections.singleton(queue));
+
+        // 首次失败后重试 1 次，仍失败则整批发回死信队列并推进位点
+        verify(consumer, timeout(5000).times(2)).sendMessageBack(any(MessageExt.class), eq(-1), eq("broker-a"));
+        verify(consumer, timeout(1000)).updateConsumeOffset(queue, 2L);
+        verify(consumer, timeout(1000).atLeastOnce()).pullBlockIfNotFound(eq(queue), eq("*"), eq(2L), anyInt());
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    public void testRebalance_shouldStopRemovedQueuesAndStartNewOnes() throws Exception {
+        MessageQueue other = new MessageQueue(TOPIC, "broker-b", 0);
+        OffsetStore offsetStore = mock(OffsetStore.class);
+        when(consumer.getOffsetStore()).thenReturn(offsetStore);
+        when(consumer.pullBlockIfNotFound(any(MessageQueue.class), eq("*"), anyLong(), anyInt()))
+                .thenAnswer(invocation -> noNewMessage(invocation.getArgument(2)));
+        loop = newLoop("latest", messages -> { });
+
+        loop.messageQueueChanged(TOPIC, new HashSet<>(Arrays.asList(queue, other)), Collections.singleton(queue));
+        assertEquals(Collections.singleton(queue), loop.assignedQueues());
+        verify(consumer, timeout(1000).atLeastOnce()).pullBlockIfNotFound(eq(queue), eq("*"), eq(100L), anyInt());
+
+        loop.messageQueueChanged(TOPIC, new HashSet<>(Arrays.asList(queue, other)), Collections.singleton(other));
+        assertEquals(Collections.singleton(other), loop.assignedQueues());
+        assertEquals(-1, loop.nextOffset(queue));
+        verify(consumer, timeout(1000).atLeastOnce()).pullBlockIfNotFound(eq(other), eq("*"), eq(100L), anyInt());
+        // 被移除的队列由客户端持久化位点，拉取线程不再写入；关闭时仍持有的队列持久化位点
+        verify(offsetStore, after(200).never()).persist(queue);
+        loop.close();
+        verify(offsetStore).persist(other);
+    }
+
+    @Test
+    public void testRebalance_reassignedQueue_shouldWaitForPreviousWorker() throws Exception {
+        when(consumer.fetchConsumeOffset(queue, true)).thenReturn(0L);
+        when(consumer.pullBlockIfNotFound(eq(queue), eq("*"), anyLong(), anyInt())).thenAnswer(invocation -> {
+            long offset = invocation.getArgument(2);
+            return offset == 0L ? found(0L, 1) : noNewMessage(offset);
+        });
+        AtomicInteger handled = new AtomicInteger();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        loop = newLoop("earliest", messages -> {
+            if (handled.incrementAndGet() == 1) {
+                entered.countDown();
+                release.await();
+            }
+        });
+        loop.messageQueueChanged(TOPIC, Collections.singleton(queue), Collections.singleton(queue));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        // 处理中被移除又分配回来：新线程等旧线程退出后才拉取
+        loop.messageQueueChanged(TOPIC, Collections.singleton(queue), Collections.emptySet());
+        loop.messageQueueChanged(TOPIC, Collections.singleton(queue), Collections.singleton(queue));
+        verify(consumer, after(200).times(1)).pullBlockIfNotFound(eq(queue), eq("*"), anyLong(), anyInt());
+
+        release.countDown();
+        // 旧线程不提交，新线程从已提交位点重新处理后提交
+        verify(consumer, timeout(5000).atLeastOnce()).pullBlockIfNotFound(eq(queue), eq("*"), eq(1L), anyInt());
+        assertEquals(2, handled.get());
+        verify(consumer, times(1)).updateConsumeOffset(queue, 1L);
+    }
+
+    @Test
+    public void testAdaptiveBatchSize() {
+        AdaptivePullBatchSize batchSize = new AdaptivePullBatchSize(4, 32, 1000);
+        assertEquals(32, batchSize.current());
+        batchSize.record(32, 1500);
+        assertEquals(16, batchSize.current());
+        batchSize.record(16, 5000);
+        batchSize.record(8, 5000);
+        batchSize.record(4, 5000);
+        assertEquals(4, batchSize.current());
+        // 未拉满时不放大
+        batchSize.record(2, 10);
+        assertEquals(4, batchSize.current());
+        batchSize.record(4, 10);
+        assertEquals(8, batchSize.current());
+        batchSize.record(8, 700);
+        assertEquals(8, batchSize.current());
+
+        AdaptivePullBatchSize fixed = new AdaptivePullBatchSize(1, 32, 0);
+        fixed.record(32, 60000);
+        assertEquals(32, fixed.current());
+    }
+}
@@ -0,0 +1,157 @@
+package com.shinyi.eventbus.rocketmq;
+
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.client.impl.producer.DefaultMQProducerImpl;
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.client.producer.LocalTransactionExecuter;
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.client.producer.LocalTransactionState;
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.client.producer.SendStatus;
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.client.producer.TransactionMQProducer;
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.client.producer.TransactionSendResult;
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.common.message.Message;
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.common.message.MessageAccessor;
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.common.message.MessageConst;
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.common.message.MessageExt;
+import com.shinyi.eventbus.*;
+import com.shinyi.eventbus.config.rocketmq.RocketMqConnectConfig;
+import com.shinyi.eventbus.exception.EventBusException;
+import com.shinyi.eventbus.registry.RocketMqEventListenerRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class RocketMqTransactionTest {
+
+    private TransactionMQProducer producer;
+    private DefaultMQProducerImpl producerImpl;
+    private final List<LocalTransactionState> executedStates = new ArrayList<>();
+    private final AtomicReference<Message> sentMessage = new AtomicReference<>();
+    private TestRegistry registry;
+
+    /**
+     * 暴露回查入口，模拟 broker 回查
+     */
+    private static class TestRegistry extends RocketMqEventListenerRegistry<EventModel<TestEvent>> {
+
+        TestRegistry(ApplicationContext applicationContext, RocketMqConnectConfig config, TransactionMQProducer producer) {
+            super(applicationContext, "rocketmq", config);
+            this.mqProducer = producer;
+        }
+
+        LocalTransactionState check(MessageExt message) {
+            return checkLocalTransaction(message);
+        }
+    }
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        producer = mock(TransactionMQProducer.class);
+        producerImpl = mock(DefaultMQProducerImpl.class);
+        when(producer.getDefaultMQProducerImpl()).thenReturn(producerImpl);
+        when(producer.sendMessageInTransaction(any(Message.class), any(LocalTransactionExecuter.class), any())).thenAnswer(invocation -> {
+            Message message = invocation.getArgument(0);
+            sentMessage.set(message);
+            LocalTransactionExecuter executer = invocation.getArgument(1);
+            LocalTransactionState state = executer.executeLocalTransactionBranch(message, invocation.getArgument(2));
+            executedStates.add(state);
+            TransactionSendResult sendResult = new TransactionSendResult();
+            sendResult.setSendStatus(SendStatus.SEND_OK);
+            sendResult.setMsgId("half-" + executedStates.size());
+            sendResult.setLocalTransactionState(state);
+            return sendResult;
+        });
+        RocketMqConnectConfig config = new RocketMqConnectConfig();
+        config.setTransactionEnabled(true);
+        registry = new TestRegistry(mock(ApplicationContext.class), config, producer);
+    }
+
+    @Test
+    public void testPublishInTransaction_shouldFollowLocalTransactionResult() {
+        EventResult committed = registry.publishInTransaction(EventModel.build("order", new TestEvent(), "e1", false),
+                () -> TransactionState.COMMIT);
+        EventResult rolledBack = registry.publishInTransaction(EventModel.build("order", new TestEvent(), "e2", false),
+                () -> TransactionState.ROLLBACK);
+
+        assertTrue(committed.isSuccess());
+        assertEquals("half-1", committed.getMessageId());
+        assertFalse(rolledBack.isSuccess());
+        assertEquals(2, executedStates.size());
+        assertEquals(LocalTransactionState.COMMIT_MESSAGE, executedStates.get(0));
+        assertEquals(LocalTransactionState.ROLLBACK_MESSAGE, executedStates.get(1));
+    }
+
+    @Test
+    public void testPublishInTransaction_localFailure_shouldLeaveMessageForCheck() {
+        EventBusException e = assertThrows(EventBusException.class, () ->
+                registry.publishInTransaction(EventModel.build("order", new TestEvent(), "e1", false), () -> {
+                    throw new IllegalStateException("db down");
+                }));
+        assertTrue(e.getMessage().contains("db down"));
+        assertEquals(LocalTransactionState.UNKNOW, executedStates.get(0));
+    }
+
+    @Test
+    public void testPrepare_shouldEndTransactionOnCommitOrRollback() throws Exception {
+        PreparedTransaction prepared = registry.prepare(EventModel.build("order", new TestEvent(), "e1", false));
+        // 半消息保持未决，由调用方结束
+        assertEquals(LocalTransactionState.UNKNOW, executedStates.get(0));
+        assertFalse(prepared.getResult().isSuccess());
+
+        prepared.commit();
+        assertTrue(prepared.getResult().isSuccess());
+        verify(producerImpl).endTransaction(any(TransactionSendResult.class), eq(LocalTransactionState.COMMIT_MESSAGE), isNull());
+
+        registry.prepare(EventModel.build("order", new TestEvent(), "e2", false)).rollback();
+        verify(producerImpl).endTransaction(any(TransactionSendResult.class), eq(LocalTransactionState.ROLLBACK_MESSAGE), isNull());
+    }
+
+    @Test
+    public void testCheck_shouldResolveThroughChecker() {
+        EventModel<TestEvent> event = EventModel.build("order", new TestEvent(), "e1", false);
+        event.setPartitionKey("order-1");
+        event.putHeader("trace-id", "t-1");
+        registry.prepare(event);
+        MessageExt message = new MessageExt();
+        message.setTopic("order");
+        message.setMsgId("half-1");
+        message.setBody(sentMessage.get().getBody());
+        MessageAccessor.setProperties(message, new HashMap<>(sentMessage.get().getProperties()));
+        MessageAccessor.putProperty(message, MessageConst.PROPERTY_TRANSACTION_PREPARED, "true");
+
+        // 未配置回查时等待下次回查
+        assertEquals(LocalTransactionState.UNKNOW, registry.check(message));
+
+        List<EventModel<?>> checked = new ArrayList<>();
+        registry.setTransactionChecker(e -> {
+            checked.add(e);
+            return TransactionState.COMMIT;
+        });
+        assertEquals(LocalTransactionState.COMMIT_MESSAGE, registry.check(message));
+        EventModel<?> checkedEvent = checked.get(0);
+        assertEquals("e1", checkedEvent.getEventId());
+        assertEquals("order-1", checkedEvent.getPartitionKey());
+        assertEquals("t-1", checkedEvent.getHeader("trace-id"));
+        assertNull(checkedEvent.getHeader(MessageConst.PROPERTY_TRANSACTION_PREPARED));
+        assertArrayEquals(sentMessage.get().getBody(), checkedEvent.getRawData());
+
+        registry.setTransactionChecker(e -> {
+            throw new IllegalStateException("db down");
+        });
+        assertEquals(LocalTransactionState.UNKNOW, registry.check(message));
+    }
+
+    @Test
+    public void testPublishInTransaction_withoutTransactionProducer_shouldFail() {
+        RocketMqEventListenerRegistry<EventModel<TestEvent>> plain =
+                new RocketMqEventListenerRegistry<>(mock(ApplicationContext.class), "rocketmq", new RocketMqConnectConfig());
+        assertThrows(EventBusException.class, () ->
+                plain.publishInTransaction(EventModel.build("order", new TestEvent()), () -> TransactionState.COMMIT));
+    }
+}
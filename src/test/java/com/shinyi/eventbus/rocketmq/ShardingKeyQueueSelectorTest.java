@@ -0,0 +1,85 @@
+package com.shinyi.eventbus.rocketmq;
+
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.client.exception.MQClientException;
+import com.aliyun.openservices.shade.com.alibaba.rocketmq.common.message.MessageQueue;
+import com.shinyi.eventbus.support.rocketmq.ShardingKeyQueueSelector;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardingKeyQueueSelectorTest {
+
+    private static final String TOPIC = "order-topic";
+
+    private static List<MessageQueue> queues(String... brokers) {
+        List<MessageQueue> queues = new ArrayList<>();
+        for (String broker : brokers) {
+            for (int i = 0; i < 4; i++) {
+                queues.add(new MessageQueue(TOPIC, broker, i));
+            }
+        }
+        return queues;
+    }
+
+    @Test
+    public void testSelect_sameKeyShouldAlwaysPickSameQueueRegardlessOfRouteOrder() throws Exception {
+        List<MessageQueue> routes = queues("broker-a", "broker-b");
+        List<MessageQueue> reversed = new ArrayList<>(routes);
+        Collections.reverse(reversed);
+        ShardingKeyQueueSelector selector = new ShardingKeyQueueSelector(topic -> routes, 0);
+        ShardingKeyQueueSelector other = new ShardingKeyQueueSelector(topic -> reversed, 0);
+
+        for (int i = 0; i < 100; i++) {
+            String key = "order-" + i;
+            MessageQueue queue = selector.select(TOPIC, key);
+            assertEquals(queue, selector.select(TOPIC, key));
+            // 路由返回顺序不同的生产者实例也选出同一队列
+            assertEquals(queue, other.select(TOPIC, key));
+        }
+        // 不同键分散到多个队列
+        List<MessageQueue> cached = selector.queues(TOPIC);
+        long distinct = Arrays.asList("a", "b", "c", "d", "e", "f", "g", "h").stream()
+                .map(key -> selector.select(cached, null, key)).distinct().count();
+        assertTrue(distinct > 1);
+    }
+
+    @Test
+    public void testQueues_shouldCacheUntilInvalidatedAndKeepStaleRoutesOnFailure() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        List<MessageQueue> routes = queues("broker-a");
+        ShardingKeyQueueSelector selector = new ShardingKeyQueueSelector(topic -> {
+            if (loads.incrementAndGet() > 2) {
+                throw new MQClientException("namesrv unavailable", null);
+            }
+            return routes;
+        }, 0);
+
+        selector.select(TOPIC, "k1");
+        selector.select(TOPIC, "k2");
+        assertEquals(1, loads.get());
+
+        selector.invalidate(TOPIC);
+        selector.select(TOPIC, "k1");
+        assertEquals(2, loads.get());
+
+        ShardingKeyQueueSelector expiring = new ShardingKeyQueueSelector(topic -> {
+            if (loads.incrementAndGet() > 3) {
+                throw new MQClientException("namesrv unavailable", null);
+            }
+            return routes;
+        }, 1);
+        MessageQueue queue = expiring.select(TOPIC, "k1");
+        Thread.sleep(5);
+        // 刷新失败时沿用缓存
+        assertEquals(queue, expiring.select(TOPIC, "k1"));
+
+        selector.invalidate(TOPIC);
+        assertThrows(MQClientException.class, () -> selector.select(TOPIC, "k1"));
+    }
+}
@@ -0,0 +1,148 @@
+package com.shinyi.eventbus.serialize;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.shinyi.eventbus.EventModel;
+import com.shinyi.eventbus.SerializeType;
+import com.shinyi.eventbus.TestEvent;
+import com.shinyi.eventbus.util.JsonUtils;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BaseSerializerTest {
+
+    private static final String TEST_CONTENT_TYPE = "application/x-test";
+
+    private final EntityTypeDescriptor entityType = EntityTypeDescriptor.of(TestEvent.class);
+
+    /**
+     * 以 JSON 为底层格式、可统计调用次数的测试编解码器
+     */
+    private static class CountingCodec extends JacksonCodec {
+
+        private final AtomicInteger decodes = new AtomicInteger();
+
+        CountingCodec() {
+            super("TEST", TEST_CONTENT_TYPE, JsonUtils.newObjectMapper(new JsonFactory()));
+        }
+
+        @Override
+        public EventModel<?> decode(byte[] bytes, EntityTypeDescriptor entityType) {
+            decodes.incrementAndGet();
+            return super.decode(bytes, entityType);
+        }
+    }
+
+    private static EventModel<TestEvent> event() {
+        TestEvent entity = new TestEvent();
+        entity.setFieldTest("value");
+        return EventModel.build("topic", entity, "event-1", false);
+    }
+
+    @Test
+    public void testContentType_shouldFollowSerializeType() {
+        BaseSerializer serializer = new BaseSerializer(Collections.singletonList(new CountingCodec()));
+        assertEquals(BaseSerializer.JSON_CONTENT_TYPE, serializer.contentType(SerializeType.DEFAULT.getType()));
+        assertEquals(BaseSerializer.JSON_CONTENT_TYPE, serializer.contentType(SerializeType.JSON.getType()));
+        assertNull(serializer.contentType(SerializeType.BASIC.getType()));
+        assertEquals(TEST_CONTENT_TYPE, serializer.contentType("test"));
+    }
+
+    @Test
+    public void testDeserialize_shouldNegotiateByContentType() {
+        CountingCodec codec = new CountingCodec();
+        BaseSerializer serializer = new BaseSerializer(Collections.singletonList(codec));
+        byte[] body = serializer.serialize(event(), "TEST");
+
+        // 监听器按 DEFAULT 声明，内容类型指向自定义编解码器
+        EventModel<?> decoded = serializer.deserialize(body, SerializeType.DEFAULT.getType(), TEST_CONTENT_TYPE, entityType);
+        assertEquals(1, codec.decodes.get());
+        assertEquals("event-1", decoded.getEventId());
+        assertEquals("value", ((TestEvent) decoded.getEntity()).getFieldTest());
+
+        // 监听器声明了编解码器，但消息来自 JSON 生产者
+        byte[] json = serializer.serialize(event(), SerializeType.DEFAULT.getType());
+        decoded = serializer.deserialize(json, "TEST", BaseSerializer.JSON_CONTENT_TYPE, entityType);
+        assertEquals(1, codec.decodes.get());
+        assertEquals("value", ((TestEvent) decoded.getEntity()).getFieldTest());
+
+        // 没有内容类型时按监听器的序列化类型
+        decoded = serializer.deserialize(body, "TEST", null, entityType);
+        assertEquals(2, codec.decodes.get());
+        assertEquals("event-1", decoded.getEventId());
+    }
+
+    @Test
+    public void testDeserialize_withUnknownContentType_shouldFallBackToListenerType() {
+        BaseSerializer serializer = new BaseSerializer();
+        byte[] json = serializer.serialize(event(), SerializeType.DEFAULT.getType());
+        EventModel<?> decoded = serializer.deserialize(json, SerializeType.DEFAULT.getType(), "application/unknown", entityType);
+        assertEquals("value", ((TestEvent) decoded.getEntity()).getFieldTest());
+    }
+
+    @Test
+    public void testDefault_shouldReadEnvelopeAndRawEntity() {
+        BaseSerializer serializer = new BaseSerializer();
+        byte[] envelope = serializer.serialize(event(), SerializeType.DEFAULT.getType());
+        byte[] raw = JsonUtils.toJsonBytes(event().getEntity());
+
+        EventModel<?> decoded = serializer.deserialize(envelope, SerializeType.DEFAULT.getType(), entityType);
+        assertEquals("event-1", decoded.getEventId());
+        assertEquals("value", ((TestEvent) decoded.getEntity()).getFieldTest());
+
+        decoded = serializer.deserialize(raw, SerializeType.DEFAULT.getType(), entityType);
+        assertNull(decoded.getEventId());
+        assertEquals("value", ((TestEvent) decoded.getEntity()).getFieldTest());
+    }
+
+    @Test
+    public void testDefault_afterEnvelopeStreak_shouldStillDetectRawEntity() {
+        BaseSerializer serializer = new BaseSerializer();
+        EntityTypeDescriptor descriptor = EntityTypeDescriptor.of(JsonUtils.getTypeFactory()
+                .constructMapType(LinkedHashMap.class, String.class, Object.class));
+        byte[] envelope = serializer.serialize(EventModel.build("topic", Collections.singletonMap("k", "v"), "event-1", false),
+                SerializeType.DEFAULT.getType());
+        for (int i = 0; i < EnvelopeJsonReader.ENVELOPE_STREAK_THRESHOLD + 4; i++) {
+            assertEquals("event-1", serializer.deserialize(envelope, SerializeType.DEFAULT.getType(), descriptor).getEventId());
+        }
+        assertEquals(EnvelopeJsonReader.ENVELOPE_STREAK_THRESHOLD, descriptor.envelopeStreak);
+
+        // 字段与 EventModel 同名但类型不兼容的实体，按信封解析会失败
+        byte[] raw = "{\"headers\":\"plain\",\"topic\":\"t\"}".getBytes(StandardCharsets.UTF_8);
+        EventModel<?> decoded = serializer.deserialize(raw, SerializeType.DEFAULT.getType(), descriptor);
+        assertEquals("plain", ((Map<?, ?>) decoded.getEntity()).get("headers"));
+        assertEquals(0, descriptor.envelopeStreak);
+    }
+
+    @Test
+    public void testDefault_shouldReadArrayEntity() {
+        BaseSerializer serializer = new BaseSerializer();
+        EntityTypeDescriptor descriptor = EntityTypeDescriptor.of(JsonUtils.getTypeFactory()
+                .constructCollectionType(List.class, TestEvent.class));
+        EventModel<?> decoded = serializer.deserialize("[{\"fieldTest\":\"a\"}]".getBytes(StandardCharsets.UTF_8),
+                SerializeType.DEFAULT.getType(), descriptor);
+        assertEquals("a", ((TestEvent) ((List<?>) decoded.getEntity()).get(0)).getFieldTest());
+    }
+
+    @Test
+    public void testRegister_shouldRejectReservedName() {
+        assertThrows(IllegalArgumentException.class, () -> new BaseSerializer(Collections.singletonList(
+                new JacksonCodec("json", TEST_CONTENT_TYPE, JsonUtils.newObjectMapper(null)))));
+    }
+
+    @Test
+    public void testOfFactory_shouldSkipMissingFormat() {
+        assertNull(JacksonCodec.ofFactory("MISSING", "application/x-missing", "com.example.MissingFactory"));
+        JacksonCodec codec = JacksonCodec.ofFactory("PLAIN", "application/x-plain", JsonFactory.class.getName());
+        assertNotNull(codec);
+        EventModel<?> decoded = codec.decode(codec.encode(event()), entityType);
+        assertEquals("value", ((TestEvent) decoded.getEntity()).getFieldTest());
+    }
+}
@@ -0,0 +1,69 @@
+package com.shinyi.eventbus.serialize;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PayloadCompressorTest {
+
+    private static byte[] payload(int lines) {
+        StringBuilder json = new StringBuilder("{\"orderId\":\"20240101\",\"lines\":[");
+        for (int i = 0; i < lines; i++) {
+            json.append("{\"sku\":\"SKU-").append(i % 20).append("\",\"quantity\":").append(i % 3 + 1).append("},");
+        }
+        json.append("{}]}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testRoundTrip_allTypes() {
+        byte[] body = payload(500);
+        for (CompressionType type : CompressionType.values()) {
+            if (type == CompressionType.NONE) {
+                continue;
+            }
+            PayloadCompressor compressor = new PayloadCompressor(type, 1024);
+            byte[] compressed = compressor.compress(body);
+            assertNotNull(compressed, type.name());
+            assertTrue(compressed.length < body.length, type.name());
+            // 解压只依赖消息携带的算法
+            assertArrayEquals(body, PayloadCompressor.none().decompress(compressor.encoding(), compressed), type.name());
+            assertArrayEquals(body, PayloadCompressor.none().unframe(compressor.frame(body)), type.name());
+        }
+    }
+
+    @Test
+    public void testCompress_belowThresholdOrDisabled_shouldReturnNull() {
+        byte[] body = payload(5);
+        assertNull(new PayloadCompressor(CompressionType.GZIP, body.length + 1).compress(body));
+        assertNull(PayloadCompressor.none().compress(body));
+        assertSame(body, PayloadCompressor.none().frame(body));
+        assertSame(body, PayloadCompressor.none().unframe(body));
+        assertSame(body, PayloadCompressor.none().decompress(null, body));
+        // 压缩后不变小的消息原样发送
+        assertNull(new PayloadCompressor(CompressionType.LZ4, 0).compress(new byte[]{1, 2, 3}));
+    }
+
+    @Test
+    public void testZstdDictionary_shouldShrinkSmallPayloads() {
+        byte[] dictionary = payload(40);
+        byte[] body = payload(12);
+        PayloadCompressor plain = new PayloadCompressor(CompressionType.ZSTD, 0);
+        PayloadCompressor shared = new PayloadCompressor(CompressionType.ZSTD, 0, PayloadCompressor.DEFAULT_ZSTD_LEVEL, dictionary);
+
+        byte[] compressed = shared.compress(body);
+        assertTrue(compressed.length < plain.compress(body).length);
+        assertArrayEquals(body, shared.decompress("zstd", compressed));
+        // 消费端缺少字典时无法解压
+        assertThrows(RuntimeException.class, () -> plain.decompress("zstd", compressed));
+    }
+
+    @Test
+    public void testDecompress_unknownEncoding_shouldFail() {
+        assertThrows(IllegalArgumentException.class, () -> PayloadCompressor.none().decompress("br", new byte[]{1}));
+        assertThrows(IllegalArgumentException.class, () -> CompressionType.fromType("brotli"));
+        assertEquals(CompressionType.ZSTD, CompressionType.fromType(" Zstd "));
+    }
+}
@@ -3,18 +3,22 @@ package com.shinyi.eventbus.spring;
 import com.shinyi.eventbus.*;
 import com.shinyi.eventbus.listener.BaseEventListener;
 import com.shinyi.eventbus.registry.SpringEventListenerRegistry;
+import com.shinyi.eventbus.support.EventListenerRegistryManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.PayloadApplicationEvent;
 import org.springframework.context.event.ApplicationEventMulticaster;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
@@ -59,7 +63,26 @@ public class SpringEventListenerRegistryTest {
 
         registry.initRegistryEventListener(listeners);
 
-        verify(eventMulticaster, times(1)).addApplicationListener(any(BaseEventListener.class));
+        verify(eventMulticaster, times(1)).addApplicationListener(any(ApplicationListener.class));
+    }
+
+    @Test
+    public void testDispatch_shouldOnlyHandleEventsOfThisRegistry() {
+        List<EventModel<TestEvent>> received = new ArrayList<>();
+        registry.initRegistryEventListener(Collections.singletonList(createBaseTestListener(received)));
+        ArgumentCaptor<ApplicationListener> captor = ArgumentCaptor.forClass(ApplicationListener.class);
+        verify(eventMulticaster).addApplicationListener(captor.capture());
+        ApplicationListener<PayloadApplicationEvent<?>> dispatcher = captor.getValue();
+
+        EventModel<TestEvent> own = EventModel.build("test-topic", new TestEvent());
+        own.setDriveType(EventListenerRegistryManager.driveTypeOf("springEventListenerRegistry", EventBusType.SPRING));
+        EventModel<TestEvent> other = EventModel.build("test-topic", new TestEvent());
+        other.setDriveType(EventListenerRegistryManager.driveTypeOf("otherSpringEventListenerRegistry", EventBusType.SPRING));
+        dispatcher.onApplicationEvent(new PayloadApplicationEvent<>(this, own));
+        dispatcher.onApplicationEvent(new PayloadApplicationEvent<>(this, other));
+
+        // 其他 Spring 注册器发布的事件由其自己的分发器投递
+        assertEquals(Collections.singletonList(own), received);
     }
 
     @Test
@@ -77,7 +100,7 @@ public class SpringEventListenerRegistryTest {
 
         assertDoesNotThrow(() -> registry.publish(eventModel));
 
-        verify(applicationContext, times(1)).publishEvent(any(EventModel.class));
+        verify(applicationContext, timeout(1000).times(1)).publishEvent(any(EventModel.class));
     }
 
     @Test
@@ -121,6 +144,10 @@ public class SpringEventListenerRegistryTest {
     }
 
     private EventListener<EventModel<TestEvent>> createBaseTestListener() {
+        return createBaseTestListener(new ArrayList<>());
+    }
+
+    private EventListener<EventModel<TestEvent>> createBaseTestListener(List<EventModel<TestEvent>> received) {
         return new BaseEventListener<EventModel<TestEvent>>() {
             @Override
             public void onMessage(EventModel<TestEvent> event) {
@@ -133,6 +160,7 @@ public class SpringEventListenerRegistryTest {
 
             @Override
             public void onApplicationEvent(PayloadApplicationEvent<EventModel<TestEvent>> event) {
+                received.add(event.getPayload());
             }
 
             @Override
@@ -0,0 +1,53 @@
+package com.shinyi.eventbus.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventBusExecutorsTest {
+
+    @Test
+    public void testFromType() {
+        assertEquals(ExecutorMode.PLATFORM, ExecutorMode.fromType(null));
+        assertEquals(ExecutorMode.VIRTUAL, ExecutorMode.fromType("Virtual"));
+        assertThrows(IllegalArgumentException.class, () -> ExecutorMode.fromType("fiber"));
+    }
+
+    @Test
+    public void testEffectiveMode_shouldFallbackWhenUnsupported() {
+        ExecutorMode expected = EventBusExecutors.isVirtualThreadSupported() ? ExecutorMode.VIRTUAL : ExecutorMode.PLATFORM;
+        assertEquals(expected, EventBusExecutors.effectiveMode(ExecutorMode.VIRTUAL));
+        assertEquals(ExecutorMode.PLATFORM, EventBusExecutors.effectiveMode(ExecutorMode.PLATFORM));
+    }
+
+    @Test
+    public void testNewSingleThreadExecutor_shouldUseThreadName() throws Exception {
+        AtomicReference<String> threadName = new AtomicReference<>();
+        ExecutorService executor = EventBusExecutors.newSingleThreadExecutor(ExecutorMode.VIRTUAL, "test-consumer");
+        try {
+            executor.submit(() -> threadName.set(Thread.currentThread().getName())).get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals("test-consumer", threadName.get());
+    }
+
+    @Test
+    public void testNewVirtualThreadPerTaskExecutor() throws Exception {
+        if (!EventBusExecutors.isVirtualThreadSupported()) {
+            assertThrows(UnsupportedOperationException.class, () -> EventBusExecutors.newVirtualThreadPerTaskExecutor("vt-"));
+            return;
+        }
+        ExecutorService executor = EventBusExecutors.newVirtualThreadPerTaskExecutor("vt-");
+        try {
+            String name = executor.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+            assertTrue(name.startsWith("vt-"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
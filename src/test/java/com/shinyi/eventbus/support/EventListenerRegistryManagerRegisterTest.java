@@ -0,0 +1,62 @@
+package com.shinyi.eventbus.support;
+
+import com.shinyi.eventbus.EventListener;
+import com.shinyi.eventbus.OverflowPolicy;
+import com.shinyi.eventbus.TestEvent;
+import com.shinyi.eventbus.anno.EventBusListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventListenerRegistryManagerRegisterTest {
+
+    private GenericApplicationContext applicationContext;
+    private EventListenerRegistryManager manager;
+
+    public static class OrderListener {
+
+        @EventBusListener(name = "ring", beanName = "orderListener", topic = "${order.topic}", entityType = TestEvent.class,
+                group = "${order.group:orders}", concurrency = 2, queueSize = 10, overflowPolicy = OverflowPolicy.REJECT)
+        public void onOrder(TestEvent event) {
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        applicationContext = new GenericApplicationContext();
+        applicationContext.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("test", Collections.singletonMap("order.topic", "order-created")));
+        applicationContext.registerBean(OrderListener.class);
+        applicationContext.refresh();
+        manager = new EventListenerRegistryManager();
+        manager.setApplicationContext(applicationContext);
+        manager.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        manager.close();
+        applicationContext.close();
+    }
+
+    @Test
+    public void testRegister_shouldResolveAnnotationAttributes() {
+        EventListener<?> listener = applicationContext.getBean("orderListener", EventListener.class);
+
+        assertEquals("order-created", listener.topic());
+        assertEquals("orders", listener.group());
+        assertEquals(TestEvent.class, listener.entityType());
+        assertEquals(Collections.singletonList("ring"), listener.registryBeanName());
+        assertEquals("DEFAULT", listener.serializeType());
+        assertEquals(2, listener.concurrency());
+        assertEquals(10, listener.queueSize());
+        assertEquals(OverflowPolicy.REJECT, listener.overflowPolicy());
+        assertEquals("direct", listener.exchangeType());
+    }
+}
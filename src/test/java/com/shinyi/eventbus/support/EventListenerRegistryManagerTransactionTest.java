@@ -0,0 +1,105 @@
+package com.shinyi.eventbus.support;
+
+import com.shinyi.eventbus.*;
+import com.shinyi.eventbus.exception.EventBusException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class EventListenerRegistryManagerTransactionTest {
+
+    private GenericApplicationContext applicationContext;
+    private EventListenerRegistryManager manager;
+    private TransactionalEventPublisher<EventModel<?>> publisher;
+    private PreparedTransaction prepared;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        EventListenerRegistry<EventModel<?>> registry = mock(EventListenerRegistry.class,
+                withSettings().extraInterfaces(TransactionalEventPublisher.class));
+        when(registry.getEventBusType()).thenReturn(EventBusType.ROCKETMQ);
+        publisher = (TransactionalEventPublisher<EventModel<?>>) registry;
+        prepared = mock(PreparedTransaction.class);
+        EventResult eventResult = new EventResult();
+        eventResult.setMessageId("half-1");
+        when(prepared.getResult()).thenReturn(eventResult);
+        when(publisher.prepare(any())).thenReturn(prepared);
+
+        applicationContext = new GenericApplicationContext();
+        applicationContext.registerBean("txEventListenerRegistry", EventListenerRegistry.class, () -> registry);
+        applicationContext.refresh();
+        manager = new EventListenerRegistryManager();
+        manager.setApplicationContext(applicationContext);
+        manager.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        manager.close();
+        applicationContext.close();
+    }
+
+    private void completeTransaction(int status) {
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(), status);
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    public void testPublishInTransaction_shouldCommitAfterSpringTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        EventModel<TestEvent> event = EventModel.build("order", new TestEvent());
+
+        EventResult result = manager.publishInTransaction("tx", event);
+
+        assertEquals("half-1", result.getMessageId());
+        assertNotNull(event.getEventId());
+        verify(prepared, never()).commit();
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        verify(prepared).commit();
+        verify(prepared, never()).rollback();
+    }
+
+    @Test
+    public void testPublishInTransaction_shouldRollbackOrLeaveUnknownForCheck() {
+        TransactionSynchronizationManager.initSynchronization();
+        manager.publishInTransaction("tx", EventModel.build("order", new TestEvent()));
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+        verify(prepared).rollback();
+
+        TransactionSynchronizationManager.initSynchronization();
+        manager.publishInTransaction("tx", EventModel.build("order", new TestEvent()));
+        completeTransaction(TransactionSynchronization.STATUS_UNKNOWN);
+        verify(prepared, times(1)).rollback();
+        verify(prepared, never()).commit();
+    }
+
+    @Test
+    public void testPublishInTransaction_withoutSpringTransaction_shouldFail() {
+        assertThrows(EventBusException.class, () -> manager.publishInTransaction("tx", EventModel.build("order", new TestEvent())));
+        verify(publisher, never()).prepare(any());
+    }
+
+    @Test
+    public void testPublishInTransaction_withLocalTransaction_shouldDelegate() {
+        EventResult committed = new EventResult();
+        committed.setSuccess(true);
+        LocalTransaction localTransaction = () -> TransactionState.COMMIT;
+        when(publisher.publishInTransaction(any(), any())).thenReturn(committed);
+
+        assertTrue(manager.publishInTransaction("tx", EventModel.build("order", new TestEvent()), localTransaction).isSuccess());
+        assertThrows(EventBusException.class, () ->
+                manager.publishInTransaction("missing", EventModel.build("order", new TestEvent()), localTransaction));
+    }
+}
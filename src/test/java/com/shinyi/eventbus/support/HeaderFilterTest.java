@@ -0,0 +1,70 @@
+package com.shinyi.eventbus.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HeaderFilterTest {
+
+    private static Map<String, String> headers(String... pairs) {
+        Map<String, String> headers = new HashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            headers.put(pairs[i], pairs[i + 1]);
+        }
+        return headers;
+    }
+
+    private static boolean matches(String expression, Map<String, String> headers) {
+        return HeaderFilter.compile(expression).matches(headers::get);
+    }
+
+    @Test
+    public void testBlank_shouldMatchAll() {
+        assertTrue(HeaderFilter.compile(null).isMatchAll());
+        assertTrue(HeaderFilter.compile("  ").isMatchAll());
+        assertSame(HeaderFilter.matchAll(), HeaderFilter.compile(""));
+        assertTrue(matches("", headers()));
+    }
+
+    @Test
+    public void testComparisons() {
+        Map<String, String> order = headers("type", "order", "region", "cn");
+        assertTrue(matches("type == 'order'", order));
+        assertFalse(matches("type == \"refund\"", order));
+        assertTrue(matches("type != 'refund'", order));
+        assertTrue(matches("missing != 'x'", order));
+        assertTrue(matches("region in ('cn', 'sg')", order));
+        assertFalse(matches("region in ('us')", order));
+        assertFalse(matches("missing in ('cn')", order));
+        assertTrue(matches("region", order));
+        assertFalse(matches("priority", order));
+    }
+
+    @Test
+    public void testBooleanOperators_shouldFollowPrecedence() {
+        Map<String, String> order = headers("type", "order", "region", "cn");
+        assertTrue(matches("type == 'refund' || type == 'order' && region == 'cn'", order));
+        assertFalse(matches("(type == 'refund' || type == 'order') && region == 'sg'", order));
+        assertTrue(matches("!(region == 'sg')", order));
+        assertFalse(matches("!region", order));
+        assertTrue(matches("eventbus-group == 'g1' || index", headers("index", "1")));
+    }
+
+    @Test
+    public void testCompile_shouldCacheByExpression() {
+        assertSame(HeaderFilter.compile("type == 'order'"), HeaderFilter.compile(" type == 'order' "));
+    }
+
+    @Test
+    public void testInvalidExpression_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> HeaderFilter.compile("type =="));
+        assertThrows(IllegalArgumentException.class, () -> HeaderFilter.compile("type == order"));
+        assertThrows(IllegalArgumentException.class, () -> HeaderFilter.compile("type == 'order"));
+        assertThrows(IllegalArgumentException.class, () -> HeaderFilter.compile("(type == 'order'"));
+        assertThrows(IllegalArgumentException.class, () -> HeaderFilter.compile("type == 'a' &&"));
+        assertThrows(IllegalArgumentException.class, () -> HeaderFilter.compile("region in ()"));
+    }
+}
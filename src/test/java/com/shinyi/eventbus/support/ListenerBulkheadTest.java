@@ -0,0 +1,134 @@
+package com.shinyi.eventbus.support;
+
+import com.shinyi.eventbus.OverflowPolicy;
+import com.shinyi.eventbus.exception.EventBusException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ListenerBulkheadTest {
+
+    private ExecutorService sharedExecutor;
+
+    @BeforeEach
+    public void setUp() {
+        sharedExecutor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        sharedExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testExecute_shouldBoundParallelism() throws Exception {
+        ListenerBulkhead bulkhead = new ListenerBulkhead("test", 2, 100, OverflowPolicy.BLOCK, sharedExecutor);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(20);
+        for (int i = 0; i < 20; i++) {
+            bulkhead.execute(() -> {
+                maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                sleep(5);
+                active.decrementAndGet();
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(maxActive.get() <= 2);
+    }
+
+    @Test
+    public void testReject_shouldThrowWhenQueueFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ListenerBulkhead bulkhead = new ListenerBulkhead("test", 1, 1, OverflowPolicy.REJECT, sharedExecutor);
+        CountDownLatch started = new CountDownLatch(1);
+        bulkhead.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        bulkhead.execute(() -> { });
+
+        assertThrows(EventBusException.class, () -> bulkhead.execute(() -> { }));
+        release.countDown();
+    }
+
+    @Test
+    public void testDropOldest_shouldKeepNewestTasks() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        ListenerBulkhead bulkhead = new ListenerBulkhead("test", 1, 2, OverflowPolicy.DROP_OLDEST, sharedExecutor);
+        bulkhead.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        List<Integer> executed = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(2);
+        for (int i = 0; i < 4; i++) {
+            int value = i;
+            bulkhead.execute(() -> {
+                executed.add(value);
+                done.countDown();
+            });
+        }
+        release.countDown();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(2, executed.size());
+        assertEquals(2, executed.get(0));
+        assertEquals(3, executed.get(1));
+    }
+
+    @Test
+    public void testCallerRuns_shouldRunOnCallerWhenQueueFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        ListenerBulkhead bulkhead = new ListenerBulkhead("test", 1, 1, OverflowPolicy.CALLER_RUNS, sharedExecutor);
+        bulkhead.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        bulkhead.execute(() -> { });
+
+        Thread caller = Thread.currentThread();
+        AtomicInteger ranOnCaller = new AtomicInteger();
+        bulkhead.execute(() -> {
+            if (Thread.currentThread() == caller) {
+                ranOnCaller.incrementAndGet();
+            }
+        });
+        release.countDown();
+
+        assertEquals(1, ranOnCaller.get());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.shinyi.eventbus.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventIdGeneratorTest {
+
+    @Test
+    public void testNextId_shouldBe32Hex() {
+        String id = EventIdGenerator.nextId();
+        assertEquals(32, id.length());
+        assertTrue(id.matches("[0-9a-f]{32}"));
+    }
+
+    @Test
+    public void testNextId_shouldBeUniqueAndOrdered() {
+        Set<String> ids = new HashSet<>();
+        String last = "";
+        for (int i = 0; i < 100000; i++) {
+            String id = EventIdGenerator.nextId();
+            assertTrue(id.compareTo(last) > 0);
+            assertTrue(ids.add(id));
+            last = id;
+        }
+    }
+}
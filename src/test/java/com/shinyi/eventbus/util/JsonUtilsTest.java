@@ -0,0 +1,73 @@
+package com.shinyi.eventbus.util;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.shinyi.eventbus.EventModel;
+import com.shinyi.eventbus.TestEvent;
+import com.shinyi.eventbus.serialize.EntityTypeDescriptor;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonUtilsTest {
+
+    private static TestEvent entity(String value) {
+        TestEvent entity = new TestEvent();
+        entity.setFieldTest(value);
+        return entity;
+    }
+
+    @Test
+    public void testToJsonBytes_shouldMatchStringAndEncodeUtf8() {
+        EventModel<TestEvent> event = EventModel.build("topic", entity("订单-ü"), "event-1", false);
+        byte[] bytes = JsonUtils.toJsonBytes(event);
+        assertArrayEquals(JsonUtils.toJsonString(event).getBytes(StandardCharsets.UTF_8), bytes);
+        // 复用缓冲后结果不受上一次输出影响
+        assertArrayEquals(JsonUtils.toJsonString(entity("a")).getBytes(StandardCharsets.UTF_8), JsonUtils.toJsonBytes(entity("a")));
+    }
+
+    @Test
+    public void testToJsonBytes_largePayload() {
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            value.append("0123456789");
+        }
+        byte[] bytes = JsonUtils.toJsonBytes(entity(value.toString()));
+        assertEquals(value.toString(), JsonUtils.<TestEvent>parseObject(bytes, JsonUtils.getTypeFactory().constructType(TestEvent.class)).getFieldTest());
+        assertArrayEquals(JsonUtils.toJsonString(entity("b")).getBytes(StandardCharsets.UTF_8), JsonUtils.toJsonBytes(entity("b")));
+    }
+
+    @Test
+    public void testParseObject_fromBytesBufferAndStream() {
+        EntityTypeDescriptor descriptor = EntityTypeDescriptor.of(TestEvent.class);
+        JavaType eventModelType = descriptor.getEventModelType();
+        byte[] bytes = JsonUtils.toJsonBytes(EventModel.build("topic", entity("订单"), "event-1", false));
+
+        EventModel<TestEvent> fromBytes = JsonUtils.parseObject(bytes, descriptor.getEventModelReader());
+        assertEquals("订单", fromBytes.getEntity().getFieldTest());
+        assertEquals("event-1", fromBytes.getEventId());
+
+        ByteBuffer heap = ByteBuffer.allocate(bytes.length + 4);
+        heap.put(new byte[]{1, 2});
+        heap.put(bytes);
+        heap.flip();
+        heap.position(2);
+        EventModel<TestEvent> fromHeap = JsonUtils.parseObject(heap, eventModelType);
+        assertEquals("订单", fromHeap.getEntity().getFieldTest());
+        assertEquals(2, heap.position());
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+        EventModel<TestEvent> fromDirect = JsonUtils.parseObject(direct, eventModelType);
+        assertEquals("订单", fromDirect.getEntity().getFieldTest());
+
+        EventModel<TestEvent> fromStream = JsonUtils.parseObject(new ByteArrayInputStream(bytes), eventModelType);
+        assertEquals("订单", fromStream.getEntity().getFieldTest());
+
+        assertNull(JsonUtils.parseObject(new byte[0], eventModelType));
+        assertSame(JsonUtils.readerFor(eventModelType), descriptor.getEventModelReader());
+    }
+}